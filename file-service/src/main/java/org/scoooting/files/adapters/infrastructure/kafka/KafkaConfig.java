@@ -24,6 +24,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String server;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private int concurrency;
+
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
@@ -47,6 +50,7 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
         return factory;
     }
@@ -0,0 +1,48 @@
+package org.scoooting.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.apache.kafka.common.header.Headers;
+import org.apache.kafka.common.serialization.Deserializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.util.Map;
+
+/**
+ * Reads {@link CompactFormat} payloads into the service's typed records via {@link #fromCompact};
+ * JSON payloads go to {@link JsonDeserializer} (configured by the usual spring.json.* consumer properties).
+ */
+public abstract class CompactDeserializer implements Deserializer<Object> {
+
+    private final JsonDeserializer<Object> json = new JsonDeserializer<>();
+
+    /**
+     * @throws SerializationException if the service doesn't consume this message (see {@link #unsupported})
+     */
+    protected abstract Object fromCompact(CompactMessage message);
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public Object deserialize(String topic, byte[] data) {
+        return CompactFormat.isCompact(data) ? fromCompact(CompactFormat.decode(data)) : json.deserialize(topic, data);
+    }
+
+    @Override
+    public Object deserialize(String topic, Headers headers, byte[] data) {
+        return CompactFormat.isCompact(data)
+                ? fromCompact(CompactFormat.decode(data))
+                : json.deserialize(topic, headers, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+
+    protected static SerializationException unsupported(CompactMessage message) {
+        return new SerializationException("Unsupported compact message: " + message.getClass().getSimpleName());
+    }
+}
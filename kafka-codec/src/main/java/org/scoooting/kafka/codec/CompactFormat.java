@@ -0,0 +1,106 @@
+package org.scoooting.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Compact binary encoding of {@link CompactMessage}s shared by rental-, transport- and notification-service.
+ *
+ * WIRE FORMAT (big-endian):
+ * [0]   MAGIC 0xC5 - JSON payloads always start with '{', so both formats can share a topic
+ * [1]   message tag
+ * [2..] fixed fields of the message:
+ *   1 TransportStatus      : long transportId, short length + UTF-8 status
+ *   2 TransportCoordinates : long transportId, double latitude, double longitude
+ *   3 BatteryNotification  : long userId, int battery
+ *   4 RentalEvent          : long userId, byte rentalType (0 START, 1 END, 2 CANCEL, 3 FORCE_END)
+ *
+ * WHY:
+ * - TransportCoordinates is 26 bytes instead of ~70 bytes of JSON
+ * - No reflection and no intermediate HashMap on either side
+ *
+ * Tags and field order are append-only: a new message gets a new tag, and a decoder ignores
+ * bytes after the fields it knows. Malformed input (unknown tag, truncated or negative length)
+ * is reported as {@link SerializationException}, which the listener containers treat as a
+ * poison record instead of a retriable failure.
+ */
+public final class CompactFormat {
+
+    public static final byte MAGIC = (byte) 0xC5;
+
+    public static final byte TRANSPORT_STATUS = 1;
+    public static final byte TRANSPORT_COORDINATES = 2;
+    public static final byte BATTERY_NOTIFICATION = 3;
+    public static final byte RENTAL_EVENT = 4;
+
+    private static final int HEADER_SIZE = 2;
+
+    private CompactFormat() {
+    }
+
+    public static boolean isCompact(byte[] data) {
+        return data != null && data.length > 1 && data[0] == MAGIC;
+    }
+
+    public static byte[] encode(CompactMessage message) {
+        return switch (message) {
+            case CompactMessage.TransportStatus m -> {
+                byte[] status = m.status().getBytes(StandardCharsets.UTF_8);
+                if (status.length > Short.MAX_VALUE) {
+                    throw new SerializationException("Status too long for compact format: " + status.length + " bytes");
+                }
+                yield header(TRANSPORT_STATUS, Long.BYTES + Short.BYTES + status.length)
+                        .putLong(m.transportId())
+                        .putShort((short) status.length)
+                        .put(status)
+                        .array();
+            }
+            case CompactMessage.TransportCoordinates m -> header(TRANSPORT_COORDINATES, Long.BYTES + 2 * Double.BYTES)
+                    .putLong(m.transportId())
+                    .putDouble(m.latitude())
+                    .putDouble(m.longitude())
+                    .array();
+            case CompactMessage.BatteryNotification m -> header(BATTERY_NOTIFICATION, Long.BYTES + Integer.BYTES)
+                    .putLong(m.userId())
+                    .putInt(m.battery())
+                    .array();
+            case CompactMessage.RentalEvent m -> header(RENTAL_EVENT, Long.BYTES + Byte.BYTES)
+                    .putLong(m.userId())
+                    .put(m.rentalType().code())
+                    .array();
+        };
+    }
+
+    /**
+     * @param data payload for which {@link #isCompact} is true
+     * @throws SerializationException on an unknown tag or a truncated message
+     */
+    public static CompactMessage decode(byte[] data) {
+        ByteBuffer buffer = ByteBuffer.wrap(data, HEADER_SIZE, data.length - HEADER_SIZE);
+        try {
+            return switch (data[1]) {
+                case TRANSPORT_STATUS -> {
+                    long transportId = buffer.getLong();
+                    byte[] status = new byte[buffer.getShort()];
+                    buffer.get(status);
+                    yield new CompactMessage.TransportStatus(transportId, new String(status, StandardCharsets.UTF_8));
+                }
+                case TRANSPORT_COORDINATES -> new CompactMessage.TransportCoordinates(
+                        buffer.getLong(), buffer.getDouble(), buffer.getDouble());
+                case BATTERY_NOTIFICATION -> new CompactMessage.BatteryNotification(buffer.getLong(), buffer.getInt());
+                case RENTAL_EVENT -> new CompactMessage.RentalEvent(
+                        buffer.getLong(), CompactMessage.RentalType.fromCode(buffer.get()));
+                default -> throw new SerializationException("Unsupported compact message tag: " + data[1]);
+            };
+        } catch (BufferUnderflowException | NegativeArraySizeException e) {
+            throw new SerializationException("Truncated compact message, tag " + data[1], e);
+        }
+    }
+
+    private static ByteBuffer header(byte tag, int bodySize) {
+        return ByteBuffer.allocate(HEADER_SIZE + bodySize).put(MAGIC).put(tag);
+    }
+}
@@ -0,0 +1,47 @@
+package org.scoooting.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+
+/**
+ * Messages that have a compact binary form, one record per message tag of {@link CompactFormat}.
+ *
+ * Services map their own DTOs to and from these records, so the wire format lives in one place
+ * while every service keeps its DTO packages.
+ */
+public sealed interface CompactMessage {
+
+    record TransportStatus(long transportId, String status) implements CompactMessage {}
+
+    record TransportCoordinates(long transportId, double latitude, double longitude) implements CompactMessage {}
+
+    record BatteryNotification(long userId, int battery) implements CompactMessage {}
+
+    record RentalEvent(long userId, RentalType rentalType) implements CompactMessage {}
+
+    /**
+     * Explicit codes, not ordinal(): reordering the enum must not change the wire format.
+     * Service enums are mapped by name.
+     */
+    enum RentalType {
+        START(0), END(1), CANCEL(2), FORCE_END(3);
+
+        private final byte code;
+
+        RentalType(int code) {
+            this.code = (byte) code;
+        }
+
+        public byte code() {
+            return code;
+        }
+
+        public static RentalType fromCode(byte code) {
+            for (RentalType type : values()) {
+                if (type.code == code) {
+                    return type;
+                }
+            }
+            throw new SerializationException("Unknown rental type code: " + code);
+        }
+    }
+}
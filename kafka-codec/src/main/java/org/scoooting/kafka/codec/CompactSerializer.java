@@ -0,0 +1,36 @@
+package org.scoooting.kafka.codec;
+
+import org.apache.kafka.common.serialization.Serializer;
+import org.springframework.kafka.support.serializer.JsonSerializer;
+
+import java.util.Map;
+
+/**
+ * Writes the messages a service maps in {@link #toCompact} in the {@link CompactFormat},
+ * everything else as JSON without type headers (consumers read it into their default type).
+ */
+public abstract class CompactSerializer implements Serializer<Object> {
+
+    private final JsonSerializer<Object> json = new JsonSerializer<>().noTypeInfo();
+
+    /**
+     * @return compact form of the payload, or null to send it as JSON
+     */
+    protected abstract CompactMessage toCompact(Object data);
+
+    @Override
+    public void configure(Map<String, ?> configs, boolean isKey) {
+        json.configure(configs, isKey);
+    }
+
+    @Override
+    public byte[] serialize(String topic, Object data) {
+        CompactMessage message = data == null ? null : toCompact(data);
+        return message != null ? CompactFormat.encode(message) : json.serialize(topic, data);
+    }
+
+    @Override
+    public void close() {
+        json.close();
+    }
+}
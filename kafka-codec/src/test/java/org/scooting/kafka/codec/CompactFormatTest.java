@@ -0,0 +1,163 @@
+package org.scooting.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.Test;
+import org.scoooting.kafka.codec.CompactFormat;
+import org.scoooting.kafka.codec.CompactMessage;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactFormatTest {
+
+    @Test
+    void encodeDecode_TransportStatus_RoundTrips() {
+        // Arrange
+        CompactMessage message = new CompactMessage.TransportStatus(42L, "IN_USE");
+
+        // Act
+        byte[] data = CompactFormat.encode(message);
+
+        // Assert
+        assertTrue(CompactFormat.isCompact(data));
+        assertEquals(CompactFormat.TRANSPORT_STATUS, data[1]);
+        assertEquals(message, CompactFormat.decode(data));
+    }
+
+    @Test
+    void encodeDecode_NonAsciiStatus_RoundTrips() {
+        // Arrange
+        CompactMessage message = new CompactMessage.TransportStatus(1L, "ЗАНЯТ");
+
+        // Act & Assert
+        assertEquals(message, CompactFormat.decode(CompactFormat.encode(message)));
+    }
+
+    @Test
+    void encodeDecode_TransportCoordinates_RoundTripsIn26Bytes() {
+        // Arrange
+        CompactMessage message = new CompactMessage.TransportCoordinates(7L, 59.9386, 30.3141);
+
+        // Act
+        byte[] data = CompactFormat.encode(message);
+
+        // Assert
+        assertEquals(26, data.length);
+        assertEquals(message, CompactFormat.decode(data));
+    }
+
+    @Test
+    void encodeDecode_BatteryNotification_RoundTrips() {
+        // Arrange
+        CompactMessage message = new CompactMessage.BatteryNotification(5L, 12);
+
+        // Act & Assert
+        assertEquals(message, CompactFormat.decode(CompactFormat.encode(message)));
+    }
+
+    @Test
+    void encodeDecode_EveryRentalType_RoundTrips() {
+        for (CompactMessage.RentalType type : CompactMessage.RentalType.values()) {
+            // Arrange
+            CompactMessage message = new CompactMessage.RentalEvent(3L, type);
+
+            // Act & Assert
+            assertEquals(message, CompactFormat.decode(CompactFormat.encode(message)));
+        }
+    }
+
+    @Test
+    void rentalTypeCodes_AreFixed() {
+        // Act & Assert
+        assertEquals(0, CompactMessage.RentalType.START.code());
+        assertEquals(1, CompactMessage.RentalType.END.code());
+        assertEquals(2, CompactMessage.RentalType.CANCEL.code());
+        assertEquals(3, CompactMessage.RentalType.FORCE_END.code());
+    }
+
+    @Test
+    void isCompact_JsonNullAndHeaderOnly_AreNotCompact() {
+        // Act & Assert
+        assertFalse(CompactFormat.isCompact("{\"transportId\":1}".getBytes(StandardCharsets.UTF_8)));
+        assertFalse(CompactFormat.isCompact(null));
+        assertFalse(CompactFormat.isCompact(new byte[]{CompactFormat.MAGIC}));
+    }
+
+    @Test
+    void decode_TruncatedMessage_ThrowsSerializationException() {
+        // Arrange
+        byte[] data = CompactFormat.encode(new CompactMessage.TransportCoordinates(7L, 59.9, 30.3));
+        byte[] truncated = Arrays.copyOf(data, data.length - 1);
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> CompactFormat.decode(truncated));
+    }
+
+    @Test
+    void decode_StatusLongerThanPayload_ThrowsSerializationException() {
+        // Arrange
+        byte[] data = ByteBuffer.allocate(2 + Long.BYTES + Short.BYTES + 2)
+                .put(CompactFormat.MAGIC).put(CompactFormat.TRANSPORT_STATUS)
+                .putLong(1L).putShort((short) 100).put((byte) 'O').put((byte) 'K')
+                .array();
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> CompactFormat.decode(data));
+    }
+
+    @Test
+    void decode_NegativeStatusLength_ThrowsSerializationException() {
+        // Arrange
+        byte[] data = ByteBuffer.allocate(2 + Long.BYTES + Short.BYTES)
+                .put(CompactFormat.MAGIC).put(CompactFormat.TRANSPORT_STATUS)
+                .putLong(1L).putShort((short) -1)
+                .array();
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> CompactFormat.decode(data));
+    }
+
+    @Test
+    void decode_UnknownTag_ThrowsSerializationException() {
+        // Arrange
+        byte[] data = {CompactFormat.MAGIC, 99, 0, 0};
+
+        // Act & Assert
+        SerializationException e = assertThrows(SerializationException.class, () -> CompactFormat.decode(data));
+        assertTrue(e.getMessage().contains("99"));
+    }
+
+    @Test
+    void decode_UnknownRentalTypeCode_ThrowsSerializationException() {
+        // Arrange
+        byte[] data = ByteBuffer.allocate(2 + Long.BYTES + Byte.BYTES)
+                .put(CompactFormat.MAGIC).put(CompactFormat.RENTAL_EVENT)
+                .putLong(3L).put((byte) 9)
+                .array();
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> CompactFormat.decode(data));
+    }
+
+    @Test
+    void decode_TrailingBytes_AreIgnored() {
+        // Arrange
+        byte[] data = CompactFormat.encode(new CompactMessage.BatteryNotification(5L, 12));
+        byte[] extended = Arrays.copyOf(data, data.length + 4);
+
+        // Act & Assert
+        assertEquals(new CompactMessage.BatteryNotification(5L, 12), CompactFormat.decode(extended));
+    }
+
+    @Test
+    void encode_StatusTooLong_ThrowsSerializationException() {
+        // Arrange
+        CompactMessage message = new CompactMessage.TransportStatus(1L, "A".repeat(Short.MAX_VALUE + 1));
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> CompactFormat.encode(message));
+    }
+}
@@ -0,0 +1,91 @@
+package org.scooting.kafka.codec;
+
+import org.apache.kafka.common.errors.SerializationException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.scoooting.kafka.codec.CompactDeserializer;
+import org.scoooting.kafka.codec.CompactFormat;
+import org.scoooting.kafka.codec.CompactMessage;
+import org.scoooting.kafka.codec.CompactSerializer;
+import org.springframework.kafka.support.serializer.JsonDeserializer;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CompactSerializerTest {
+
+    record Battery(long userId, int battery) {}
+
+    record Bonus(Long userId, Integer amount) {}
+
+    private final CompactSerializer serializer = new CompactSerializer() {
+        @Override
+        protected CompactMessage toCompact(Object data) {
+            return data instanceof Battery b ? new CompactMessage.BatteryNotification(b.userId(), b.battery()) : null;
+        }
+    };
+
+    private final CompactDeserializer deserializer = new CompactDeserializer() {
+        @Override
+        protected Object fromCompact(CompactMessage message) {
+            if (message instanceof CompactMessage.BatteryNotification m) {
+                return new Battery(m.userId(), m.battery());
+            }
+            throw unsupported(message);
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        serializer.configure(Map.of(), false);
+        deserializer.configure(Map.of(
+                JsonDeserializer.VALUE_DEFAULT_TYPE, Bonus.class.getName(),
+                JsonDeserializer.TRUSTED_PACKAGES, "*"), false);
+    }
+
+    @Test
+    void serialize_MappedMessage_RoundTripsInCompactFormat() {
+        // Act
+        byte[] data = serializer.serialize("battery", new Battery(5L, 12));
+
+        // Assert
+        assertTrue(CompactFormat.isCompact(data));
+        assertEquals(new Battery(5L, 12), deserializer.deserialize("battery", data));
+    }
+
+    @Test
+    void serialize_UnmappedMessage_FallsBackToJson() {
+        // Act
+        byte[] data = serializer.serialize("bonuses", new Bonus(5L, 100));
+
+        // Assert
+        assertEquals('{', data[0]);
+        assertEquals(new Bonus(5L, 100), deserializer.deserialize("bonuses", data));
+    }
+
+    @Test
+    void serialize_Null_IsNull() {
+        // Act & Assert
+        assertNull(serializer.serialize("bonuses", null));
+    }
+
+    @Test
+    void deserialize_CompactMessageTheServiceDoesNotConsume_ThrowsSerializationException() {
+        // Arrange
+        byte[] data = CompactFormat.encode(new CompactMessage.TransportStatus(1L, "AVAILABLE"));
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("transport-commands", data));
+    }
+
+    @Test
+    void deserialize_MalformedJson_ThrowsSerializationException() {
+        // Arrange
+        byte[] data = "{not json".getBytes(StandardCharsets.UTF_8);
+
+        // Act & Assert
+        assertThrows(SerializationException.class, () -> deserializer.deserialize("bonuses", data));
+    }
+}
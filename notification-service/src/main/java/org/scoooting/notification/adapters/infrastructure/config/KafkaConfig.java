@@ -2,6 +2,7 @@ package org.scoooting.notification.adapters.infrastructure.config;
 
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.scoooting.notification.adapters.infrastructure.kafka.CompactKafkaDeserializer;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
@@ -21,6 +22,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String server;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private int concurrency;
+
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
@@ -30,7 +34,8 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, server);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // Typed records for compact messages, HashMap for JSON ones
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactKafkaDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.util.HashMap");
 
@@ -42,6 +47,7 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         return factory;
     }
 }
@@ -0,0 +1,23 @@
+package org.scoooting.notification.adapters.infrastructure.kafka;
+
+import org.scoooting.kafka.codec.CompactDeserializer;
+import org.scoooting.kafka.codec.CompactMessage;
+import org.scoooting.notification.adapters.interfaces.dto.BatteryNotificationDto;
+import org.scoooting.notification.adapters.interfaces.dto.RentalEventDto;
+
+/**
+ * Reads compact battery and rental events straight into typed records; JSON payloads go to the
+ * JsonDeserializer of {@link CompactDeserializer}.
+ */
+public class CompactKafkaDeserializer extends CompactDeserializer {
+
+    @Override
+    protected Object fromCompact(CompactMessage message) {
+        return switch (message) {
+            case CompactMessage.BatteryNotification m -> new BatteryNotificationDto(m.userId(), m.battery());
+            case CompactMessage.RentalEvent m ->
+                    new RentalEventDto(m.userId(), RentalEventDto.RentalType.valueOf(m.rentalType().name()));
+            default -> throw unsupported(message);
+        };
+    }
+}
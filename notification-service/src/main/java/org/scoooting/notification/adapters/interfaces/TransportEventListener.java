@@ -9,8 +9,6 @@ import org.scoooting.notification.application.usecase.TransportEnergyUseCase;
 import org.springframework.kafka.annotation.KafkaListener;
 import org.springframework.stereotype.Component;
 
-import java.util.HashMap;
-
 @Component
 @RequiredArgsConstructor
 public class TransportEventListener {
@@ -20,14 +18,18 @@ public class TransportEventListener {
     private final RentalEventUseCase rentalEventUseCase;
 
     @KafkaListener(topics = "transport-battery", groupId = "notification-service")
-    public void batteryChangeListener(HashMap<String, Object> message) {
-        BatteryNotificationDto batteryDto = mapper.convertValue(message, BatteryNotificationDto.class);
+    public void batteryChangeListener(Object message) {
+        BatteryNotificationDto batteryDto = message instanceof BatteryNotificationDto dto
+                ? dto
+                : mapper.convertValue(message, BatteryNotificationDto.class);
         transportEnergyUseCase.handle(batteryDto.userId(), batteryDto.battery());
     }
 
     @KafkaListener(topics = "rental-events")
-    public void rentalEventListener(HashMap<String, Object> message) {
-        RentalEventDto rentalEventDto = mapper.convertValue(message, RentalEventDto.class);
+    public void rentalEventListener(Object message) {
+        RentalEventDto rentalEventDto = message instanceof RentalEventDto dto
+                ? dto
+                : mapper.convertValue(message, RentalEventDto.class);
         rentalEventUseCase.handle(rentalEventDto.userId(), rentalEventDto.rentalType());
     }
 
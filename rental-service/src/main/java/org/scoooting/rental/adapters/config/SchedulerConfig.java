@@ -0,0 +1,46 @@
+package org.scoooting.rental.adapters.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.util.concurrent.Executors;
+
+/**
+ * Scheduler for the calls that are still blocking (Feign clients to transport/user/file services).
+ *
+ * EXECUTION MODES (rental.blocking.execution-mode):
+ * - virtual (default): one Java 21 virtual thread per call.
+ *   A parked Feign call costs a few KB of heap instead of a platform thread,
+ *   so thousands of concurrent end-rental requests don't queue behind a thread cap
+ * - bounded-elastic: Reactor's shared pool (10 x CPU threads, then a task queue)
+ *
+ * Database access is reactive (R2DBC), so only remote calls ever run here.
+ */
+@Slf4j
+@Configuration
+public class SchedulerConfig {
+
+    public static final String VIRTUAL = "virtual";
+    public static final String BOUNDED_ELASTIC = "bounded-elastic";
+
+    @Bean(destroyMethod = "dispose")
+    public Scheduler blockingScheduler(
+            @Value("${rental.blocking.execution-mode:" + VIRTUAL + "}") String executionMode) {
+        log.info("Blocking calls execution mode: {}", executionMode);
+        return switch (executionMode) {
+            case VIRTUAL -> Schedulers.fromExecutorService(
+                    Executors.newVirtualThreadPerTaskExecutor(), "rental-virtual");
+            case BOUNDED_ELASTIC -> Schedulers.newBoundedElastic(
+                    Schedulers.DEFAULT_BOUNDED_ELASTIC_SIZE,
+                    Schedulers.DEFAULT_BOUNDED_ELASTIC_QUEUESIZE,
+                    "rental-blocking");
+            default -> throw new IllegalArgumentException(
+                    "Unknown rental.blocking.execution-mode: " + executionMode
+                            + " (expected " + VIRTUAL + " or " + BOUNDED_ELASTIC + ")");
+        };
+    }
+}
@@ -8,13 +8,22 @@ import org.scoooting.rental.application.ports.NotificationSender;
 import org.scoooting.rental.application.ports.ReportSender;
 import org.scoooting.rental.application.ports.TransportClient;
 import org.scoooting.rental.application.ports.UserClient;
+import org.scoooting.rental.application.services.IdempotencyCache;
+import org.scoooting.rental.application.usecase.idempotency.IdempotencyUseCase;
 import org.scoooting.rental.application.usecase.rentals.*;
 import org.scoooting.rental.application.usecase.sendings.SendNotificationUseCase;
 import org.scoooting.rental.application.usecase.sendings.SendReportUseCase;
+import org.scoooting.rental.domain.repositories.IdempotencyRepository;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.scoooting.rental.domain.repositories.TrackRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
 
 @Configuration
 public class UseCaseConfig {
@@ -24,45 +33,63 @@ public class UseCaseConfig {
                                                    RentalStatusRepository rentalStatusRepository,
                                                    TransportClient transportClient,
                                                    TransportPublisher transportPublisher,
-                                                   RentalMapper rentalMapper) {
+                                                   RentalMapper rentalMapper,
+                                                   TransactionalOperator transactionalOperator,
+                                                   Scheduler blockingScheduler) {
         return new CancelRentalUseCase(rentalRepository, rentalStatusRepository,
-                transportClient, transportPublisher, rentalMapper);
+                transportClient, transportPublisher, rentalMapper, transactionalOperator, blockingScheduler);
     }
 
     @Bean
     public EndRentalUseCase endRentalUseCase(RentalRepository rentalRepository,
                                              RentalStatusRepository rentalStatusRepository,
+                                             TrackRepository trackRepository,
                                              TransportClient transportClient,
                                              TransportPublisher transportPublisher,
                                              UserPublisher userPublisher,
                                              ResilientFileClient fileClient,
-                                             RentalMapper rentalMapper) {
-        return new EndRentalUseCase(rentalRepository, rentalStatusRepository,
-                transportClient, transportPublisher, userPublisher,rentalMapper, fileClient);
+                                             RentalMapper rentalMapper,
+                                             TransactionalOperator transactionalOperator,
+                                             Scheduler blockingScheduler) {
+        return new EndRentalUseCase(rentalRepository, rentalStatusRepository, trackRepository,
+                transportClient, transportPublisher, userPublisher, rentalMapper, fileClient,
+                transactionalOperator, blockingScheduler);
     }
 
     @Bean
     public ForceEndRentalUseCase forceEndRentalUseCase(RentalRepository rentalRepository,
                                                        RentalStatusRepository rentalStatusRepository,
+                                                       TrackRepository trackRepository,
                                                        TransportClient transportClient,
                                                        UserClient userClient,
                                                        TransportPublisher transportPublisher,
                                                        UserPublisher userPublisher,
-                                                       RentalMapper rentalMapper) {
-        return new ForceEndRentalUseCase(rentalRepository, rentalStatusRepository,
-                transportClient, userClient, transportPublisher, userPublisher, rentalMapper);
+                                                       RentalMapper rentalMapper,
+                                                       TransactionalOperator transactionalOperator,
+                                                       Scheduler blockingScheduler) {
+        return new ForceEndRentalUseCase(rentalRepository, rentalStatusRepository, trackRepository,
+                transportClient, userClient, transportPublisher, userPublisher, rentalMapper,
+                transactionalOperator, blockingScheduler);
     }
 
     @Bean
     public GetActiveRentalUseCase getActiveRentalUseCase(RentalRepository rentalRepository,
-                                                         RentalMapper rentalMapper) {
-        return new GetActiveRentalUseCase(rentalRepository, rentalMapper);
+                                                         RentalMapper rentalMapper,
+                                                         TransactionalOperator transactionalOperator) {
+        return new GetActiveRentalUseCase(rentalRepository, rentalMapper, transactionalOperator);
     }
 
     @Bean
     public RentalHistoryUseCase rentalHistoryUseCase(RentalRepository rentalRepository,
-                                                     RentalMapper rentalMapper) {
-        return new RentalHistoryUseCase(rentalRepository, rentalMapper);
+                                                     RentalMapper rentalMapper,
+                                                     TransactionalOperator transactionalOperator) {
+        return new RentalHistoryUseCase(rentalRepository, rentalMapper, transactionalOperator);
+    }
+
+    @Bean
+    public RentalTrackUseCase rentalTrackUseCase(RentalRepository rentalRepository,
+                                                 TrackRepository trackRepository) {
+        return new RentalTrackUseCase(rentalRepository, trackRepository);
     }
 
     @Bean
@@ -70,9 +97,11 @@ public class UseCaseConfig {
                                                  RentalStatusRepository rentalStatusRepository,
                                                  TransportClient transportClient,
                                                  TransportPublisher transportPublisher,
-                                                 RentalMapper rentalMapper) {
+                                                 RentalMapper rentalMapper,
+                                                 TransactionalOperator transactionalOperator,
+                                                 Scheduler blockingScheduler) {
         return new StartRentalUseCase(rentalRepository, rentalStatusRepository,
-                transportClient, transportPublisher, rentalMapper);
+                transportClient, transportPublisher, rentalMapper, transactionalOperator, blockingScheduler);
     }
 
     @Bean
@@ -84,4 +113,18 @@ public class UseCaseConfig {
     public SendReportUseCase sendReportUseCase(ReportSender reportSender) {
         return new SendReportUseCase(reportSender);
     }
-}
\ No newline at end of file
+
+    @Bean
+    public IdempotencyCache idempotencyCache(@Value("${rental.idempotency.cache-size:10000}") int maxEntries,
+                                             @Value("${rental.idempotency.retention:P1D}") Duration retention) {
+        return new IdempotencyCache(maxEntries, retention);
+    }
+
+    @Bean
+    public IdempotencyUseCase idempotencyUseCase(IdempotencyRepository idempotencyRepository,
+                                                 IdempotencyCache idempotencyCache,
+                                                 @Value("${rental.idempotency.in-progress-timeout:PT1M}") Duration inProgressTimeout,
+                                                 @Value("${rental.idempotency.retention:P1D}") Duration retention) {
+        return new IdempotencyUseCase(idempotencyRepository, idempotencyCache, inProgressTimeout, retention);
+    }
+}
@@ -136,6 +136,30 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.SERVICE_UNAVAILABLE).body(error));  // 503!
     }
 
+    @ExceptionHandler(TransportNotAvailableException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleTransportNotAvailable(TransportNotAvailableException ex) {
+        log.warn("Transport not available: {}", ex.getMessage());
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                ex.getMessage(),
+                "TRANSPORT_NOT_AVAILABLE",
+                LocalDateTime.now(),
+                null
+        );
+        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(error));
+    }
+
+    @ExceptionHandler(IdempotencyConflictException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleIdempotencyConflict(IdempotencyConflictException ex) {
+        log.warn("Idempotency conflict: {}", ex.getMessage());
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                ex.getMessage(),
+                "IDEMPOTENCY_CONFLICT",
+                LocalDateTime.now(),
+                null
+        );
+        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(error));
+    }
+
     @ExceptionHandler(IllegalStateException.class)
     public Mono<ResponseEntity<ErrorResponseDTO>> handleIllegalState(IllegalStateException ex) {
         log.error("Illegal state: {}", ex.getMessage());
@@ -148,6 +172,18 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.badRequest().body(error));
     }
 
+    @ExceptionHandler(IllegalArgumentException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleIllegalArgument(IllegalArgumentException ex) {
+        log.error("Illegal argument: {}", ex.getMessage());
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                ex.getMessage(),
+                "ILLEGAL_ARGUMENT",
+                LocalDateTime.now(),
+                null
+        );
+        return Mono.just(ResponseEntity.badRequest().body(error));
+    }
+
     @ExceptionHandler(DataNotFoundException.class)
     public Mono<ResponseEntity<ErrorResponseDTO>> handleDataNotFound(DataNotFoundException ex) {
         log.error("Data not found: {}", ex.getMessage());
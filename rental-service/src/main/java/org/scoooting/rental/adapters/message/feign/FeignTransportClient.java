@@ -13,4 +13,7 @@ public interface FeignTransportClient {
 
     @GetMapping("/{id}")
     ResponseEntity<TransportResponseDTO> getTransport(@PathVariable Long id);
+
+    @PostMapping("/{id}/acquire")
+    ResponseEntity<TransportResponseDTO> acquireTransport(@PathVariable Long id, @RequestParam Long userId);
 }
\ No newline at end of file
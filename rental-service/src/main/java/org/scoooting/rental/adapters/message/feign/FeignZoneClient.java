@@ -0,0 +1,15 @@
+package org.scoooting.rental.adapters.message.feign;
+
+import org.scoooting.rental.application.dto.ZoneCheckDTO;
+import org.springframework.cloud.openfeign.FeignClient;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+
+@FeignClient(name = "transport-service", contextId = "transportZones",
+        url = "${transport-service.url:}", path = "/api/zones")
+public interface FeignZoneClient {
+
+    @GetMapping("/check")
+    ResponseEntity<ZoneCheckDTO> checkZone(@RequestParam("lat") Double lat, @RequestParam("lng") Double lng);
+}
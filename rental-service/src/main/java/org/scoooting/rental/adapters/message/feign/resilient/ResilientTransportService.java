@@ -5,18 +5,25 @@ import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.scoooting.rental.adapters.message.feign.FeignTransportClient;
+import org.scoooting.rental.adapters.message.feign.FeignZoneClient;
 import org.scoooting.rental.application.dto.TransportResponseDTO;
+import org.scoooting.rental.application.dto.ZoneCheckDTO;
 import org.scoooting.rental.application.ports.TransportClient;
+import org.scoooting.rental.domain.exceptions.TransportNotAvailableException;
 import org.scoooting.rental.domain.exceptions.TransportNotFoundException;
 import org.scoooting.rental.domain.exceptions.TransportServiceException;
 import org.springframework.stereotype.Component;
 
+import java.util.List;
+import java.util.Set;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ResilientTransportService implements TransportClient {
 
     private final FeignTransportClient transportServiceApi;
+    private final FeignZoneClient zoneServiceApi;
 
     @CircuitBreaker(name = "transportService", fallbackMethod = "getTransportStatusIdFallback")
     public Long getTransportStatusId(String name) {
@@ -73,4 +80,62 @@ public class ResilientTransportService implements TransportClient {
 
         throw new TransportServiceException("Transport service unavailable", t);
     }
-}
\ No newline at end of file
+
+    /**
+     * Own breaker: 409 is the normal outcome of riders racing for one scooter, it is ignored
+     * by transportAcquire (see application.yml) and must not open the breaker of the other calls.
+     */
+    @CircuitBreaker(name = "transportAcquire", fallbackMethod = "acquireTransportFallback")
+    public TransportResponseDTO acquireTransport(Long id, Long userId) {
+        log.debug("Calling transport-service to acquire transportId: {} for userId: {}", id, userId);
+        try {
+            return transportServiceApi.acquireTransport(id, userId).getBody();
+        } catch (FeignException.Conflict e) {
+            throw new TransportNotAvailableException("Transport " + id + " is not available");
+        } catch (FeignException.NotFound e) {
+            log.error("Transport {} not found in transport-service", id);
+            throw new TransportNotFoundException("Transport with ID " + id + " not found");
+        } catch (FeignException e) {
+            log.error("Transport service unavailable: {}", e.getMessage());
+            throw new TransportServiceException("Transport service is currently unavailable");
+        }
+    }
+
+    public TransportResponseDTO acquireTransportFallback(Long id, Long userId, Throwable t) {
+        log.error("FALLBACK acquireTransport! transportId: {}, error: {}", id, t.getClass().getSimpleName());
+
+        if (t instanceof TransportNotAvailableException) {
+            throw (TransportNotAvailableException) t;
+        }
+
+        if (t instanceof TransportNotFoundException) {
+            throw (TransportNotFoundException) t;
+        }
+
+        if (t instanceof TransportServiceException) {
+            throw (TransportServiceException) t;
+        }
+
+        throw new TransportServiceException("Transport service unavailable", t);
+    }
+
+    @CircuitBreaker(name = "transportService", fallbackMethod = "checkZoneFallback")
+    public ZoneCheckDTO checkZone(Double lat, Double lng) {
+        log.debug("Calling transport-service for zones at ({}, {})", lat, lng);
+        try {
+            return zoneServiceApi.checkZone(lat, lng).getBody();
+        } catch (FeignException e) {
+            log.error("Transport service unavailable: {}", e.getMessage());
+            throw new TransportServiceException("Transport service is currently unavailable");
+        }
+    }
+
+    /**
+     * Fails open: an outage of transport-service must not keep users from ending rentals
+     * (and paying by the minute). Parking violations are then caught by operators.
+     */
+    public ZoneCheckDTO checkZoneFallback(Double lat, Double lng, Throwable t) {
+        log.warn("FALLBACK checkZone! point: ({}, {}), error: {}", lat, lng, t.getClass().getSimpleName());
+        return new ZoneCheckDTO(true, null, List.of(), Set.of());
+    }
+}
@@ -2,16 +2,22 @@ package org.scoooting.rental.adapters.message.kafka;
 
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
+import org.apache.kafka.clients.producer.ProducerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.scoooting.rental.adapters.message.kafka.codec.CompactKafkaSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
+import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
+import java.time.Duration;
 import java.util.HashMap;
 import java.util.Map;
 
@@ -23,10 +29,16 @@ public class KafkaConfig {
     public static final String RENTAL_EVENTS_TOPIC = "rental-events";
     public static final String TRANSPORT_COMMANDS_TOPIC = "transport-commands";
     public static final String USER_COMMANDS_TOPIC = "user-commands";
+    public static final String TRANSPORT_POSITIONS_TOPIC = "transport-positions";
+
+    public static final String BATCH_LISTENER_FACTORY = "batchKafkaListenerContainerFactory";
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String server;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private int concurrency;
+
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
@@ -48,9 +60,56 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
+        return factory;
+    }
+
+    /**
+     * Batch listener: the whole poll (up to max.poll.records) is handed to the listener at once,
+     * offsets are committed once per batch after the listener has returned.
+     * Used for high-volume topics (transport-positions).
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory() {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
         return factory;
     }
 
+    /**
+     * Transport commands and rental events are sent in the compact binary format,
+     * other messages stay JSON (see {@link CompactKafkaSerializer}).
+     */
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer compactValueSerializerCustomizer() {
+        return producerFactory -> ((DefaultKafkaProducerFactory<String, Object>) producerFactory)
+                .setValueSerializerSupplier(CompactKafkaSerializer::new);
+    }
+
+    /**
+     * Bounds how long a send can take, so OutboxRelay finishes a batch within its lease:
+     * - send() blocks for metadata or buffer space for at most max-block
+     * - a record is given up (acked with an error) after send-timeout, so nothing is
+     *   still retried by the producer once the relay has failed the batch
+     */
+    @Bean
+    public DefaultKafkaProducerFactoryCustomizer producerTimeoutsCustomizer(
+            @Value("${rental.outbox.max-block:PT5S}") Duration maxBlock,
+            @Value("${rental.outbox.send-timeout:PT10S}") Duration sendTimeout) {
+        long deliveryTimeoutMs = sendTimeout.toMillis();
+        return producerFactory -> producerFactory.updateConfigs(Map.<String, Object>of(
+                ProducerConfig.MAX_BLOCK_MS_CONFIG, maxBlock.toMillis(),
+                ProducerConfig.DELIVERY_TIMEOUT_MS_CONFIG, (int) deliveryTimeoutMs,
+                // delivery.timeout.ms must cover linger.ms + request.timeout.ms
+                ProducerConfig.REQUEST_TIMEOUT_MS_CONFIG, (int) Math.min(30_000, deliveryTimeoutMs / 2)
+        ));
+    }
+
     /*
     * For each topic,
     * 3 partitions => parallel msg handling => bigger throughput
@@ -7,6 +7,9 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+/**
+ * Keyed by userId: a user's START is never delivered after the END of the same rental.
+ */
 @Component
 @RequiredArgsConstructor
 public class NotificationPublisher implements NotificationSender {
@@ -15,6 +18,7 @@ public class NotificationPublisher implements NotificationSender {
 
     @Override
     public Mono<Void> send(RentalEventDto rentalEventDto) {
-        return Mono.fromFuture(kafkaTemplate.send(KafkaConfig.RENTAL_EVENTS_TOPIC, rentalEventDto)).then();
+        return Mono.fromFuture(kafkaTemplate.send(KafkaConfig.RENTAL_EVENTS_TOPIC,
+                String.valueOf(rentalEventDto.userId()), rentalEventDto)).then();
     }
 }
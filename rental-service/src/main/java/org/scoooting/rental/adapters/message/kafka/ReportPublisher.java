@@ -8,6 +8,9 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+/**
+ * Keyed by userId: reports of one user are consumed by one file-service consumer, in rental order.
+ */
 @Component
 @RequiredArgsConstructor
 public class ReportPublisher implements ReportSender {
@@ -17,7 +20,7 @@ public class ReportPublisher implements ReportSender {
     @Override
     public Mono<Void> send(RentalResponseDTO rental, Long userId, String name, String email) {
         return Mono.fromFuture(
-                kafkaTemplate.send(KafkaConfig.REPORTS_DATA_TOPIC, ReportDataDTO.builder()
+                kafkaTemplate.send(KafkaConfig.REPORTS_DATA_TOPIC, String.valueOf(userId), ReportDataDTO.builder()
                 .rentalId(rental.getId())
                 .userId(userId)
                 .username(name)
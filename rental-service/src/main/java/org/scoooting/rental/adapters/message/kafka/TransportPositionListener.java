@@ -0,0 +1,79 @@
+package org.scoooting.rental.adapters.message.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.scoooting.rental.adapters.message.kafka.dto.TransportPositionDTO;
+import org.scoooting.rental.application.usecase.rentals.RentalTrackUseCase;
+import org.scoooting.rental.domain.model.TrackPoint;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.annotation.KafkaListener;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Consumes transport-positions in batches and records them into rental tracks.
+ *
+ * A whole poll is grouped by transport and recorded with two queries (see RentalTrackUseCase),
+ * so throughput is bounded by the poll size, not by the number of positions.
+ * A failed batch is logged and skipped: tracks are best effort, the rental itself is not affected.
+ *
+ * The listener blocks until the batch is recorded (or batchTimeout passes): offsets are committed
+ * when it returns, and the consumer thread is a Kafka container thread, not an event loop.
+ */
+@Component
+@Slf4j
+public class TransportPositionListener {
+
+    private final ObjectMapper mapper;
+    private final RentalTrackUseCase rentalTrackUseCase;
+    private final Duration batchTimeout;
+
+    public TransportPositionListener(ObjectMapper mapper, RentalTrackUseCase rentalTrackUseCase,
+                                     @Value("${rental.positions.batch-timeout:PT30S}") Duration batchTimeout) {
+        this.mapper = mapper;
+        this.rentalTrackUseCase = rentalTrackUseCase;
+        this.batchTimeout = batchTimeout;
+    }
+
+    @KafkaListener(
+            topics = KafkaConfig.TRANSPORT_POSITIONS_TOPIC,
+            groupId = "rental-service",
+            containerFactory = KafkaConfig.BATCH_LISTENER_FACTORY
+    )
+    public void handlePositions(List<ConsumerRecord<String, Object>> records) {
+        Map<Long, List<TrackPoint>> positions = new HashMap<>();
+        for (ConsumerRecord<String, Object> record : records) {
+            try {
+                TransportPositionDTO dto = mapper.convertValue(record.value(), TransportPositionDTO.class);
+                if (dto.transportId() == null || dto.latitude() == null || dto.longitude() == null || dto.ts() == null) {
+                    log.warn("Skipping incomplete position at partition={}, offset={}",
+                            record.partition(), record.offset());
+                    continue;
+                }
+                positions.computeIfAbsent(dto.transportId(), id -> new ArrayList<>())
+                        .add(new TrackPoint(Instant.ofEpochMilli(dto.ts()), dto.latitude(), dto.longitude()));
+            } catch (IllegalArgumentException e) {
+                log.error("Failed to parse position at partition={}, offset={}: {}",
+                        record.partition(), record.offset(), e.getMessage());
+            }
+        }
+
+        rentalTrackUseCase.recordPositions(positions)
+                .timeout(batchTimeout)
+                .doOnNext(recorded -> log.debug("Recorded {} of {} positions into rental tracks",
+                        recorded, records.size()))
+                .onErrorResume(e -> {
+                    log.error("Failed to record {} positions: {}", records.size(), e.getMessage());
+                    return Mono.empty();
+                })
+                .block();
+    }
+}
@@ -4,24 +4,30 @@ import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.scoooting.rental.adapters.message.kafka.dto.TransportCoordinatesDTO;
 import org.scoooting.rental.adapters.message.kafka.dto.TransportStatusDTO;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.scoooting.rental.adapters.message.outbox.OutboxWriter;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+/**
+ * Transport commands go through the outbox: subscribe inside the rental transaction,
+ * OutboxRelay delivers them to Kafka after COMMIT.
+ * Keyed by transportId: status and coordinates of one transport are consumed in order.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class TransportPublisher {
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
-    public void updateStatus(Long transportId, String status) {
+    public Mono<Void> updateStatus(Long transportId, String status) {
         log.info("Publishing transport status update: transportId={}, status={}", transportId, status);
-        kafkaTemplate.send(KafkaConfig.TRANSPORT_COMMANDS_TOPIC,
+        return outboxWriter.append(KafkaConfig.TRANSPORT_COMMANDS_TOPIC, transportId,
                 new TransportStatusDTO(transportId, status));
     }
 
-    public void updateCoordinates(Long transportId, Double lat, Double lng) {
+    public Mono<Void> updateCoordinates(Long transportId, Double lat, Double lng) {
         log.info("Publishing transport coordinates update: transportId={}", transportId);
-        kafkaTemplate.send(KafkaConfig.TRANSPORT_COMMANDS_TOPIC,
+        return outboxWriter.append(KafkaConfig.TRANSPORT_COMMANDS_TOPIC, transportId,
                 new TransportCoordinatesDTO(transportId, lat, lng));
     }
 }
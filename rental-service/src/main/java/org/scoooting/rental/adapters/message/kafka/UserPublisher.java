@@ -3,18 +3,23 @@ package org.scoooting.rental.adapters.message.kafka;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.scoooting.rental.adapters.message.kafka.dto.AwardBonusesDTO;
-import org.springframework.kafka.core.KafkaTemplate;
+import org.scoooting.rental.adapters.message.outbox.OutboxWriter;
 import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
 
+/**
+ * User commands go through the outbox, see {@link TransportPublisher}.
+ * Keyed by userId.
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class UserPublisher {
-    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final OutboxWriter outboxWriter;
 
-    public void awardBonuses(Long userId, Integer amount) {
+    public Mono<Void> awardBonuses(Long userId, Integer amount) {
         log.info("Publishing award bonuses: userId={}, amount={}", userId, amount);
-        kafkaTemplate.send(KafkaConfig.USER_COMMANDS_TOPIC,
+        return outboxWriter.append(KafkaConfig.USER_COMMANDS_TOPIC, userId,
                 new AwardBonusesDTO(userId, amount));
     }
 }
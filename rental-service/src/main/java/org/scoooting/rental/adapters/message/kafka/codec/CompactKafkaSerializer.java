@@ -0,0 +1,30 @@
+package org.scoooting.rental.adapters.message.kafka.codec;
+
+import org.scoooting.kafka.codec.CompactMessage;
+import org.scoooting.kafka.codec.CompactSerializer;
+import org.scoooting.rental.adapters.message.kafka.dto.RentalEventDto;
+import org.scoooting.rental.adapters.message.kafka.dto.TransportCoordinatesDTO;
+import org.scoooting.rental.adapters.message.kafka.dto.TransportStatusDTO;
+
+/**
+ * Transport commands and rental events are sent in the compact binary format (see kafka-codec's
+ * CompactFormat), everything else as JSON. Messages with missing fields fall back to JSON too.
+ */
+public class CompactKafkaSerializer extends CompactSerializer {
+
+    @Override
+    protected CompactMessage toCompact(Object data) {
+        if (data instanceof TransportCoordinatesDTO dto
+                && dto.transportId() != null && dto.latitude() != null && dto.longitude() != null) {
+            return new CompactMessage.TransportCoordinates(dto.transportId(), dto.latitude(), dto.longitude());
+        }
+        if (data instanceof TransportStatusDTO dto && dto.transportId() != null && dto.status() != null) {
+            return new CompactMessage.TransportStatus(dto.transportId(), dto.status());
+        }
+        if (data instanceof RentalEventDto dto && dto.rentalType() != null) {
+            return new CompactMessage.RentalEvent(dto.userId(),
+                    CompactMessage.RentalType.valueOf(dto.rentalType().name()));
+        }
+        return null;
+    }
+}
@@ -0,0 +1,8 @@
+package org.scoooting.rental.adapters.message.kafka.dto;
+
+/**
+ * Transport position applied by transport-service telemetry.
+ *
+ * @param ts device time of the measurement, epoch milliseconds
+ */
+public record TransportPositionDTO(Long transportId, Double latitude, Double longitude, Long ts) {}
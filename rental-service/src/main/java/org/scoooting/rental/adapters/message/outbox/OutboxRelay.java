@@ -0,0 +1,217 @@
+package org.scoooting.rental.adapters.message.outbox;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.common.errors.SerializationException;
+import org.scoooting.rental.adapters.message.kafka.dto.AwardBonusesDTO;
+import org.scoooting.rental.adapters.message.kafka.dto.TransportCoordinatesDTO;
+import org.scoooting.rental.adapters.message.kafka.dto.TransportStatusDTO;
+import org.scoooting.rental.adapters.persistence.entities.OutboxMessageEntity;
+import org.scoooting.rental.adapters.persistence.repositories.r2dbc.OutboxR2dbcRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Drains outbox_messages to Kafka.
+ *
+ * HOW one batch is relayed (no transaction spans the sends):
+ * 1. Take or renew the relay lease - one UPDATE of outbox_relay_lease
+ * 2. SELECT up to batch-size oldest pending messages
+ * 3. kafkaTemplate.send for the whole batch without waiting in between
+ *    (producer groups them into few requests)
+ * 4. Wait for all acks (up to send-timeout), then UPDATE published_at
+ *
+ * WHY a lease instead of FOR UPDATE SKIP LOCKED:
+ * - Row locks had to be held in an open transaction while waiting for Kafka acks
+ * - With several instances SKIP LOCKED hands consecutive messages of one key to different
+ *   instances, which send them concurrently: per-key order was lost
+ * - With the lease exactly one instance relays at a time and always in id order; the others
+ *   only try to take the lease. If the holder dies, another one takes over once the lease expires
+ * - A batch must end before the lease does, or a second instance could resend it concurrently.
+ *   send() may block for up to max-block before its ack wait starts, so:
+ *   - the producer's max.block.ms and delivery.timeout.ms are capped to max-block and
+ *     send-timeout (see KafkaConfig), nothing is left in flight after the relay gives up
+ *   - lease > max-block + send-timeout is checked at startup
+ *   - no send is started once it could block past lease - send-timeout;
+ *     the rest of the batch waits for the next round
+ *
+ * DELIVERY GUARANTEE:
+ * - At-least-once: if the relay dies between acks and the UPDATE, the batch is sent again
+ * - Consumers already tolerate repeats (status/coordinates updates are absolute values)
+ *
+ * DEAD LETTERS:
+ * - A message that can never be sent (unknown payload type, unreadable payload, value the
+ *   serializer rejects) is parked with dead_lettered_at and the reason in last_error,
+ *   so it neither blocks the queue nor disappears as "published"
+ * - Any other failure fails the batch, which is retried as a whole
+ *
+ * ORDERING:
+ * - Messages keep their key, so commands for one transport/user land in one partition
+ * - A batch is sent in id order, and the producer keeps that order within a partition
+ *
+ * LINGER:
+ * - When a batch comes back full, the next one is relayed immediately
+ * - Otherwise the relay sleeps linger-ms before polling again
+ */
+@Slf4j
+@Component
+public class OutboxRelay {
+
+    private static final Map<String, Class<?>> PAYLOAD_TYPES = Map.of(
+            TransportStatusDTO.class.getSimpleName(), TransportStatusDTO.class,
+            TransportCoordinatesDTO.class.getSimpleName(), TransportCoordinatesDTO.class,
+            AwardBonusesDTO.class.getSimpleName(), AwardBonusesDTO.class
+    );
+
+    /** Longest reason stored in last_error */
+    private static final int MAX_ERROR_LENGTH = 500;
+
+    private final OutboxR2dbcRepository outboxRepository;
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final ObjectMapper mapper;
+    private final String instanceId = UUID.randomUUID().toString();
+
+    private final int batchSize;
+    private final Duration sendTimeout;
+    private final Duration maxBlock;
+    private final Duration lease;
+    private final Duration retention;
+
+    public OutboxRelay(OutboxR2dbcRepository outboxRepository,
+                       KafkaTemplate<String, Object> kafkaTemplate,
+                       ObjectMapper mapper,
+                       @Value("${rental.outbox.batch-size:100}") int batchSize,
+                       @Value("${rental.outbox.send-timeout:PT10S}") Duration sendTimeout,
+                       @Value("${rental.outbox.max-block:PT5S}") Duration maxBlock,
+                       @Value("${rental.outbox.lease:PT30S}") Duration lease,
+                       @Value("${rental.outbox.retention:P1D}") Duration retention) {
+        if (lease.compareTo(maxBlock.plus(sendTimeout)) <= 0) {
+            throw new IllegalArgumentException(
+                    "rental.outbox.lease must be longer than rental.outbox.max-block + rental.outbox.send-timeout");
+        }
+        this.outboxRepository = outboxRepository;
+        this.kafkaTemplate = kafkaTemplate;
+        this.mapper = mapper;
+        this.batchSize = batchSize;
+        this.sendTimeout = sendTimeout;
+        this.maxBlock = maxBlock;
+        this.lease = lease;
+        this.retention = retention;
+    }
+
+    @Scheduled(fixedDelayString = "${rental.outbox.linger-ms:200}")
+    public void relay() {
+        try {
+            Integer relayed = relayBatch()
+                    .expand(sent -> sent == batchSize ? relayBatch() : Mono.empty())
+                    .reduce(0, Integer::sum)
+                    .block();
+            if (relayed != null && relayed > 0) {
+                log.debug("Relayed {} outbox messages", relayed);
+            }
+        } catch (Exception e) {
+            log.error("Outbox relay failed, will retry: {}", e.getMessage());
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${rental.outbox.cleanup-interval-ms:3600000}")
+    public void cleanup() {
+        try {
+            Integer deleted = outboxRepository.deletePublishedBefore(Instant.now().minus(retention)).block();
+            log.debug("Deleted {} published outbox messages", deleted);
+        } catch (Exception e) {
+            log.error("Outbox cleanup failed: {}", e.getMessage());
+        }
+    }
+
+    /**
+     * @return number of messages handled (sent or dead-lettered), 0 if another instance holds the lease
+     */
+    private Mono<Integer> relayBatch() {
+        return Mono.defer(() -> {
+            // taken before the UPDATE, so the deadline is never later than the lease in the database
+            long sendDeadline = System.nanoTime() + lease.minus(sendTimeout).toNanos();
+            return outboxRepository.acquireLease(instanceId, lease.toMillis())
+                    .flatMap(acquired -> acquired == 0
+                            ? Mono.just(0)
+                            : outboxRepository.findPending(batchSize)
+                                    .collectList()
+                                    .flatMap(batch -> relay(batch, sendDeadline)));
+        });
+    }
+
+    /**
+     * @param sendDeadline System.nanoTime() by which the last send() must have returned
+     */
+    private Mono<Integer> relay(List<OutboxMessageEntity> batch, long sendDeadline) {
+        if (batch.isEmpty()) {
+            return Mono.just(0);
+        }
+        List<Long> sent = new ArrayList<>();
+        Map<Long, String> deadLetters = new LinkedHashMap<>();
+        List<CompletableFuture<?>> acks = new ArrayList<>();
+        int handled = 0;
+        for (OutboxMessageEntity message : batch) {
+            if (handled > 0 && sendDeadline - System.nanoTime() < maxBlock.toNanos()) {
+                log.warn("Outbox relay lease running out, {} of {} messages left for the next batch",
+                        batch.size() - handled, batch.size());
+                break;
+            }
+            handled++;
+            try {
+                acks.add(kafkaTemplate.send(message.getTopic(), message.getMessageKey(), decode(message)));
+                sent.add(message.getId());
+            } catch (UnsendableMessageException | SerializationException e) {
+                log.error("Dead-lettering outbox message {}: {}", message.getId(), e.getMessage());
+                deadLetters.put(message.getId(), e.getMessage());
+            }
+        }
+
+        return Mono.fromFuture(CompletableFuture.allOf(acks.toArray(CompletableFuture[]::new)))
+                .timeout(sendTimeout)
+                .then(Flux.fromIterable(deadLetters.entrySet())
+                        .concatMap(dead -> outboxRepository.markDeadLettered(dead.getKey(), truncate(dead.getValue())))
+                        .then())
+                .then(sent.isEmpty() ? Mono.just(0) : outboxRepository.markPublished(sent))
+                .thenReturn(handled);
+    }
+
+    private Object decode(OutboxMessageEntity message) {
+        Class<?> type = PAYLOAD_TYPES.get(message.getPayloadType());
+        if (type == null) {
+            throw new UnsendableMessageException("unknown payload type " + message.getPayloadType());
+        }
+        try {
+            return mapper.readValue(message.getPayload(), type);
+        } catch (JsonProcessingException e) {
+            throw new UnsendableMessageException("unreadable payload: " + e.getOriginalMessage());
+        }
+    }
+
+    private static String truncate(String error) {
+        if (error == null) {
+            return null;
+        }
+        return error.length() <= MAX_ERROR_LENGTH ? error : error.substring(0, MAX_ERROR_LENGTH);
+    }
+
+    private static class UnsendableMessageException extends RuntimeException {
+        UnsendableMessageException(String message) {
+            super(message);
+        }
+    }
+}
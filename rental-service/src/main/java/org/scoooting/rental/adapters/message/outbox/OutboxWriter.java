@@ -0,0 +1,35 @@
+package org.scoooting.rental.adapters.message.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.scoooting.rental.adapters.persistence.entities.OutboxMessageEntity;
+import org.scoooting.rental.adapters.persistence.repositories.r2dbc.OutboxR2dbcRepository;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+/**
+ * Appends a Kafka message to the outbox table.
+ * Must be subscribed inside the caller's transaction - the message is committed (or rolled back)
+ * together with the business change.
+ */
+@Component
+@RequiredArgsConstructor
+public class OutboxWriter {
+
+    private final OutboxR2dbcRepository outboxRepository;
+    private final ObjectMapper mapper;
+
+    public Mono<Void> append(String topic, Object key, Object payload) {
+        return Mono.fromCallable(() -> OutboxMessageEntity.builder()
+                        .topic(topic)
+                        .messageKey(key == null ? null : key.toString())
+                        .payloadType(payload.getClass().getSimpleName())
+                        .payload(mapper.writeValueAsString(payload))
+                        .createdAt(Instant.now())
+                        .build())
+                .flatMap(outboxRepository::save)
+                .then();
+    }
+}
@@ -0,0 +1,37 @@
+package org.scoooting.rental.adapters.persistence.entities;
+
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.time.Instant;
+
+@Table("outbox_messages")
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class OutboxMessageEntity {
+
+    @Id
+    private Long id;
+
+    private String topic;
+
+    private String messageKey; // Kafka record key, null = round-robin
+
+    private String payloadType; // simple class name of the Kafka DTO
+
+    private String payload; // DTO as JSON
+
+    private Instant createdAt;
+
+    private Instant publishedAt;
+
+    private Instant deadLetteredAt; // set for messages that can never be sent
+
+    private String lastError;
+}
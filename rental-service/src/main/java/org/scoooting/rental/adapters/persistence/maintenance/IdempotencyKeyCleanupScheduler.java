@@ -0,0 +1,31 @@
+package org.scoooting.rental.adapters.persistence.maintenance;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.scoooting.rental.application.usecase.idempotency.IdempotencyUseCase;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+/**
+ * Deletes idempotency keys past retention. Idempotent, safe to run on every instance.
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class IdempotencyKeyCleanupScheduler {
+
+    private final IdempotencyUseCase idempotencyUseCase;
+
+    @Scheduled(
+            initialDelayString = "${rental.idempotency.cleanup-interval-ms:3600000}",
+            fixedDelayString = "${rental.idempotency.cleanup-interval-ms:3600000}"
+    )
+    public void deleteExpired() {
+        try {
+            Long deleted = idempotencyUseCase.deleteExpired().block();
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        } catch (Exception e) {
+            log.error("Idempotency key cleanup failed: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,68 @@
+package org.scoooting.rental.adapters.persistence.maintenance;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+/**
+ * Keeps the monthly partitions of rental_track_segments:
+ * - creates them ahead of time (current and next month), so segments never land in the default partition
+ * - drops the months older than retention-months as a whole
+ *
+ * Idempotent, safe to run on every instance.
+ */
+@Slf4j
+@Component
+public class RentalTrackPartitionScheduler {
+
+    private final DatabaseClient databaseClient;
+    private final int retentionMonths;
+
+    public RentalTrackPartitionScheduler(
+            DatabaseClient databaseClient,
+            @Value("${rental.track.retention-months:12}") int retentionMonths
+    ) {
+        if (retentionMonths < 1) {
+            throw new IllegalArgumentException("rental.track.retention-months must be at least 1");
+        }
+        this.databaseClient = databaseClient;
+        this.retentionMonths = retentionMonths;
+    }
+
+    @Scheduled(
+            initialDelayString = "${rental.track.partition-check-interval-ms:3600000}",
+            fixedDelayString = "${rental.track.partition-check-interval-ms:3600000}"
+    )
+    public void maintainPartitions() {
+        LocalDate today = LocalDate.now(ZoneOffset.UTC);
+        try {
+            Flux.just(today, today.plusMonths(1))
+                    .concatMap(month -> databaseClient.sql("SELECT create_rental_track_partition(:month)")
+                            .bind("month", month)
+                            .fetch()
+                            .rowsUpdated())
+                    .blockLast();
+        } catch (Exception e) {
+            log.error("Failed to create rental track partitions: {}", e.getMessage());
+        }
+
+        try {
+            Integer dropped = databaseClient.sql("SELECT drop_rental_track_partitions_before(:cutoff) AS dropped")
+                    .bind("cutoff", today.minusMonths(retentionMonths))
+                    .map((row, metadata) -> row.get("dropped", Integer.class))
+                    .one()
+                    .block();
+            if (dropped != null && dropped > 0) {
+                log.info("Rental track partitions dropped: {}", dropped);
+            }
+        } catch (Exception e) {
+            log.error("Failed to drop expired rental track partitions: {}", e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,116 @@
+package org.scoooting.rental.adapters.persistence.repositories.implementations;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.rental.domain.model.IdempotencyRecord;
+import org.scoooting.rental.domain.repositories.IdempotencyRepository;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+@Repository
+@RequiredArgsConstructor
+public class IdempotencyRepositoryImpl implements IdempotencyRepository {
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * INSERT ... ON CONFLICT DO UPDATE ... WHERE <stale in-progress claim> RETURNING
+     *
+     * A row comes back only if it was inserted or taken over; of concurrent duplicates
+     * exactly one gets it (the primary key serializes them), the others get nothing.
+     * A takeover replaces claim_id, which fences off the previous owner.
+     */
+    @Override
+    public Mono<Boolean> claim(Long userId, String key, String fingerprint, String claimId, Instant staleBefore) {
+        return databaseClient.sql("""
+                        INSERT INTO idempotency_keys (user_id, idempotency_key, fingerprint, claim_id)
+                        VALUES (:userId, :key, :fingerprint, :claimId)
+                        ON CONFLICT (user_id, idempotency_key) DO UPDATE
+                            SET fingerprint = EXCLUDED.fingerprint, claim_id = EXCLUDED.claim_id,
+                                created_at = now(), heartbeat_at = now()
+                            WHERE idempotency_keys.completed_at IS NULL
+                              AND idempotency_keys.heartbeat_at < :staleBefore
+                        RETURNING user_id
+                        """)
+                .bind("userId", userId)
+                .bind("key", key)
+                .bind("fingerprint", fingerprint)
+                .bind("claimId", claimId)
+                .bind("staleBefore", staleBefore)
+                .map((row, metadata) -> Boolean.TRUE)
+                .one()
+                .defaultIfEmpty(Boolean.FALSE);
+    }
+
+    @Override
+    public Mono<IdempotencyRecord> find(Long userId, String key) {
+        return databaseClient.sql("""
+                        SELECT fingerprint, response_body
+                        FROM idempotency_keys
+                        WHERE user_id = :userId AND idempotency_key = :key
+                        """)
+                .bind("userId", userId)
+                .bind("key", key)
+                .map((row, metadata) -> new IdempotencyRecord(
+                        row.get("fingerprint", String.class),
+                        row.get("response_body", String.class)))
+                .one();
+    }
+
+    @Override
+    public Mono<Void> heartbeat(Long userId, String key, String claimId) {
+        return databaseClient.sql("""
+                        UPDATE idempotency_keys
+                        SET heartbeat_at = now()
+                        WHERE user_id = :userId AND idempotency_key = :key
+                          AND claim_id = :claimId AND completed_at IS NULL
+                        """)
+                .bind("userId", userId)
+                .bind("key", key)
+                .bind("claimId", claimId)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Mono<Void> complete(Long userId, String key, String claimId, String responseBody) {
+        return databaseClient.sql("""
+                        UPDATE idempotency_keys
+                        SET response_body = :responseBody, completed_at = now()
+                        WHERE user_id = :userId AND idempotency_key = :key AND claim_id = :claimId
+                        """)
+                .bind("userId", userId)
+                .bind("key", key)
+                .bind("claimId", claimId)
+                .bind("responseBody", responseBody)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Mono<Void> release(Long userId, String key, String claimId) {
+        return databaseClient.sql("""
+                        DELETE FROM idempotency_keys
+                        WHERE user_id = :userId AND idempotency_key = :key
+                          AND claim_id = :claimId AND completed_at IS NULL
+                        """)
+                .bind("userId", userId)
+                .bind("key", key)
+                .bind("claimId", claimId)
+                .fetch()
+                .rowsUpdated()
+                .then();
+    }
+
+    @Override
+    public Mono<Long> deleteCreatedBefore(Instant createdBefore) {
+        return databaseClient.sql("DELETE FROM idempotency_keys WHERE created_at < :createdBefore")
+                .bind("createdBefore", createdBefore)
+                .fetch()
+                .rowsUpdated();
+    }
+}
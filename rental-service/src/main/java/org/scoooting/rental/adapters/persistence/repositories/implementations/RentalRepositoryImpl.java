@@ -1,76 +1,100 @@
 package org.scoooting.rental.adapters.persistence.repositories.implementations;
 
 import lombok.RequiredArgsConstructor;
-import org.scoooting.rental.adapters.persistence.entities.RentalEntity;
 import org.scoooting.rental.adapters.persistence.mappers.RentalEntityMapper;
-import org.scoooting.rental.adapters.persistence.repositories.jdbc.RentalJdbcRepository;
+import org.scoooting.rental.adapters.persistence.repositories.r2dbc.RentalR2dbcRepository;
 import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.Collection;
 
 @Repository
 @RequiredArgsConstructor
 public class RentalRepositoryImpl implements RentalRepository {
 
-    private final RentalJdbcRepository repository;
+    private final RentalR2dbcRepository repository;
     private final RentalEntityMapper mapper;
 
     @Override
-    public Optional<Rental> findActiveRentalByUserId(Long userId) {
+    public Mono<Rental> findActiveRentalByUserId(Long userId) {
         return repository.findActiveRentalByUserId(userId).map(mapper::toDomain);
     }
 
     @Override
-    public List<Rental> findRentalHistoryByUserId(Long userId, int offset, int limit) {
-        return mapper.toDomainList(repository.findRentalHistoryByUserId(userId, offset, limit));
+    public Flux<Rental> findActiveRentalsByTransportIds(Collection<Long> transportIds) {
+        if (transportIds.isEmpty()) {
+            return Flux.empty();
+        }
+        return repository.findActiveRentalsByTransportIds(transportIds).map(mapper::toDomain);
     }
 
     @Override
-    public List<Rental> findAllRentals(int offset, int limit) {
-        return mapper.toDomainList(repository.findAllRentals(offset, limit));
+    public Flux<Rental> findRentalHistoryByUserId(Long userId, int offset, int limit) {
+        return repository.findRentalHistoryByUserId(userId, offset, limit).map(mapper::toDomain);
     }
 
     @Override
-    public long countAllRentals() {
+    public Flux<Rental> findAllRentals(int offset, int limit) {
+        return repository.findAllRentals(offset, limit).map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Rental> findRentalHistoryByUserIdBefore(Long userId, Instant startTime, Long id, int limit) {
+        return (startTime == null || id == null
+                ? repository.findRentalHistoryFirstPage(userId, limit)
+                : repository.findRentalHistoryBefore(userId, startTime, id, limit))
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Rental> findAllRentalsBefore(Instant startTime, Long id, int limit) {
+        return (startTime == null || id == null
+                ? repository.findAllRentalsFirstPage(limit)
+                : repository.findAllRentalsBefore(startTime, id, limit))
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Long> countAllRentals() {
         return repository.countAllRentals();
     }
 
     @Override
-    public long countRentalsByUserId(Long userId) {
+    public Mono<Long> countRentalsByUserId(Long userId) {
         return repository.countRentalsByUserId(userId);
     }
 
     @Override
-    public List<Rental> findByStatusId(Long statusId) {
-        return null;
+    public Flux<Rental> findByStatusId(Long statusId) {
+        return repository.findByStatusId(statusId).map(mapper::toDomain);
     }
 
     @Override
-    public Optional<Rental> findById(Long aLong) {
+    public Mono<Rental> findById(Long aLong) {
         return repository.findById(aLong).map(mapper::toDomain);
     }
 
     @Override
-    public boolean existsById(Long aLong) {
+    public Mono<Boolean> existsById(Long aLong) {
         return repository.existsById(aLong);
     }
 
     @Override
-    public Rental save(Rental entity) {
-        RentalEntity saved = mapper.toEntity(entity);
-        return mapper.toDomain(repository.save(saved));
+    public Mono<Rental> save(Rental entity) {
+        return repository.save(mapper.toEntity(entity)).map(mapper::toDomain);
     }
 
     @Override
-    public void delete(Rental entity) {
-        repository.delete(mapper.toEntity(entity));
+    public Mono<Void> delete(Rental entity) {
+        return repository.delete(mapper.toEntity(entity));
     }
 
     @Override
-    public void deleteById(Long aLong) {
-        repository.deleteById(aLong);
+    public Mono<Void> deleteById(Long aLong) {
+        return repository.deleteById(aLong);
     }
 }
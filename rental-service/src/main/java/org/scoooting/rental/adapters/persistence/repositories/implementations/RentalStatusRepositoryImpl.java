@@ -1,50 +1,137 @@
 package org.scoooting.rental.adapters.persistence.repositories.implementations;
 
-import lombok.RequiredArgsConstructor;
-import org.scoooting.rental.adapters.persistence.entities.RentalStatusEntity;
+import lombok.extern.slf4j.Slf4j;
 import org.scoooting.rental.adapters.persistence.mappers.RentalStatusEntityMapper;
-import org.scoooting.rental.adapters.persistence.repositories.jdbc.RentalStatusJdbcRepository;
+import org.scoooting.rental.adapters.persistence.repositories.r2dbc.RentalStatusR2dbcRepository;
 import org.scoooting.rental.domain.model.RentalStatus;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
 
+/**
+ * rental_statuses is a reference table with 3 rows that every rental operation looks up by name.
+ *
+ * Reads are served from an immutable id <-> name registry:
+ * - Loaded on startup and reloaded on demand (refresh) or after writes
+ * - A miss triggers one reload, so statuses inserted by a migration are picked up without restart;
+ *   within missReloadInterval of the last load a miss is answered from the registry (negative cache),
+ *   so lookups of an unknown id or name can't turn every request into a full table read
+ * - Callers get copies, the registry itself is never mutated
+ */
+@Slf4j
 @Repository
-@RequiredArgsConstructor
 public class RentalStatusRepositoryImpl implements RentalStatusRepository {
 
-    private final RentalStatusJdbcRepository repository;
+    private final RentalStatusR2dbcRepository repository;
     private final RentalStatusEntityMapper mapper;
+    private final long missReloadIntervalNanos;
+
+    private volatile StatusRegistry registry;
+
+    public RentalStatusRepositoryImpl(RentalStatusR2dbcRepository repository, RentalStatusEntityMapper mapper,
+                                      @Value("${rental.statuses.miss-reload-interval:PT30S}") Duration missReloadInterval) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.missReloadIntervalNanos = missReloadInterval.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh().subscribe(
+                null,
+                e -> log.error("Failed to load rental statuses: {}", e.getMessage())
+        );
+    }
 
     @Override
-    public Optional<RentalStatus> findByName(String name) {
-        return repository.findByName(name).map(mapper::toDomain);
+    public Mono<Void> refresh() {
+        return reload().then();
     }
 
     @Override
-    public Optional<RentalStatus> findById(Long aLong) {
-        return repository.findById(aLong).map(mapper::toDomain);
+    public Mono<RentalStatus> findByName(String name) {
+        return lookup(name, current -> current.byName().get(name));
     }
 
     @Override
-    public boolean existsById(Long aLong) {
-        return repository.existsById(aLong);
+    public Mono<RentalStatus> findById(Long aLong) {
+        return lookup(aLong, current -> current.byId().get(aLong));
     }
 
     @Override
-    public RentalStatus save(RentalStatus entity) {
-        RentalStatusEntity saved = mapper.toEntity(entity);
-        return mapper.toDomain(repository.save(saved));
+    public Mono<Boolean> existsById(Long aLong) {
+        return findById(aLong).hasElement();
     }
 
     @Override
-    public void delete(RentalStatus entity) {
-        repository.delete(mapper.toEntity(entity));
+    public Mono<RentalStatus> save(RentalStatus entity) {
+        return repository.save(mapper.toEntity(entity))
+                .map(mapper::toDomain)
+                .flatMap(saved -> reload().thenReturn(saved));
     }
 
     @Override
-    public void deleteById(Long aLong) {
-        repository.deleteById(aLong);
+    public Mono<Void> delete(RentalStatus entity) {
+        return repository.delete(mapper.toEntity(entity)).then(refresh());
+    }
+
+    @Override
+    public Mono<Void> deleteById(Long aLong) {
+        return repository.deleteById(aLong).then(refresh());
+    }
+
+    private Mono<RentalStatus> lookup(Object key, Function<StatusRegistry, RentalStatus> finder) {
+        if (key == null) {
+            return Mono.empty();
+        }
+        return registryFor(current -> finder.apply(current) != null)
+                .mapNotNull(finder)
+                .map(RentalStatusRepositoryImpl::copy);
+    }
+
+    /**
+     * @param hit whether the registry answers the lookup
+     * @return the current registry on a hit or a recent miss, a reloaded one otherwise
+     */
+    private Mono<StatusRegistry> registryFor(Predicate<StatusRegistry> hit) {
+        StatusRegistry current = registry;
+        if (current != null
+                && (hit.test(current) || System.nanoTime() - current.loadedAt() < missReloadIntervalNanos)) {
+            return Mono.just(current);
+        }
+        return reload();
+    }
+
+    private Mono<StatusRegistry> reload() {
+        return repository.findAll()
+                .map(mapper::toDomain)
+                .collectList()
+                .map(StatusRegistry::of)
+                .doOnNext(fresh -> registry = fresh);
+    }
+
+    private static RentalStatus copy(RentalStatus status) {
+        return new RentalStatus(status.getId(), status.getName());
+    }
+
+    private record StatusRegistry(Map<Long, RentalStatus> byId, Map<String, RentalStatus> byName, long loadedAt) {
+
+        static StatusRegistry of(List<RentalStatus> statuses) {
+            return new StatusRegistry(
+                    statuses.stream().collect(Collectors.toUnmodifiableMap(RentalStatus::getId, Function.identity())),
+                    statuses.stream().collect(Collectors.toUnmodifiableMap(RentalStatus::getName, Function.identity())),
+                    System.nanoTime()
+            );
+        }
     }
 }
@@ -0,0 +1,86 @@
+package org.scoooting.rental.adapters.persistence.repositories.implementations;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.rental.domain.model.TrackSegment;
+import org.scoooting.rental.domain.repositories.TrackRepository;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+@RequiredArgsConstructor
+public class TrackRepositoryImpl implements TrackRepository {
+
+    // 4 bind parameters per row, well below the protocol limit of 65535
+    private static final int MAX_ROWS_PER_INSERT = 1000;
+
+    // Points are stamped by the transport's clock, the rental's times by ours
+    private static final Duration CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final DatabaseClient databaseClient;
+
+    /**
+     * One multi-row INSERT per chunk: a Kafka poll of positions is stored with a single round trip.
+     */
+    @Override
+    public Mono<Void> append(Collection<TrackSegment> segments) {
+        return Flux.fromIterable(segments)
+                .buffer(MAX_ROWS_PER_INSERT)
+                .concatMap(this::insertChunk)
+                .then();
+    }
+
+    private Mono<Long> insertChunk(List<TrackSegment> chunk) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(:rentalId").append(i)
+                    .append(", :recordedAt").append(i)
+                    .append(", :pointCount").append(i)
+                    .append(", :points").append(i).append(")");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(
+                "INSERT INTO rental_track_segments (rental_id, recorded_at, point_count, points) VALUES " + values);
+        for (int i = 0; i < chunk.size(); i++) {
+            TrackSegment segment = chunk.get(i);
+            spec = spec.bind("rentalId" + i, segment.rentalId())
+                    .bind("recordedAt" + i, segment.recordedAt())
+                    .bind("pointCount" + i, segment.pointCount())
+                    .bind("points" + i, segment.points());
+        }
+        return spec.fetch().rowsUpdated();
+    }
+
+    /**
+     * The recorded_at range prunes the lookup to the partitions of the rental's months,
+     * without it every monthly partition is probed.
+     */
+    @Override
+    public Flux<TrackSegment> findByRentalId(Long rentalId, Instant from, Instant to) {
+        return databaseClient.sql("""
+                        SELECT rental_id, recorded_at, point_count, points
+                        FROM rental_track_segments
+                        WHERE rental_id = :rentalId
+                        AND recorded_at >= :from AND recorded_at <= :to
+                        ORDER BY recorded_at
+                        """)
+                .bind("rentalId", rentalId)
+                .bind("from", from.minus(CLOCK_SKEW))
+                .bind("to", to.plus(CLOCK_SKEW))
+                .map((row, metadata) -> new TrackSegment(
+                        row.get("rental_id", Long.class),
+                        row.get("recorded_at", Instant.class),
+                        row.get("point_count", Integer.class),
+                        row.get("points", byte[].class)))
+                .all();
+    }
+}
@@ -0,0 +1,53 @@
+package org.scoooting.rental.adapters.persistence.repositories.r2dbc;
+
+import org.scoooting.rental.adapters.persistence.entities.OutboxMessageEntity;
+import org.springframework.data.r2dbc.repository.Modifying;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+@Repository
+public interface OutboxR2dbcRepository extends ReactiveCrudRepository<OutboxMessageEntity, Long> {
+
+    /**
+     * Take or renew the relay lease, in one statement.
+     * Succeeds for the current owner and for anyone once the lease has expired.
+     *
+     * @return 1 if the caller holds the lease for leaseMillis from now, 0 otherwise
+     */
+    @Modifying
+    @Query("""
+        UPDATE outbox_relay_lease
+        SET owner = :owner, lease_until = now() + CAST(:leaseMillis AS double precision) * interval '1 millisecond'
+        WHERE id = 1 AND (owner = :owner OR lease_until < now())
+        """)
+    Mono<Integer> acquireLease(String owner, long leaseMillis);
+
+    /**
+     * The oldest pending messages. Not locked: only the holder of the relay lease reads them.
+     */
+    @Query("""
+        SELECT * FROM outbox_messages
+        WHERE published_at IS NULL AND dead_lettered_at IS NULL
+        ORDER BY id
+        LIMIT :limit
+        """)
+    Flux<OutboxMessageEntity> findPending(int limit);
+
+    @Modifying
+    @Query("UPDATE outbox_messages SET published_at = now() WHERE id IN (:ids)")
+    Mono<Integer> markPublished(Collection<Long> ids);
+
+    @Modifying
+    @Query("UPDATE outbox_messages SET dead_lettered_at = now(), last_error = :error WHERE id = :id")
+    Mono<Integer> markDeadLettered(Long id, String error);
+
+    @Modifying
+    @Query("DELETE FROM outbox_messages WHERE published_at < :before")
+    Mono<Integer> deletePublishedBefore(Instant before);
+}
@@ -0,0 +1,86 @@
+package org.scoooting.rental.adapters.persistence.repositories.r2dbc;
+
+import org.scoooting.rental.adapters.persistence.entities.RentalEntity;
+import org.springframework.data.r2dbc.repository.Query;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+@Repository
+public interface RentalR2dbcRepository extends ReactiveCrudRepository<RentalEntity, Long> {
+
+    @Query("""
+        SELECT * FROM rentals 
+        WHERE user_id = :userId 
+        AND status_id = (SELECT id FROM rental_statuses WHERE name = 'ACTIVE')
+        """)
+    Mono<RentalEntity> findActiveRentalByUserId(Long userId);
+
+    @Query("""
+        SELECT * FROM rentals
+        WHERE transport_id IN (:transportIds)
+        AND status_id = (SELECT id FROM rental_statuses WHERE name = 'ACTIVE')
+        """)
+    Flux<RentalEntity> findActiveRentalsByTransportIds(Collection<Long> transportIds);
+
+    @Query("""
+        SELECT * FROM rentals 
+        WHERE user_id = :userId 
+        ORDER BY start_time DESC
+        LIMIT :limit OFFSET :offset
+        """)
+    Flux<RentalEntity> findRentalHistoryByUserId(Long userId, int offset, int limit);
+
+    // Keyset pages: (start_time, id) row comparison is served by idx_rentals_user_start_time_id
+    @Query("""
+        SELECT * FROM rentals
+        WHERE user_id = :userId
+        ORDER BY start_time DESC, id DESC
+        LIMIT :limit
+        """)
+    Flux<RentalEntity> findRentalHistoryFirstPage(Long userId, int limit);
+
+    @Query("""
+        SELECT * FROM rentals
+        WHERE user_id = :userId
+        AND (start_time, id) < (:startTime, :id)
+        ORDER BY start_time DESC, id DESC
+        LIMIT :limit
+        """)
+    Flux<RentalEntity> findRentalHistoryBefore(Long userId, Instant startTime, Long id, int limit);
+
+    @Query("SELECT COUNT(*) FROM rentals WHERE user_id = :userId")
+    Mono<Long> countRentalsByUserId(Long userId);
+
+    // Для Analyst - все аренды
+    @Query("""
+        SELECT * FROM rentals 
+        ORDER BY start_time DESC
+        LIMIT :limit OFFSET :offset
+        """)
+    Flux<RentalEntity> findAllRentals(int offset, int limit);
+
+    @Query("""
+        SELECT * FROM rentals
+        ORDER BY start_time DESC, id DESC
+        LIMIT :limit
+        """)
+    Flux<RentalEntity> findAllRentalsFirstPage(int limit);
+
+    @Query("""
+        SELECT * FROM rentals
+        WHERE (start_time, id) < (:startTime, :id)
+        ORDER BY start_time DESC, id DESC
+        LIMIT :limit
+        """)
+    Flux<RentalEntity> findAllRentalsBefore(Instant startTime, Long id, int limit);
+
+    @Query("SELECT COUNT(*) FROM rentals")
+    Mono<Long> countAllRentals();
+
+    Flux<RentalEntity> findByStatusId(Long statusId);
+}
@@ -0,0 +1,11 @@
+package org.scoooting.rental.adapters.persistence.repositories.r2dbc;
+
+import org.scoooting.rental.adapters.persistence.entities.RentalStatusEntity;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface RentalStatusR2dbcRepository extends ReactiveCrudRepository<RentalStatusEntity, Long> {
+    Mono<RentalStatusEntity> findByName(String name);
+}
@@ -8,14 +8,17 @@ import jakarta.validation.constraints.NotNull;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.scoooting.rental.adapters.security.UserPrincipal;
+import org.scoooting.rental.adapters.web.idempotency.IdempotentRequests;
 import org.scoooting.rental.application.usecase.rentals.*;
 import org.scoooting.rental.application.usecase.sendings.SendNotificationUseCase;
 import org.scoooting.rental.application.usecase.sendings.SendReportUseCase;
+import org.scoooting.rental.application.dto.CursorPageResponseDTO;
 import org.scoooting.rental.application.dto.PageResponseDTO;
 import org.scoooting.rental.adapters.message.kafka.dto.RentalEventDto;
 import org.scoooting.rental.adapters.web.dto.EndRentalRequestDTO;
 import org.scoooting.rental.adapters.web.dto.StartRentalRequestDTO;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
+import org.scoooting.rental.application.dto.RentalTrackDTO;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
@@ -27,6 +30,8 @@ import org.springframework.web.bind.annotation.*;
 import org.springframework.web.multipart.MultipartFile;
 import reactor.core.publisher.Mono;
 
+import java.util.Set;
+
 @Slf4j
 @RestController
 @RequiredArgsConstructor
@@ -34,44 +39,55 @@ import reactor.core.publisher.Mono;
 @Validated
 public class RentalController {
 
+    // Roles that may see tracks of any rental
+    private static final Set<String> STAFF_ROLES = Set.of("SUPPORT", "ANALYST", "ADMIN");
+
     private final StartRentalUseCase startRentalUseCase;
     private final EndRentalUseCase endRentalUseCase;
     private final CancelRentalUseCase cancelRentalUseCase;
     private final ForceEndRentalUseCase forceEndRentalUseCase;
     private final GetActiveRentalUseCase getActiveRentalUseCase;
     private final RentalHistoryUseCase rentalHistoryUseCase;
+    private final RentalTrackUseCase rentalTrackUseCase;
 
     private final SendReportUseCase sendReportUseCase;
     private final SendNotificationUseCase sendNotificationUseCase;
 
+    private final IdempotentRequests idempotentRequests;
+
     // ==================== USER OPERATIONS ====================
 
     @Operation(
             summary = "[USER] Start a new rental",
-            description = "User can start renting available transport. Available to: ALL authenticated users",
+            description = "User can start renting available transport. A retry with the same Idempotency-Key "
+                    + "header returns the first response without starting again. Available to: ALL authenticated users",
             tags = {"User Rental Operations"}
     )
     @PostMapping("/start")
     public Mono<ResponseEntity<RentalResponseDTO>> startRental(
             @Valid @RequestBody StartRentalRequestDTO request,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal principal
     ) {
         log.info("User {} starting rental for transport {}", principal.getUserId(), request.transportId());
 
-        return startRentalUseCase.startRental(
-                principal.getUserId(),
-                request.transportId(),
-                request.startLatitude(),
-                request.startLongitude()
-        ).flatMap(rental -> sendNotificationUseCase.sendNotification(new RentalEventDto(
-                principal.getUserId(),
-                RentalEventDto.RentalType.START))
-                .thenReturn(ResponseEntity.status(HttpStatus.CREATED).body(rental)));
+        return idempotentRequests.execute(idempotencyKey, principal.getUserId(), "START:" + request.transportId(),
+                RentalResponseDTO.class, () -> startRentalUseCase.startRental(
+                        principal.getUserId(),
+                        request.transportId(),
+                        request.startLatitude(),
+                        request.startLongitude()
+                ).flatMap(rental -> sendNotificationUseCase.sendNotification(new RentalEventDto(
+                        principal.getUserId(),
+                        RentalEventDto.RentalType.START))
+                        .thenReturn(rental))
+        ).map(rental -> ResponseEntity.status(HttpStatus.CREATED).body(rental));
     }
 
     @Operation(
             summary = "[USER] End current rental with photo",
-            description = "User must provide a photo of transport to end rental",
+            description = "User must provide a photo of transport to end rental. A retry with the same "
+                    + "Idempotency-Key header returns the first response without uploading the photo again",
             tags = {"User Rental Operations"}
     )
     @PostMapping(value = "/end", consumes = MediaType.MULTIPART_FORM_DATA_VALUE)
@@ -79,44 +95,50 @@ public class RentalController {
             @RequestPart("photo") FilePart photo,
             @RequestParam("endLatitude") @NotNull Double endLatitude,
             @RequestParam("endLongitude") @NotNull Double endLongitude,
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal principal
     ) {
         log.info("User {} ending rental with photo", principal.getUserId());
 
-        return endRentalUseCase.endRental(
-                principal.getUserId(),
-                endLatitude,
-                endLongitude,
-                photo
-        ).flatMap(rental ->
-                sendReportUseCase.sendReport(rental, principal)
-                        .then(sendNotificationUseCase.sendNotification(new RentalEventDto(
-                                principal.getUserId(),
-                                RentalEventDto.RentalType.END)
-                        ))
-                        .thenReturn(ResponseEntity.ok(rental))
-        );
+        return idempotentRequests.execute(idempotencyKey, principal.getUserId(), "END",
+                RentalResponseDTO.class, () -> endRentalUseCase.endRental(
+                        principal.getUserId(),
+                        endLatitude,
+                        endLongitude,
+                        photo
+                ).flatMap(rental ->
+                        sendReportUseCase.sendReport(rental, principal)
+                                .then(sendNotificationUseCase.sendNotification(new RentalEventDto(
+                                        principal.getUserId(),
+                                        RentalEventDto.RentalType.END)
+                                ))
+                                .thenReturn(rental))
+        ).map(ResponseEntity::ok);
     }
 
     @Operation(
             summary = "[USER] Cancel current rental",
-            description = "User can cancel their own active rental. Available to: ALL authenticated users",
+            description = "User can cancel their own active rental. A retry with the same Idempotency-Key header "
+                    + "succeeds without cancelling again. Available to: ALL authenticated users",
             tags = {"User Rental Operations"}
     )
     @PostMapping("/cancel")
     public Mono<ResponseEntity<Void>> cancelRental(
+            @RequestHeader(value = IdempotentRequests.HEADER, required = false) String idempotencyKey,
             @AuthenticationPrincipal UserPrincipal principal
     ) {
         log.info("User {} cancelling their rental", principal.getUserId());
 
-        return cancelRentalUseCase.cancelRental(principal.getUserId())
-                .flatMap(rental ->
-                        sendReportUseCase.sendReport(rental, principal)
-                                .then(sendNotificationUseCase.sendNotification(new RentalEventDto(
-                                        principal.getUserId(),
-                                        RentalEventDto.RentalType.CANCEL)
-                                ))
-                                .thenReturn(ResponseEntity.ok().build()));
+        return idempotentRequests.execute(idempotencyKey, principal.getUserId(), "CANCEL", Void.class,
+                () -> cancelRentalUseCase.cancelRental(principal.getUserId())
+                        .flatMap(rental ->
+                                sendReportUseCase.sendReport(rental, principal)
+                                        .then(sendNotificationUseCase.sendNotification(new RentalEventDto(
+                                                principal.getUserId(),
+                                                RentalEventDto.RentalType.CANCEL)
+                                        )))
+                        .then()
+        ).then().thenReturn(ResponseEntity.ok().<Void>build());
     }
 
     @Operation(
@@ -151,6 +173,42 @@ public class RentalController {
                 .map(ResponseEntity::ok);
     }
 
+    @Operation(
+            summary = "[USER] Scroll my rental history",
+            description = "Cursor pagination over current user's past rentals, newest first. "
+                    + "Pass nextCursor of the previous page to get the next one. Available to: ALL authenticated users",
+            tags = {"User Rental Operations"}
+    )
+    @GetMapping("/history/scroll")
+    public Mono<ResponseEntity<CursorPageResponseDTO<RentalResponseDTO>>> scrollRentalHistory(
+            @AuthenticationPrincipal UserPrincipal principal,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) Integer size
+    ) {
+        log.info("User {} scrolling rental history", principal.getUserId());
+
+        return rentalHistoryUseCase.scrollUserRentalHistory(principal.getUserId(), cursor, size)
+                .map(ResponseEntity::ok);
+    }
+
+    @Operation(
+            summary = "[USER] Get rental track",
+            description = "GPS track of a rental as an encoded polyline (precision 1e-5). "
+                    + "Users see their own rentals, SUPPORT, ANALYST and ADMIN see any rental",
+            tags = {"User Rental Operations"}
+    )
+    @GetMapping("/{rentalId}/track")
+    public Mono<ResponseEntity<RentalTrackDTO>> getRentalTrack(
+            @PathVariable Long rentalId,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.info("User {} fetching track of rental {}", principal.getUserId(), rentalId);
+
+        boolean anyUser = STAFF_ROLES.contains(principal.getRole());
+        return rentalTrackUseCase.getTrack(rentalId, principal.getUserId(), anyUser)
+                .map(ResponseEntity::ok);
+    }
+
     // ==================== SUPPORT OPERATIONS ====================
 
     @Operation(
@@ -196,4 +254,23 @@ public class RentalController {
         return getActiveRentalUseCase.getAllRentals(page, size)
                 .map(ResponseEntity::ok);
     }
-}
\ No newline at end of file
+
+    @Operation(
+            summary = "[ANALYST] Scroll all rentals",
+            description = "Cursor pagination over all system rentals, newest first. "
+                    + "Page latency doesn't depend on depth. Available to: ANALYST, ADMIN",
+            tags = {"Analyst Rental Operations"}
+    )
+    @GetMapping("/all/scroll")
+    @PreAuthorize("hasAnyRole('ANALYST', 'ADMIN')")
+    public Mono<ResponseEntity<CursorPageResponseDTO<RentalResponseDTO>>> scrollAllRentals(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") @Min(1) @Max(50) Integer size,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.info("Analyst {} scrolling all rentals", principal.getEmail());
+
+        return getActiveRentalUseCase.scrollAllRentals(cursor, size)
+                .map(ResponseEntity::ok);
+    }
+}
@@ -0,0 +1,57 @@
+package org.scoooting.rental.adapters.web.idempotency;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.scoooting.rental.application.usecase.idempotency.IdempotencyUseCase;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.util.function.Supplier;
+
+/**
+ * Idempotency-Key support for controllers: (de)serializes responses for {@link IdempotencyUseCase}.
+ *
+ * Without the header the request simply runs.
+ */
+@Component
+@RequiredArgsConstructor
+public class IdempotentRequests {
+
+    public static final String HEADER = "Idempotency-Key";
+
+    private final IdempotencyUseCase idempotencyUseCase;
+    private final ObjectMapper objectMapper;
+
+    /**
+     * @param key value of the Idempotency-Key header, null if absent
+     * @param fingerprint operation and its main parameters
+     * @param type response type, Void for responses without a body
+     * @return response of the first execution for this key
+     */
+    public <T> Mono<T> execute(String key, Long userId, String fingerprint, Class<T> type,
+                               Supplier<Mono<T>> action) {
+        if (key == null) {
+            return Mono.defer(action);
+        }
+        return idempotencyUseCase.execute(userId, key, fingerprint,
+                        () -> action.get().map(this::write).defaultIfEmpty(""))
+                .flatMap(json -> json.isEmpty() ? Mono.<T>empty() : Mono.just(read(json, type)));
+    }
+
+    private String write(Object response) {
+        try {
+            return objectMapper.writeValueAsString(response);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Response can't be stored for idempotency", e);
+        }
+    }
+
+    private <T> T read(String json, Class<T> type) {
+        try {
+            return objectMapper.readValue(json, type);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Stored idempotent response is unreadable", e);
+        }
+    }
+}
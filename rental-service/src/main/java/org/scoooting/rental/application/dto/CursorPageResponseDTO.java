@@ -0,0 +1,12 @@
+package org.scoooting.rental.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.util.List;
+
+public record CursorPageResponseDTO<T>(
+        @NotNull List<T> content,
+        @NotNull Integer size,
+        String nextCursor,
+        @NotNull Boolean hasMore
+) {}
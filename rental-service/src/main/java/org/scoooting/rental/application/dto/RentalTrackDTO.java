@@ -0,0 +1,17 @@
+package org.scoooting.rental.application.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+import java.time.Instant;
+
+/**
+ * @param polyline encoded polyline (precision 1e-5): start point, recorded track, end point
+ * @param endTime null while the rental is active
+ */
+public record RentalTrackDTO(
+        @NotNull Long rentalId,
+        @NotNull Integer pointCount,
+        @NotNull Instant startTime,
+        Instant endTime,
+        @NotNull String polyline
+) {}
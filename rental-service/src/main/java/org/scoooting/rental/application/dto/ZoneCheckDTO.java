@@ -0,0 +1,17 @@
+package org.scoooting.rental.application.dto;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Zones at a point, as evaluated by transport-service.
+ *
+ * @param speedLimitKmh lowest speed limit at the point, null if unrestricted
+ * @param zoneTypes PARKING, NO_PARKING, SLOW, OUT_OF_SERVICE
+ */
+public record ZoneCheckDTO(
+        boolean parkingAllowed,
+        Integer speedLimitKmh,
+        List<String> zoneNames,
+        Set<String> zoneTypes
+) {}
@@ -2,8 +2,18 @@ package org.scoooting.rental.application.ports;
 
 import org.scoooting.rental.adapters.message.feign.dto.UpdateCoordinatesDTO;
 import org.scoooting.rental.application.dto.TransportResponseDTO;
+import org.scoooting.rental.application.dto.ZoneCheckDTO;
 
 public interface TransportClient {
     Long getTransportStatusId(String name);
     TransportResponseDTO getTransport(Long id);
+
+    /**
+     * Switch an AVAILABLE transport, or one reserved by the user, to IN_USE, atomically.
+     *
+     * @throws org.scoooting.rental.domain.exceptions.TransportNotAvailableException if it is neither
+     */
+    TransportResponseDTO acquireTransport(Long id, Long userId);
+
+    ZoneCheckDTO checkZone(Double lat, Double lng);
 }
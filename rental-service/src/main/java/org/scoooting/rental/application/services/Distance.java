@@ -2,6 +2,9 @@ package org.scoooting.rental.application.services;
 
 import lombok.AccessLevel;
 import lombok.NoArgsConstructor;
+import org.scoooting.rental.domain.model.TrackPoint;
+
+import java.util.List;
 
 @NoArgsConstructor(access = AccessLevel.PRIVATE)
 public class Distance {
@@ -29,4 +32,24 @@ public class Distance {
         return Math.sqrt(latDiff * latDiff + lngDiff * lngDiff);
     }
 
+    /**
+     * Calculate distance actually travelled: start → recorded track → end.
+     *
+     * - Sum of the straight-line distances between consecutive points
+     * - Without a recorded track it is the straight line between start and end
+     *
+     * @param track points ordered by time, may be empty
+     */
+    public static double calculatePathDistance(Double startLat, Double startLng, List<TrackPoint> track,
+                                               Double endLat, Double endLng) {
+        double distance = 0.0;
+        Double lat = startLat;
+        Double lng = startLng;
+        for (TrackPoint point : track) {
+            distance += calculateDistance(lat, lng, point.latitude(), point.longitude());
+            lat = point.latitude();
+            lng = point.longitude();
+        }
+        return distance + calculateDistance(lat, lng, endLat, endLng);
+    }
 }
@@ -0,0 +1,73 @@
+package org.scoooting.rental.application.services;
+
+import org.scoooting.rental.domain.model.IdempotencyRecord;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Completed idempotent responses kept in memory, least recently used evicted first.
+ *
+ * WHY in front of the table:
+ * - A retry storm repeats the same few keys many times within seconds
+ * - Served from here, a repeat costs no database round trip at all
+ *
+ * Bounded by maxEntries, so memory doesn't grow with traffic; an evicted or expired
+ * key is still answered from idempotency_keys. Only completed responses are cached,
+ * they never change.
+ */
+public class IdempotencyCache {
+
+    private final int maxEntries;
+    private final Duration ttl;
+    private final Map<String, Entry> entries;
+
+    public IdempotencyCache(int maxEntries, Duration ttl) {
+        if (maxEntries <= 0) {
+            throw new IllegalArgumentException("Cache size must be positive, got: " + maxEntries);
+        }
+        this.maxEntries = maxEntries;
+        this.ttl = ttl;
+        this.entries = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, Entry> eldest) {
+                return size() > IdempotencyCache.this.maxEntries;
+            }
+        };
+    }
+
+    /**
+     * @return completed record, null if not cached or older than the TTL
+     */
+    public synchronized IdempotencyRecord get(Long userId, String key) {
+        String cacheKey = cacheKey(userId, key);
+        Entry entry = entries.get(cacheKey);
+        if (entry == null) {
+            return null;
+        }
+        if (entry.cachedAt().plus(ttl).isBefore(Instant.now())) {
+            entries.remove(cacheKey);
+            return null;
+        }
+        return entry.record();
+    }
+
+    public synchronized void put(Long userId, String key, IdempotencyRecord record) {
+        if (record.isCompleted()) {
+            entries.put(cacheKey(userId, key), new Entry(record, Instant.now()));
+        }
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+
+    // Keys are per user: two users may well send the same UUID
+    private static String cacheKey(Long userId, String key) {
+        return userId + ":" + key;
+    }
+
+    private record Entry(IdempotencyRecord record, Instant cachedAt) {}
+}
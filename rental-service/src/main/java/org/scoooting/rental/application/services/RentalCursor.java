@@ -0,0 +1,69 @@
+package org.scoooting.rental.application.services;
+
+import org.scoooting.rental.application.dto.CursorPageResponseDTO;
+import org.scoooting.rental.domain.model.Rental;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Instant;
+import java.time.format.DateTimeParseException;
+import java.util.Base64;
+import java.util.List;
+import java.util.function.Function;
+
+/**
+ * Position in a rental listing ordered by (start_time DESC, id DESC).
+ *
+ * - id breaks ties between rentals started at the same instant, so no row is skipped or repeated
+ * - Sent to clients as an opaque URL-safe token, clients only pass it back
+ *
+ * @param startTime start time of the last rental on the previous page
+ * @param id id of the last rental on the previous page
+ */
+public record RentalCursor(Instant startTime, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    /** Start of the listing, no rows seen yet */
+    public static final RentalCursor FIRST_PAGE = new RentalCursor(null, null);
+
+    public static RentalCursor of(Rental rental) {
+        return new RentalCursor(rental.getStartTime(), rental.getId());
+    }
+
+    /**
+     * Build a page from rentals fetched with limit = size + 1:
+     * the extra row only tells whether there is a next page and is not returned.
+     */
+    public static <T> CursorPageResponseDTO<T> toPage(List<Rental> rentals, int size, Function<Rental, T> mapper) {
+        boolean hasMore = rentals.size() > size;
+        List<Rental> content = hasMore ? rentals.subList(0, size) : rentals;
+        String nextCursor = hasMore ? of(content.get(content.size() - 1)).encode() : null;
+        return new CursorPageResponseDTO<>(content.stream().map(mapper).toList(), size, nextCursor, hasMore);
+    }
+
+    public String encode() {
+        String raw = startTime + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor token returned by {@link #encode()}, null or blank for the first page
+     * @return decoded cursor, {@link #FIRST_PAGE} for null or blank token
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static RentalCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.lastIndexOf(SEPARATOR);
+            return new RentalCursor(
+                    Instant.parse(raw.substring(0, separator)),
+                    Long.parseLong(raw.substring(separator + 1))
+            );
+        } catch (IllegalArgumentException | IndexOutOfBoundsException | DateTimeParseException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
@@ -0,0 +1,135 @@
+package org.scoooting.rental.application.services;
+
+import lombok.AccessLevel;
+import lombok.NoArgsConstructor;
+import org.scoooting.rental.domain.model.TrackPoint;
+import org.scoooting.rental.domain.model.TrackSegment;
+
+import java.io.ByteArrayOutputStream;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+@NoArgsConstructor(access = AccessLevel.PRIVATE)
+public class TrackCodec {
+
+    /** 1e-5 degree is about 1.1 m, the precision of GPS modules and of encoded polylines */
+    private static final double SCALE = 1e5;
+
+    /**
+     * Encode points of a segment for storage.
+     *
+     * WHY delta encoding:
+     * - Consecutive points of a trip differ by a few meters and about a second
+     * - Stored as differences to the previous point, zigzag varints, a point takes ~5 bytes
+     *   instead of 24 (timestamp + two doubles)
+     *
+     * FORMAT: for every point three zigzag varints - time (ms), latitude and longitude (1e-5 degree);
+     * the first point holds absolute values, the others differences to the previous one.
+     */
+    public static byte[] encode(List<TrackPoint> points) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(points.size() * 6);
+        long previousTime = 0;
+        long previousLat = 0;
+        long previousLng = 0;
+        for (TrackPoint point : points) {
+            long time = point.recordedAt().toEpochMilli();
+            long lat = Math.round(point.latitude() * SCALE);
+            long lng = Math.round(point.longitude() * SCALE);
+            writeVarLong(out, zigzag(time - previousTime));
+            writeVarLong(out, zigzag(lat - previousLat));
+            writeVarLong(out, zigzag(lng - previousLng));
+            previousTime = time;
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return out.toByteArray();
+    }
+
+    public static List<TrackPoint> decode(byte[] data) {
+        List<TrackPoint> points = new ArrayList<>();
+        int[] position = {0};
+        long time = 0;
+        long lat = 0;
+        long lng = 0;
+        while (position[0] < data.length) {
+            time += unzigzag(readVarLong(data, position));
+            lat += unzigzag(readVarLong(data, position));
+            lng += unzigzag(readVarLong(data, position));
+            points.add(new TrackPoint(Instant.ofEpochMilli(time), lat / SCALE, lng / SCALE));
+        }
+        return points;
+    }
+
+    /**
+     * Decode a whole track. Segments may overlap in time (late positions), so points are re-sorted.
+     */
+    public static List<TrackPoint> decodeAll(List<TrackSegment> segments) {
+        List<TrackPoint> points = new ArrayList<>();
+        for (TrackSegment segment : segments) {
+            points.addAll(decode(segment.points()));
+        }
+        points.sort(Comparator.comparing(TrackPoint::recordedAt));
+        return points;
+    }
+
+    /**
+     * Encoded polyline (the format of Google Maps, Leaflet and OSRM), precision 1e-5.
+     * Times are not part of the format.
+     */
+    public static String toPolyline(List<TrackPoint> points) {
+        StringBuilder polyline = new StringBuilder(points.size() * 6);
+        long previousLat = 0;
+        long previousLng = 0;
+        for (TrackPoint point : points) {
+            long lat = Math.round(point.latitude() * SCALE);
+            long lng = Math.round(point.longitude() * SCALE);
+            appendPolylineValue(polyline, lat - previousLat);
+            appendPolylineValue(polyline, lng - previousLng);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return polyline.toString();
+    }
+
+    private static void appendPolylineValue(StringBuilder polyline, long delta) {
+        long value = delta < 0 ? ~(delta << 1) : delta << 1;
+        while (value >= 0x20) {
+            polyline.append((char) ((0x20 | (value & 0x1f)) + 63));
+            value >>= 5;
+        }
+        polyline.append((char) (value + 63));
+    }
+
+    private static long zigzag(long value) {
+        return (value << 1) ^ (value >> 63);
+    }
+
+    private static long unzigzag(long value) {
+        return (value >>> 1) ^ -(value & 1);
+    }
+
+    private static void writeVarLong(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readVarLong(byte[] data, int[] position) {
+        long value = 0;
+        int shift = 0;
+        byte b;
+        do {
+            if (position[0] >= data.length || shift > 63) {
+                throw new IllegalArgumentException("Truncated track segment");
+            }
+            b = data[position[0]++];
+            value |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return value;
+    }
+}
@@ -0,0 +1,149 @@
+package org.scoooting.rental.application.usecase.idempotency;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.scoooting.rental.application.services.IdempotencyCache;
+import org.scoooting.rental.domain.exceptions.IdempotencyConflictException;
+import org.scoooting.rental.domain.model.IdempotencyRecord;
+import org.scoooting.rental.domain.repositories.IdempotencyRepository;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.util.retry.Retry;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.UUID;
+import java.util.function.Supplier;
+
+@Slf4j
+@RequiredArgsConstructor
+public class IdempotencyUseCase {
+
+    public static final int MAX_KEY_LENGTH = 100;
+
+    /** Attempts to store a response before giving up on the row (the response is still returned) */
+    private static final int COMPLETE_ATTEMPTS = 3;
+
+    private final IdempotencyRepository idempotencyRepository;
+    private final IdempotencyCache idempotencyCache;
+    private final Duration inProgressTimeout;
+    private final Duration retention;
+
+    /**
+     * Run a request at most once per key; a repeat gets the stored response instead.
+     *
+     * HOW:
+     * 1. Completed key in IdempotencyCache - replay, no database access
+     * 2. Claim the key (INSERT ... ON CONFLICT) - only one of concurrent duplicates wins
+     * 3. Winner runs the action and stores its response; losers read the row:
+     *    completed - replay, still in progress - IdempotencyConflictException
+     *
+     * TRANSACTION NOT NEEDED:
+     * - The claim is a single statement and is what serializes duplicates
+     * - The action keeps its own transactions; it must not be rolled back with the key
+     *
+     * FAILURES:
+     * - If the action fails, the claim is released and the error is not stored,
+     *   so the client may retry with the same key
+     * - The action is detached from the caller: if the client disconnects, it still runs
+     *   to completion and its response is stored, a retry replays it instead of running
+     *   a half-done action again
+     * - While the action runs, the claim is kept alive every inProgressTimeout / 3; only a claim
+     *   whose instance stopped doing that (crashed) is taken over after inProgressTimeout.
+     *   Every claim has its own id, so a taken-over owner can no longer complete or release it
+     * - Storing the response is retried; if the database stays unreachable the response is
+     *   still returned and replayed from this instance's cache, other instances see the key
+     *   in progress until it goes stale
+     *
+     * @param fingerprint operation and its main parameters; a key reused for another request is rejected
+     * @param action the request, emitting the response JSON (empty for no body)
+     * @return response JSON, fresh or replayed
+     * @throws IdempotencyConflictException if the key is in progress or was used for another request
+     * @throws IllegalArgumentException if the key is blank or too long
+     */
+    public Mono<String> execute(Long userId, String key, String fingerprint, Supplier<Mono<String>> action) {
+        if (key.isBlank() || key.length() > MAX_KEY_LENGTH) {
+            return Mono.error(new IllegalArgumentException(
+                    "Idempotency key must be 1 to " + MAX_KEY_LENGTH + " characters"));
+        }
+        IdempotencyRecord cached = idempotencyCache.get(userId, key);
+        if (cached != null) {
+            return replay(cached, fingerprint);
+        }
+
+        String claimId = UUID.randomUUID().toString();
+        return idempotencyRepository.claim(userId, key, fingerprint, claimId,
+                        Instant.now().minus(inProgressTimeout))
+                .flatMap(claimed -> claimed
+                        ? run(new Claim(userId, key, claimId), fingerprint, action)
+                        : idempotencyRepository.find(userId, key)
+                                .switchIfEmpty(Mono.error(inProgress()))
+                                .flatMap(stored -> {
+                                    if (!stored.isCompleted()) {
+                                        return Mono.<String>error(inProgress());
+                                    }
+                                    idempotencyCache.put(userId, key, stored);
+                                    return replay(stored, fingerprint);
+                                }));
+    }
+
+    /**
+     * Forget keys older than retention, called periodically.
+     *
+     * @return number of deleted keys
+     */
+    public Mono<Long> deleteExpired() {
+        return idempotencyRepository.deleteCreatedBefore(Instant.now().minus(retention));
+    }
+
+    /**
+     * Run the action on its own subscription (keeping the caller's context) and hand its
+     * outcome to the caller; cancelling the returned Mono doesn't cancel the action.
+     */
+    private Mono<String> run(Claim claim, String fingerprint, Supplier<Mono<String>> action) {
+        return Mono.deferContextual(context -> {
+            Sinks.One<String> outcome = Sinks.one();
+            Disposable heartbeat = Flux.interval(inProgressTimeout.dividedBy(3))
+                    .concatMap(tick -> idempotencyRepository.heartbeat(claim.userId(), claim.key(), claim.id())
+                            .onErrorResume(e -> Mono.empty()))
+                    .subscribe();
+            Mono.defer(action)
+                    .defaultIfEmpty("")
+                    .onErrorResume(e -> idempotencyRepository.release(claim.userId(), claim.key(), claim.id())
+                            .onErrorResume(releaseError -> Mono.empty())  // goes stale and is taken over
+                            .then(Mono.error(e)))
+                    .flatMap(body -> complete(claim, fingerprint, body))
+                    .doFinally(signal -> heartbeat.dispose())
+                    .contextWrite(context)
+                    .subscribe(outcome::tryEmitValue, outcome::tryEmitError);
+            return outcome.asMono();
+        });
+    }
+
+    private Mono<String> complete(Claim claim, String fingerprint, String body) {
+        idempotencyCache.put(claim.userId(), claim.key(), new IdempotencyRecord(fingerprint, body));
+        return idempotencyRepository.complete(claim.userId(), claim.key(), claim.id(), body)
+                .retryWhen(Retry.backoff(COMPLETE_ATTEMPTS - 1, Duration.ofMillis(100)))
+                .onErrorResume(e -> {
+                    log.error("Failed to store response of idempotency key {} of user {}: {}",
+                            claim.key(), claim.userId(), e.getMessage());
+                    return Mono.empty();
+                })
+                .thenReturn(body);
+    }
+
+    private static Mono<String> replay(IdempotencyRecord stored, String fingerprint) {
+        if (!stored.fingerprint().equals(fingerprint)) {
+            return Mono.error(new IdempotencyConflictException("Idempotency key was used for another request"));
+        }
+        return Mono.just(stored.responseBody());
+    }
+
+    private static IdempotencyConflictException inProgress() {
+        return new IdempotencyConflictException("A request with this idempotency key is in progress");
+    }
+
+    private record Claim(Long userId, String key, String id) {}
+}
@@ -6,14 +6,13 @@ import org.scoooting.rental.application.mappers.RentalMapper;
 import org.scoooting.rental.application.ports.TransportClient;
 import org.scoooting.rental.domain.exceptions.DataNotFoundException;
 import org.scoooting.rental.domain.model.Rental;
-import org.scoooting.rental.domain.model.RentalStatus;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
 import org.scoooting.rental.application.dto.TransportResponseDTO;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
 import java.time.Instant;
@@ -26,38 +25,42 @@ public class CancelRentalUseCase {
     private final TransportClient transportClient;
     private final TransportPublisher transportPublisher;
     private final RentalMapper rentalMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final Scheduler blockingScheduler;
 
     public Mono<RentalResponseDTO> cancelRental(Long userId) {
-        return Mono.fromCallable(() -> cancelRentalBlocking(userId))
-                .subscribeOn(Schedulers.boundedElastic());
+        return rentalRepository.findActiveRentalByUserId(userId)
+                .switchIfEmpty(Mono.error(new IllegalStateException("No active rental found")))
+                .flatMap(rental -> {
+                    if (rental.getEndTime() != null) {
+                        return Mono.error(new IllegalStateException("Rental already ended or cancelled"));
+                    }
+                    return rentalStatusRepository.findByName("CANCELLED")
+                            .switchIfEmpty(Mono.error(new DataNotFoundException("CANCELLED status not found")))
+                            .flatMap(cancelledStatus -> {
+                                rental.setStatusId(cancelledStatus.getId());
+                                rental.setEndTime(Instant.now());
+                                rental.setDurationMinutes(0);
+                                rental.setTotalCost(BigDecimal.valueOf(0));
+                                return rentalRepository.save(rental);
+                            })
+                            // Outbox row is committed together with the rental
+                            .flatMap(saved -> transportPublisher.updateStatus(saved.getTransportId(), "AVAILABLE")
+                                    .thenReturn(saved));
+                })
+                .as(transactionalOperator::transactional)
+                // TRANSACTION ENDS HERE - Feign call is blocking, keep it off the event loop
+                .flatMap(rental -> getTransport(rental.getTransportId())
+                        .map(transport -> {
+                            RentalResponseDTO rentalResponseDTO = rentalMapper.toResponseDTO(rental);
+                            rentalResponseDTO.setTransportType(transport.type());
+                            rentalResponseDTO.setStatus("Отменена");
+                            return rentalResponseDTO;
+                        }));
     }
 
-    @Transactional
-    protected RentalResponseDTO cancelRentalBlocking(Long userId) {
-        Rental rental = rentalRepository.findActiveRentalByUserId(userId)
-                .orElseThrow(() -> new IllegalStateException("No active rental found"));
-
-        if (rental.getEndTime() != null) {
-            throw new IllegalStateException("Rental already ended or cancelled");
-        }
-
-        RentalStatus cancelledStatus = rentalStatusRepository.findByName("CANCELLED")
-                .orElseThrow(() -> new DataNotFoundException("CANCELLED status not found"));
-        rental.setStatusId(cancelledStatus.getId());
-        rental.setEndTime(Instant.now());
-        rental.setDurationMinutes(0);
-        rental.setTotalCost(BigDecimal.valueOf(0));
-        rentalRepository.save(rental);
-
-        TransportResponseDTO transport = transportClient.getTransport(rental.getTransportId());
-
-        // Publish to Kafka instead of HTTP
-        transportPublisher.updateStatus(transport.id(), "AVAILABLE");
-
-        RentalResponseDTO rentalResponseDTO = rentalMapper.toResponseDTO(rental);
-        rentalResponseDTO.setTransportType(transport.type());
-        rentalResponseDTO.setStatus("Отменена");
-
-        return rentalResponseDTO;
+    private Mono<TransportResponseDTO> getTransport(Long transportId) {
+        return Mono.fromCallable(() -> transportClient.getTransport(transportId))
+                .subscribeOn(blockingScheduler);
     }
-}
\ No newline at end of file
+}
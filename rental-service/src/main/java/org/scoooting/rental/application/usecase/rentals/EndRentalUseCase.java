@@ -7,50 +7,68 @@ import org.scoooting.rental.adapters.message.kafka.UserPublisher;
 import org.scoooting.rental.application.mappers.RentalMapper;
 import org.scoooting.rental.application.ports.TransportClient;
 import org.scoooting.rental.application.services.Distance;
+import org.scoooting.rental.application.services.TrackCodec;
 import org.scoooting.rental.domain.exceptions.DataNotFoundException;
 import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.model.RentalStatus;
+import org.scoooting.rental.domain.model.TrackPoint;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.scoooting.rental.domain.repositories.TrackRepository;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
 import org.scoooting.rental.application.dto.TransportResponseDTO;
 import org.springframework.core.io.buffer.DataBufferUtils;
 import org.springframework.http.codec.multipart.FilePart;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
 
 @RequiredArgsConstructor
 public class EndRentalUseCase {
 
     private final RentalRepository rentalRepository;
     private final RentalStatusRepository rentalStatusRepository;
+    private final TrackRepository trackRepository;
     private final TransportClient transportClient;
     private final TransportPublisher transportPublisher;
     private final UserPublisher userPublisher;
     private final RentalMapper rentalMapper;
     private final ResilientFileClient fileClient;
+    private final TransactionalOperator transactionalOperator;
+    private final Scheduler blockingScheduler;
 
     private static final BigDecimal BASE_RATE = new BigDecimal("0.50");
     private static final BigDecimal UNLOCK_FEE = new BigDecimal("1.00");
 
     /**
-     * End rental (reactive wrapper).
+     * End rental: check the parking zone, upload photo, then close the rental in a short DB transaction.
+     *
+     * @throws IllegalStateException if parking is not allowed at the end point
      */
     public Mono<RentalResponseDTO> endRental(Long userId, Double endLat, Double endLng,
                                              FilePart photo) {
         return validateAndConvertPhoto(photo)
-                .flatMap(photoBytes -> Mono.fromCallable(() ->
-                                endRentalBlocking(userId, endLat, endLng, photoBytes))
-                        .subscribeOn(Schedulers.boundedElastic())
-                );
+                // Check zones before the upload, a refused rental must not leave a photo behind
+                .flatMap(photoBytes -> checkParking(endLat, endLng).thenReturn(photoBytes))
+                // Upload photo (if fails - rental not ended)
+                .flatMap(photoBytes -> uploadPhoto(photoBytes, userId)
+                        .then(completeRental(userId, endLat, endLng)))
+                // TRANSACTION ENDS HERE - commit already happened
+                .flatMap(rental -> getTransport(rental.getTransportId())
+                        .map(transport -> {
+                            // Build response
+                            RentalResponseDTO rentalResponseDTO = rentalMapper.toResponseDTO(rental);
+                            rentalResponseDTO.setTransportType(transport.type());
+                            rentalResponseDTO.setStatus("Завершена");
+                            return rentalResponseDTO;
+                        }));
     }
 
-
     private Mono<byte[]> validateAndConvertPhoto(FilePart photo) {
         if (photo == null) {
             return Mono.error(new IllegalArgumentException("Photo is required to end rental"));
@@ -78,9 +96,11 @@ public class EndRentalUseCase {
     /**
      * End active rental and calculate cost.
      *
-     * TRANSACTION SCOPE FIXED:
+     * TRANSACTION SCOPE:
      * - Transaction only covers DB operations
-     * - External calls moved OUTSIDE transaction (async via Kafka)
+     * - Photo upload happens BEFORE, transport lookup AFTER the commit
+     * - Kafka commands are outbox rows inside the transaction (see OutboxRelay):
+     *   a crash after COMMIT can no longer lose the transport release
      *
      * OLD FLOW (HTTP in transaction):
      * BEGIN TRANSACTION
@@ -92,73 +112,91 @@ public class EndRentalUseCase {
      *   6. HTTP PUT award bonuses (50-200ms)
      * COMMIT (200-800ms total transaction time!)
      *
-     * NEW FLOW (Kafka events):
+     * NEW FLOW (R2DBC + transactional outbox):
      * BEGIN TRANSACTION
-     *   1. SELECT rental
+     *   1. SELECT rental, SELECT its track segments (distance along the recorded path)
      *   2. UPDATE rental
+     *   3. INSERT transport status, transport coords, award bonuses commands → outbox
      * COMMIT (5-20ms!)
-     * 3. HTTP GET transport (for response DTO)
-     * 4. Publish transport status command → Kafka
-     * 5. Publish transport coords command → Kafka
-     * 6. Publish award bonuses command → Kafka
+     * 4. HTTP GET transport (for response DTO)
+     * 5. OutboxRelay sends the commands → Kafka (batched)
      *
      * BENEFITS:
      * - Transaction time: 800ms → 20ms (40x faster!)
      * - No connection pool exhaustion under load
-     * - Transport/User services process commands asynchronously
+     * - No worker thread is parked while the database answers
      * - Eventually consistent (acceptable for bonuses/coords)
      */
-    @Transactional
-    protected RentalResponseDTO endRentalBlocking(Long userId, Double endLat, Double endLng,
-                                                  byte[] photoBytes) {
-        // Upload photo (if fails - rental not ended)
-        fileClient.uploadTransportPhoto(photoBytes, userId);
-
-        // Find active rental
-        Rental rental = rentalRepository.findActiveRentalByUserId(userId)
-                .orElseThrow(() -> new IllegalStateException("No active rental found for user"));
-
-        // Calculate duration and cost
-        Instant endTime = Instant.now();
-        long minutes = Duration.between(rental.getStartTime(), endTime).toMinutes();
-        BigDecimal totalCost = UNLOCK_FEE.add(BASE_RATE.multiply(BigDecimal.valueOf(minutes)));
-
-        // Calculate distance
-        double distance = Distance.calculateDistance(
-                rental.getStartLatitude(), rental.getStartLongitude(),
-                endLat, endLng
-        );
-
-        // Update rental
-        rental.setEndTime(endTime);
-        rental.setEndLatitude(endLat);
-        rental.setEndLongitude(endLng);
-        rental.setDurationMinutes((int) minutes);
-        rental.setTotalCost(totalCost);
-        rental.setDistanceKm(BigDecimal.valueOf(distance));
-
-        // Set COMPLETED status
-        RentalStatus completedStatus = rentalStatusRepository.findByName("COMPLETED")
-                .orElseThrow(() -> new DataNotFoundException("COMPLETED status not found"));
-        rental.setStatusId(completedStatus.getId());
-
-        rental = rentalRepository.save(rental);
-
-        // TRANSACTION ENDS HERE - commit happens now!
-
-        // Get transport info for response (read-only, acceptable to be after commit)
-        TransportResponseDTO transport = transportClient.getTransport(rental.getTransportId());
-
-        // Publish commands to Kafka (async, eventually consistent)
-        transportPublisher.updateStatus(transport.id(), "AVAILABLE");
-        transportPublisher.updateCoordinates(transport.id(), endLat, endLng);
-        userPublisher.awardBonuses(userId, (int) minutes);
-
-        // Build response
-        RentalResponseDTO rentalResponseDTO = rentalMapper.toResponseDTO(rental);
-        rentalResponseDTO.setTransportType(transport.type());
-        rentalResponseDTO.setStatus("Завершена");
-
-        return rentalResponseDTO;
+    private Mono<Rental> completeRental(Long userId, Double endLat, Double endLng) {
+        return rentalRepository.findActiveRentalByUserId(userId)
+                .switchIfEmpty(Mono.error(new IllegalStateException("No active rental found for user")))
+                .flatMap(rental -> rentalStatusRepository.findByName("COMPLETED")
+                        .switchIfEmpty(Mono.error(new DataNotFoundException("COMPLETED status not found")))
+                        .zipWith(loadTrack(rental))
+                        .flatMap(statusAndTrack -> {
+                            RentalStatus completedStatus = statusAndTrack.getT1();
+
+                            // Calculate duration and cost
+                            Instant endTime = Instant.now();
+                            long minutes = Duration.between(rental.getStartTime(), endTime).toMinutes();
+                            BigDecimal totalCost = UNLOCK_FEE.add(BASE_RATE.multiply(BigDecimal.valueOf(minutes)));
+
+                            // Calculate distance along the recorded track
+                            double distance = Distance.calculatePathDistance(
+                                    rental.getStartLatitude(), rental.getStartLongitude(),
+                                    statusAndTrack.getT2(),
+                                    endLat, endLng
+                            );
+
+                            // Update rental
+                            rental.setEndTime(endTime);
+                            rental.setEndLatitude(endLat);
+                            rental.setEndLongitude(endLng);
+                            rental.setDurationMinutes((int) minutes);
+                            rental.setTotalCost(totalCost);
+                            rental.setDistanceKm(BigDecimal.valueOf(distance));
+                            rental.setStatusId(completedStatus.getId());
+
+                            return rentalRepository.save(rental);
+                        }))
+                // Commands go to the outbox in the same transaction
+                .flatMap(saved -> transportPublisher.updateStatus(saved.getTransportId(), "AVAILABLE")
+                        .then(transportPublisher.updateCoordinates(saved.getTransportId(), endLat, endLng))
+                        .then(userPublisher.awardBonuses(userId, saved.getDurationMinutes()))
+                        .thenReturn(saved))
+                .as(transactionalOperator::transactional);
+    }
+
+    /**
+     * Zones are evaluated in memory by transport-service, the call is a single lookup.
+     */
+    private Mono<Void> checkParking(Double endLat, Double endLng) {
+        return Mono.fromCallable(() -> transportClient.checkZone(endLat, endLng))
+                .subscribeOn(blockingScheduler)
+                .flatMap(check -> check.parkingAllowed()
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalStateException("Parking is not allowed here: "
+                                + String.join(", ", check.zoneNames()))));
+    }
+
+    private Mono<Void> uploadPhoto(byte[] photoBytes, Long userId) {
+        return Mono.fromRunnable(() -> fileClient.uploadTransportPhoto(photoBytes, userId))
+                .subscribeOn(blockingScheduler)
+                .then();
+    }
+
+    private Mono<TransportResponseDTO> getTransport(Long transportId) {
+        return Mono.fromCallable(() -> transportClient.getTransport(transportId))
+                .subscribeOn(blockingScheduler);
+    }
+
+    /**
+     * Recorded GPS track of the rental, empty if none was recorded
+     * (the distance is then the straight line from start to end).
+     */
+    private Mono<List<TrackPoint>> loadTrack(Rental rental) {
+        return trackRepository.findByRentalId(rental.getId(), rental.getStartTime(), Instant.now())
+                .collectList()
+                .map(TrackCodec::decodeAll);
     }
-}
\ No newline at end of file
+}
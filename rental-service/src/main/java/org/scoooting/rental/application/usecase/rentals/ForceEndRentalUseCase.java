@@ -8,98 +8,128 @@ import org.scoooting.rental.application.mappers.RentalMapper;
 import org.scoooting.rental.application.ports.TransportClient;
 import org.scoooting.rental.application.ports.UserClient;
 import org.scoooting.rental.application.services.Distance;
+import org.scoooting.rental.application.services.TrackCodec;
 import org.scoooting.rental.domain.exceptions.DataNotFoundException;
 import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.model.RentalStatus;
+import org.scoooting.rental.domain.model.TrackPoint;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.scoooting.rental.domain.repositories.TrackRepository;
 import org.scoooting.rental.adapters.message.kafka.dto.ForceEndRentalDto;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
 import org.scoooting.rental.application.dto.TransportResponseDTO;
 import org.scoooting.rental.application.dto.UserResponseDTO;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.math.BigDecimal;
 import java.time.Duration;
 import java.time.Instant;
+import java.util.List;
+import java.util.concurrent.Callable;
 
 @RequiredArgsConstructor
 public class ForceEndRentalUseCase {
 
     private final RentalRepository rentalRepository;
     private final RentalStatusRepository rentalStatusRepository;
+    private final TrackRepository trackRepository;
     private final TransportClient transportClient;
     private final UserClient userClient;  // НУЖЕН для getUserById!
     private final TransportPublisher transportPublisher;  // Добавил
     private final UserPublisher userPublisher;  // Добавил
     private final RentalMapper rentalMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final Scheduler blockingScheduler;
 
     private static final BigDecimal BASE_RATE = new BigDecimal("0.50");
     private static final BigDecimal UNLOCK_FEE = new BigDecimal("1.00");
 
     public Mono<ForceEndRentalDto> forceEndRental(Long rentalId, Double endLat, Double endLng) {
-        return Mono.fromCallable(() -> forceEndRentalBlocking(rentalId, endLat, endLng))
-                .subscribeOn(Schedulers.boundedElastic());
+        return completeRental(rentalId, endLat, endLng)
+                // TRANSACTION ENDS HERE
+                .flatMap(rental -> Mono.zip(
+                                // Get transport info
+                                blocking(() -> transportClient.getTransport(rental.getTransportId())),
+                                // Get user info for response
+                                blocking(() -> userClient.getUserById(rental.getUserId())))
+                        .map(tuple -> {
+                            TransportResponseDTO transport = tuple.getT1();
+                            UserResponseDTO user = tuple.getT2();
+
+                            // Build response
+                            RentalResponseDTO rentalResponseDTO = rentalMapper.toResponseDTO(rental);
+                            rentalResponseDTO.setTransportType(transport.type());
+                            rentalResponseDTO.setStatus("Принудительно завершена");
+
+                            return new ForceEndRentalDto(rentalResponseDTO,
+                                    new UserPrincipal(user.name(), user.id(), user.email(), user.role()));
+                        }));
     }
 
-    @Transactional
-    protected ForceEndRentalDto forceEndRentalBlocking(Long rentalId, Double endLat, Double endLng) {
+    private Mono<Rental> completeRental(Long rentalId, Double endLat, Double endLng) {
         // Find rental by ID
-        Rental rental = rentalRepository.findById(rentalId)
-                .orElseThrow(() -> new DataNotFoundException("Rental not found"));
-
-        // Check if already ended
-        if (rental.getEndTime() != null) {
-            throw new IllegalStateException("Rental already ended");
-        }
-
-        // Calculate duration and cost
-        Instant endTime = Instant.now();
-        long minutes = Duration.between(rental.getStartTime(), endTime).toMinutes();
-        BigDecimal totalCost = UNLOCK_FEE.add(BASE_RATE.multiply(BigDecimal.valueOf(minutes)));
-
-        // Calculate distance
-        double distance = Distance.calculateDistance(
-                rental.getStartLatitude(), rental.getStartLongitude(),
-                endLat, endLng
-        );
-
-        // Update rental
-        rental.setEndTime(endTime);
-        rental.setEndLatitude(endLat);
-        rental.setEndLongitude(endLng);
-        rental.setDurationMinutes((int) minutes);
-        rental.setTotalCost(totalCost);
-        rental.setDistanceKm(BigDecimal.valueOf(distance));
-
-        // Set COMPLETED status
-        RentalStatus completedStatus = rentalStatusRepository.findByName("COMPLETED")
-                .orElseThrow(() -> new DataNotFoundException("COMPLETED status not found"));
-        rental.setStatusId(completedStatus.getId());
-
-        rental = rentalRepository.save(rental);
-
-        // TRANSACTION ENDS HERE
-
-        // Get transport info
-        TransportResponseDTO transport = transportClient.getTransport(rental.getTransportId());
-
-        // Get user info for response
-        UserResponseDTO user = userClient.getUserById(rental.getUserId());
-
-        // Publish commands to Kafka (async)
-        transportPublisher.updateStatus(transport.id(), "AVAILABLE");
-        transportPublisher.updateCoordinates(transport.id(), endLat, endLng);
-        userPublisher.awardBonuses(rental.getUserId(), (int) minutes);
+        return rentalRepository.findById(rentalId)
+                .switchIfEmpty(Mono.error(new DataNotFoundException("Rental not found")))
+                .flatMap(rental -> {
+                    // Check if already ended
+                    if (rental.getEndTime() != null) {
+                        return Mono.error(new IllegalStateException("Rental already ended"));
+                    }
+                    return rentalStatusRepository.findByName("COMPLETED")
+                            .switchIfEmpty(Mono.error(new DataNotFoundException("COMPLETED status not found")))
+                            .zipWith(loadTrack(rental))
+                            .flatMap(statusAndTrack -> {
+                                RentalStatus completedStatus = statusAndTrack.getT1();
+
+                                // Calculate duration and cost
+                                Instant endTime = Instant.now();
+                                long minutes = Duration.between(rental.getStartTime(), endTime).toMinutes();
+                                BigDecimal totalCost = UNLOCK_FEE.add(BASE_RATE.multiply(BigDecimal.valueOf(minutes)));
+
+                                // Calculate distance along the recorded track
+                                double distance = Distance.calculatePathDistance(
+                                        rental.getStartLatitude(), rental.getStartLongitude(),
+                                        statusAndTrack.getT2(),
+                                        endLat, endLng
+                                );
+
+                                // Update rental
+                                rental.setEndTime(endTime);
+                                rental.setEndLatitude(endLat);
+                                rental.setEndLongitude(endLng);
+                                rental.setDurationMinutes((int) minutes);
+                                rental.setTotalCost(totalCost);
+                                rental.setDistanceKm(BigDecimal.valueOf(distance));
+                                rental.setStatusId(completedStatus.getId());
+
+                                return rentalRepository.save(rental);
+                            });
+                })
+                // Commands go to the outbox in the same transaction
+                .flatMap(saved -> transportPublisher.updateStatus(saved.getTransportId(), "AVAILABLE")
+                        .then(transportPublisher.updateCoordinates(saved.getTransportId(), endLat, endLng))
+                        .then(userPublisher.awardBonuses(saved.getUserId(), saved.getDurationMinutes()))
+                        .thenReturn(saved))
+                .as(transactionalOperator::transactional);
+    }
 
-        // Build response
-        RentalResponseDTO rentalResponseDTO = rentalMapper.toResponseDTO(rental);
-        rentalResponseDTO.setTransportType(transport.type());
-        rentalResponseDTO.setStatus("Принудительно завершена");
+    /**
+     * Feign clients are blocking - keep them off the event loop.
+     */
+    private <T> Mono<T> blocking(Callable<T> call) {
+        return Mono.fromCallable(call).subscribeOn(blockingScheduler);
+    }
 
-        return new ForceEndRentalDto(rentalResponseDTO,
-                new UserPrincipal(user.name(), user.id(), user.email(), user.role()));
+    /**
+     * Recorded GPS track of the rental, empty if none was recorded
+     * (the distance is then the straight line from start to end).
+     */
+    private Mono<List<TrackPoint>> loadTrack(Rental rental) {
+        return trackRepository.findByRentalId(rental.getId(), rental.getStartTime(), Instant.now())
+                .collectList()
+                .map(TrackCodec::decodeAll);
     }
-}
\ No newline at end of file
+}
@@ -2,14 +2,14 @@ package org.scoooting.rental.application.usecase.rentals;
 
 import lombok.RequiredArgsConstructor;
 import org.scoooting.rental.application.mappers.RentalMapper;
+import org.scoooting.rental.application.services.RentalCursor;
 import org.scoooting.rental.domain.exceptions.DataNotFoundException;
-import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.repositories.RentalRepository;
+import org.scoooting.rental.application.dto.CursorPageResponseDTO;
 import org.scoooting.rental.application.dto.PageResponseDTO;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
 
 import java.util.List;
 
@@ -18,19 +18,15 @@ public class GetActiveRentalUseCase {
 
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
+    private final TransactionalOperator transactionalOperator;
 
     /**
-     * Get user's active rental (reactive wrapper).
+     * Get user's active rental.
      */
     public Mono<RentalResponseDTO> getActiveRental(Long userId) {
-        return Mono.fromCallable(() ->
-                        rentalRepository.findActiveRentalByUserId(userId)
-                                .map(rentalMapper::toResponseDTO)
-                ).subscribeOn(Schedulers.boundedElastic())
-                .flatMap(optional
-                        -> optional.map(Mono::just).orElseGet(()
-                        -> Mono.error(new DataNotFoundException("No active rental found for user"))
-                ));
+        return rentalRepository.findActiveRentalByUserId(userId)
+                .map(rentalMapper::toResponseDTO)
+                .switchIfEmpty(Mono.error(new DataNotFoundException("No active rental found for user")));
     }
 
     /**
@@ -43,45 +39,53 @@ public class GetActiveRentalUseCase {
      * - System performance metrics
      */
     public Mono<PageResponseDTO<RentalResponseDTO>> getAllRentals(int page, int size) {
-        return Mono.fromCallable(() -> getAllRentalsBlocking(page, size))
-                .subscribeOn(Schedulers.boundedElastic());
+        int offset = page * size;
+        return rentalRepository.findAllRentals(offset, size)
+                .map(rentalMapper::toResponseDTO)
+                .collectList()
+                .flatMap(rentalDTOs -> rentalRepository.countAllRentals()
+                        .map(total -> toPage(rentalDTOs, page, size, total)))
+                .as(transactionalOperator::transactional);
     }
 
     /**
-     * Get all system rentals with pagination (Analyst only).
+     * Get all rentals page by page, newest first, using a keyset cursor (Analyst operation).
+     *
+     * Preferred over {@link #getAllRentals} for deep listings:
+     * - Seeks on (start_time, id) via index, page latency doesn't grow with page number
+     * - No COUNT(*) over the whole table per page
      *
-     * TRANSACTION (readOnly=true) IS NEEDED:
+     * TRANSACTION NOT NEEDED:
+     * - Single SELECT
+     *
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param size items per page
+     */
+    public Mono<CursorPageResponseDTO<RentalResponseDTO>> scrollAllRentals(String cursor, int size) {
+        return Mono.fromCallable(() -> RentalCursor.decode(cursor))
+                .flatMap(position -> rentalRepository.findAllRentalsBefore(position.startTime(), position.id(), size + 1)
+                        .collectList())
+                .map(rentals -> RentalCursor.toPage(rentals, size, rentalMapper::toResponseDTO));
+    }
+
+    /**
+     * TRANSACTION IS NEEDED:
      * - Makes 2 queries:
      *   1. SELECT all rentals with pagination
      *   2. SELECT COUNT(*) for total
-     * - Without transaction: 2 separate connections, possible inconsistency
-     * - With transaction: single consistent snapshot
+     * - Without transaction: 2 separate connections taken from the R2DBC pool
+     * - With transaction: both queries run on one connection, one after another
      *
-     * WHY readOnly=true:
-     * - Analyst queries are read-only by design
-     * - No data modifications
-     * - Allows JDBC optimizations
-     * - Prevents accidental data changes
+     * WHY the queries are sequential (flatMap, not Mono.zip):
+     * - A transaction is bound to a single connection
+     * - Zipping would subscribe to both queries at once on that connection
      *
      * PERFORMANCE NOTE:
      * - This can return thousands of rentals
      * - Consider adding filters (date range, status, etc.) in production
-     * - For now, basic pagination is sufficient for lab work
-     *
-     * @param page page number (0-indexed)
-     * @param size items per page
-     * @return paginated list of all rentals
      */
-    @Transactional(readOnly = true)
-    protected PageResponseDTO<RentalResponseDTO> getAllRentalsBlocking(int page, int size) {
-        int offset = page * size;
-        List<Rental> rentals = rentalRepository.findAllRentals(offset, size);
-        long total = rentalRepository.countAllRentals();
-
-        List<RentalResponseDTO> rentalDTOs = rentals.stream()
-                .map(rentalMapper::toResponseDTO)
-                .toList();
-
+    private static PageResponseDTO<RentalResponseDTO> toPage(List<RentalResponseDTO> rentalDTOs,
+                                                             int page, int size, long total) {
         int totalPages = (int) Math.ceil((double) total / size);
         return new PageResponseDTO<>(
                 rentalDTOs,
@@ -2,71 +2,75 @@ package org.scoooting.rental.application.usecase.rentals;
 
 import lombok.RequiredArgsConstructor;
 import org.scoooting.rental.application.mappers.RentalMapper;
-import org.scoooting.rental.domain.model.Rental;
+import org.scoooting.rental.application.services.RentalCursor;
 import org.scoooting.rental.domain.repositories.RentalRepository;
+import org.scoooting.rental.application.dto.CursorPageResponseDTO;
 import org.scoooting.rental.application.dto.PageResponseDTO;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
-
-import java.util.List;
 
 @RequiredArgsConstructor
 public class RentalHistoryUseCase {
 
     private final RentalRepository rentalRepository;
     private final RentalMapper rentalMapper;
-
-    /**
-     * Get user's rental history (reactive wrapper).
-     */
-    public Mono<PageResponseDTO<RentalResponseDTO>> getUserRentalHistory(Long userId, int page, int size) {
-        return Mono.fromCallable(() -> getUserRentalHistoryBlocking(userId, page, size))
-                .subscribeOn(Schedulers.boundedElastic());
-    }
-
+    private final TransactionalOperator transactionalOperator;
 
     /**
      * Get paginated rental history for user.
      *
-     * TRANSACTION (readOnly=true) IS NEEDED:
+     * TRANSACTION IS NEEDED:
      * - Makes 2 queries:
      *   1. SELECT rentals with pagination
      *   2. SELECT COUNT(*) for total
      * - Without transaction: 2 separate connections
-     * - With transaction: single connection reused
+     * - With transaction: single connection reused, queries run one after another
      *
-     * WHY readOnly=true:
-     * - Tells Hibernate: no entity changes expected
-     * - Skips dirty checking (no tracking of entity modifications)
-     * - Skips flush() before queries
-     * - JDBC driver can optimize with read-only connection mode
-     * - 10-20% faster than regular transaction for read operations
-     *
-     * CONSISTENT SNAPSHOT:
-     * - Both queries (SELECT rentals + COUNT) see same database state
-     * - Without transaction: between two queries, data might change
-     *   * SELECT returns 20 rentals
-     *   * New rental created
-     *   * COUNT returns 21
-     *   * Inconsistent: totalPages calculation wrong
-     * - With transaction: both queries use same consistent snapshot
+     * CONSISTENCY NOTE:
+     * - Default isolation is READ COMMITTED, so a rental committed between the two
+     *   queries may still show up in COUNT - acceptable for history pages
      *
      * @param userId user ID
      * @param page page number (0-indexed)
      * @param size items per page
      * @return paginated rental history
      */
-    @Transactional(readOnly = true)
-    protected PageResponseDTO<RentalResponseDTO> getUserRentalHistoryBlocking(Long userId, int page, int size) {
+    public Mono<PageResponseDTO<RentalResponseDTO>> getUserRentalHistory(Long userId, int page, int size) {
         int offset = page * size;
-        List<Rental> rentals = rentalRepository.findRentalHistoryByUserId(userId, offset, size);
-        long total = rentalRepository.countRentalsByUserId(userId);
-
-        List<RentalResponseDTO> rentalDTOs = rentals.stream().map(rentalMapper::toResponseDTO).toList();
+        return rentalRepository.findRentalHistoryByUserId(userId, offset, size)
+                .map(rentalMapper::toResponseDTO)
+                .collectList()
+                .flatMap(rentalDTOs -> rentalRepository.countRentalsByUserId(userId)
+                        .map(total -> {
+                            int totalPages = (int) Math.ceil((double) total / size);
+                            return new PageResponseDTO<>(rentalDTOs, page, size, total, totalPages,
+                                    page == 0, page >= totalPages - 1);
+                        }))
+                .as(transactionalOperator::transactional);
+    }
 
-        int totalPages = (int) Math.ceil((double) total / size);
-        return new PageResponseDTO<>(rentalDTOs, page, size, total, totalPages, page == 0, page >= totalPages - 1);
+    /**
+     * Get user's rental history page by page, newest first, using a keyset cursor.
+     *
+     * WHY keyset instead of OFFSET:
+     * - OFFSET reads and throws away all previous rows, deep pages get linearly slower
+     * - Seeking on (start_time, id) is an index range scan of size + 1 rows on any page
+     * - No COUNT(*) per page, and rentals added meanwhile don't shift the next page
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single SELECT
+     *
+     * @param userId user ID
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param size items per page
+     * @return rentals and the cursor of the next page (null on the last page)
+     */
+    public Mono<CursorPageResponseDTO<RentalResponseDTO>> scrollUserRentalHistory(Long userId, String cursor, int size) {
+        return Mono.fromCallable(() -> RentalCursor.decode(cursor))
+                .flatMap(position -> rentalRepository.findRentalHistoryByUserIdBefore(userId,
+                                position.startTime(), position.id(), size + 1)
+                        .collectList())
+                .map(rentals -> RentalCursor.toPage(rentals, size, rentalMapper::toResponseDTO));
     }
 }
@@ -0,0 +1,99 @@
+package org.scoooting.rental.application.usecase.rentals;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.rental.application.dto.RentalTrackDTO;
+import org.scoooting.rental.application.services.TrackCodec;
+import org.scoooting.rental.domain.exceptions.DataNotFoundException;
+import org.scoooting.rental.domain.model.Rental;
+import org.scoooting.rental.domain.model.TrackPoint;
+import org.scoooting.rental.domain.model.TrackSegment;
+import org.scoooting.rental.domain.repositories.RentalRepository;
+import org.scoooting.rental.domain.repositories.TrackRepository;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+
+@RequiredArgsConstructor
+public class RentalTrackUseCase {
+
+    private final RentalRepository rentalRepository;
+    private final TrackRepository trackRepository;
+
+    /**
+     * Append transport positions to the tracks of their active rentals.
+     *
+     * HOW a batch is recorded (2 queries, whatever the batch size):
+     * 1. SELECT active rentals of all transports in the batch
+     * 2. INSERT one delta-encoded segment per rental
+     * Positions of transports without an active rental, and positions taken before
+     * the rental started, are dropped.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - The only write is a single INSERT, segments are append-only
+     *
+     * @param positions positions by transport id
+     * @return number of points recorded
+     */
+    public Mono<Integer> recordPositions(Map<Long, List<TrackPoint>> positions) {
+        if (positions.isEmpty()) {
+            return Mono.just(0);
+        }
+        return rentalRepository.findActiveRentalsByTransportIds(positions.keySet())
+                .mapNotNull(rental -> toSegment(rental, positions.get(rental.getTransportId())))
+                .collectList()
+                .flatMap(segments -> trackRepository.append(segments)
+                        .thenReturn(segments.stream().mapToInt(TrackSegment::pointCount).sum()));
+    }
+
+    private static TrackSegment toSegment(Rental rental, List<TrackPoint> points) {
+        if (points == null) {
+            return null;
+        }
+        List<TrackPoint> track = points.stream()
+                .filter(point -> rental.getStartTime() == null || !point.recordedAt().isBefore(rental.getStartTime()))
+                .sorted(Comparator.comparing(TrackPoint::recordedAt))
+                .toList();
+        if (track.isEmpty()) {
+            return null;
+        }
+        return new TrackSegment(rental.getId(), track.get(0).recordedAt(), track.size(), TrackCodec.encode(track));
+    }
+
+    /**
+     * Get the GPS track of a rental as an encoded polyline.
+     *
+     * Users see only their own rentals; for others the rental is reported as not found,
+     * so rental ids of other users can't be probed.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Read-only, segments are append-only
+     *
+     * @param anyUser true for staff roles that may see every rental
+     */
+    public Mono<RentalTrackDTO> getTrack(Long rentalId, Long userId, boolean anyUser) {
+        return rentalRepository.findById(rentalId)
+                .filter(rental -> anyUser || rental.getUserId().equals(userId))
+                .switchIfEmpty(Mono.error(new DataNotFoundException("Rental not found")))
+                .flatMap(rental -> trackRepository.findByRentalId(rentalId, rental.getStartTime(),
+                                rental.getEndTime() != null ? rental.getEndTime() : Instant.now())
+                        .collectList()
+                        .map(segments -> toTrack(rental, TrackCodec.decodeAll(segments))));
+    }
+
+    private static RentalTrackDTO toTrack(Rental rental, List<TrackPoint> recorded) {
+        List<TrackPoint> points = new ArrayList<>(recorded.size() + 2);
+        if (rental.getStartLatitude() != null && rental.getStartLongitude() != null) {
+            points.add(new TrackPoint(rental.getStartTime(), rental.getStartLatitude(), rental.getStartLongitude()));
+        }
+        points.addAll(recorded);
+        if (rental.getEndLatitude() != null && rental.getEndLongitude() != null) {
+            points.add(new TrackPoint(rental.getEndTime(), rental.getEndLatitude(), rental.getEndLongitude()));
+        }
+        return new RentalTrackDTO(rental.getId(), points.size(), rental.getStartTime(), rental.getEndTime(),
+                TrackCodec.toPolyline(points));
+    }
+}
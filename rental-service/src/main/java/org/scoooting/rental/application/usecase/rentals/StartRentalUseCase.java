@@ -5,14 +5,16 @@ import org.scoooting.rental.adapters.message.kafka.TransportPublisher;
 import org.scoooting.rental.application.mappers.RentalMapper;
 import org.scoooting.rental.application.ports.TransportClient;
 import org.scoooting.rental.domain.exceptions.DataNotFoundException;
+import org.scoooting.rental.domain.exceptions.TransportNotAvailableException;
+import org.scoooting.rental.domain.exceptions.TransportNotFoundException;
 import org.scoooting.rental.domain.model.Rental;
-import org.scoooting.rental.domain.model.RentalStatus;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
-import org.springframework.transaction.annotation.Transactional;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
-import reactor.core.scheduler.Schedulers;
+import reactor.core.scheduler.Scheduler;
 
 import java.time.Instant;
 
@@ -24,34 +26,78 @@ public class StartRentalUseCase {
     private final TransportClient transportClient;
     private final TransportPublisher transportPublisher;
     private final RentalMapper rentalMapper;
+    private final TransactionalOperator transactionalOperator;
+    private final Scheduler blockingScheduler;
 
+    /**
+     * Start rental.
+     *
+     * HOW the transport is taken:
+     * - transport-service switches it AVAILABLE -> IN_USE with one compare-and-set UPDATE,
+     *   or RESERVED -> IN_USE if this user holds the reservation
+     * - Of two users starting a rental on the same scooter exactly one wins,
+     *   the other gets TransportNotAvailableException before any rental row is written
+     * - A scooter reserved by someone else is not available either
+     *
+     * TRANSACTION NOT NEEDED around the whole flow:
+     * - The check for an active rental runs before the remote acquire, outside any transaction;
+     *   it is only a fast path that spares transport-service a call for a user who already rides
+     * - Only the INSERT of the rental runs in a transaction, the remote call can't be part of it
+     *
+     * CONSISTENCY:
+     * - One ACTIVE rental per user is enforced by the unique partial index uq_rentals_active_user:
+     *   of two concurrent requests of the same user that both pass the check, the second INSERT fails
+     * - That violation is reported the same way as the check
+     * - If the rental is not saved after the transport was acquired, the transport
+     *   is released through the outbox, so the release survives a Kafka outage
+     * - The same release follows any failed acquire except a definite 409 or 404: after a read
+     *   timeout, a 5xx or an open breaker the transport may have been taken without us knowing,
+     *   and releasing an AVAILABLE transport again changes nothing
+     */
     public Mono<RentalResponseDTO> startRental(Long userId, Long transportId, Double startLat, Double startLng) {
-        return Mono.fromCallable(() -> startRentalBlocking(userId, transportId, startLat, startLng))
-                .subscribeOn(Schedulers.boundedElastic());
+        return rentalRepository.findActiveRentalByUserId(userId)
+                .hasElement()
+                .flatMap(hasActive -> hasActive
+                        ? Mono.error(new IllegalStateException("User already has an active rental"))
+                        : acquireTransport(transportId, userId)
+                                .then(Mono.defer(() -> createRental(userId, transportId, startLat, startLng))
+                                        .onErrorResume(e -> releaseTransport(transportId).then(Mono.error(e)))))
+                .map(rentalMapper::toResponseDTO);
     }
 
-    @Transactional
-    protected RentalResponseDTO startRentalBlocking(Long userId, Long transportId, Double startLat, Double startLng) {
-        if (rentalRepository.findActiveRentalByUserId(userId).isPresent()) {
-            throw new IllegalStateException("User already has an active rental");
-        }
-
-        RentalStatus rentalStatus = rentalStatusRepository.findByName("ACTIVE")
-                .orElseThrow(() -> new DataNotFoundException("ACTIVE status not found"));
-
-        Rental rental = Rental.builder()
-                .userId(userId)
-                .transportId(transportId)
-                .statusId(rentalStatus.getId())
-                .startTime(Instant.now())
-                .startLatitude(startLat)
-                .startLongitude(startLng)
-                .build();
-        rental = rentalRepository.save(rental);
-
-        // Publish to Kafka instead of HTTP
-        transportPublisher.updateStatus(transportId, "IN_USE");
-
-        return rentalMapper.toResponseDTO(rental);
+    private Mono<Void> acquireTransport(Long transportId, Long userId) {
+        return Mono.fromCallable(() -> transportClient.acquireTransport(transportId, userId))
+                .subscribeOn(blockingScheduler)
+                .then()
+                .onErrorResume(e -> !isDefiniteRefusal(e),
+                        e -> releaseTransport(transportId).then(Mono.error(e)));
     }
-}
\ No newline at end of file
+
+    /**
+     * transport-service answered and did not hand the transport over.
+     */
+    private static boolean isDefiniteRefusal(Throwable e) {
+        return e instanceof TransportNotAvailableException || e instanceof TransportNotFoundException;
+    }
+
+    private Mono<Rental> createRental(Long userId, Long transportId, Double startLat, Double startLng) {
+        return rentalStatusRepository.findByName("ACTIVE")
+                .switchIfEmpty(Mono.error(new DataNotFoundException("ACTIVE status not found")))
+                .flatMap(rentalStatus -> rentalRepository.save(Rental.builder()
+                        .userId(userId)
+                        .transportId(transportId)
+                        .statusId(rentalStatus.getId())
+                        .startTime(Instant.now())
+                        .startLatitude(startLat)
+                        .startLongitude(startLng)
+                        .build()))
+                .onErrorMap(DuplicateKeyException.class,
+                        e -> new IllegalStateException("User already has an active rental"))
+                .as(transactionalOperator::transactional);
+    }
+
+    private Mono<Void> releaseTransport(Long transportId) {
+        return transportPublisher.updateStatus(transportId, "AVAILABLE")
+                .as(transactionalOperator::transactional);
+    }
+}
@@ -0,0 +1,7 @@
+package org.scoooting.rental.domain.exceptions;
+
+public class IdempotencyConflictException extends RuntimeException {
+    public IdempotencyConflictException(String message) {
+        super(message);
+    }
+}
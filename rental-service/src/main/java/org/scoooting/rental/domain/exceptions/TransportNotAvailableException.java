@@ -0,0 +1,7 @@
+package org.scoooting.rental.domain.exceptions;
+
+public class TransportNotAvailableException extends RuntimeException {
+    public TransportNotAvailableException(String message) {
+        super(message);
+    }
+}
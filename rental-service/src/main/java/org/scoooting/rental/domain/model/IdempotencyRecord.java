@@ -0,0 +1,14 @@
+package org.scoooting.rental.domain.model;
+
+/**
+ * Stored outcome of a request sent with an Idempotency-Key.
+ *
+ * @param fingerprint operation and its main parameters, a reused key must match it
+ * @param responseBody JSON of the response, empty if it has no body; null while the request is in progress
+ */
+public record IdempotencyRecord(String fingerprint, String responseBody) {
+
+    public boolean isCompleted() {
+        return responseBody != null;
+    }
+}
@@ -0,0 +1,10 @@
+package org.scoooting.rental.domain.model;
+
+import java.time.Instant;
+
+/**
+ * One GPS position of a rented transport.
+ *
+ * @param recordedAt device time of the measurement
+ */
+public record TrackPoint(Instant recordedAt, double latitude, double longitude) {}
@@ -0,0 +1,11 @@
+package org.scoooting.rental.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Stored piece of a rental track: points that arrived together, delta-encoded.
+ *
+ * @param recordedAt time of the first point
+ * @param points encoded points, see TrackCodec
+ */
+public record TrackSegment(Long rentalId, Instant recordedAt, int pointCount, byte[] points) {}
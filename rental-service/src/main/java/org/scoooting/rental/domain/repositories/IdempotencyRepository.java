@@ -0,0 +1,41 @@
+package org.scoooting.rental.domain.repositories;
+
+import org.scoooting.rental.domain.model.IdempotencyRecord;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+
+public interface IdempotencyRepository {
+
+    /**
+     * Take a key for a request about to run, in one statement.
+     * An in-progress claim with no heartbeat since staleBefore (its instance died mid-request) is taken over.
+     *
+     * @param claimId id of this claim, required by the other operations on it
+     * @return true if the caller owns the key now, false if it is completed or in progress elsewhere
+     */
+    Mono<Boolean> claim(Long userId, String key, String fingerprint, String claimId, Instant staleBefore);
+
+    Mono<IdempotencyRecord> find(Long userId, String key);
+
+    /**
+     * Keep an in-progress claim from being taken over.
+     */
+    Mono<Void> heartbeat(Long userId, String key, String claimId);
+
+    /**
+     * Store the response of a claimed key. No-op if the claim was taken over.
+     */
+    Mono<Void> complete(Long userId, String key, String claimId, String responseBody);
+
+    /**
+     * Drop an in-progress claim, so the request can be retried with the same key.
+     * No-op if the claim was taken over.
+     */
+    Mono<Void> release(Long userId, String key, String claimId);
+
+    /**
+     * @return number of deleted keys
+     */
+    Mono<Long> deleteCreatedBefore(Instant createdBefore);
+}
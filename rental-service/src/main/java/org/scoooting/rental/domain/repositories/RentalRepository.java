@@ -1,22 +1,45 @@
 package org.scoooting.rental.domain.repositories;
 
 import org.scoooting.rental.domain.model.Rental;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.List;
-import java.util.Optional;
+import java.time.Instant;
+import java.util.Collection;
 
 public interface RentalRepository extends Repository<Rental, Long> {
 
-    Optional<Rental> findActiveRentalByUserId(Long userId);
+    Mono<Rental> findActiveRentalByUserId(Long userId);
 
-    List<Rental> findRentalHistoryByUserId(Long userId, int offset, int limit);
+    /**
+     * Active rentals of the given transports, one query for the whole batch.
+     */
+    Flux<Rental> findActiveRentalsByTransportIds(Collection<Long> transportIds);
 
-    List<Rental> findAllRentals(int offset, int limit);
+    Flux<Rental> findRentalHistoryByUserId(Long userId, int offset, int limit);
 
-    long countAllRentals();
+    Flux<Rental> findAllRentals(int offset, int limit);
 
-    long countRentalsByUserId(Long userId);
+    /**
+     * Keyset page of user's rentals ordered by (startTime DESC, id DESC).
+     *
+     * @param startTime start time of the last rental already seen, null for the first page
+     * @param id id of the last rental already seen, null for the first page
+     */
+    Flux<Rental> findRentalHistoryByUserIdBefore(Long userId, Instant startTime, Long id, int limit);
 
-    List<Rental> findByStatusId(Long statusId);
+    /**
+     * Keyset page of all rentals ordered by (startTime DESC, id DESC).
+     *
+     * @param startTime start time of the last rental already seen, null for the first page
+     * @param id id of the last rental already seen, null for the first page
+     */
+    Flux<Rental> findAllRentalsBefore(Instant startTime, Long id, int limit);
+
+    Mono<Long> countAllRentals();
+
+    Mono<Long> countRentalsByUserId(Long userId);
+
+    Flux<Rental> findByStatusId(Long statusId);
 
 }
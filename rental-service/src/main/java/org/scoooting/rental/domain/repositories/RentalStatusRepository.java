@@ -1,9 +1,13 @@
 package org.scoooting.rental.domain.repositories;
 
 import org.scoooting.rental.domain.model.RentalStatus;
-
-import java.util.Optional;
+import reactor.core.publisher.Mono;
 
 public interface RentalStatusRepository extends Repository<RentalStatus, Long> {
-    Optional<RentalStatus> findByName(String name);
+    Mono<RentalStatus> findByName(String name);
+
+    /**
+     * Reload reference data (statuses are cached in process).
+     */
+    Mono<Void> refresh();
 }
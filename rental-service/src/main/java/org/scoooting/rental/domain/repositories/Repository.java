@@ -1,17 +1,17 @@
 package org.scoooting.rental.domain.repositories;
 
-import java.util.Optional;
+import reactor.core.publisher.Mono;
 
 public interface Repository<T, ID> {
 
-    Optional<T> findById(ID id);
+    Mono<T> findById(ID id);
 
-    boolean existsById(ID id);
+    Mono<Boolean> existsById(ID id);
 
-    T save(T entity);
+    Mono<T> save(T entity);
 
-    void delete(T entity);
+    Mono<Void> delete(T entity);
 
-    void deleteById(ID id);
+    Mono<Void> deleteById(ID id);
 
 }
@@ -0,0 +1,25 @@
+package org.scoooting.rental.domain.repositories;
+
+import org.scoooting.rental.domain.model.TrackSegment;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Instant;
+import java.util.Collection;
+
+/**
+ * Append-only storage of rental tracks.
+ */
+public interface TrackRepository {
+
+    Mono<Void> append(Collection<TrackSegment> segments);
+
+    /**
+     * The time range lets the lookup skip the monthly partitions outside the rental.
+     *
+     * @param from start of the rental
+     * @param to end of the rental, now if it is still active
+     * @return segments of the rental ordered by time of their first point
+     */
+    Flux<TrackSegment> findByRentalId(Long rentalId, Instant from, Instant to);
+}
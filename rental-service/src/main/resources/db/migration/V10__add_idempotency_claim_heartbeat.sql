@@ -0,0 +1,6 @@
+-- Claims of idempotency keys, see IdempotencyUseCase.
+-- claim_id identifies the owner of a claim: a claim that was taken over can't be completed or released
+-- by its previous owner. heartbeat_at is refreshed while the request runs; only a claim whose
+-- heartbeat stopped (its instance died) is taken over, a slow request keeps its key.
+alter table idempotency_keys add column claim_id varchar(36);
+alter table idempotency_keys add column heartbeat_at timestamp with time zone not null default now();
@@ -0,0 +1,18 @@
+-- Messages that can never be sent (unknown payload type, unreadable payload) are parked here
+-- instead of being marked published: dead_lettered_at is set and the reason kept for inspection.
+alter table outbox_messages add column dead_lettered_at timestamp with time zone;
+alter table outbox_messages add column last_error varchar(500);
+
+drop index idx_outbox_messages_pending;
+create index idx_outbox_messages_pending on outbox_messages (id)
+    where published_at is null and dead_lettered_at is null;
+
+-- One relay at a time across rental-service instances, see OutboxRelay.
+-- A single row: the instance holding an unexpired lease relays, the others wait for it to expire.
+create table outbox_relay_lease (
+    id int primary key check (id = 1),
+    owner varchar(36),
+    lease_until timestamp with time zone not null default 'epoch'
+);
+
+insert into outbox_relay_lease (id) values (1);
@@ -0,0 +1,23 @@
+-- Retention of rental tracks, see RentalTrackPartitionScheduler.
+-- Drops the monthly partitions of rental_track_segments that end before the month of cutoff,
+-- a dropped month is freed at once, without DELETE + VACUUM. The default partition is never dropped.
+create or replace function drop_rental_track_partitions_before(cutoff date) returns integer as $$
+declare
+    partition_name text;
+    dropped integer := 0;
+begin
+    for partition_name in
+        select child.relname
+        from pg_inherits
+                 join pg_class child on child.oid = pg_inherits.inhrelid
+                 join pg_class parent on parent.oid = pg_inherits.inhparent
+        where parent.relname = 'rental_track_segments'
+          and child.relname ~ '^rental_track_segments_[0-9]{4}_[0-9]{2}$'
+          and to_date(right(child.relname, 7), 'YYYY_MM') < date_trunc('month', cutoff)
+    loop
+        execute format('drop table %I', partition_name);
+        dropped := dropped + 1;
+    end loop;
+    return dropped;
+end;
+$$ language plpgsql;
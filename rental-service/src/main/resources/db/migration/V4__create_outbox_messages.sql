@@ -0,0 +1,13 @@
+-- Transactional outbox: Kafka commands are written in the same transaction as the rental
+-- and relayed to Kafka by OutboxRelay
+create table outbox_messages (
+    id bigserial primary key,
+    topic varchar(100) not null,
+    payload_type varchar(100) not null,
+    payload text not null,
+    created_at timestamp with time zone not null default now(),
+    published_at timestamp with time zone
+);
+
+-- Relay only ever scans pending messages, keep that index tiny
+create index idx_outbox_messages_pending on outbox_messages (id) where published_at is null;
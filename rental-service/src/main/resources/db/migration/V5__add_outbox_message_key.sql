@@ -0,0 +1,2 @@
+-- Kafka record key (transportId / userId): keeps commands for one entity in one partition
+alter table outbox_messages add column message_key varchar(100);
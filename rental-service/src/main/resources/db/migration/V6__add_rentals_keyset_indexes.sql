@@ -0,0 +1,4 @@
+-- Keyset pagination: history and analyst listings seek on (start_time, id) instead of OFFSET,
+-- so every page is an index range scan of exactly `limit` rows
+create index idx_rentals_user_start_time_id on rentals (user_id, start_time desc, id desc);
+create index idx_rentals_start_time_id on rentals (start_time desc, id desc);
@@ -0,0 +1,42 @@
+-- One ACTIVE rental per user, enforced by the database rather than only by the
+-- check-then-insert in StartRentalUseCase (two concurrent requests can both pass the check).
+--
+-- The ACTIVE id is looked up at migration time instead of hard-coded, because a partial index
+-- predicate must be a constant. The index only enforces uniqueness: RentalR2dbcRepository selects
+-- status_id through a sub-select, which the planner can't match against the predicate, so the active
+-- rental of a user is found through idx_rentals_user_start_time_id (one user's history, a few rows).
+
+-- Leftovers of the race above would block the unique index. They are live rentals with a
+-- transport IN_USE in transport-service, so a schema migration doesn't end or cancel them:
+-- the migration fails with the list of users and their ACTIVE rentals for an operator to
+-- resolve (end or force-end the extra rentals through the API), then is re-run.
+do $$
+    declare
+        duplicates text;
+    begin
+        select string_agg(format('user %s: rentals %s', user_id, rental_ids), '; ' order by user_id)
+        into duplicates
+        from (select user_id, string_agg(id::text, ', ' order by start_time, id) as rental_ids
+              from rentals
+              where status_id = (select id from rental_statuses where name = 'ACTIVE')
+              group by user_id
+              having count(*) > 1) d;
+        if duplicates is not null then
+            raise exception 'Users with more than one ACTIVE rental, resolve them before creating uq_rentals_active_user: %',
+                duplicates;
+        end if;
+    end;
+$$;
+
+do $$
+    declare
+        active_id bigint;
+    begin
+        select id into strict active_id from rental_statuses where name = 'ACTIVE';
+        execute format('create unique index uq_rentals_active_user on rentals (user_id) where status_id = %s',
+                       active_id);
+    end;
+$$;
+
+-- findByStatusId: ACTIVE is a tiny slice of the table, no need to scan the whole history for it
+create index idx_rentals_status_id on rentals (status_id);
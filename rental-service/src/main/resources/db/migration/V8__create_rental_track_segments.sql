@@ -0,0 +1,30 @@
+-- GPS trail of rentals. Append-only: one row per batch of points of one rental,
+-- points holds the delta-encoded (time, latitude, longitude) triples (see TrackCodec).
+--
+-- Partitioned by month of recorded_at:
+-- - a track lookup touches only the partitions of the rental's time range
+-- - old months are detached/dropped as a whole instead of DELETE + VACUUM
+create table rental_track_segments (
+    rental_id bigint not null,
+    recorded_at timestamp with time zone not null,  -- time of the first point of the segment
+    point_count integer not null,
+    points bytea not null
+) partition by range (recorded_at);
+
+create index idx_rental_track_segments_rental on rental_track_segments (rental_id, recorded_at);
+
+-- Catches rows outside the created months, RentalTrackPartitionScheduler keeps it empty
+create table rental_track_segments_default partition of rental_track_segments default;
+
+create or replace function create_rental_track_partition(month date) returns void as $$
+declare
+    month_start date := date_trunc('month', month);
+begin
+    execute format('create table if not exists %I partition of rental_track_segments for values from (%L) to (%L)',
+                   'rental_track_segments_' || to_char(month_start, 'YYYY_MM'),
+                   month_start, (month_start + interval '1 month')::date);
+end;
+$$ language plpgsql;
+
+select create_rental_track_partition(current_date);
+select create_rental_track_partition((current_date + interval '1 month')::date);
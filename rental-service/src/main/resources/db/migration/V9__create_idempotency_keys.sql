@@ -0,0 +1,15 @@
+-- Responses of requests sent with an Idempotency-Key header, see IdempotencyUseCase.
+-- A row is claimed before the request runs (completed_at null = in progress)
+-- and completed with the response after it; a retry with the same key gets the stored response.
+create table idempotency_keys (
+    user_id bigint not null,
+    idempotency_key varchar(100) not null,
+    fingerprint varchar(100) not null,      -- operation and its main parameters, a reused key must match
+    response_body text,                     -- JSON, empty for responses without a body
+    created_at timestamp with time zone not null default now(),
+    completed_at timestamp with time zone,
+    primary key (user_id, idempotency_key)
+);
+
+-- Cleanup of keys past retention
+create index idx_idempotency_keys_created_at on idempotency_keys (created_at);
@@ -0,0 +1,93 @@
+package org.scooting.rental.adapters.message.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.rental.adapters.message.kafka.KafkaConfig;
+import org.scoooting.rental.adapters.message.kafka.TransportPositionListener;
+import org.scoooting.rental.application.usecase.rentals.RentalTrackUseCase;
+import org.scoooting.rental.domain.model.TrackPoint;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertDoesNotThrow;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyMap;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransportPositionListenerTest {
+
+    @Mock
+    private RentalTrackUseCase rentalTrackUseCase;
+
+    private TransportPositionListener listener;
+
+    @BeforeEach
+    void setUp() {
+        listener = new TransportPositionListener(new ObjectMapper(), rentalTrackUseCase, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void handlePositions_RecordsBatchBeforeReturning() {
+        // Arrange
+        AtomicBoolean recorded = new AtomicBoolean();
+        when(rentalTrackUseCase.recordPositions(anyMap()))
+                .thenReturn(Mono.delay(Duration.ofMillis(50)).then(Mono.fromCallable(() -> {
+                    recorded.set(true);
+                    return 2;
+                })));
+
+        // Act
+        listener.handlePositions(List.of(
+                record(0, Map.of("transportId", 1, "latitude", 59.9, "longitude", 30.3, "ts", 1_000)),
+                record(1, Map.of("transportId", 1, "latitude", 59.8, "longitude", 30.2, "ts", 2_000))));
+
+        // Assert
+        assertTrue(recorded.get());
+        verify(rentalTrackUseCase).recordPositions(Map.of(1L, List.of(
+                new TrackPoint(Instant.ofEpochMilli(1_000), 59.9, 30.3),
+                new TrackPoint(Instant.ofEpochMilli(2_000), 59.8, 30.2))));
+    }
+
+    @Test
+    void handlePositions_IncompleteAndUnreadableRecords_AreSkipped() {
+        // Arrange
+        when(rentalTrackUseCase.recordPositions(anyMap())).thenReturn(Mono.just(1));
+
+        // Act
+        listener.handlePositions(List.of(
+                record(0, Map.of("transportId", 1, "latitude", 59.9)),
+                record(1, Map.of("transportId", "not-a-number", "latitude", 59.9, "longitude", 30.3, "ts", 1)),
+                record(2, Map.of("transportId", 2, "latitude", 59.9, "longitude", 30.3, "ts", 1_000))));
+
+        // Assert
+        verify(rentalTrackUseCase).recordPositions(Map.of(2L, List.of(
+                new TrackPoint(Instant.ofEpochMilli(1_000), 59.9, 30.3))));
+    }
+
+    @Test
+    void handlePositions_SlowOrFailedRecording_IsSkippedWithinTimeout() {
+        // Arrange
+        listener = new TransportPositionListener(new ObjectMapper(), rentalTrackUseCase, Duration.ofMillis(50));
+        when(rentalTrackUseCase.recordPositions(anyMap())).thenReturn(Mono.never());
+        List<ConsumerRecord<String, Object>> records = List.of(
+                record(0, Map.of("transportId", 1, "latitude", 59.9, "longitude", 30.3, "ts", 1_000)));
+
+        // Act & Assert
+        assertDoesNotThrow(() -> listener.handlePositions(records));
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>(KafkaConfig.TRANSPORT_POSITIONS_TOPIC, 0, offset, "1", value);
+    }
+}
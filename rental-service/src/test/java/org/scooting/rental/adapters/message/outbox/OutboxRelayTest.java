@@ -0,0 +1,188 @@
+package org.scooting.rental.adapters.message.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.rental.adapters.message.kafka.dto.TransportStatusDTO;
+import org.scoooting.rental.adapters.message.outbox.OutboxRelay;
+import org.scoooting.rental.adapters.persistence.entities.OutboxMessageEntity;
+import org.scoooting.rental.adapters.persistence.repositories.r2dbc.OutboxR2dbcRepository;
+import org.springframework.kafka.core.KafkaTemplate;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxRelayTest {
+
+    private static final String TOPIC = "transport-commands";
+
+    @Mock
+    private OutboxR2dbcRepository outboxRepository;
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private OutboxRelay outboxRelay;
+
+    @BeforeEach
+    void setUp() {
+        outboxRelay = new OutboxRelay(outboxRepository, kafkaTemplate, new ObjectMapper(),
+                100, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofDays(1));
+    }
+
+    private static OutboxMessageEntity message(long id, String payloadType, String payload) {
+        return OutboxMessageEntity.builder()
+                .id(id)
+                .topic(TOPIC)
+                .messageKey("7")
+                .payloadType(payloadType)
+                .payload(payload)
+                .build();
+    }
+
+    private static OutboxMessageEntity status(long id, String status) {
+        return message(id, "TransportStatusDTO", "{\"transportId\":7,\"status\":\"" + status + "\"}");
+    }
+
+    @Test
+    void relay_SendsInIdOrder_ThenMarksPublished() {
+        // Arrange
+        when(outboxRepository.acquireLease(anyString(), eq(5000L))).thenReturn(Mono.just(1));
+        when(outboxRepository.findPending(100)).thenReturn(Flux.just(status(1L, "IN_USE"), status(2L, "AVAILABLE")));
+        when(kafkaTemplate.send(eq(TOPIC), eq("7"), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(outboxRepository.markPublished(List.of(1L, 2L))).thenReturn(Mono.just(2));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        InOrder order = inOrder(kafkaTemplate, outboxRepository);
+        order.verify(kafkaTemplate).send(TOPIC, "7", new TransportStatusDTO(7L, "IN_USE"));
+        order.verify(kafkaTemplate).send(TOPIC, "7", new TransportStatusDTO(7L, "AVAILABLE"));
+        order.verify(outboxRepository).markPublished(List.of(1L, 2L));
+        verify(outboxRepository, never()).markDeadLettered(anyLong(), any());
+    }
+
+    @Test
+    void relay_UnknownOrUnreadablePayload_DeadLetteredNotPublished() {
+        // Arrange
+        when(outboxRepository.acquireLease(anyString(), anyLong())).thenReturn(Mono.just(1));
+        when(outboxRepository.findPending(100)).thenReturn(Flux.just(
+                message(1L, "RemovedDTO", "{}"),
+                message(2L, "TransportStatusDTO", "not json"),
+                status(3L, "IN_USE")));
+        when(kafkaTemplate.send(eq(TOPIC), eq("7"), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(outboxRepository.markDeadLettered(eq(1L), anyString())).thenReturn(Mono.just(1));
+        when(outboxRepository.markDeadLettered(eq(2L), anyString())).thenReturn(Mono.just(1));
+        when(outboxRepository.markPublished(List.of(3L))).thenReturn(Mono.just(1));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxRepository).markDeadLettered(eq(1L), contains("unknown payload type"));
+        verify(outboxRepository).markDeadLettered(eq(2L), contains("unreadable payload"));
+        verify(outboxRepository).markPublished(List.of(3L));
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), any());
+    }
+
+    @Test
+    void relay_LeaseHeldByAnotherInstance_SendsNothing() {
+        // Arrange
+        when(outboxRepository.acquireLease(anyString(), anyLong())).thenReturn(Mono.just(0));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxRepository, never()).findPending(anyInt());
+        verifyNoInteractions(kafkaTemplate);
+    }
+
+    @Test
+    void relay_KafkaAckFails_NothingMarked() {
+        // Arrange
+        when(outboxRepository.acquireLease(anyString(), anyLong())).thenReturn(Mono.just(1));
+        when(outboxRepository.findPending(100)).thenReturn(Flux.just(status(1L, "IN_USE")));
+        when(kafkaTemplate.send(eq(TOPIC), eq("7"), any()))
+                .thenReturn(CompletableFuture.failedFuture(new IllegalStateException("broker down")));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxRepository, never()).markPublished(any());
+        verify(outboxRepository, never()).markDeadLettered(anyLong(), any());
+    }
+
+    @Test
+    void relay_FullBatch_RelaysNextBatchRightAway() {
+        // Arrange
+        outboxRelay = new OutboxRelay(outboxRepository, kafkaTemplate, new ObjectMapper(),
+                1, Duration.ofSeconds(1), Duration.ofSeconds(1), Duration.ofSeconds(5), Duration.ofDays(1));
+        when(outboxRepository.acquireLease(anyString(), anyLong())).thenReturn(Mono.just(1));
+        when(outboxRepository.findPending(1))
+                .thenReturn(Flux.just(status(1L, "IN_USE")), Flux.empty());
+        when(kafkaTemplate.send(eq(TOPIC), eq("7"), any())).thenReturn(CompletableFuture.completedFuture(null));
+        when(outboxRepository.markPublished(List.of(1L))).thenReturn(Mono.just(1));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(outboxRepository, times(2)).findPending(1);
+        verify(outboxRepository, times(2)).acquireLease(anyString(), anyLong());
+    }
+
+    @Test
+    void constructor_LeaseNotLongerThanSendTimeout_Rejected() {
+        // Act & Assert
+        assertThrows(IllegalArgumentException.class, () -> new OutboxRelay(outboxRepository, kafkaTemplate,
+                new ObjectMapper(), 100, Duration.ofSeconds(10), Duration.ZERO, Duration.ofSeconds(10),
+                Duration.ofDays(1)));
+    }
+
+    @Test
+    void constructor_LeaseNotLongerThanMaxBlockPlusSendTimeout_Rejected() {
+        // Act & Assert: Kafka's default max.block.ms of 60s would outlive a 30s lease
+        assertThrows(IllegalArgumentException.class, () -> new OutboxRelay(outboxRepository, kafkaTemplate,
+                new ObjectMapper(), 100, Duration.ofSeconds(10), Duration.ofSeconds(60), Duration.ofSeconds(30),
+                Duration.ofDays(1)));
+    }
+
+    @Test
+    void relay_LeaseRunningOut_LeavesRestOfBatchUnsent() {
+        // Arrange: the first send blocks past lease - send-timeout - max-block
+        outboxRelay = new OutboxRelay(outboxRepository, kafkaTemplate, new ObjectMapper(),
+                100, Duration.ofMillis(100), Duration.ofMillis(100), Duration.ofMillis(300), Duration.ofDays(1));
+        when(outboxRepository.acquireLease(anyString(), anyLong())).thenReturn(Mono.just(1));
+        when(outboxRepository.findPending(100)).thenReturn(Flux.just(status(1L, "IN_USE"), status(2L, "AVAILABLE")));
+        when(kafkaTemplate.send(eq(TOPIC), eq("7"), any())).thenAnswer(invocation -> {
+            Thread.sleep(150);
+            return CompletableFuture.completedFuture(null);
+        });
+        when(outboxRepository.markPublished(List.of(1L))).thenReturn(Mono.just(1));
+
+        // Act
+        outboxRelay.relay();
+
+        // Assert
+        verify(kafkaTemplate, times(1)).send(anyString(), any(), any());
+        verify(outboxRepository).markPublished(List.of(1L));
+    }
+}
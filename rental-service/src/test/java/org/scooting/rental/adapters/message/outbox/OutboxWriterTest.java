@@ -0,0 +1,84 @@
+package org.scooting.rental.adapters.message.outbox;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.rental.adapters.message.kafka.dto.AwardBonusesDTO;
+import org.scoooting.rental.adapters.message.kafka.dto.TransportStatusDTO;
+import org.scoooting.rental.adapters.message.outbox.OutboxWriter;
+import org.scoooting.rental.adapters.persistence.entities.OutboxMessageEntity;
+import org.scoooting.rental.adapters.persistence.repositories.r2dbc.OutboxR2dbcRepository;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNotNull;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OutboxWriterTest {
+
+    @Mock
+    private OutboxR2dbcRepository outboxRepository;
+
+    private final ObjectMapper mapper = new ObjectMapper();
+
+    private OutboxWriter outboxWriter;
+
+    @BeforeEach
+    void setUp() {
+        outboxWriter = new OutboxWriter(outboxRepository, mapper);
+    }
+
+    @Test
+    void append_StoresKeyTypeAndJsonPayload() throws Exception {
+        // Arrange
+        when(outboxRepository.save(any(OutboxMessageEntity.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(outboxWriter.append("transport-commands", 7L, new TransportStatusDTO(7L, "IN_USE")))
+                .verifyComplete();
+
+        ArgumentCaptor<OutboxMessageEntity> captor = ArgumentCaptor.forClass(OutboxMessageEntity.class);
+        verify(outboxRepository).save(captor.capture());
+        OutboxMessageEntity saved = captor.getValue();
+        assertEquals("transport-commands", saved.getTopic());
+        assertEquals("7", saved.getMessageKey());
+        assertEquals("TransportStatusDTO", saved.getPayloadType());
+        assertEquals(new TransportStatusDTO(7L, "IN_USE"), mapper.readValue(saved.getPayload(), TransportStatusDTO.class));
+        assertNotNull(saved.getCreatedAt());
+        assertNull(saved.getPublishedAt());
+    }
+
+    @Test
+    void append_NullKey_StoredAsNull() {
+        // Arrange
+        when(outboxRepository.save(any(OutboxMessageEntity.class)))
+                .thenAnswer(invocation -> Mono.just(invocation.getArgument(0)));
+
+        // Act & Assert
+        StepVerifier.create(outboxWriter.append("user-commands", null, new AwardBonusesDTO(1L, 10)))
+                .verifyComplete();
+
+        verify(outboxRepository).save(argThat(saved -> saved.getMessageKey() == null));
+    }
+
+    @Test
+    void append_SaveFails_ErrorPropagatesToCallerTransaction() {
+        // Arrange
+        when(outboxRepository.save(any(OutboxMessageEntity.class)))
+                .thenReturn(Mono.error(new IllegalStateException("connection closed")));
+
+        // Act & Assert
+        StepVerifier.create(outboxWriter.append("transport-commands", 7L, new TransportStatusDTO(7L, "IN_USE")))
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+}
@@ -0,0 +1,202 @@
+package org.scooting.rental.adapters.persistence.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.time.format.DateTimeFormatter;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Regression test for the rental indexes: runs the repository queries through EXPLAIN
+ * on a migrated and seeded database and checks that none of them falls back to a Seq Scan.
+ * Queries are copied from RentalR2dbcRepository and TrackRepositoryImpl with the bind parameters inlined.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class RentalIndexUsageTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // 50k rentals of 5000 users; the last rental of every 10th user is still ACTIVE
+            statement.execute("""
+                    insert into rentals (user_id, transport_id, status_id, start_time, end_time,
+                                         start_latitude, start_longitude)
+                    select g % 5000 + 100,
+                           g % 700 + 1,
+                           (select id from rental_statuses
+                            where name = case when g > 45000 and g % 10 = 0 then 'ACTIVE' else 'COMPLETED' end),
+                           now() - (50000 - g) * interval '1 minute',
+                           case when g > 45000 and g % 10 = 0 then null
+                                else now() - (50000 - g) * interval '1 minute' + interval '15 minutes' end,
+                           59.93,
+                           30.36
+                    from generate_series(1, 50000) as g
+                    """);
+            statement.execute("analyze rentals");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void findActiveRentalByUserId_UsesIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM rentals
+                WHERE user_id = 150
+                AND status_id = (SELECT id FROM rental_statuses WHERE name = 'ACTIVE')
+                """);
+
+        // the sub-selected status_id can't be matched against the predicate of uq_rentals_active_user
+        assertIndexScan(plan, "idx_rentals_user_start_time_id");
+    }
+
+    @Test
+    void findRentalHistoryFirstPage_UsesUserStartTimeIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM rentals
+                WHERE user_id = 150
+                ORDER BY start_time DESC, id DESC
+                LIMIT 20
+                """);
+
+        assertIndexScan(plan, "idx_rentals_user_start_time_id");
+    }
+
+    @Test
+    void findByStatusId_UsesIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM rentals
+                WHERE status_id = (SELECT id FROM rental_statuses WHERE name = 'ACTIVE')
+                """);
+
+        assertIndexScan(plan, null);
+    }
+
+    @Test
+    void secondActiveRentalOfUser_RejectedByUniqueIndex() throws SQLException {
+        // Arrange
+        long userId;
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("""
+                     SELECT user_id FROM rentals
+                     WHERE status_id = (SELECT id FROM rental_statuses WHERE name = 'ACTIVE')
+                     LIMIT 1
+                     """)) {
+            assertTrue(rows.next());
+            userId = rows.getLong(1);
+        }
+
+        // Act & Assert
+        SQLException error = assertThrows(SQLException.class, () -> {
+            try (Statement statement = connection.createStatement()) {
+                statement.executeUpdate("""
+                        insert into rentals (user_id, transport_id, status_id, start_latitude, start_longitude)
+                        values (%d, 1, (select id from rental_statuses where name = 'ACTIVE'), 59.93, 30.36)
+                        """.formatted(userId));
+            }
+        });
+        assertEquals("23505", error.getSQLState());
+    }
+
+    @Test
+    void findTrackByRentalId_TouchesOnlyPartitionsOfRentalTimeRange() throws SQLException {
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+
+        String plan = explain("""
+                SELECT rental_id, recorded_at, point_count, points
+                FROM rental_track_segments
+                WHERE rental_id = 150
+                AND recorded_at >= '%s 10:00:00+00' AND recorded_at <= '%s 11:00:00+00'
+                ORDER BY recorded_at
+                """.formatted(month.plusDays(1), month.plusDays(1)));
+
+        assertTrue(plan.contains(trackPartition(month)), () -> "Rental's partition not in plan:\n" + plan);
+        assertFalse(plan.contains(trackPartition(month.plusMonths(1))), () -> "Partition not pruned:\n" + plan);
+        assertFalse(plan.contains("rental_track_segments_default"), () -> "Partition not pruned:\n" + plan);
+    }
+
+    @Test
+    void dropRentalTrackPartitionsBefore_DropsOnlyOlderMonths() throws SQLException {
+        // Arrange
+        LocalDate month = LocalDate.now(ZoneOffset.UTC).withDayOfMonth(1);
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("select create_rental_track_partition('%s')".formatted(month.minusMonths(14)));
+            statement.execute("select create_rental_track_partition('%s')".formatted(month.minusMonths(11)));
+        }
+
+        // Act
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery(
+                     "select drop_rental_track_partitions_before('%s')".formatted(month.minusMonths(12)))) {
+            assertTrue(rows.next());
+            assertEquals(1, rows.getInt(1));
+        }
+
+        // Assert
+        assertFalse(tableExists(trackPartition(month.minusMonths(14))));
+        assertTrue(tableExists(trackPartition(month.minusMonths(11))));
+        assertTrue(tableExists(trackPartition(month)));
+        assertTrue(tableExists("rental_track_segments_default"));
+    }
+
+    private static String trackPartition(LocalDate month) {
+        return "rental_track_segments_" + month.format(DateTimeFormatter.ofPattern("yyyy_MM"));
+    }
+
+    private static boolean tableExists(String name) throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("select to_regclass('%s') is not null".formatted(name))) {
+            rows.next();
+            return rows.getBoolean(1);
+        }
+    }
+
+    private static String explain(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN (COSTS OFF) " + query)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * @param indexName expected index, null when any index on rentals is fine
+     */
+    private static void assertIndexScan(String plan, String indexName) {
+        assertFalse(plan.contains("Seq Scan on rentals"), () -> "Sequential scan in plan:\n" + plan);
+        assertTrue(plan.contains(indexName != null ? indexName : "Index"), () -> "Index not used in plan:\n" + plan);
+    }
+}
@@ -0,0 +1,86 @@
+package org.scooting.rental.adapters.persistence.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.rental.adapters.persistence.entities.RentalStatusEntity;
+import org.scoooting.rental.adapters.persistence.mappers.RentalStatusEntityMapper;
+import org.scoooting.rental.adapters.persistence.repositories.implementations.RentalStatusRepositoryImpl;
+import org.scoooting.rental.adapters.persistence.repositories.r2dbc.RentalStatusR2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class RentalStatusRepositoryImplTest {
+
+    @Mock
+    private RentalStatusR2dbcRepository repository;
+
+    private final RentalStatusEntityMapper mapper = Mappers.getMapper(RentalStatusEntityMapper.class);
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAll()).thenReturn(Flux.just(
+                new RentalStatusEntity(1L, "ACTIVE"),
+                new RentalStatusEntity(2L, "COMPLETED")
+        ));
+    }
+
+    @Test
+    void findByName_Hit_DoesNotReload() {
+        // Arrange
+        RentalStatusRepositoryImpl statuses = new RentalStatusRepositoryImpl(repository, mapper, Duration.ofMinutes(1));
+        statuses.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(statuses.findByName("ACTIVE"))
+                .expectNextMatches(status -> status.getId() == 1L)
+                .verifyComplete();
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void findByName_RepeatedMissWithinInterval_ReloadsOnce() {
+        // Arrange
+        RentalStatusRepositoryImpl statuses = new RentalStatusRepositoryImpl(repository, mapper, Duration.ofMinutes(1));
+
+        // Act
+        statuses.findByName("UNKNOWN").block();
+        statuses.findByName("UNKNOWN").block();
+        statuses.findById(42L).block();
+
+        // Assert
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void findByName_MissAfterInterval_Reloads() {
+        // Arrange
+        RentalStatusRepositoryImpl statuses = new RentalStatusRepositoryImpl(repository, mapper, Duration.ZERO);
+        statuses.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(statuses.findByName("UNKNOWN")).verifyComplete();
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    void findByName_NullName_IsEmptyWithoutDbAccess() {
+        // Arrange
+        RentalStatusRepositoryImpl statuses = new RentalStatusRepositoryImpl(repository, mapper, Duration.ofMinutes(1));
+        statuses.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(statuses.findByName(null)).verifyComplete();
+        verify(repository, times(1)).findAll();
+    }
+}
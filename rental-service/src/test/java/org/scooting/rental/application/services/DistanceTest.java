@@ -5,7 +5,10 @@ import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.Arguments;
 import org.junit.jupiter.params.provider.MethodSource;
 import org.scoooting.rental.application.services.Distance;
+import org.scoooting.rental.domain.model.TrackPoint;
 
+import java.time.Instant;
+import java.util.List;
 import java.util.stream.Stream;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -92,4 +95,25 @@ class DistanceTest {
         // Assert: примерно 630 км
         assertTrue(distance > 600 && distance < 700);
     }
-}
\ No newline at end of file
+
+    @Test
+    void calculatePathDistance_FollowsTrack() {
+        // Arrange: out and back, the straight line from start to end is 0
+        List<TrackPoint> track = List.of(new TrackPoint(Instant.now(), 60.01, 30.0));
+
+        // Act
+        double distance = Distance.calculatePathDistance(60.0, 30.0, track, 60.0, 30.0);
+
+        // Assert: 2 x 1.11 km
+        assertEquals(2.22, distance, 0.01);
+    }
+
+    @Test
+    void calculatePathDistance_NoTrack_EqualsStraightLine() {
+        // Act
+        double distance = Distance.calculatePathDistance(60.0, 30.0, List.of(), 60.01, 30.0);
+
+        // Assert
+        assertEquals(Distance.calculateDistance(60.0, 30.0, 60.01, 30.0), distance, 1e-9);
+    }
+}
@@ -0,0 +1,66 @@
+package org.scooting.rental.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.scoooting.rental.application.services.IdempotencyCache;
+import org.scoooting.rental.domain.model.IdempotencyRecord;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class IdempotencyCacheTest {
+
+    private static final IdempotencyRecord DONE = new IdempotencyRecord("START:1", "{\"id\":1}");
+
+    @Test
+    void get_KeysArePerUser() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofHours(1));
+        cache.put(100L, "key-1", DONE);
+
+        // Act & Assert
+        assertEquals(DONE, cache.get(100L, "key-1"));
+        assertNull(cache.get(200L, "key-1"));
+    }
+
+    @Test
+    void put_OverCapacity_EvictsLeastRecentlyUsed() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(2, Duration.ofHours(1));
+        cache.put(100L, "a", DONE);
+        cache.put(100L, "b", DONE);
+        cache.get(100L, "a");
+
+        // Act
+        cache.put(100L, "c", DONE);
+
+        // Assert
+        assertEquals(2, cache.size());
+        assertNotNull(cache.get(100L, "a"));
+        assertNull(cache.get(100L, "b"));
+        assertNotNull(cache.get(100L, "c"));
+    }
+
+    @Test
+    void put_InProgressRecord_NotCached() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofHours(1));
+
+        // Act
+        cache.put(100L, "key-1", new IdempotencyRecord("START:1", null));
+
+        // Assert
+        assertNull(cache.get(100L, "key-1"));
+    }
+
+    @Test
+    void get_OlderThanTtl_Dropped() {
+        // Arrange
+        IdempotencyCache cache = new IdempotencyCache(10, Duration.ofMillis(-1));
+        cache.put(100L, "key-1", DONE);
+
+        // Act & Assert
+        assertNull(cache.get(100L, "key-1"));
+        assertEquals(0, cache.size());
+    }
+}
@@ -0,0 +1,75 @@
+package org.scooting.rental.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.scoooting.rental.application.services.TrackCodec;
+import org.scoooting.rental.domain.model.TrackPoint;
+import org.scoooting.rental.domain.model.TrackSegment;
+
+import java.time.Instant;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TrackCodecTest {
+
+    private static final Instant T0 = Instant.parse("2026-10-18T10:00:00Z");
+
+    @Test
+    void encode_Decode_RoundTripAtPolylinePrecision() {
+        // Arrange
+        List<TrackPoint> points = List.of(
+                new TrackPoint(T0, 59.93863, 30.31413),
+                new TrackPoint(T0.plusMillis(1_000), 59.93871, 30.31425),
+                new TrackPoint(T0.plusMillis(2_050), 59.93880, 30.31401));
+
+        // Act
+        byte[] encoded = TrackCodec.encode(points);
+        List<TrackPoint> decoded = TrackCodec.decode(encoded);
+
+        // Assert
+        assertEquals(points.size(), decoded.size());
+        for (int i = 0; i < points.size(); i++) {
+            assertEquals(points.get(i).recordedAt(), decoded.get(i).recordedAt());
+            assertEquals(points.get(i).latitude(), decoded.get(i).latitude(), 1e-9);
+            assertEquals(points.get(i).longitude(), decoded.get(i).longitude(), 1e-9);
+        }
+        // Consecutive points cost a few bytes each instead of 24
+        assertTrue(encoded.length < 16 + 2 * 8, "Encoded size: " + encoded.length);
+    }
+
+    @Test
+    void decodeAll_SortsPointsOfOverlappingSegments() {
+        // Arrange: second segment arrived first
+        TrackSegment late = new TrackSegment(1L, T0.plusSeconds(5), 1,
+                TrackCodec.encode(List.of(new TrackPoint(T0.plusSeconds(5), 60.0, 30.0))));
+        TrackSegment early = new TrackSegment(1L, T0, 2, TrackCodec.encode(List.of(
+                new TrackPoint(T0, 59.9, 30.0),
+                new TrackPoint(T0.plusSeconds(10), 60.1, 30.0))));
+
+        // Act
+        List<TrackPoint> track = TrackCodec.decodeAll(List.of(late, early));
+
+        // Assert
+        assertEquals(List.of(59.9, 60.0, 60.1), track.stream().map(TrackPoint::latitude).toList());
+    }
+
+    @Test
+    void toPolyline_MatchesReferenceEncoding() {
+        // Reference example of the encoded polyline algorithm format
+        List<TrackPoint> points = List.of(
+                new TrackPoint(T0, 38.5, -120.2),
+                new TrackPoint(T0, 40.7, -120.95),
+                new TrackPoint(T0, 43.252, -126.453));
+
+        assertEquals("_p~iF~ps|U_ulLnnqC_mqNvxq`@", TrackCodec.toPolyline(points));
+    }
+
+    @Test
+    void decode_TruncatedData_Throws() {
+        byte[] encoded = TrackCodec.encode(List.of(new TrackPoint(T0, 59.9, 30.3)));
+        byte[] truncated = Arrays.copyOf(encoded, encoded.length - 1);
+
+        assertThrows(IllegalArgumentException.class, () -> TrackCodec.decode(truncated));
+    }
+}
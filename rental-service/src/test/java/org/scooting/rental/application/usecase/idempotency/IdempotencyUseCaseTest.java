@@ -0,0 +1,235 @@
+package org.scooting.rental.application.usecase.idempotency;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.rental.application.services.IdempotencyCache;
+import org.scoooting.rental.application.usecase.idempotency.IdempotencyUseCase;
+import org.scoooting.rental.domain.exceptions.IdempotencyConflictException;
+import org.scoooting.rental.domain.model.IdempotencyRecord;
+import org.scoooting.rental.domain.repositories.IdempotencyRepository;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyUseCaseTest {
+
+    @Mock
+    private IdempotencyRepository idempotencyRepository;
+
+    // Real cache: replays from memory are part of the behaviour under test
+    private IdempotencyCache idempotencyCache;
+    private IdempotencyUseCase idempotencyUseCase;
+
+    private AtomicInteger executions;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyCache = new IdempotencyCache(100, Duration.ofDays(1));
+        idempotencyUseCase = new IdempotencyUseCase(idempotencyRepository, idempotencyCache,
+                Duration.ofMinutes(1), Duration.ofDays(1));
+        executions = new AtomicInteger();
+    }
+
+    private Mono<String> startRental() {
+        return Mono.fromSupplier(() -> {
+            executions.incrementAndGet();
+            return "{\"id\":1}";
+        });
+    }
+
+    @Test
+    void execute_FirstRequest_RunsAndStoresResponse() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(true));
+        when(idempotencyRepository.complete(eq(100L), eq("key-1"), anyString(), eq("{\"id\":1}")))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental))
+                .expectNext("{\"id\":1}")
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+        assertEquals(1, idempotencyCache.size());
+    }
+
+    @Test
+    void execute_RetryAfterCompletion_ReplaysFromMemoryWithoutDatabase() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(true));
+        when(idempotencyRepository.complete(eq(100L), eq("key-1"), anyString(), eq("{\"id\":1}")))
+                .thenReturn(Mono.empty());
+        idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental).block();
+        clearInvocations(idempotencyRepository);
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental))
+                .expectNext("{\"id\":1}")
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+        verifyNoInteractions(idempotencyRepository);
+    }
+
+    @Test
+    void execute_CompletedOnAnotherInstance_ReplaysStoredResponse() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(false));
+        when(idempotencyRepository.find(100L, "key-1"))
+                .thenReturn(Mono.just(new IdempotencyRecord("START:1", "{\"id\":1}")));
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental))
+                .expectNext("{\"id\":1}")
+                .verifyComplete();
+
+        assertEquals(0, executions.get());
+        assertEquals(1, idempotencyCache.size());
+    }
+
+    @Test
+    void execute_DuplicateWhileInProgress_ThrowsConflict() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(false));
+        when(idempotencyRepository.find(100L, "key-1"))
+                .thenReturn(Mono.just(new IdempotencyRecord("START:1", null)));
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental))
+                .expectErrorMatches(e -> e instanceof IdempotencyConflictException
+                        && e.getMessage().contains("in progress"))
+                .verify();
+
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_KeyReusedForAnotherRequest_ThrowsConflict() {
+        // Arrange
+        idempotencyCache.put(100L, "key-1", new IdempotencyRecord("START:1", "{\"id\":1}"));
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:2", this::startRental))
+                .expectError(IdempotencyConflictException.class)
+                .verify();
+
+        assertEquals(0, executions.get());
+    }
+
+    @Test
+    void execute_ActionFails_ReleasesKeyAndStoresNothing() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(true));
+        when(idempotencyRepository.release(eq(100L), eq("key-1"), anyString()))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1",
+                        () -> Mono.error(new IllegalStateException("User already has an active rental"))))
+                .expectError(IllegalStateException.class)
+                .verify();
+
+        verify(idempotencyRepository, never()).complete(any(), any(), any(), anyString());
+        assertEquals(0, idempotencyCache.size());
+    }
+
+    @Test
+    void execute_ClientCancels_ActionStillCompletesAndIsStored() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(true));
+        when(idempotencyRepository.complete(eq(100L), eq("key-1"), anyString(), eq("{\"id\":1}")))
+                .thenReturn(Mono.empty());
+        Supplier<Mono<String>> slowStart = () -> Mono.delay(Duration.ofMillis(100)).then(startRental());
+
+        // Act: the client disconnects before the rental is started
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1", slowStart))
+                .thenCancel()
+                .verify();
+
+        // Assert
+        verify(idempotencyRepository, timeout(2000)).complete(eq(100L), eq("key-1"), anyString(), eq("{\"id\":1}"));
+        verify(idempotencyRepository, never()).release(any(), any(), any());
+        assertEquals(1, executions.get());
+    }
+
+    @Test
+    void execute_CompleteFails_ReturnsResponseAndReplaysFromMemory() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(true));
+        when(idempotencyRepository.complete(eq(100L), eq("key-1"), anyString(), eq("{\"id\":1}")))
+                .thenReturn(Mono.error(new IllegalStateException("connection refused")));
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental))
+                .expectNext("{\"id\":1}")
+                .verifyComplete();
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental))
+                .expectNext("{\"id\":1}")
+                .verifyComplete();
+
+        assertEquals(1, executions.get());
+        verify(idempotencyRepository, never()).release(any(), any(), any());
+    }
+
+    @Test
+    void execute_CompletesAndReleasesOnlyItsOwnClaim() {
+        // Arrange
+        ArgumentCaptor<String> claimId = ArgumentCaptor.forClass(String.class);
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("START:1"), claimId.capture(),
+                any(Instant.class)))
+                .thenReturn(Mono.just(true));
+        when(idempotencyRepository.complete(eq(100L), eq("key-1"), anyString(), eq("{\"id\":1}")))
+                .thenReturn(Mono.empty());
+
+        // Act
+        idempotencyUseCase.execute(100L, "key-1", "START:1", this::startRental).block();
+
+        // Assert
+        verify(idempotencyRepository).complete(100L, "key-1", claimId.getValue(), "{\"id\":1}");
+    }
+
+    @Test
+    void execute_EmptyResponse_StoredAsEmptyBody() {
+        // Arrange
+        when(idempotencyRepository.claim(eq(100L), eq("key-1"), eq("CANCEL"), anyString(), any(Instant.class)))
+                .thenReturn(Mono.just(true));
+        when(idempotencyRepository.complete(eq(100L), eq("key-1"), anyString(), eq("")))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "key-1", "CANCEL", Mono::empty))
+                .expectNext("")
+                .verifyComplete();
+    }
+
+    @Test
+    void execute_KeyTooLong_Rejected() {
+        // Act & Assert
+        StepVerifier.create(idempotencyUseCase.execute(100L, "k".repeat(101), "START:1", this::startRental))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(idempotencyRepository);
+    }
+}
@@ -3,7 +3,6 @@ package org.scooting.rental.application.usecase.rentals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.scoooting.rental.adapters.message.kafka.TransportPublisher;
@@ -16,11 +15,13 @@ import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.model.RentalStatus;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
 import java.time.Instant;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -43,7 +44,9 @@ class CancelRentalUseCaseTest {
     @Mock
     private RentalMapper rentalMapper;
 
-    @InjectMocks
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     private CancelRentalUseCase cancelRentalUseCase;
 
     private Rental activeRental;
@@ -53,6 +56,10 @@ class CancelRentalUseCaseTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        cancelRentalUseCase = new CancelRentalUseCase(rentalRepository, rentalStatusRepository,
+                transportClient, transportPublisher, rentalMapper, transactionalOperator, Schedulers.immediate());
+
         activeRental = new Rental();
         activeRental.setId(1L);
         activeRental.setUserId(100L);
@@ -81,16 +88,16 @@ class CancelRentalUseCaseTest {
     void cancelRental_Success() {
         // Arrange
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.of(activeRental));
+                .thenReturn(Mono.just(activeRental));
         when(rentalStatusRepository.findByName("CANCELLED"))
-                .thenReturn(Optional.of(cancelledStatus));
+                .thenReturn(Mono.just(cancelledStatus));
         when(rentalRepository.save(any(Rental.class)))
-                .thenReturn(activeRental);
+                .thenReturn(Mono.just(activeRental));
         when(transportClient.getTransport(1L))
                 .thenReturn(transportDTO);
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
-        doNothing().when(transportPublisher).updateStatus(anyLong(), anyString());
+        when(transportPublisher.updateStatus(anyLong(), anyString())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(cancelRentalUseCase.cancelRental(100L))
@@ -109,7 +116,7 @@ class CancelRentalUseCaseTest {
     void cancelRental_NoActiveRental_ThrowsException() {
         // Arrange
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.empty());
+                .thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(cancelRentalUseCase.cancelRental(100L))
@@ -128,7 +135,7 @@ class CancelRentalUseCaseTest {
         // Arrange
         activeRental.setEndTime(Instant.now());
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.of(activeRental));
+                .thenReturn(Mono.just(activeRental));
 
         // Act & Assert
         StepVerifier.create(cancelRentalUseCase.cancelRental(100L))
@@ -3,7 +3,6 @@ package org.scooting.rental.application.usecase.rentals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.scoooting.rental.adapters.message.feign.resilient.ResilientFileClient;
@@ -11,24 +10,34 @@ import org.scoooting.rental.adapters.message.kafka.TransportPublisher;
 import org.scoooting.rental.adapters.message.kafka.UserPublisher;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
 import org.scoooting.rental.application.dto.TransportResponseDTO;
+import org.scoooting.rental.application.dto.ZoneCheckDTO;
 import org.scoooting.rental.application.mappers.RentalMapper;
 import org.scoooting.rental.application.ports.TransportClient;
+import org.scoooting.rental.application.services.TrackCodec;
 import org.scoooting.rental.application.usecase.rentals.EndRentalUseCase;
 import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.model.RentalStatus;
+import org.scoooting.rental.domain.model.TrackPoint;
+import org.scoooting.rental.domain.model.TrackSegment;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.scoooting.rental.domain.repositories.TrackRepository;
 import org.springframework.core.io.buffer.DataBuffer;
 import org.springframework.core.io.buffer.DefaultDataBufferFactory;
 import org.springframework.http.codec.multipart.FilePart;
 import org.springframework.http.HttpHeaders;
 import org.springframework.http.MediaType;
+import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.time.Instant;
-import java.util.Optional;
+import java.util.List;
+import java.util.Set;
 
+import static org.junit.jupiter.api.Assertions.assertTrue;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -41,6 +50,9 @@ class EndRentalUseCaseTest {
     @Mock
     private RentalStatusRepository rentalStatusRepository;
 
+    @Mock
+    private TrackRepository trackRepository;
+
     @Mock
     private TransportClient transportClient;
 
@@ -56,7 +68,9 @@ class EndRentalUseCaseTest {
     @Mock
     private ResilientFileClient fileClient;
 
-    @InjectMocks
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     private EndRentalUseCase endRentalUseCase;
 
     private Rental activeRental;
@@ -66,6 +80,14 @@ class EndRentalUseCaseTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(trackRepository.findByRentalId(any(), any(), any())).thenReturn(Flux.empty());
+        lenient().when(transportClient.checkZone(anyDouble(), anyDouble()))
+                .thenReturn(new ZoneCheckDTO(true, null, List.of(), Set.of()));
+        endRentalUseCase = new EndRentalUseCase(rentalRepository, rentalStatusRepository, trackRepository,
+                transportClient, transportPublisher, userPublisher, rentalMapper, fileClient,
+                transactionalOperator, Schedulers.immediate());
+
         activeRental = new Rental();
         activeRental.setId(1L);
         activeRental.setUserId(100L);
@@ -103,18 +125,19 @@ class EndRentalUseCaseTest {
 
         // Arrange
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.of(activeRental));
+                .thenReturn(Mono.just(activeRental));
         when(rentalStatusRepository.findByName("COMPLETED"))
-                .thenReturn(Optional.of(completedStatus));
+                .thenReturn(Mono.just(completedStatus));
         when(rentalRepository.save(any(Rental.class)))
-                .thenReturn(activeRental);
+                .thenReturn(Mono.just(activeRental));
         when(transportClient.getTransport(1L))
                 .thenReturn(transportDTO);
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
         doNothing().when(fileClient).uploadTransportPhoto(any(byte[].class), anyLong());
-        doNothing().when(transportPublisher).updateStatus(anyLong(), anyString());
-        doNothing().when(userPublisher).awardBonuses(anyLong(), anyInt());
+        when(transportPublisher.updateStatus(anyLong(), anyString())).thenReturn(Mono.empty());
+        when(transportPublisher.updateCoordinates(anyLong(), anyDouble(), anyDouble())).thenReturn(Mono.empty());
+        when(userPublisher.awardBonuses(anyLong(), anyInt())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(endRentalUseCase.endRental(100L, 60.5, 30.5, mockFilePart))
@@ -126,6 +149,38 @@ class EndRentalUseCaseTest {
         verify(userPublisher).awardBonuses(eq(100L), anyInt());
     }
 
+    @Test
+    void endRental_WithRecordedTrack_ChargesPathDistance() {
+        // Arrange: 60.0,30.0 → 60.01,30.0 → back to 60.0,30.0 (about 2.2 km), straight line is 0
+        FilePart mockFilePart = mock(FilePart.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        when(mockFilePart.headers()).thenReturn(headers);
+        when(mockFilePart.content()).thenReturn(Flux.just(new DefaultDataBufferFactory().wrap("img".getBytes())));
+
+        Instant started = activeRental.getStartTime();
+        List<TrackPoint> track = List.of(new TrackPoint(started.plusSeconds(60), 60.01, 30.0));
+        when(trackRepository.findByRentalId(eq(1L), eq(started), any(Instant.class))).thenReturn(Flux.just(
+                new TrackSegment(1L, started.plusSeconds(60), 1, TrackCodec.encode(track))));
+        when(rentalRepository.findActiveRentalByUserId(100L)).thenReturn(Mono.just(activeRental));
+        when(rentalStatusRepository.findByName("COMPLETED")).thenReturn(Mono.just(completedStatus));
+        when(rentalRepository.save(any(Rental.class))).thenAnswer(inv -> Mono.just(inv.getArgument(0)));
+        when(transportClient.getTransport(1L)).thenReturn(transportDTO);
+        when(rentalMapper.toResponseDTO(any(Rental.class))).thenReturn(rentalResponseDTO);
+        when(transportPublisher.updateStatus(anyLong(), anyString())).thenReturn(Mono.empty());
+        when(transportPublisher.updateCoordinates(anyLong(), anyDouble(), anyDouble())).thenReturn(Mono.empty());
+        when(userPublisher.awardBonuses(anyLong(), anyInt())).thenReturn(Mono.empty());
+
+        // Act
+        StepVerifier.create(endRentalUseCase.endRental(100L, 60.0, 30.0, mockFilePart))
+                .expectNextCount(1)
+                .verifyComplete();
+
+        // Assert
+        double distanceKm = activeRental.getDistanceKm().doubleValue();
+        assertTrue(distanceKm > 2.1 && distanceKm < 2.3, "Path distance: " + distanceKm);
+    }
+
     @Test
     void endRental_NoActiveRental_ThrowsException() {
         // Mock FilePart
@@ -139,7 +194,7 @@ class EndRentalUseCaseTest {
 
         // Arrange
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.empty());
+                .thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(endRentalUseCase.endRental(100L, 60.5, 30.5, mockFilePart))
@@ -160,4 +215,26 @@ class EndRentalUseCaseTest {
                 )
                 .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    void endRental_NoParkingZone_RefusedBeforeUpload() {
+        // Arrange
+        FilePart mockFilePart = mock(FilePart.class);
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.IMAGE_JPEG);
+        when(mockFilePart.headers()).thenReturn(headers);
+        when(mockFilePart.content()).thenReturn(Flux.just(new DefaultDataBufferFactory().wrap("img".getBytes())));
+        when(transportClient.checkZone(60.5, 30.5))
+                .thenReturn(new ZoneCheckDTO(false, null, List.of("Palace Square"), Set.of("NO_PARKING")));
+
+        // Act & Assert
+        StepVerifier.create(endRentalUseCase.endRental(100L, 60.5, 30.5, mockFilePart))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof IllegalStateException &&
+                                throwable.getMessage().contains("Palace Square")
+                )
+                .verify();
+
+        verifyNoInteractions(fileClient, rentalRepository, transportPublisher, userPublisher);
+    }
+}
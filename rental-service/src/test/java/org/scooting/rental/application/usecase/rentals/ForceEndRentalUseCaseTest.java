@@ -3,7 +3,6 @@ package org.scooting.rental.application.usecase.rentals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.scoooting.rental.adapters.message.kafka.TransportPublisher;
@@ -20,10 +19,14 @@ import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.model.RentalStatus;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.scoooting.rental.domain.repositories.TrackRepository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.time.Instant;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -37,6 +40,9 @@ class ForceEndRentalUseCaseTest {
     @Mock
     private RentalStatusRepository rentalStatusRepository;
 
+    @Mock
+    private TrackRepository trackRepository;
+
     @Mock
     private TransportClient transportClient;
 
@@ -52,7 +58,9 @@ class ForceEndRentalUseCaseTest {
     @Mock
     private RentalMapper rentalMapper;
 
-    @InjectMocks
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     private ForceEndRentalUseCase forceEndRentalUseCase;
 
     private Rental activeRental;
@@ -63,6 +71,12 @@ class ForceEndRentalUseCaseTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+        lenient().when(trackRepository.findByRentalId(any(), any(), any())).thenReturn(Flux.empty());
+        forceEndRentalUseCase = new ForceEndRentalUseCase(rentalRepository, rentalStatusRepository, trackRepository,
+                transportClient, userClient, transportPublisher, userPublisher, rentalMapper,
+                transactionalOperator, Schedulers.immediate());
+
         activeRental = new Rental();
         activeRental.setId(1L);
         activeRental.setUserId(100L);
@@ -94,19 +108,20 @@ class ForceEndRentalUseCaseTest {
     void forceEndRental_Success() {
         // Arrange
         when(rentalRepository.findById(1L))
-                .thenReturn(Optional.of(activeRental));
+                .thenReturn(Mono.just(activeRental));
         when(rentalStatusRepository.findByName("COMPLETED"))
-                .thenReturn(Optional.of(completedStatus));
+                .thenReturn(Mono.just(completedStatus));
         when(rentalRepository.save(any(Rental.class)))
-                .thenReturn(activeRental);
+                .thenReturn(Mono.just(activeRental));
         when(transportClient.getTransport(1L))
                 .thenReturn(transportDTO);
         when(userClient.getUserById(100L))
                 .thenReturn(userDTO);
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
-        doNothing().when(transportPublisher).updateStatus(anyLong(), anyString());
-        doNothing().when(userPublisher).awardBonuses(anyLong(), anyInt());
+        when(transportPublisher.updateStatus(anyLong(), anyString())).thenReturn(Mono.empty());
+        when(transportPublisher.updateCoordinates(anyLong(), anyDouble(), anyDouble())).thenReturn(Mono.empty());
+        when(userPublisher.awardBonuses(anyLong(), anyInt())).thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(forceEndRentalUseCase.forceEndRental(1L, 60.5, 30.5))
@@ -125,7 +140,7 @@ class ForceEndRentalUseCaseTest {
     void forceEndRental_RentalNotFound_ThrowsException() {
         // Arrange
         when(rentalRepository.findById(1L))
-                .thenReturn(Optional.empty());
+                .thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(forceEndRentalUseCase.forceEndRental(1L, 60.5, 30.5))
@@ -140,7 +155,7 @@ class ForceEndRentalUseCaseTest {
         // Arrange
         activeRental.setEndTime(Instant.now());
         when(rentalRepository.findById(1L))
-                .thenReturn(Optional.of(activeRental));
+                .thenReturn(Mono.just(activeRental));
 
         // Act & Assert
         StepVerifier.create(forceEndRentalUseCase.forceEndRental(1L, 60.5, 30.5))
@@ -13,11 +13,13 @@ import org.scoooting.rental.application.usecase.rentals.GetActiveRentalUseCase;
 import org.scoooting.rental.domain.exceptions.DataNotFoundException;
 import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.repositories.RentalRepository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.time.Instant;
 import java.util.List;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.any;
 import static org.mockito.Mockito.*;
@@ -31,6 +33,9 @@ class GetActiveRentalUseCaseTest {
     @Mock
     private RentalMapper rentalMapper;
 
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     @InjectMocks
     private GetActiveRentalUseCase getActiveRentalUseCase;
 
@@ -39,6 +44,8 @@ class GetActiveRentalUseCaseTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
         activeRental = new Rental();
         activeRental.setId(1L);
         activeRental.setUserId(100L);
@@ -59,7 +66,7 @@ class GetActiveRentalUseCaseTest {
     void getActiveRental_Success() {
         // Arrange
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.of(activeRental));
+                .thenReturn(Mono.just(activeRental));
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
 
@@ -76,7 +83,7 @@ class GetActiveRentalUseCaseTest {
     void getActiveRental_NotFound_ThrowsException() {
         // Arrange
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.empty());
+                .thenReturn(Mono.empty());
 
         // Act & Assert
         StepVerifier.create(getActiveRentalUseCase.getActiveRental(100L))
@@ -91,9 +98,9 @@ class GetActiveRentalUseCaseTest {
         // Arrange
         List<Rental> rentals = List.of(activeRental);
         when(rentalRepository.findAllRentals(0, 20))
-                .thenReturn(rentals);
+                .thenReturn(Flux.fromIterable(rentals));
         when(rentalRepository.countAllRentals())
-                .thenReturn(1L);
+                .thenReturn(Mono.just(1L));
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
 
@@ -114,9 +121,9 @@ class GetActiveRentalUseCaseTest {
     void getAllRentals_EmptyList() {
         // Arrange
         when(rentalRepository.findAllRentals(0, 20))
-                .thenReturn(List.of());
+                .thenReturn(Flux.fromIterable(List.of()));
         when(rentalRepository.countAllRentals())
-                .thenReturn(0L);
+                .thenReturn(Mono.just(0L));
 
         // Act & Assert
         StepVerifier.create(getActiveRentalUseCase.getAllRentals(0, 20))
@@ -126,4 +133,24 @@ class GetActiveRentalUseCaseTest {
                 )
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void scrollAllRentals_LastPage_NoCountQuery() {
+        // Arrange
+        when(rentalRepository.findAllRentalsBefore(null, null, 21))
+                .thenReturn(Flux.just(activeRental));
+        when(rentalMapper.toResponseDTO(any(Rental.class)))
+                .thenReturn(rentalResponseDTO);
+
+        // Act & Assert
+        StepVerifier.create(getActiveRentalUseCase.scrollAllRentals(null, 20))
+                .expectNextMatches(page ->
+                        page.content().size() == 1 &&
+                                !page.hasMore() &&
+                                page.nextCursor() == null
+                )
+                .verifyComplete();
+
+        verify(rentalRepository, never()).countAllRentals();
+    }
+}
@@ -8,9 +8,13 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.scoooting.rental.application.dto.RentalResponseDTO;
 import org.scoooting.rental.application.mappers.RentalMapper;
+import org.scoooting.rental.application.services.RentalCursor;
 import org.scoooting.rental.application.usecase.rentals.RentalHistoryUseCase;
 import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.repositories.RentalRepository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
 import java.math.BigDecimal;
@@ -18,6 +22,8 @@ import java.time.Instant;
 import java.util.List;
 
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -29,6 +35,9 @@ class RentalHistoryUseCaseTest {
     @Mock
     private RentalMapper rentalMapper;
 
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     @InjectMocks
     private RentalHistoryUseCase rentalHistoryUseCase;
 
@@ -37,6 +46,8 @@ class RentalHistoryUseCaseTest {
 
     @BeforeEach
     void setUp() {
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
         completedRental = new Rental();
         completedRental.setId(1L);
         completedRental.setUserId(100L);
@@ -61,9 +72,9 @@ class RentalHistoryUseCaseTest {
         // Arrange
         List<Rental> rentals = List.of(completedRental);
         when(rentalRepository.findRentalHistoryByUserId(100L, 0, 20))
-                .thenReturn(rentals);
+                .thenReturn(Flux.fromIterable(rentals));
         when(rentalRepository.countRentalsByUserId(100L))
-                .thenReturn(1L);
+                .thenReturn(Mono.just(1L));
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
 
@@ -85,9 +96,9 @@ class RentalHistoryUseCaseTest {
     void getUserRentalHistory_EmptyHistory() {
         // Arrange
         when(rentalRepository.findRentalHistoryByUserId(100L, 0, 20))
-                .thenReturn(List.of());
+                .thenReturn(Flux.fromIterable(List.of()));
         when(rentalRepository.countRentalsByUserId(100L))
-                .thenReturn(0L);
+                .thenReturn(Mono.just(0L));
 
         // Act & Assert
         StepVerifier.create(rentalHistoryUseCase.getUserRentalHistory(100L, 0, 20))
@@ -102,9 +113,9 @@ class RentalHistoryUseCaseTest {
     void getUserRentalHistory_Pagination() {
         // Arrange
         when(rentalRepository.findRentalHistoryByUserId(100L, 20, 20))
-                .thenReturn(List.of(completedRental));
+                .thenReturn(Flux.fromIterable(List.of(completedRental)));
         when(rentalRepository.countRentalsByUserId(100L))
-                .thenReturn(50L);
+                .thenReturn(Mono.just(50L));
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
 
@@ -118,4 +129,57 @@ class RentalHistoryUseCaseTest {
                 )
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void scrollUserRentalHistory_FirstPage_ReturnsNextCursor() {
+        // Arrange
+        Rental older = new Rental();
+        older.setId(2L);
+        older.setStartTime(completedRental.getStartTime().minusSeconds(60));
+        Rental oldest = new Rental();
+        oldest.setId(3L);
+        oldest.setStartTime(completedRental.getStartTime().minusSeconds(120));
+        when(rentalRepository.findRentalHistoryByUserIdBefore(100L, null, null, 3))
+                .thenReturn(Flux.just(completedRental, older, oldest));
+        when(rentalMapper.toResponseDTO(any(Rental.class)))
+                .thenReturn(rentalResponseDTO);
+
+        // Act & Assert
+        StepVerifier.create(rentalHistoryUseCase.scrollUserRentalHistory(100L, null, 2))
+                .expectNextMatches(page ->
+                        page.content().size() == 2 &&
+                                page.hasMore() &&
+                                RentalCursor.decode(page.nextCursor()).equals(RentalCursor.of(older))
+                )
+                .verifyComplete();
+
+        verify(rentalRepository, never()).countRentalsByUserId(anyLong());
+    }
+
+    @Test
+    void scrollUserRentalHistory_NextPage_SeeksAfterCursor() {
+        // Arrange
+        String cursor = RentalCursor.of(completedRental).encode();
+        when(rentalRepository.findRentalHistoryByUserIdBefore(100L, completedRental.getStartTime(), 1L, 21))
+                .thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(rentalHistoryUseCase.scrollUserRentalHistory(100L, cursor, 20))
+                .expectNextMatches(page ->
+                        page.content().isEmpty() &&
+                                !page.hasMore() &&
+                                page.nextCursor() == null
+                )
+                .verifyComplete();
+    }
+
+    @Test
+    void scrollUserRentalHistory_InvalidCursor() {
+        // Act & Assert
+        StepVerifier.create(rentalHistoryUseCase.scrollUserRentalHistory(100L, "not-a-cursor", 20))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verify(rentalRepository, never()).findRentalHistoryByUserIdBefore(anyLong(), any(), any(), anyInt());
+    }
+}
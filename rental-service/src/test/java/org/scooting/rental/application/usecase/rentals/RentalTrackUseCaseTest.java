@@ -0,0 +1,137 @@
+package org.scooting.rental.application.usecase.rentals;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.ArgumentCaptor;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.rental.application.services.TrackCodec;
+import org.scoooting.rental.application.usecase.rentals.RentalTrackUseCase;
+import org.scoooting.rental.domain.exceptions.DataNotFoundException;
+import org.scoooting.rental.domain.model.Rental;
+import org.scoooting.rental.domain.model.TrackPoint;
+import org.scoooting.rental.domain.model.TrackSegment;
+import org.scoooting.rental.domain.repositories.RentalRepository;
+import org.scoooting.rental.domain.repositories.TrackRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Instant;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class RentalTrackUseCaseTest {
+
+    @Mock
+    private RentalRepository rentalRepository;
+
+    @Mock
+    private TrackRepository trackRepository;
+
+    @InjectMocks
+    private RentalTrackUseCase rentalTrackUseCase;
+
+    private static final Instant STARTED = Instant.parse("2026-10-18T10:00:00Z");
+
+    private Rental rental;
+
+    @BeforeEach
+    void setUp() {
+        rental = new Rental();
+        rental.setId(7L);
+        rental.setUserId(100L);
+        rental.setTransportId(1L);
+        rental.setStartTime(STARTED);
+        rental.setStartLatitude(59.9);
+        rental.setStartLongitude(30.3);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void recordPositions_OneSegmentPerActiveRental_DropsPointsBeforeStart() {
+        // Arrange: transport 2 has no active rental
+        when(rentalRepository.findActiveRentalsByTransportIds(Set.of(1L, 2L))).thenReturn(Flux.just(rental));
+        when(trackRepository.append(any())).thenReturn(Mono.empty());
+
+        Map<Long, List<TrackPoint>> positions = Map.of(
+                1L, List.of(
+                        new TrackPoint(STARTED.plusSeconds(2), 59.902, 30.3),
+                        new TrackPoint(STARTED.minusSeconds(5), 59.8, 30.3),  // before the rental
+                        new TrackPoint(STARTED.plusSeconds(1), 59.901, 30.3)),
+                2L, List.of(new TrackPoint(STARTED, 55.7, 37.6)));
+
+        // Act & Assert
+        StepVerifier.create(rentalTrackUseCase.recordPositions(positions))
+                .expectNext(2)
+                .verifyComplete();
+
+        ArgumentCaptor<Collection<TrackSegment>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(trackRepository).append(captor.capture());
+        TrackSegment segment = captor.getValue().iterator().next();
+        assertEquals(7L, segment.rentalId());
+        assertEquals(STARTED.plusSeconds(1), segment.recordedAt());
+        assertEquals(List.of(59.901, 59.902),
+                TrackCodec.decode(segment.points()).stream().map(TrackPoint::latitude).toList());
+    }
+
+    @Test
+    void recordPositions_Empty_NoQueries() {
+        // Act & Assert
+        StepVerifier.create(rentalTrackUseCase.recordPositions(Map.of()))
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(rentalRepository, trackRepository);
+    }
+
+    @Test
+    void getTrack_Owner_ReturnsPolylineFromStartThroughTrack() {
+        // Arrange
+        List<TrackPoint> track = List.of(new TrackPoint(STARTED.plusSeconds(1), 59.901, 30.3));
+        when(rentalRepository.findById(7L)).thenReturn(Mono.just(rental));
+        when(trackRepository.findByRentalId(eq(7L), eq(STARTED), any(Instant.class))).thenReturn(Flux.just(
+                new TrackSegment(7L, STARTED.plusSeconds(1), 1, TrackCodec.encode(track))));
+
+        // Act & Assert
+        StepVerifier.create(rentalTrackUseCase.getTrack(7L, 100L, false))
+                .expectNextMatches(dto -> dto.pointCount() == 2
+                        && dto.polyline().equals(TrackCodec.toPolyline(List.of(
+                                new TrackPoint(STARTED, 59.9, 30.3), track.get(0)))))
+                .verifyComplete();
+    }
+
+    @Test
+    void getTrack_OtherUsersRental_NotFound() {
+        // Arrange
+        when(rentalRepository.findById(7L)).thenReturn(Mono.just(rental));
+
+        // Act & Assert
+        StepVerifier.create(rentalTrackUseCase.getTrack(7L, 200L, false))
+                .expectError(DataNotFoundException.class)
+                .verify();
+
+        verifyNoInteractions(trackRepository);
+    }
+
+    @Test
+    void getTrack_Staff_SeesAnyRental() {
+        // Arrange
+        when(rentalRepository.findById(7L)).thenReturn(Mono.just(rental));
+        when(trackRepository.findByRentalId(eq(7L), eq(STARTED), any(Instant.class))).thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(rentalTrackUseCase.getTrack(7L, 200L, true))
+                .expectNextMatches(dto -> dto.rentalId().equals(7L) && dto.pointCount() == 1)
+                .verifyComplete();
+    }
+}
@@ -3,7 +3,6 @@ package org.scooting.rental.application.usecase.rentals;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import static org.mockito.Mockito.timeout;
 import org.mockito.junit.jupiter.MockitoExtension;
@@ -13,14 +12,20 @@ import org.scoooting.rental.application.dto.TransportResponseDTO;
 import org.scoooting.rental.application.mappers.RentalMapper;
 import org.scoooting.rental.application.ports.TransportClient;
 import org.scoooting.rental.application.usecase.rentals.StartRentalUseCase;
+import org.scoooting.rental.domain.exceptions.TransportNotAvailableException;
+import org.scoooting.rental.domain.exceptions.TransportNotFoundException;
+import org.scoooting.rental.domain.exceptions.TransportServiceException;
 import org.scoooting.rental.domain.model.Rental;
 import org.scoooting.rental.domain.model.RentalStatus;
 import org.scoooting.rental.domain.repositories.RentalRepository;
 import org.scoooting.rental.domain.repositories.RentalStatusRepository;
+import org.springframework.dao.DuplicateKeyException;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
 import reactor.test.StepVerifier;
 
 import java.time.Instant;
-import java.util.Optional;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
@@ -43,7 +48,9 @@ class StartRentalUseCaseTest {
     @Mock
     private RentalMapper rentalMapper;
 
-    @InjectMocks
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
     private StartRentalUseCase startRentalUseCase;
 
     private RentalStatus activeStatus;
@@ -53,6 +60,10 @@ class StartRentalUseCaseTest {
 
     @BeforeEach
     void setUp() {
+        startRentalUseCase = new StartRentalUseCase(rentalRepository, rentalStatusRepository,
+                transportClient, transportPublisher, rentalMapper, transactionalOperator, Schedulers.immediate());
+        lenient().when(transactionalOperator.transactional(any(Mono.class))).thenAnswer(inv -> inv.getArgument(0));
+
         activeStatus = new RentalStatus(1L, "ACTIVE");
 
         transportDTO = new TransportResponseDTO(
@@ -81,13 +92,13 @@ class StartRentalUseCaseTest {
     void startRental_Success() {
         // Arrange
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.empty());
+                .thenReturn(Mono.empty());
         when(rentalStatusRepository.findByName("ACTIVE"))
-                .thenReturn(Optional.of(activeStatus));
-        lenient().when(transportClient.getTransport(1L))
+                .thenReturn(Mono.just(activeStatus));
+        when(transportClient.acquireTransport(1L, 100L))
                 .thenReturn(transportDTO);
         when(rentalRepository.save(any(Rental.class)))
-                .thenReturn(savedRental);
+                .thenReturn(Mono.just(savedRental));
         when(rentalMapper.toResponseDTO(any(Rental.class)))
                 .thenReturn(rentalResponseDTO);
 
@@ -101,7 +112,8 @@ class StartRentalUseCaseTest {
                 .verifyComplete();
 
         verify(rentalRepository, timeout(1000)).save(any(Rental.class));
-        verify(transportPublisher, timeout(1000)).updateStatus(1L, "IN_USE");  // <-- ИСПРАВЛЕНО
+        verify(transportClient).acquireTransport(1L, 100L);
+        verify(transportPublisher, never()).updateStatus(anyLong(), anyString());
     }
 
     @Test
@@ -109,7 +121,7 @@ class StartRentalUseCaseTest {
         // Arrange
         Rental existingRental = new Rental();
         when(rentalRepository.findActiveRentalByUserId(100L))
-                .thenReturn(Optional.of(existingRental));
+                .thenReturn(Mono.just(existingRental));
 
         // Act & Assert
         StepVerifier.create(startRentalUseCase.startRental(100L, 1L, 60.0, 30.0))
@@ -120,6 +132,85 @@ class StartRentalUseCaseTest {
                 .verify();
 
         verify(rentalRepository, never()).save(any());
+        verify(transportClient, never()).acquireTransport(anyLong(), anyLong());
+        verify(transportPublisher, never()).updateStatus(anyLong(), anyString());
+    }
+
+    @Test
+    void startRental_ConcurrentActiveRental_UniqueIndexViolation_ThrowsException() {
+        // Arrange
+        when(rentalRepository.findActiveRentalByUserId(100L))
+                .thenReturn(Mono.empty());
+        when(rentalStatusRepository.findByName("ACTIVE"))
+                .thenReturn(Mono.just(activeStatus));
+        when(transportClient.acquireTransport(1L, 100L))
+                .thenReturn(transportDTO);
+        when(rentalRepository.save(any(Rental.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("uq_rentals_active_user")));
+        when(transportPublisher.updateStatus(1L, "AVAILABLE"))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(startRentalUseCase.startRental(100L, 1L, 60.0, 30.0))
+                .expectErrorMatches(throwable ->
+                        throwable instanceof IllegalStateException &&
+                                throwable.getMessage().contains("already has an active rental")
+                )
+                .verify();
+
+        // Transport acquired before the INSERT failed is released again
+        verify(transportPublisher).updateStatus(1L, "AVAILABLE");
+    }
+
+    @Test
+    void startRental_TransportTakenByAnotherUser_ThrowsConflict() {
+        // Arrange
+        when(rentalRepository.findActiveRentalByUserId(100L))
+                .thenReturn(Mono.empty());
+        when(transportClient.acquireTransport(1L, 100L))
+                .thenThrow(new TransportNotAvailableException("Transport 1 is not available"));
+
+        // Act & Assert
+        StepVerifier.create(startRentalUseCase.startRental(100L, 1L, 60.0, 30.0))
+                .expectError(TransportNotAvailableException.class)
+                .verify();
+
+        verify(rentalRepository, never()).save(any());
+        verify(transportPublisher, never()).updateStatus(anyLong(), anyString());
+    }
+
+    @Test
+    void startRental_AcquireResponseLost_ReleasesTransport() {
+        // Arrange: e.g. read timeout after transport-service committed the acquire
+        when(rentalRepository.findActiveRentalByUserId(100L))
+                .thenReturn(Mono.empty());
+        when(transportClient.acquireTransport(1L, 100L))
+                .thenThrow(new TransportServiceException("Transport service is currently unavailable"));
+        when(transportPublisher.updateStatus(1L, "AVAILABLE"))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(startRentalUseCase.startRental(100L, 1L, 60.0, 30.0))
+                .expectError(TransportServiceException.class)
+                .verify();
+
+        verify(rentalRepository, never()).save(any());
+        verify(transportPublisher).updateStatus(1L, "AVAILABLE");
+    }
+
+    @Test
+    void startRental_TransportNotFound_DoesNotRelease() {
+        // Arrange
+        when(rentalRepository.findActiveRentalByUserId(100L))
+                .thenReturn(Mono.empty());
+        when(transportClient.acquireTransport(1L, 100L))
+                .thenThrow(new TransportNotFoundException("Transport with ID 1 not found"));
+
+        // Act & Assert
+        StepVerifier.create(startRentalUseCase.startRental(100L, 1L, 60.0, 30.0))
+                .expectError(TransportNotFoundException.class)
+                .verify();
+
         verify(transportPublisher, never()).updateStatus(anyLong(), anyString());
     }
-}
\ No newline at end of file
+}
@@ -0,0 +1,50 @@
+package org.scoooting.transport.adapters.infrastructure.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.scheduling.annotation.EnableScheduling;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskScheduler;
+
+/**
+ * Threads of the {@link org.scoooting.transport.adapters.infrastructure.scheduling.TransportScheduler} jobs.
+ *
+ * WHY more than Spring's default single scheduler thread:
+ * - Every job blocks its thread until it is done, reconciles read whole tables
+ * - On one shared thread a slow reconcile delays everything queued behind it,
+ *   a reservation hold would expire as late as the slowest reload allows
+ * - Reconciles share a small pool (transport.scheduling.pool-size),
+ *   the reservation tick and the telemetry flush have a thread each, so hold expiry and
+ *   position staleness are bounded by their own interval, not by the slowest reload
+ */
+@Configuration
+@EnableScheduling
+public class SchedulingConfig {
+
+    public static final String RESERVATION_TICK_SCHEDULER = "reservationTickScheduler";
+    public static final String TELEMETRY_FLUSH_SCHEDULER = "telemetryFlushScheduler";
+
+    /** Picked up by @Scheduled jobs that don't name a scheduler */
+    @Bean(destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler taskScheduler(@Value("${transport.scheduling.pool-size:4}") int poolSize) {
+        return scheduler("transport-reconcile-", poolSize);
+    }
+
+    @Bean(name = RESERVATION_TICK_SCHEDULER, destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler reservationTickScheduler() {
+        return scheduler("transport-reservations-", 1);
+    }
+
+    @Bean(name = TELEMETRY_FLUSH_SCHEDULER, destroyMethod = "shutdown")
+    public ThreadPoolTaskScheduler telemetryFlushScheduler() {
+        return scheduler("transport-telemetry-", 1);
+    }
+
+    private static ThreadPoolTaskScheduler scheduler(String threadNamePrefix, int poolSize) {
+        ThreadPoolTaskScheduler scheduler = new ThreadPoolTaskScheduler();
+        scheduler.setPoolSize(poolSize);
+        scheduler.setThreadNamePrefix(threadNamePrefix);
+        scheduler.initialize();
+        return scheduler;
+    }
+}
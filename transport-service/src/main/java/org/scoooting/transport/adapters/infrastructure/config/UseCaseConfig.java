@@ -1,50 +1,173 @@
 package org.scoooting.transport.adapters.infrastructure.config;
 
 import org.scoooting.transport.application.ports.BatteryEventPublisher;
+import org.scoooting.transport.application.ports.TransportPositionPublisher;
 import org.scoooting.transport.application.ports.UserClient;
+import org.scoooting.transport.application.services.CityResolver;
+import org.scoooting.transport.application.services.ReservationTimer;
+import org.scoooting.transport.application.services.TelemetryBuffer;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.application.services.TransportCounters;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.application.services.TransportReadModel;
+import org.scoooting.transport.application.services.ZoneIndex;
 import org.scoooting.transport.application.usecase.*;
 import org.scoooting.transport.domain.mappers.TransportMapper;
 import org.scoooting.transport.domain.repositories.TransportRepository;
 import org.scoooting.transport.domain.repositories.TransportStatusRepository;
+import org.scoooting.transport.domain.repositories.ZoneRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.transaction.reactive.TransactionalOperator;
 
+import java.time.Duration;
+
 @Configuration
 public class UseCaseConfig {
 
+    @Bean
+    public TransportGridIndex transportGridIndex(@Value("${transport.index.cell-size-km:0.5}") double cellSizeKm) {
+        return new TransportGridIndex(cellSizeKm);
+    }
+
+    @Bean
+    public TransportCounters transportCounters() {
+        return new TransportCounters();
+    }
+
+    @Bean
+    public TransportReadModel transportReadModel() {
+        return new TransportReadModel();
+    }
+
+    @Bean
+    public TransportChangeFeed transportChangeFeed(@Value("${transport.live-map.cell-size-km:1.0}") double cellSizeKm) {
+        return new TransportChangeFeed(cellSizeKm);
+    }
+
+    @Bean
+    public CityResolver cityResolver() {
+        return new CityResolver();
+    }
+
+    @Bean
+    public CityUseCase cityUseCase(UserClient userClient, CityResolver cityResolver) {
+        return new CityUseCase(userClient, cityResolver);
+    }
+
+    @Bean
+    public TelemetryBuffer telemetryBuffer(@Value("${transport.telemetry.max-pending:100000}") int maxPending) {
+        return new TelemetryBuffer(maxPending);
+    }
+
+    @Bean
+    public TelemetryUseCase telemetryUseCase(TelemetryBuffer telemetryBuffer,
+                                             TransportRepository transportRepository,
+                                             TransactionalOperator transactionalOperator,
+                                             TransportGridIndex transportGridIndex,
+                                             TransportReadModel transportReadModel,
+                                             TransportChangeFeed transportChangeFeed,
+                                             TransportPositionPublisher transportPositionPublisher,
+                                             ZoneIndex zoneIndex) {
+        return new TelemetryUseCase(telemetryBuffer, transportRepository, transactionalOperator,
+                transportGridIndex, transportReadModel, transportChangeFeed, transportPositionPublisher, zoneIndex);
+    }
+
+    @Bean
+    public ZoneIndex zoneIndex(@Value("${transport.zones.cell-size-km:0.5}") double cellSizeKm,
+                               @Value("${transport.zones.parking-required:false}") boolean parkingRequired) {
+        return new ZoneIndex(cellSizeKm, parkingRequired);
+    }
+
+    @Bean
+    public ZoneUseCase zoneUseCase(ZoneRepository zoneRepository, ZoneIndex zoneIndex) {
+        return new ZoneUseCase(zoneRepository, zoneIndex);
+    }
+
+    @Bean
+    public TransportLiveMapUseCase transportLiveMapUseCase(TransportRepository transportRepository,
+                                                           TransportStatusRepository transportStatusRepository,
+                                                           TransportChangeFeed transportChangeFeed,
+                                                           @Value("${transport.live-map.buffer-size:256}") int bufferSize,
+                                                           @Value("${transport.live-map.max-span-km:50}") double maxSpanKm) {
+        return new TransportLiveMapUseCase(transportRepository, transportStatusRepository, transportChangeFeed,
+                bufferSize, maxSpanKm);
+    }
+
     @Bean
     public TransportFindUseCase transportUseCase(TransportRepository transportRepository,
                                                  TransactionalOperator transactionalOperator,
-                                                 ToResponseDto toResponseDto) {
-        return new TransportFindUseCase(transportRepository, transactionalOperator, toResponseDto);
+                                                 ToResponseDto toResponseDto,
+                                                 TransportGridIndex transportGridIndex,
+                                                 @Value("${transport.nearest.max-results:200}") int maxNearestResults) {
+        return new TransportFindUseCase(transportRepository, transactionalOperator, toResponseDto,
+                transportGridIndex, maxNearestResults);
+    }
+
+    @Bean
+    public TransportIndexUseCase transportIndexUseCase(TransportRepository transportRepository,
+                                                       TransportGridIndex transportGridIndex) {
+        return new TransportIndexUseCase(transportRepository, transportGridIndex);
+    }
+
+    @Bean
+    public TransportReadModelUseCase transportReadModelUseCase(TransportRepository transportRepository,
+                                                               UserClient userClient,
+                                                               TransportReadModel transportReadModel) {
+        return new TransportReadModelUseCase(transportRepository, userClient, transportReadModel);
     }
 
     @Bean
     public ToResponseDto toResponseDto(UserClient userClient, TransportStatusRepository transportStatusRepository,
-                                       TransportMapper transportMapper) {
-        return new ToResponseDto(userClient, transportStatusRepository, transportMapper);
+                                       TransportMapper transportMapper, TransportReadModel transportReadModel) {
+        return new ToResponseDto(userClient, transportStatusRepository, transportMapper, transportReadModel);
     }
 
     @Bean
     public TransportUpdateUseCase transportUpdateUseCase(TransportRepository transportRepository,
                                                          TransportStatusRepository transportStatusRepository,
                                                          TransactionalOperator transactionalOperator,
-                                                         ToResponseDto toResponseDto
+                                                         ToResponseDto toResponseDto,
+                                                         TransportGridIndex transportGridIndex,
+                                                         TransportCounters transportCounters,
+                                                         TransportChangeFeed transportChangeFeed,
+                                                         TransportReadModel transportReadModel,
+                                                         CityResolver cityResolver
                                                          ) {
         return new TransportUpdateUseCase(transportRepository, transportStatusRepository, transactionalOperator,
-                toResponseDto);
+                toResponseDto, transportGridIndex, transportCounters, transportChangeFeed, transportReadModel,
+                cityResolver);
+    }
+
+    @Bean
+    public ReservationTimer reservationTimer(@Value("${transport.reservations.tick-ms:1000}") long tickMs) {
+        return new ReservationTimer(tickMs, System.currentTimeMillis());
+    }
+
+    @Bean
+    public ReservationUseCase reservationUseCase(TransportRepository transportRepository,
+                                                 TransportStatusRepository transportStatusRepository,
+                                                 TransportUpdateUseCase transportUpdateUseCase,
+                                                 ToResponseDto toResponseDto,
+                                                 ReservationTimer reservationTimer,
+                                                 @Value("${transport.reservations.hold-minutes:10}") long holdMinutes) {
+        return new ReservationUseCase(transportRepository, transportStatusRepository, transportUpdateUseCase,
+                toResponseDto, reservationTimer, Duration.ofMinutes(holdMinutes));
     }
 
     @Bean
-    public TransportStatsUseCase transportStatsDto(TransportRepository transportRepository) {
-        return new TransportStatsUseCase(transportRepository);
+    public TransportStatsUseCase transportStatsDto(TransportRepository transportRepository,
+                                                   TransportStatusRepository transportStatusRepository,
+                                                   TransportCounters transportCounters) {
+        return new TransportStatsUseCase(transportRepository, transportStatusRepository, transportCounters);
     }
 
     @Bean
     public BatteryNotificationUseCase batteryNotificationUseCase(BatteryEventPublisher publisher,
-                                                                 TransportRepository repository) {
-        return new BatteryNotificationUseCase(publisher, repository);
+                                                                 TransportRepository repository,
+                                                                 TransportReadModel transportReadModel) {
+        return new BatteryNotificationUseCase(publisher, repository, transportReadModel);
     }
 
 }
@@ -9,8 +9,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.scoooting.transport.domain.model.enums.TransportType;
 import org.springframework.data.annotation.Id;
+import org.springframework.data.annotation.ReadOnlyProperty;
 import org.springframework.data.relational.core.mapping.Table;
 
+import java.math.BigDecimal;
+
 
 @Table("transports")
 @Data
@@ -42,4 +45,8 @@ public class TransportEntity {
     @DecimalMin(value = "-180.0", message = "Longitude must be between -180 and 180")
     @DecimalMax(value = "180.0", message = "Longitude must be between -180 and 180")
     private Double longitude;
+
+    // Copy of the detail table's battery/fuel level, maintained by DB triggers - never written from here
+    @ReadOnlyProperty
+    private BigDecimal chargeLevel;
 }
\ No newline at end of file
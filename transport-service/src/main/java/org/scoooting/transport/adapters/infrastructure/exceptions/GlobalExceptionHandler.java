@@ -4,6 +4,7 @@ import jakarta.validation.ConstraintViolationException;
 import lombok.extern.slf4j.Slf4j;
 import org.scoooting.transport.adapters.infrastructure.exceptions.dto.ErrorResponseDTO;
 import org.scoooting.transport.domain.exceptions.DataNotFoundException;
+import org.scoooting.transport.domain.exceptions.TransportConflictException;
 import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
@@ -59,6 +60,24 @@ public class GlobalExceptionHandler {
         return Mono.just(ResponseEntity.status(HttpStatus.NOT_FOUND).body(error));
     }
 
+    /**
+     * Transport state changed concurrently (409)
+     */
+    @ExceptionHandler(TransportConflictException.class)
+    public Mono<ResponseEntity<ErrorResponseDTO>> handleTransportConflict(
+            TransportConflictException ex,
+            ServerWebExchange exchange
+    ) {
+        ErrorResponseDTO error = new ErrorResponseDTO(
+                ex.getMessage(),
+                "TRANSPORT_CONFLICT",
+                LocalDateTime.now(),
+                Map.of("path", exchange.getRequest().getPath().value())
+        );
+
+        return Mono.just(ResponseEntity.status(HttpStatus.CONFLICT).body(error));
+    }
+
     /**
      * Validation errors for @PathVariable, @RequestParam (400)
      */
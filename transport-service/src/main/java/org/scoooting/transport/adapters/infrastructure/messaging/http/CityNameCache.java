@@ -0,0 +1,81 @@
+package org.scoooting.transport.adapters.infrastructure.messaging.http;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Near-cache of city names fetched from user-service.
+ *
+ * WHY:
+ * - Every rendered transport needs its city name, cities almost never change
+ * - With the cache the hot map path makes no cross-service calls in steady state
+ *
+ * HOW:
+ * - Entries live for ttl, after that they are "stale": still returned as a fallback
+ *   if user-service is unavailable, but requested again on the next lookup
+ * - Size is bounded by maxSize: expired entries are evicted first, then arbitrary ones
+ */
+@Component
+public class CityNameCache {
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSize;
+
+    public CityNameCache(@Value("${transport.city-cache.ttl:PT10M}") Duration ttl,
+                         @Value("${transport.city-cache.max-size:1000}") int maxSize) {
+        this.ttlNanos = ttl.toNanos();
+        this.maxSize = maxSize;
+    }
+
+    /**
+     * @return names that are present and not expired
+     */
+    public Map<Long, String> getFresh(Collection<Long> cityIds) {
+        long now = System.nanoTime();
+        Map<Long, String> result = new HashMap<>();
+        for (Long cityId : cityIds) {
+            Entry entry = entries.get(cityId);
+            if (entry != null && entry.expiresAt() - now > 0) {
+                result.put(cityId, entry.name());
+            }
+        }
+        return result;
+    }
+
+    /**
+     * @return last known name regardless of expiration
+     */
+    public Optional<String> getStale(Long cityId) {
+        return Optional.ofNullable(entries.get(cityId)).map(Entry::name);
+    }
+
+    public void putAll(Map<Long, String> names) {
+        long expiresAt = System.nanoTime() + ttlNanos;
+        names.forEach((cityId, name) -> {
+            if (!entries.containsKey(cityId)) {
+                ensureCapacity();
+            }
+            entries.put(cityId, new Entry(name, expiresAt));
+        });
+    }
+
+    private void ensureCapacity() {
+        if (entries.size() < maxSize) {
+            return;
+        }
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> entry.expiresAt() - now <= 0);
+        Iterator<Long> keys = entries.keySet().iterator();
+        while (entries.size() >= maxSize && keys.hasNext()) {
+            keys.next();
+            keys.remove();
+        }
+    }
+
+    private record Entry(String name, long expiresAt) {}
+}
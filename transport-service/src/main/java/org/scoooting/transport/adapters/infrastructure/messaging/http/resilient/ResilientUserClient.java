@@ -4,19 +4,29 @@ import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.scoooting.transport.adapters.infrastructure.messaging.http.CityNameCache;
 import org.scoooting.transport.application.ports.UserClient;
+import org.scoooting.transport.domain.model.CityArea;
+import org.springframework.core.ParameterizedTypeReference;
 import org.springframework.stereotype.Component;
 import org.springframework.web.reactive.function.client.WebClient;
-import org.springframework.web.reactive.function.client.WebClientResponseException;
 import reactor.core.publisher.Mono;
 
+import java.util.*;
+
 @Component
 @RequiredArgsConstructor
 @Slf4j
 public class ResilientUserClient implements UserClient {
 
+    private static final ParameterizedTypeReference<Map<Long, String>> CITY_NAMES =
+            new ParameterizedTypeReference<>() {};
+    private static final ParameterizedTypeReference<List<CityArea>> CITY_AREAS =
+            new ParameterizedTypeReference<>() {};
+
     private final WebClient.Builder webClientBuilder;
     private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final CityNameCache cityNameCache;
 
     private WebClient getWebClient() {
         return webClientBuilder.baseUrl("http://user-service/api").build();
@@ -27,26 +37,74 @@ public class ResilientUserClient implements UserClient {
         if (cityId == null) {
             return Mono.just("N/A");
         }
+        return getCityNames(List.of(cityId)).map(names -> names.get(cityId));
+    }
+
+    /**
+     * Resolve city names through the near-cache.
+     *
+     * - Fresh cache hits are returned without calling user-service
+     * - Misses and expired entries are fetched with ONE POST /cities/batch call
+     * - Cities unknown to user-service resolve to "Unknown"
+     * - If user-service is down, stale cached names are used, otherwise "N/A"
+     */
+    @Override
+    public Mono<Map<Long, String>> getCityNames(Collection<Long> cityIds) {
+        Set<Long> requested = new HashSet<>(cityIds);
+        requested.remove(null);
+        Map<Long, String> result = new HashMap<>(cityNameCache.getFresh(requested));
+
+        Set<Long> missing = new HashSet<>(requested);
+        missing.removeAll(result.keySet());
+        if (missing.isEmpty()) {
+            return Mono.just(result);
+        }
 
-        log.debug("Calling user-service for cityId: {}", cityId);
+        log.debug("Calling user-service for cityIds: {}", missing);
 
         return getWebClient()
-                .get()
-                .uri("/cities/city/{id}", cityId)
+                .post()
+                .uri("/cities/batch")
+                .bodyValue(missing)
                 .retrieve()
-                .bodyToMono(String.class)
+                .bodyToMono(CITY_NAMES)
                 .transformDeferred(CircuitBreakerOperator.of(
                         circuitBreakerRegistry.circuitBreaker("userService")
                 ))
-                .doOnError(e -> log.error("Error calling user-service: {}", e.getMessage()))
-                .onErrorResume(WebClientResponseException.NotFound.class, e -> {
-                    log.warn("City {} not found", cityId);
-                    return Mono.just("Unknown");
+                .map(found -> {
+                    Map<Long, String> resolved = new HashMap<>();
+                    for (Long cityId : missing) {
+                        resolved.put(cityId, found.getOrDefault(cityId, "Unknown"));
+                    }
+                    cityNameCache.putAll(resolved);
+                    result.putAll(resolved);
+                    return result;
                 })
+                .doOnError(e -> log.error("Error calling user-service: {}", e.getMessage()))
                 .onErrorResume(e -> {
-                    log.error("FALLBACK getCityName! cityId: {}, error: {}",
-                            cityId, e.getClass().getSimpleName());
-                    return Mono.just("N/A");
+                    log.error("FALLBACK getCityNames! cityIds: {}, error: {}",
+                            missing, e.getClass().getSimpleName());
+                    for (Long cityId : missing) {
+                        result.put(cityId, cityNameCache.getStale(cityId).orElse("N/A"));
+                    }
+                    return Mono.just(result);
                 });
     }
-}
\ No newline at end of file
+
+    /**
+     * No fallback: the caller keeps its previously loaded cities and retries later.
+     */
+    @Override
+    public Mono<List<CityArea>> getCities() {
+        log.debug("Calling user-service for city boundaries");
+        return getWebClient()
+                .get()
+                .uri("/cities")
+                .retrieve()
+                .bodyToMono(CITY_AREAS)
+                .transformDeferred(CircuitBreakerOperator.of(
+                        circuitBreakerRegistry.circuitBreaker("userService")
+                ))
+                .doOnError(e -> log.error("Error calling user-service: {}", e.getMessage()));
+    }
+}
@@ -8,6 +8,10 @@ import org.springframework.kafka.core.KafkaTemplate;
 import org.springframework.stereotype.Component;
 import reactor.core.publisher.Mono;
 
+/**
+ * Battery notifications are keyed by userId, so a rider's warnings arrive in the order they were raised;
+ * force-end requests by rentalId, so repeated requests for one rental go to the same consumer.
+ */
 @Component
 @RequiredArgsConstructor
 public class KafkaBatteryEventPublisher implements BatteryEventPublisher {
@@ -16,11 +20,13 @@ public class KafkaBatteryEventPublisher implements BatteryEventPublisher {
 
     @Override
     public Mono<Void> publishBattery(BatteryNotificationDto batteryNotificationDto) {
-        return Mono.fromFuture(kafkaTemplate.send(KafkaConfig.TRANSPORT_BATTERY, batteryNotificationDto)).then();
+        return Mono.fromFuture(kafkaTemplate.send(KafkaConfig.TRANSPORT_BATTERY,
+                String.valueOf(batteryNotificationDto.userId()), batteryNotificationDto)).then();
     }
 
     @Override
     public Mono<Void> publishForceEndRental(EmptyBatteryDto emptyBatteryDto) {
-        return Mono.fromFuture(kafkaTemplate.send(KafkaConfig.END_RENTAL, emptyBatteryDto)).then();
+        return Mono.fromFuture(kafkaTemplate.send(KafkaConfig.END_RENTAL,
+                String.valueOf(emptyBatteryDto.rentalId()), emptyBatteryDto)).then();
     }
 }
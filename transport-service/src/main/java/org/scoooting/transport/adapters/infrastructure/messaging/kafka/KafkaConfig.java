@@ -3,13 +3,17 @@ package org.scoooting.transport.adapters.infrastructure.messaging.kafka;
 import org.apache.kafka.clients.admin.NewTopic;
 import org.apache.kafka.clients.consumer.ConsumerConfig;
 import org.apache.kafka.common.serialization.StringDeserializer;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.codec.CompactKafkaDeserializer;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.codec.CompactKafkaSerializer;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.kafka.DefaultKafkaProducerFactoryCustomizer;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.kafka.annotation.EnableKafka;
 import org.springframework.kafka.config.ConcurrentKafkaListenerContainerFactory;
 import org.springframework.kafka.core.ConsumerFactory;
 import org.springframework.kafka.core.DefaultKafkaConsumerFactory;
+import org.springframework.kafka.core.DefaultKafkaProducerFactory;
 import org.springframework.kafka.listener.ContainerProperties;
 import org.springframework.kafka.support.serializer.JsonDeserializer;
 
@@ -22,10 +26,17 @@ public class KafkaConfig {
 
     public static final String TRANSPORT_BATTERY = "transport-battery";
     public static final String END_RENTAL = "end-rental";
+    public static final String TRANSPORT_COMMANDS = "transport-commands";
+    public static final String TRANSPORT_POSITIONS = "transport-positions";
+
+    public static final String BATCH_LISTENER_FACTORY = "batchKafkaListenerContainerFactory";
 
     @Value("${spring.kafka.bootstrap-servers}")
     private String server;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private int concurrency;
+
     @Value("${spring.kafka.consumer.group-id}")
     private String groupId;
 
@@ -35,7 +46,8 @@ public class KafkaConfig {
         props.put(ConsumerConfig.BOOTSTRAP_SERVERS_CONFIG, server);
         props.put(ConsumerConfig.GROUP_ID_CONFIG, groupId);
         props.put(ConsumerConfig.KEY_DESERIALIZER_CLASS_CONFIG, StringDeserializer.class);
-        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, JsonDeserializer.class);
+        // Typed records for compact messages, HashMap for JSON ones
+        props.put(ConsumerConfig.VALUE_DESERIALIZER_CLASS_CONFIG, CompactKafkaDeserializer.class);
         props.put(JsonDeserializer.TRUSTED_PACKAGES, "*");
         props.put(JsonDeserializer.VALUE_DEFAULT_TYPE, "java.util.HashMap");
         props.put(ConsumerConfig.ENABLE_AUTO_COMMIT_CONFIG, false);
@@ -49,10 +61,39 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
         return factory;
     }
 
+    /**
+     * Batch listener: the whole poll (up to max.poll.records) is handed to the listener at once,
+     * offsets are committed once per batch after it has been applied.
+     * One consumer thread per partition of transport-commands.
+     */
+    @Bean(BATCH_LISTENER_FACTORY)
+    public ConcurrentKafkaListenerContainerFactory<String, Object> batchKafkaListenerContainerFactory(
+            @Value("${transport.commands.concurrency:${spring.kafka.listener.concurrency:3}}") int concurrency) {
+        ConcurrentKafkaListenerContainerFactory<String, Object> factory =
+                new ConcurrentKafkaListenerContainerFactory<>();
+        factory.setConsumerFactory(consumerFactory());
+        factory.setBatchListener(true);
+        factory.setConcurrency(concurrency);
+        factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.BATCH);
+        return factory;
+    }
+
+    /**
+     * Battery notifications are sent in the compact binary format,
+     * other messages stay JSON (see {@link CompactKafkaSerializer}).
+     */
+    @Bean
+    @SuppressWarnings("unchecked")
+    public DefaultKafkaProducerFactoryCustomizer compactValueSerializerCustomizer() {
+        return producerFactory -> ((DefaultKafkaProducerFactory<String, Object>) producerFactory)
+                .setValueSerializerSupplier(CompactKafkaSerializer::new);
+    }
+
     @Bean
     public NewTopic createTransportBatteryTopic() {
         return new NewTopic(TRANSPORT_BATTERY, 3, (short) 3);
@@ -62,4 +103,9 @@ public class KafkaConfig {
     public NewTopic createEndRentalTopic() {
         return new NewTopic(END_RENTAL, 3, (short) 3);
     }
+
+    @Bean
+    public NewTopic createTransportPositionsTopic() {
+        return new NewTopic(TRANSPORT_POSITIONS, 3, (short) 3);
+    }
 }
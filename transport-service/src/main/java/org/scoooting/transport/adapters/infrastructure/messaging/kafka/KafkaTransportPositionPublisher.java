@@ -0,0 +1,78 @@
+package org.scoooting.transport.adapters.infrastructure.messaging.kafka;
+
+import lombok.extern.slf4j.Slf4j;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportPositionDto;
+import org.scoooting.transport.application.ports.TransportPositionPublisher;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.kafka.core.KafkaTemplate;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Schedulers;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Keyed by transportId: positions of one transport stay in one partition and are consumed in order.
+ * All records of a flush are handed to the producer at once, it groups them into few requests.
+ *
+ * WHY fire-and-forget with a bound:
+ * - Telemetry flushes run every few hundred milliseconds and must not wait for the broker;
+ *   during a Kafka outage send() itself blocks until metadata is available (max.block.ms)
+ * - Sends run on boundedElastic, the flush only counts the positions in and returns
+ * - At most maxInFlight positions wait for the broker, a flush above that is dropped and logged
+ *   (tracks are best effort); every send gives its slot back after sendTimeout at the latest
+ */
+@Component
+@Slf4j
+public class KafkaTransportPositionPublisher implements TransportPositionPublisher {
+
+    private final KafkaTemplate<String, Object> kafkaTemplate;
+    private final int maxInFlight;
+    private final Duration sendTimeout;
+
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    public KafkaTransportPositionPublisher(KafkaTemplate<String, Object> kafkaTemplate,
+                                           @Value("${transport.positions.max-in-flight:10000}") int maxInFlight,
+                                           @Value("${transport.positions.send-timeout:PT10S}") Duration sendTimeout) {
+        this.kafkaTemplate = kafkaTemplate;
+        this.maxInFlight = maxInFlight;
+        this.sendTimeout = sendTimeout;
+    }
+
+    @Override
+    public void publishPositions(Collection<TransportPositionDto> positions) {
+        int size = positions.size();
+        if (inFlight.addAndGet(size) > maxInFlight) {
+            inFlight.addAndGet(-size);
+            log.warn("Dropped {} transport positions, {} are still waiting for the broker", size, inFlight.get());
+            return;
+        }
+
+        Flux.fromIterable(positions)
+                .flatMap(position -> Mono.fromFuture(() -> kafkaTemplate.send(KafkaConfig.TRANSPORT_POSITIONS,
+                                String.valueOf(position.transportId()), position))
+                        .timeout(sendTimeout)
+                        .thenReturn(true)
+                        .onErrorReturn(false)
+                        .doFinally(signal -> inFlight.decrementAndGet()))
+                .filter(sent -> !sent)
+                .count()
+                .subscribeOn(Schedulers.boundedElastic())
+                .subscribe(failed -> {
+                    if (failed > 0) {
+                        log.warn("Failed to publish {} of {} transport positions", failed, size);
+                    }
+                });
+    }
+
+    /**
+     * @return positions handed to the producer and not yet acknowledged or timed out
+     */
+    public int inFlight() {
+        return inFlight.get();
+    }
+}
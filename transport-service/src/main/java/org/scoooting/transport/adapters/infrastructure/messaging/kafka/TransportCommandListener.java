@@ -1,63 +1,128 @@
 package org.scoooting.transport.adapters.infrastructure.messaging.kafka;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
 import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportCoordinatesDTO;
 import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportStatusDTO;
 import org.scoooting.transport.adapters.interfaces.dto.UpdateCoordinatesDTO;
 import org.scoooting.transport.application.usecase.TransportUpdateUseCase;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.kafka.annotation.KafkaListener;
-import org.springframework.kafka.support.KafkaHeaders;
-import org.springframework.messaging.handler.annotation.Header;
 import org.springframework.stereotype.Component;
 import org.springframework.validation.annotation.Validated;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
 
-import java.util.HashMap;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
 
+/**
+ * Consumes transport-commands in batches.
+ *
+ * HOW a batch is applied:
+ * 1. Records are split into coordinate and status commands
+ * 2. All coordinate updates go to the DB as one multi-row UPDATE (latest per transport wins)
+ * 3. Status updates are applied one by one in arrival order
+ *    (coordinates first, so a transport that becomes AVAILABLE is indexed at its new position)
+ *
+ * WHY the listener blocks:
+ * - With AckMode.BATCH the offsets are committed when the listener returns, and the next poll
+ *   starts right after. Returning a Mono would commit and poll before the batch is applied,
+ *   so two batches of one partition could interleave and reorder commands of one transport
+ * - The consumer thread is a Kafka container thread, not an event loop, blocking it is fine
+ * - If the batch doesn't finish within batchTimeout the listener throws, nothing is committed
+ *   and the container's error handler redelivers the batch (coordinates and statuses are
+ *   absolute values, applying them twice is harmless)
+ *
+ * Failures are isolated per record: an unreadable command is logged and skipped, a failed
+ * multi-row UPDATE falls back to updating the transports one by one, and a failing status
+ * update doesn't stop the rest. None of them stalls the partition.
+ */
 @Component
 @Slf4j
-@RequiredArgsConstructor
 @Validated
 public class TransportCommandListener {
 
-    private final ObjectMapper mapper = new ObjectMapper();
+    private final ObjectMapper mapper;
     private final TransportUpdateUseCase transportUpdateUseCase;
+    private final Duration batchTimeout;
 
-    @KafkaListener(topics = "transport-commands", groupId = "transport-service")
-    public void handleTransportCommands(
-            HashMap<String, Object> message,
-            @Header(KafkaHeaders.RECEIVED_TOPIC) String topic,
-            @Header(KafkaHeaders.RECEIVED_PARTITION) int partition
-    ) {
-        try {
-            log.info("Received command from topic={}, partition={}", topic, partition);
-
-            // get command type
-            if (message.containsKey("status")) {
-                TransportStatusDTO dto = mapper.convertValue(message, TransportStatusDTO.class);
-                log.info("Processing status update: {}", dto);
-
-                transportUpdateUseCase.updateTransportStatus(dto.transportId(), dto.status())
-                        .block();
-
-            } else if (message.containsKey("latitude")) {
-                TransportCoordinatesDTO dto = mapper.convertValue(message, TransportCoordinatesDTO.class);
-                log.info("Processing coordinates update: {}", dto);
-
-                // convert to UpdateCoordinatesDTO
-                UpdateCoordinatesDTO updateDto = new UpdateCoordinatesDTO(
-                        dto.transportId(),
-                        dto.latitude(),
-                        dto.longitude()
-                );
-                transportUpdateUseCase.updateCoordinates(updateDto).block();
-            }
+    public TransportCommandListener(ObjectMapper mapper, TransportUpdateUseCase transportUpdateUseCase,
+                                    @Value("${transport.commands.batch-timeout:PT30S}") Duration batchTimeout) {
+        this.mapper = mapper;
+        this.transportUpdateUseCase = transportUpdateUseCase;
+        this.batchTimeout = batchTimeout;
+    }
 
-            log.info("Command processed successfully");
+    @KafkaListener(
+            topics = KafkaConfig.TRANSPORT_COMMANDS,
+            groupId = "transport-service",
+            containerFactory = KafkaConfig.BATCH_LISTENER_FACTORY
+    )
+    public void handleTransportCommands(List<ConsumerRecord<String, Object>> records) {
+        List<UpdateCoordinatesDTO> coordinates = new ArrayList<>();
+        List<TransportStatusDTO> statuses = new ArrayList<>();
 
-        } catch (Exception e) {
-            log.error("Failed to process transport command: {}", e.getMessage(), e);
+        for (ConsumerRecord<String, Object> record : records) {
+            try {
+                switch (record.value()) {
+                    // compact binary format - already typed
+                    case TransportCoordinatesDTO dto -> coordinates.add(toUpdate(dto));
+                    case TransportStatusDTO dto -> statuses.add(dto);
+                    // JSON format - get command type from keys
+                    case Map<?, ?> message when message.containsKey("status") ->
+                            statuses.add(mapper.convertValue(message, TransportStatusDTO.class));
+                    case Map<?, ?> message when message.containsKey("latitude") ->
+                            coordinates.add(toUpdate(mapper.convertValue(message, TransportCoordinatesDTO.class)));
+                    case null, default -> log.warn("Skipping unsupported command at partition={}, offset={}",
+                            record.partition(), record.offset());
+                }
+            } catch (RuntimeException e) {
+                log.error("Failed to parse transport command at partition={}, offset={}: {}",
+                        record.partition(), record.offset(), e.getMessage());
+            }
         }
+
+        log.info("Received {} transport commands: {} coordinates, {} status updates",
+                records.size(), coordinates.size(), statuses.size());
+
+        applyCoordinates(coordinates)
+                .thenMany(Flux.fromIterable(statuses)
+                        .concatMap(dto -> Mono.defer(() -> transportUpdateUseCase.updateTransportStatus(
+                                        dto.transportId(), dto.status()))
+                                .onErrorResume(e -> {
+                                    log.error("Failed to process status update {}: {}", dto, e.getMessage());
+                                    return Mono.empty();
+                                })))
+                .then()
+                .block(batchTimeout);
+    }
+
+    /**
+     * One multi-row UPDATE; if it fails (e.g. a value the DB rejects), the updates are
+     * applied one by one so that only the bad ones are lost.
+     */
+    private Mono<Integer> applyCoordinates(List<UpdateCoordinatesDTO> coordinates) {
+        return transportUpdateUseCase.updateCoordinatesBatch(coordinates)
+                .doOnNext(updated -> log.debug("Coordinates updated for {} transports", updated))
+                .onErrorResume(e -> {
+                    log.error("Failed to apply coordinates batch, applying one by one: {}", e.getMessage(), e);
+                    return Flux.fromIterable(coordinates)
+                            .concatMap(dto -> Mono.defer(() -> transportUpdateUseCase.updateCoordinates(dto))
+                                    .onErrorResume(failure -> {
+                                        log.error("Failed to process coordinates update {}: {}",
+                                                dto, failure.getMessage());
+                                        return Mono.empty();
+                                    }))
+                            .count()
+                            .map(Long::intValue);
+                });
+    }
+
+    private static UpdateCoordinatesDTO toUpdate(TransportCoordinatesDTO dto) {
+        return new UpdateCoordinatesDTO(dto.transportId(), dto.latitude(), dto.longitude());
     }
-}
\ No newline at end of file
+}
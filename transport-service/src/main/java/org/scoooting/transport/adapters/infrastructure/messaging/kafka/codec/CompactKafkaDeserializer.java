@@ -0,0 +1,23 @@
+package org.scoooting.transport.adapters.infrastructure.messaging.kafka.codec;
+
+import org.scoooting.kafka.codec.CompactDeserializer;
+import org.scoooting.kafka.codec.CompactMessage;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportCoordinatesDTO;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportStatusDTO;
+
+/**
+ * Reads compact transport commands straight into typed records; JSON payloads go to the
+ * JsonDeserializer of {@link CompactDeserializer}.
+ */
+public class CompactKafkaDeserializer extends CompactDeserializer {
+
+    @Override
+    protected Object fromCompact(CompactMessage message) {
+        return switch (message) {
+            case CompactMessage.TransportCoordinates m ->
+                    new TransportCoordinatesDTO(m.transportId(), m.latitude(), m.longitude());
+            case CompactMessage.TransportStatus m -> new TransportStatusDTO(m.transportId(), m.status());
+            default -> throw unsupported(message);
+        };
+    }
+}
@@ -0,0 +1,20 @@
+package org.scoooting.transport.adapters.infrastructure.messaging.kafka.codec;
+
+import org.scoooting.kafka.codec.CompactMessage;
+import org.scoooting.kafka.codec.CompactSerializer;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.BatteryNotificationDto;
+
+/**
+ * Battery notifications are sent in the compact binary format (see kafka-codec's CompactFormat),
+ * everything else as JSON without type headers.
+ */
+public class CompactKafkaSerializer extends CompactSerializer {
+
+    @Override
+    protected CompactMessage toCompact(Object data) {
+        if (data instanceof BatteryNotificationDto dto) {
+            return new CompactMessage.BatteryNotification(dto.userId(), dto.battery());
+        }
+        return null;
+    }
+}
@@ -0,0 +1,8 @@
+package org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto;
+
+/**
+ * Applied telemetry position, consumed by rental-service to record trip tracks.
+ *
+ * @param ts device time of the measurement, epoch milliseconds
+ */
+public record TransportPositionDto(long transportId, double latitude, double longitude, long ts) {}
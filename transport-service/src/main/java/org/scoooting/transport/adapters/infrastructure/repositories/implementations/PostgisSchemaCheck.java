@@ -0,0 +1,58 @@
+package org.scoooting.transport.adapters.infrastructure.repositories.implementations;
+
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+/**
+ * Fails startup when transport.spatial.backend=postgis but the database has no PostGIS schema.
+ *
+ * WHY:
+ * - V6 (and the afterMigrate callback) skip transports.geog on servers without the postgis extension,
+ *   Flyway still reports the schema as up to date
+ * - Without the check the service would start and fail every area and nearby query at runtime
+ *
+ * Runs after all singletons are created, so Flyway has already migrated, and before the server
+ * accepts requests.
+ */
+@Component
+@ConditionalOnProperty(name = "transport.spatial.backend", havingValue = "postgis")
+public class PostgisSchemaCheck implements SmartInitializingSingleton {
+
+    private static final Duration TIMEOUT = Duration.ofSeconds(30);
+
+    private final DatabaseClient databaseClient;
+
+    public PostgisSchemaCheck(DatabaseClient databaseClient) {
+        this.databaseClient = databaseClient;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        verify().block(TIMEOUT);
+    }
+
+    /**
+     * @throws IllegalStateException if the postgis extension or transports.geog is missing
+     */
+    public Mono<Void> verify() {
+        return databaseClient.sql("""
+                        SELECT EXISTS (SELECT 1 FROM pg_extension WHERE extname = 'postgis') AS extension,
+                               EXISTS (SELECT 1 FROM information_schema.columns
+                                       WHERE table_schema = current_schema()
+                                       AND table_name = 'transports' AND column_name = 'geog') AS geog
+                        """)
+                .map((row, metadata) -> Boolean.TRUE.equals(row.get("extension", Boolean.class))
+                        && Boolean.TRUE.equals(row.get("geog", Boolean.class)))
+                .one()
+                .flatMap(ready -> ready
+                        ? Mono.<Void>empty()
+                        : Mono.error(new IllegalStateException("transport.spatial.backend=postgis, but the postgis "
+                        + "extension or transports.geog is missing. Install PostGIS and restart (the column is "
+                        + "created after migrations), or use transport.spatial.backend=btree")));
+    }
+}
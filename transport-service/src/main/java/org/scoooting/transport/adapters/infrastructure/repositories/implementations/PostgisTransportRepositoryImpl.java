@@ -0,0 +1,99 @@
+package org.scoooting.transport.adapters.infrastructure.repositories.implementations;
+
+import org.scoooting.transport.adapters.infrastructure.entities.TransportEntity;
+import org.scoooting.transport.adapters.infrastructure.repositories.mappers.TransportEntityMapper;
+import org.scoooting.transport.adapters.infrastructure.repositories.r2dbc.TransportR2dbcRepository;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+
+/**
+ * PostGIS spatial path, enabled with transport.spatial.backend=postgis.
+ *
+ * WHY:
+ * - Two BETWEEN ranges on latitude/longitude can use a B-tree for one range only,
+ *   the other one is filtered row by row
+ * - transports.geog (see V6 migration) has a GiST index that serves both dimensions at once
+ * - Radius search uses ST_DWithin (index-assisted, exact on the spheroid) and KNN ordering (<->),
+ *   so the database returns rows already sorted by distance and stops at LIMIT
+ *
+ * REQUIRES the postgis extension and transports.geog, checked at startup by {@link PostgisSchemaCheck};
+ * everything except spatial lookups is inherited from the default implementation.
+ */
+@Repository
+@ConditionalOnProperty(name = "transport.spatial.backend", havingValue = "postgis")
+public class PostgisTransportRepositoryImpl extends TransportRepositoryImpl {
+
+    private static final String AVAILABLE = "(SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')";
+
+    private final TransportEntityMapper mapper;
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    public PostgisTransportRepositoryImpl(TransportR2dbcRepository repository, TransportEntityMapper mapper,
+                                          DatabaseClient databaseClient, R2dbcConverter converter) {
+        super(repository, mapper, databaseClient, converter);
+        this.mapper = mapper;
+        this.databaseClient = databaseClient;
+        this.converter = converter;
+    }
+
+    @Override
+    public Flux<Transport> findAvailableInArea(Double latMin, Double latMax, Double lngMin, Double lngMax) {
+        return query(databaseClient.sql("""
+                        SELECT * FROM transports
+                        WHERE status_id = %s
+                        AND geog && ST_MakeEnvelope(:lngMin, :latMin, :lngMax, :latMax, 4326)::geography
+                        """.formatted(AVAILABLE))
+                .bind("latMin", latMin).bind("latMax", latMax)
+                .bind("lngMin", lngMin).bind("lngMax", lngMax));
+    }
+
+    @Override
+    public Flux<Transport> findAvailableByTypeInArea(TransportType type, Double latMin, Double latMax,
+                                                     Double lngMin, Double lngMax) {
+        return query(databaseClient.sql("""
+                        SELECT * FROM transports
+                        WHERE transport_type = :type
+                        AND status_id = %s
+                        AND geog && ST_MakeEnvelope(:lngMin, :latMin, :lngMax, :latMax, 4326)::geography
+                        """.formatted(AVAILABLE))
+                .bind("type", type.name())
+                .bind("latMin", latMin).bind("latMax", latMax)
+                .bind("lngMin", lngMin).bind("lngMax", lngMax));
+    }
+
+    @Override
+    public Flux<Transport> findAvailableNearby(double lat, double lng, double radiusKm, TransportType type,
+                                               double minCharge, int limit) {
+        String typeFilter = type == null ? "" : "AND transport_type = :type";
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        SELECT * FROM transports
+                        WHERE status_id = %s
+                        %s
+                        AND COALESCE(charge_level, 0) >= :minCharge
+                        AND ST_DWithin(geog, ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography, :radiusM)
+                        ORDER BY geog <-> ST_SetSRID(ST_MakePoint(:lng, :lat), 4326)::geography
+                        LIMIT :limit
+                        """.formatted(AVAILABLE, typeFilter))
+                .bind("lat", lat)
+                .bind("lng", lng)
+                .bind("radiusM", radiusKm * 1000)
+                .bind("minCharge", minCharge)
+                .bind("limit", limit);
+        if (type != null) {
+            spec = spec.bind("type", type.name());
+        }
+        return query(spec);
+    }
+
+    private Flux<Transport> query(DatabaseClient.GenericExecuteSpec spec) {
+        return spec.map((row, metadata) -> converter.read(TransportEntity.class, row, metadata))
+                .all()
+                .map(mapper::toDomain);
+    }
+}
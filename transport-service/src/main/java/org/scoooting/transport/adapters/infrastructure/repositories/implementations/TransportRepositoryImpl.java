@@ -1,20 +1,47 @@
 package org.scoooting.transport.adapters.infrastructure.repositories.implementations;
 
 import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.adapters.infrastructure.entities.TransportEntity;
 import org.scoooting.transport.adapters.infrastructure.repositories.mappers.TransportEntityMapper;
 import org.scoooting.transport.adapters.infrastructure.repositories.r2dbc.TransportR2dbcRepository;
+import org.scoooting.transport.domain.model.Reservation;
+import org.scoooting.transport.domain.model.TelemetrySample;
 import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportCount;
+import org.scoooting.transport.domain.model.TransportView;
 import org.scoooting.transport.domain.model.enums.TransportType;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.data.r2dbc.convert.R2dbcConverter;
+import org.springframework.r2dbc.core.DatabaseClient;
 import org.springframework.stereotype.Repository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.time.OffsetDateTime;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+
+/**
+ * Default spatial path: bounding box over latitude/longitude columns.
+ * See {@link PostgisTransportRepositoryImpl} for the GiST-indexed alternative.
+ */
 @Repository
 @RequiredArgsConstructor
+@ConditionalOnProperty(name = "transport.spatial.backend", havingValue = "btree", matchIfMissing = true)
 public class TransportRepositoryImpl implements org.scoooting.transport.domain.repositories.TransportRepository {
 
     private final TransportR2dbcRepository repository;
     private final TransportEntityMapper mapper;
+    private final DatabaseClient databaseClient;
+    private final R2dbcConverter converter;
+
+    // 3 bind parameters per row, keeps every statement far below the 65535 parameter limit
+    private static final int MAX_ROWS_PER_UPDATE = 1000;
+
+    private static final double KM_PER_DEGREE = 111.0;
 
     @Override
     public Mono<Transport> findById(Long id) {
@@ -26,25 +53,373 @@ public class TransportRepositoryImpl implements org.scoooting.transport.domain.r
         return repository.save(mapper.toEntity(transport)).map(mapper::toDomain);
     }
 
+    /**
+     * UPDATE transports SET status_id = :new, city_id = COALESCE(:cityId, city_id)
+     * WHERE id = :id AND status_id IS NOT DISTINCT FROM :expected
+     * RETURNING *
+     *
+     * The row lock is held only for the UPDATE itself. A concurrent writer that changed the status
+     * first makes the WHERE false (READ COMMITTED re-checks it on the new row version), so the
+     * loser gets no row back instead of overwriting the winner.
+     */
+    @Override
+    public Mono<Transport> compareAndSetStatus(Long transportId, Long expectedStatusId, Long newStatusId,
+                                               Long cityId) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        UPDATE transports
+                        SET status_id = :newStatusId, city_id = COALESCE(:cityId, city_id),
+                            reserved_by = NULL, reserved_until = NULL
+                        WHERE id = :id AND status_id IS NOT DISTINCT FROM :expectedStatusId
+                        RETURNING *
+                        """)
+                .bind("id", transportId)
+                .bind("newStatusId", newStatusId);
+        spec = expectedStatusId != null
+                ? spec.bind("expectedStatusId", expectedStatusId)
+                : spec.bindNull("expectedStatusId", Long.class);
+        spec = cityId != null ? spec.bind("cityId", cityId) : spec.bindNull("cityId", Long.class);
+        return spec.map((row, metadata) -> converter.read(TransportEntity.class, row, metadata))
+                .one()
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Transport> updateCoordinates(Long transportId, Double latitude, Double longitude,
+                                             Long expectedCityId, Long cityId) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                        UPDATE transports
+                        SET latitude = :latitude, longitude = :longitude, city_id = COALESCE(:cityId, city_id)
+                        WHERE id = :id AND city_id IS NOT DISTINCT FROM :expectedCityId
+                        RETURNING *
+                        """)
+                .bind("id", transportId)
+                .bind("latitude", latitude)
+                .bind("longitude", longitude);
+        spec = expectedCityId != null
+                ? spec.bind("expectedCityId", expectedCityId)
+                : spec.bindNull("expectedCityId", Long.class);
+        spec = cityId != null ? spec.bind("cityId", cityId) : spec.bindNull("cityId", Long.class);
+        return spec.map((row, metadata) -> converter.read(TransportEntity.class, row, metadata))
+                .one()
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public Mono<Transport> reserve(Long transportId, Long availableStatusId, Long reservedStatusId, Long userId,
+                                   Instant reservedUntil) {
+        return databaseClient.sql("""
+                        UPDATE transports
+                        SET status_id = :reservedStatusId, reserved_by = :userId, reserved_until = :reservedUntil
+                        WHERE id = :id AND status_id = :availableStatusId
+                        RETURNING *
+                        """)
+                .bind("id", transportId)
+                .bind("availableStatusId", availableStatusId)
+                .bind("reservedStatusId", reservedStatusId)
+                .bind("userId", userId)
+                .bind("reservedUntil", reservedUntil)
+                .map((row, metadata) -> converter.read(TransportEntity.class, row, metadata))
+                .one()
+                .map(mapper::toDomain);
+    }
+
+    /**
+     * UPDATE transports SET status_id = :new, reserved_by = NULL, reserved_until = NULL
+     * WHERE id = :id AND status_id = :reserved [AND reserved_by = :userId] [AND reserved_until <= :expiredAt]
+     * RETURNING *
+     *
+     * Optional conditions are appended instead of "(:userId IS NULL OR ...)", so every
+     * parameter has a type and the planner sees plain equality.
+     */
+    @Override
+    public Mono<Transport> endReservation(Long transportId, Long reservedStatusId, Long newStatusId, Long userId,
+                                          Instant expiredAt) {
+        StringBuilder sql = new StringBuilder("""
+                UPDATE transports
+                SET status_id = :newStatusId, reserved_by = NULL, reserved_until = NULL
+                WHERE id = :id AND status_id = :reservedStatusId
+                """);
+        if (userId != null) {
+            sql.append(" AND reserved_by = :userId");
+        }
+        if (expiredAt != null) {
+            sql.append(" AND reserved_until <= :expiredAt");
+        }
+        sql.append(" RETURNING *");
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(sql.toString())
+                .bind("id", transportId)
+                .bind("reservedStatusId", reservedStatusId)
+                .bind("newStatusId", newStatusId);
+        if (userId != null) {
+            spec = spec.bind("userId", userId);
+        }
+        if (expiredAt != null) {
+            spec = spec.bind("expiredAt", expiredAt);
+        }
+        return spec.map((row, metadata) -> converter.read(TransportEntity.class, row, metadata))
+                .one()
+                .map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Reservation> findReservations() {
+        return databaseClient.sql("""
+                        SELECT id, reserved_by, reserved_until
+                        FROM transports
+                        WHERE reserved_by IS NOT NULL
+                        """)
+                .map((row, metadata) -> new Reservation(
+                        row.get("id", Long.class),
+                        row.get("reserved_by", Long.class),
+                        row.get("reserved_until", OffsetDateTime.class).toInstant()))
+                .all();
+    }
+
+    /**
+     * One multi-row UPDATE per chunk instead of SELECT + UPDATE per transport:
+     *
+     * UPDATE transports AS t SET latitude = v.latitude, longitude = v.longitude
+     * FROM (VALUES (:id0, :lat0, :lng0), (:id1, :lat1, :lng1), ...) AS v(id, latitude, longitude)
+     * WHERE t.id = v.id
+     * RETURNING t.*
+     */
+    @Override
+    public Flux<Transport> updateCoordinatesBatch(Collection<Transport> positions) {
+        return Flux.fromIterable(positions)
+                .buffer(MAX_ROWS_PER_UPDATE)
+                .concatMap(this::updateChunk)
+                .map(mapper::toDomain);
+    }
+
+    private Flux<TransportEntity> updateChunk(List<Transport> chunk) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(CAST(:id").append(i).append(" AS bigint), ")
+                    .append("CAST(:lat").append(i).append(" AS real), ")
+                    .append("CAST(:lng").append(i).append(" AS real))");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                UPDATE transports AS t
+                SET latitude = v.latitude, longitude = v.longitude
+                FROM (VALUES %s) AS v(id, latitude, longitude)
+                WHERE t.id = v.id
+                RETURNING t.*
+                """.formatted(values));
+        for (int i = 0; i < chunk.size(); i++) {
+            Transport position = chunk.get(i);
+            spec = spec.bind("id" + i, position.getId())
+                    .bind("lat" + i, position.getLatitude())
+                    .bind("lng" + i, position.getLongitude());
+        }
+        return spec.map((row, metadata) -> converter.read(TransportEntity.class, row, metadata)).all();
+    }
+
+    /**
+     * Positions and battery levels in one statement per chunk:
+     *
+     * WITH v(id, latitude, longitude, reported_at, level) AS (VALUES ...),
+     * moved AS (UPDATE transports ... WHERE telemetry_at IS NULL OR telemetry_at < v.reported_at RETURNING t.*),
+     * ... UPDATE of every detail table for the moved ids ...
+     * SELECT * FROM moved
+     *
+     * The telemetry_at condition makes the write last-writer-wins by device time across flushes;
+     * an out-of-order sample changes neither the position nor the battery.
+     */
+    @Override
+    public Flux<Transport> applyTelemetry(Collection<TelemetrySample> samples) {
+        // 5 bind parameters per row
+        return Flux.fromIterable(samples)
+                .buffer(MAX_ROWS_PER_UPDATE)
+                .concatMap(this::applyTelemetryChunk)
+                .map(mapper::toDomain);
+    }
+
+    private Flux<TransportEntity> applyTelemetryChunk(List<TelemetrySample> chunk) {
+        StringBuilder values = new StringBuilder();
+        for (int i = 0; i < chunk.size(); i++) {
+            if (i > 0) {
+                values.append(", ");
+            }
+            values.append("(CAST(:id").append(i).append(" AS bigint), ")
+                    .append("CAST(:lat").append(i).append(" AS real), ")
+                    .append("CAST(:lng").append(i).append(" AS real), ")
+                    .append("CAST(:ts").append(i).append(" AS timestamp with time zone), ")
+                    .append("CAST(:level").append(i).append(" AS decimal(5,2)))");
+        }
+
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql("""
+                WITH v(id, latitude, longitude, reported_at, level) AS (VALUES %s),
+                moved AS (
+                    UPDATE transports AS t
+                    SET latitude = v.latitude, longitude = v.longitude, telemetry_at = v.reported_at
+                    FROM v
+                    WHERE t.id = v.id AND (t.telemetry_at IS NULL OR t.telemetry_at < v.reported_at)
+                    RETURNING t.*
+                ),
+                charged AS (
+                    SELECT v.id, v.level FROM v JOIN moved ON moved.id = v.id WHERE v.level IS NOT NULL
+                ),
+                kick_scooter AS (
+                    UPDATE electric_kick_scooters d SET battery_level = c.level
+                    FROM charged c WHERE d.transport_id = c.id
+                ),
+                scooter AS (
+                    UPDATE electric_scooters d SET battery_level = c.level
+                    FROM charged c WHERE d.transport_id = c.id
+                ),
+                bicycle AS (
+                    UPDATE electric_bicycles d SET battery_level = c.level
+                    FROM charged c WHERE d.transport_id = c.id
+                ),
+                motorcycle AS (
+                    UPDATE gas_motorcycles d SET fuel_level = c.level
+                    FROM charged c WHERE d.transport_id = c.id
+                )
+                SELECT * FROM moved
+                """.formatted(values));
+        for (int i = 0; i < chunk.size(); i++) {
+            TelemetrySample sample = chunk.get(i);
+            spec = spec.bind("id" + i, sample.transportId())
+                    .bind("lat" + i, sample.latitude())
+                    .bind("lng" + i, sample.longitude())
+                    .bind("ts" + i, sample.reportedAt());
+            spec = sample.battery() != null
+                    ? spec.bind("level" + i, BigDecimal.valueOf(sample.battery()))
+                    : spec.bindNull("level" + i, BigDecimal.class);
+        }
+        return spec.map((row, metadata) -> converter.read(TransportEntity.class, row, metadata)).all();
+    }
+
     @Override
     public Flux<Transport> findAvailableInArea(Double latMin, Double latMax, Double lngMin, Double lngMax) {
-        return repository.findAvailableInArea(latMin, latMax, lngMin, lngMax)
+        return repository.findAvailableInArea(latMin, latMax, lngMin, lngMax, 0)
                 .map(mapper::toDomain);
     }
 
     @Override
     public Flux<Transport> findAvailableByTypeInArea(TransportType type, Double latMin, Double latMax, Double lngMin, Double lngMax) {
-        return repository.findAvailableByTypeInArea(type, latMin, latMax, lngMin, lngMax)
+        return repository.findAvailableByTypeInArea(type, latMin, latMax, lngMin, lngMax, 0)
                 .map(mapper::toDomain);
     }
 
+    /**
+     * Bounding box around the circle (charge filtered in the same query),
+     * then exact radius filter and distance sort in memory.
+     */
+    @Override
+    public Flux<Transport> findAvailableNearby(double lat, double lng, double radiusKm, TransportType type,
+                                               double minCharge, int limit) {
+        double latRange = radiusKm / KM_PER_DEGREE;
+        double lngRange = radiusKm / (KM_PER_DEGREE * Math.cos(Math.toRadians(lat)));
+        Flux<TransportEntity> box = type == null
+                ? repository.findAvailableInArea(
+                        lat - latRange, lat + latRange, lng - lngRange, lng + lngRange, minCharge)
+                : repository.findAvailableByTypeInArea(
+                        type, lat - latRange, lat + latRange, lng - lngRange, lng + lngRange, minCharge);
+        return box
+                .map(mapper::toDomain)
+                .filter(transport -> distanceKm(lat, lng, transport) <= radiusKm)
+                .sort(Comparator.comparingDouble(transport -> distanceKm(lat, lng, transport)))
+                .take(limit);
+    }
+
+    // Same equirectangular approximation as TransportGridIndex
+    private static double distanceKm(double lat, double lng, Transport transport) {
+        double latDiff = (lat - transport.getLatitude()) * KM_PER_DEGREE;
+        double lngDiff = (lng - transport.getLongitude()) * KM_PER_DEGREE
+                * Math.cos(Math.toRadians((lat + transport.getLatitude()) / 2));
+        return Math.sqrt(latDiff * latDiff + lngDiff * lngDiff);
+    }
+
     @Override
     public Flux<Transport> findAvailableByType(TransportType type) {
         return repository.findAvailableByType(type).map(mapper::toDomain);
     }
 
+    @Override
+    public Flux<Transport> findAvailableByTypeAfter(TransportType type, long afterId, int limit) {
+        return repository.findAvailableByTypeAfter(type, afterId, limit).map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Transport> findAvailableByTypePage(TransportType type, long offset, int limit) {
+        return repository.findAvailableByTypePage(type, offset, limit).map(mapper::toDomain);
+    }
+
+    @Override
+    public Flux<Transport> findAllAvailable() {
+        return repository.findAllAvailable().map(mapper::toDomain);
+    }
+
     @Override
     public Mono<Long> countAvailableByType(TransportType type) {
         return repository.countAvailableByType(type);
     }
+
+    @Override
+    public Flux<TransportCount> countByTypeStatusCity() {
+        return databaseClient.sql("""
+                        SELECT transport_type, status_id, city_id, COUNT(*) AS transport_count
+                        FROM transports
+                        GROUP BY transport_type, status_id, city_id
+                        """)
+                .map((row, metadata) -> new TransportCount(
+                        TransportType.valueOf(row.get("transport_type", String.class)),
+                        row.get("status_id", Long.class),
+                        row.get("city_id", Long.class),
+                        row.get("transport_count", Long.class)))
+                .all();
+    }
+
+    /**
+     * One scan over transports; the energy level comes from the trigger-maintained charge_level,
+     * so the detail tables are not joined.
+     */
+    @Override
+    public Flux<TransportView> findAllViews() {
+        return databaseClient.sql("""
+                        SELECT t.id, t.transport_type, t.status_id, s.name AS status_name, t.city_id,
+                               t.latitude, t.longitude, t.charge_level
+                        FROM transports t
+                        JOIN transport_statuses s ON s.id = t.status_id
+                        """)
+                .map((row, metadata) -> new TransportView(
+                        row.get("id", Long.class),
+                        TransportType.valueOf(row.get("transport_type", String.class)),
+                        row.get("status_id", Long.class),
+                        row.get("status_name", String.class),
+                        row.get("city_id", Long.class),
+                        null,
+                        row.get("latitude", Double.class),
+                        row.get("longitude", Double.class),
+                        row.get("charge_level", BigDecimal.class)))
+                .all();
+    }
+
+    /**
+     * The caller doesn't need to know the transport type: all detail tables are updated
+     * by primary key in one statement, only the matching one has the row.
+     * transports.charge_level follows via trigger.
+     */
+    @Override
+    public Mono<Void> updateEnergyLevel(Long transportId, BigDecimal energyLevel) {
+        return databaseClient.sql("""
+                        WITH kick_scooter AS (
+                            UPDATE electric_kick_scooters SET battery_level = :level WHERE transport_id = :id
+                        ), scooter AS (
+                            UPDATE electric_scooters SET battery_level = :level WHERE transport_id = :id
+                        ), bicycle AS (
+                            UPDATE electric_bicycles SET battery_level = :level WHERE transport_id = :id
+                        )
+                        UPDATE gas_motorcycles SET fuel_level = :level WHERE transport_id = :id
+                        """)
+                .bind("level", energyLevel)
+                .bind("id", transportId)
+                .then();
+    }
 }
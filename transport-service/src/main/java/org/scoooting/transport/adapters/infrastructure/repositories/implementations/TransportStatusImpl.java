@@ -1,33 +1,134 @@
 package org.scoooting.transport.adapters.infrastructure.repositories.implementations;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.scoooting.transport.adapters.infrastructure.repositories.mappers.TransportStatusMapper;
 import org.scoooting.transport.adapters.infrastructure.repositories.r2dbc.TransportStatusR2dbcRepository;
 import org.scoooting.transport.domain.model.TransportStatus;
 import org.scoooting.transport.domain.repositories.TransportStatusRepository;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
 import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.Duration;
+import java.util.*;
+import java.util.function.Function;
+import java.util.function.Predicate;
+import java.util.stream.Collectors;
+
+/**
+ * transport_statuses is a reference table with 3 rows, but it is read on every status
+ * transition (by name) and every DTO render (by id).
+ *
+ * Reads are served from an immutable id <-> name registry:
+ * - Loaded on startup and reloaded on demand (refresh) or after writes
+ * - A miss triggers one reload, so statuses inserted by a migration are picked up without restart;
+ *   within missReloadInterval of the last load a miss is answered from the registry (negative cache),
+ *   so lookups of an unknown id or name can't turn every request into a full table read
+ * - Callers get copies, the registry itself is never mutated
+ */
+@Slf4j
 @Repository
-@RequiredArgsConstructor
 public class TransportStatusImpl implements TransportStatusRepository {
 
     private final TransportStatusR2dbcRepository repository;
     private final TransportStatusMapper mapper;
+    private final long missReloadIntervalNanos;
+
+    private volatile StatusRegistry registry;
+
+    public TransportStatusImpl(TransportStatusR2dbcRepository repository, TransportStatusMapper mapper,
+                               @Value("${transport.statuses.miss-reload-interval:PT30S}") Duration missReloadInterval) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.missReloadIntervalNanos = missReloadInterval.toNanos();
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        refresh().subscribe(
+                null,
+                e -> log.error("Failed to load transport statuses: {}", e.getMessage())
+        );
+    }
+
+    @Override
+    public Mono<Void> refresh() {
+        return reload().then();
+    }
 
     @Override
     public Mono<TransportStatus> findById(Long id) {
-        return repository.findById(id).map(mapper::toDomain);
+        return lookup(id, current -> current.byId().get(id));
+    }
+
+    @Override
+    public Flux<TransportStatus> findAllById(Collection<Long> ids) {
+        List<Long> wanted = ids.stream().filter(Objects::nonNull).toList();
+        return registryFor(current -> current.byId().keySet().containsAll(wanted))
+                .flatMapIterable(current -> wanted.stream()
+                        .map(current.byId()::get)
+                        .filter(Objects::nonNull)
+                        .map(TransportStatusImpl::copy)
+                        .toList());
     }
 
     @Override
     public Mono<TransportStatus> save(TransportStatus transportStatus) {
-        return repository.save(mapper.toEntity(transportStatus)).map(mapper::toDomain);
+        return repository.save(mapper.toEntity(transportStatus))
+                .map(mapper::toDomain)
+                .flatMap(saved -> reload().thenReturn(saved));
     }
 
     @Override
     public Mono<TransportStatus> findByName(String name) {
-        return repository.findByName(name).map(mapper::toDomain);
+        return lookup(name, current -> current.byName().get(name));
+    }
+
+    private Mono<TransportStatus> lookup(Object key, Function<StatusRegistry, TransportStatus> finder) {
+        if (key == null) {
+            return Mono.empty();
+        }
+        return registryFor(current -> finder.apply(current) != null)
+                .mapNotNull(finder)
+                .map(TransportStatusImpl::copy);
     }
 
+    /**
+     * @param hit whether the registry answers the lookup
+     * @return the current registry on a hit or a recent miss, a reloaded one otherwise
+     */
+    private Mono<StatusRegistry> registryFor(Predicate<StatusRegistry> hit) {
+        StatusRegistry current = registry;
+        if (current != null
+                && (hit.test(current) || System.nanoTime() - current.loadedAt() < missReloadIntervalNanos)) {
+            return Mono.just(current);
+        }
+        return reload();
+    }
+
+    private Mono<StatusRegistry> reload() {
+        return repository.findAll()
+                .map(mapper::toDomain)
+                .collectList()
+                .map(StatusRegistry::of)
+                .doOnNext(fresh -> registry = fresh);
+    }
+
+    private static TransportStatus copy(TransportStatus status) {
+        return new TransportStatus(status.getId(), status.getName());
+    }
+
+    private record StatusRegistry(Map<Long, TransportStatus> byId, Map<String, TransportStatus> byName, long loadedAt) {
+
+        static StatusRegistry of(List<TransportStatus> statuses) {
+            return new StatusRegistry(
+                    statuses.stream().collect(Collectors.toUnmodifiableMap(TransportStatus::getId, Function.identity())),
+                    statuses.stream().collect(Collectors.toUnmodifiableMap(TransportStatus::getName, Function.identity())),
+                    System.nanoTime()
+            );
+        }
+    }
 }
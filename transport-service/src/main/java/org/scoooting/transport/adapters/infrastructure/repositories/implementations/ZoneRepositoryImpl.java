@@ -0,0 +1,86 @@
+package org.scoooting.transport.adapters.infrastructure.repositories.implementations;
+
+import io.r2dbc.spi.Readable;
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.domain.model.Zone;
+import org.scoooting.transport.domain.model.enums.ZoneType;
+import org.scoooting.transport.domain.repositories.ZoneRepository;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+
+@Repository
+@RequiredArgsConstructor
+public class ZoneRepositoryImpl implements ZoneRepository {
+
+    private final DatabaseClient databaseClient;
+
+    @Override
+    public Flux<Zone> findAll() {
+        return databaseClient.sql("""
+                        SELECT id, name, zone_type, speed_limit_kmh, latitudes, longitudes
+                        FROM zones
+                        ORDER BY id
+                        """)
+                .map(ZoneRepositoryImpl::toZone)
+                .all();
+    }
+
+    @Override
+    public Mono<Zone> save(Zone zone) {
+        DatabaseClient.GenericExecuteSpec spec = databaseClient.sql(zone.id() == null
+                        ? """
+                        INSERT INTO zones (name, zone_type, speed_limit_kmh, latitudes, longitudes)
+                        VALUES (:name, :type, :speedLimit, :latitudes, :longitudes)
+                        RETURNING id, name, zone_type, speed_limit_kmh, latitudes, longitudes
+                        """
+                        : """
+                        UPDATE zones
+                        SET name = :name, zone_type = :type, speed_limit_kmh = :speedLimit,
+                            latitudes = :latitudes, longitudes = :longitudes, updated_at = now()
+                        WHERE id = :id
+                        RETURNING id, name, zone_type, speed_limit_kmh, latitudes, longitudes
+                        """)
+                .bind("name", zone.name())
+                .bind("type", zone.type().name())
+                .bind("latitudes", box(zone.latitudes()))
+                .bind("longitudes", box(zone.longitudes()));
+        spec = zone.speedLimitKmh() != null
+                ? spec.bind("speedLimit", zone.speedLimitKmh())
+                : spec.bindNull("speedLimit", Integer.class);
+        if (zone.id() != null) {
+            spec = spec.bind("id", zone.id());
+        }
+        return spec.map(ZoneRepositoryImpl::toZone).one();
+    }
+
+    @Override
+    public Mono<Boolean> deleteById(Long id) {
+        return databaseClient.sql("DELETE FROM zones WHERE id = :id")
+                .bind("id", id)
+                .fetch()
+                .rowsUpdated()
+                .map(deleted -> deleted > 0);
+    }
+
+    private static Zone toZone(Readable row) {
+        return new Zone(
+                row.get("id", Long.class),
+                row.get("name", String.class),
+                ZoneType.valueOf(row.get("zone_type", String.class)),
+                row.get("speed_limit_kmh", Integer.class),
+                unbox(row.get("latitudes", Double[].class)),
+                unbox(row.get("longitudes", Double[].class)));
+    }
+
+    private static Double[] box(double[] values) {
+        return Arrays.stream(values).boxed().toArray(Double[]::new);
+    }
+
+    private static double[] unbox(Double[] values) {
+        return Arrays.stream(values).mapToDouble(Double::doubleValue).toArray();
+    }
+}
@@ -16,8 +16,11 @@ public interface TransportR2dbcRepository extends ReactiveCrudRepository<Transpo
         WHERE status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
         AND latitude BETWEEN :latMin AND :latMax
         AND longitude BETWEEN :lngMin AND :lngMax
+        AND COALESCE(charge_level, 0) >= :minCharge
         """)
-    Flux<TransportEntity> findAvailableInArea(Double latMin, Double latMax, Double lngMin, Double lngMax);
+    Flux<TransportEntity> findAvailableInArea(
+            Double latMin, Double latMax, Double lngMin, Double lngMax, double minCharge
+    );
 
     @Query("""
         SELECT * FROM transports 
@@ -25,9 +28,10 @@ public interface TransportR2dbcRepository extends ReactiveCrudRepository<Transpo
         AND status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
         AND latitude BETWEEN :latMin AND :latMax
         AND longitude BETWEEN :lngMin AND :lngMax
+        AND COALESCE(charge_level, 0) >= :minCharge
         """)
     Flux<TransportEntity> findAvailableByTypeInArea(
-            TransportType type, Double latMin, Double latMax, Double lngMin, Double lngMax
+            TransportType type, Double latMin, Double latMax, Double lngMin, Double lngMax, double minCharge
     );
 
     @Query("""
@@ -37,6 +41,32 @@ public interface TransportR2dbcRepository extends ReactiveCrudRepository<Transpo
         """)
     Flux<TransportEntity> findAvailableByType(TransportType type);
 
+    @Query("""
+        SELECT * FROM transports
+        WHERE transport_type = CAST(:type AS VARCHAR)
+        AND status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+        AND id > :afterId
+        ORDER BY id
+        LIMIT :limit
+        """)
+    Flux<TransportEntity> findAvailableByTypeAfter(TransportType type, Long afterId, int limit);
+
+    // Deprecated page parameter: same id order as the keyset scroll, so a client can switch to the cursor
+    @Query("""
+        SELECT * FROM transports
+        WHERE transport_type = CAST(:type AS VARCHAR)
+        AND status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+        ORDER BY id
+        LIMIT :limit OFFSET :offset
+        """)
+    Flux<TransportEntity> findAvailableByTypePage(TransportType type, long offset, int limit);
+
+    @Query("""
+        SELECT * FROM transports 
+        WHERE status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+        """)
+    Flux<TransportEntity> findAllAvailable();
+
     @Query("""
         SELECT COUNT(*) FROM transports 
         WHERE transport_type = CAST(:type AS VARCHAR)
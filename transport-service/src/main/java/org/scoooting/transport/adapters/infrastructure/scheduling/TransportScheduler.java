@@ -0,0 +1,153 @@
+package org.scoooting.transport.adapters.infrastructure.scheduling;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.scoooting.transport.adapters.infrastructure.config.SchedulingConfig;
+import org.scoooting.transport.application.usecase.CityUseCase;
+import org.scoooting.transport.application.usecase.ReservationUseCase;
+import org.scoooting.transport.application.usecase.TelemetryUseCase;
+import org.scoooting.transport.application.usecase.TransportIndexUseCase;
+import org.scoooting.transport.application.usecase.TransportReadModelUseCase;
+import org.scoooting.transport.application.usecase.TransportStatsUseCase;
+import org.scoooting.transport.application.usecase.ZoneUseCase;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+/**
+ * Background jobs of transport-service. Threads are assigned in {@link SchedulingConfig}.
+ *
+ * IN-MEMORY STATE is loaded on startup and reconciled with the database periodically:
+ * - Search index: until the first load, search falls back to SQL
+ * - Read model: until the first load, transports are rendered with status and city lookups
+ * - Counters: until the first load, availability stats fall back to COUNT(*)
+ * - Cities: until the first load, transports keep the city they have
+ * - Zones: reloaded so zone edits reach every instance without a restart
+ * - Reservation timer: rebuilt from the holds in the database
+ *
+ * TICKS:
+ * - Reservation tick advances the timer; a tick without due holds doesn't touch the database
+ * - Telemetry flush writes staged positions; the interval bounds how stale a position
+ *   can be in the DB, the smaller it is, the smaller the batches
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class TransportScheduler {
+
+    private final TransportIndexUseCase transportIndexUseCase;
+    private final TransportReadModelUseCase transportReadModelUseCase;
+    private final TransportStatsUseCase transportStatsUseCase;
+    private final CityUseCase cityUseCase;
+    private final ZoneUseCase zoneUseCase;
+    private final ReservationUseCase reservationUseCase;
+    private final TelemetryUseCase telemetryUseCase;
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        warmUp("Transport index", transportIndexUseCase.rebuildIndex());
+        warmUp("Transport read model", transportReadModelUseCase.rebuildReadModel());
+        warmUp("Transport counters", transportStatsUseCase.reconcileCounters());
+        warmUp("Cities", cityUseCase.reloadCities());
+        warmUp("Zones", zoneUseCase.reloadZones());
+        warmUp("Reservations", reservationUseCase.reloadReservations());
+    }
+
+    @Scheduled(
+            initialDelayString = "${transport.index.reconcile-interval-ms:60000}",
+            fixedDelayString = "${transport.index.reconcile-interval-ms:60000}"
+    )
+    public void reconcileIndex() {
+        reload("Transport index", transportIndexUseCase.rebuildIndex());
+    }
+
+    @Scheduled(
+            initialDelayString = "${transport.read-model.reconcile-interval-ms:60000}",
+            fixedDelayString = "${transport.read-model.reconcile-interval-ms:60000}"
+    )
+    public void reconcileReadModel() {
+        reload("Transport read model", transportReadModelUseCase.rebuildReadModel());
+    }
+
+    @Scheduled(
+            initialDelayString = "${transport.stats.reconcile-interval-ms:60000}",
+            fixedDelayString = "${transport.stats.reconcile-interval-ms:60000}"
+    )
+    public void reconcileCounters() {
+        reload("Transport counters", transportStatsUseCase.reconcileCounters());
+    }
+
+    @Scheduled(
+            initialDelayString = "${transport.cities.reload-interval-ms:300000}",
+            fixedDelayString = "${transport.cities.reload-interval-ms:300000}"
+    )
+    public void reloadCities() {
+        reload("Cities", cityUseCase.reloadCities());
+    }
+
+    @Scheduled(
+            initialDelayString = "${transport.zones.reload-interval-ms:30000}",
+            fixedDelayString = "${transport.zones.reload-interval-ms:30000}"
+    )
+    public void reloadZones() {
+        reload("Zones", zoneUseCase.reloadZones());
+    }
+
+    @Scheduled(
+            initialDelayString = "${transport.reservations.reload-interval-ms:300000}",
+            fixedDelayString = "${transport.reservations.reload-interval-ms:300000}"
+    )
+    public void reloadReservations() {
+        reload("Reservations", reservationUseCase.reloadReservations());
+    }
+
+    @Scheduled(
+            fixedDelayString = "${transport.reservations.tick-ms:1000}",
+            scheduler = SchedulingConfig.RESERVATION_TICK_SCHEDULER
+    )
+    public void expireReservations() {
+        Integer expired = run("Reservation expiry", reservationUseCase.expireReservations());
+        if (expired != null && expired > 0) {
+            log.info("Reservations expired: {}", expired);
+        }
+    }
+
+    @Scheduled(
+            fixedDelayString = "${transport.telemetry.flush-interval-ms:500}",
+            scheduler = SchedulingConfig.TELEMETRY_FLUSH_SCHEDULER
+    )
+    public void flushTelemetry() {
+        Integer moved = run("Telemetry flush", telemetryUseCase.flush());
+        if (moved != null && moved > 0) {
+            log.debug("Telemetry flushed: {} transports moved", moved);
+        }
+    }
+
+    private static void warmUp(String what, Mono<Integer> load) {
+        load.subscribe(
+                size -> log.info("{} loaded: {}", what, size),
+                e -> log.error("{} loading failed: {}", what, e.getMessage())
+        );
+    }
+
+    private static void reload(String what, Mono<Integer> load) {
+        Integer size = run(what + " reload", load);
+        if (size != null) {
+            log.debug("{} reloaded: {}", what, size);
+        }
+    }
+
+    /**
+     * @return result of the job, null if it failed (the failure is logged, the next run retries)
+     */
+    private static Integer run(String what, Mono<Integer> job) {
+        try {
+            return job.block();
+        } catch (Exception e) {
+            log.error("{} failed: {}", what, e.getMessage());
+            return null;
+        }
+    }
+}
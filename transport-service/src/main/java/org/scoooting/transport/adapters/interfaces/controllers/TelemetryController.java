@@ -0,0 +1,41 @@
+package org.scoooting.transport.adapters.interfaces.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.adapters.interfaces.dto.TelemetryIngestResponseDTO;
+import org.scoooting.transport.adapters.interfaces.dto.TelemetrySampleDTO;
+import org.scoooting.transport.application.usecase.TelemetryUseCase;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/telemetry")
+public class TelemetryController {
+
+    private final TelemetryUseCase telemetryUseCase;
+
+    @Operation(
+            summary = "[OPERATOR] Ingest vehicle telemetry",
+            description = "Bulk upload of {transportId, lat, lng, battery, ts} samples as NDJSON or a JSON array. "
+                    + "Samples are written asynchronously, the latest sample (by ts) of each transport wins. "
+                    + "Available to: OPERATOR, ADMIN",
+            tags = {"Operator Operations"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "202", description = "Samples staged, see accepted/rejected counts"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Only operators can upload telemetry")
+    })
+    @PostMapping(consumes = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    @ResponseStatus(HttpStatus.ACCEPTED)
+    @PreAuthorize("hasAnyRole('OPERATOR', 'ADMIN')")
+    public Mono<TelemetryIngestResponseDTO> ingest(@RequestBody Flux<TelemetrySampleDTO> samples) {
+        return telemetryUseCase.ingest(samples);
+    }
+}
@@ -1,6 +1,7 @@
 package org.scoooting.transport.adapters.interfaces.controllers;
 
 import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import jakarta.validation.Valid;
@@ -11,13 +12,20 @@ import jakarta.validation.constraints.Min;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.scoooting.transport.adapters.infrastructure.security.UserPrincipal;
+import org.scoooting.transport.application.usecase.ReservationUseCase;
 import org.scoooting.transport.application.usecase.TransportFindUseCase;
+import org.scoooting.transport.application.usecase.TransportLiveMapUseCase;
 import org.scoooting.transport.application.usecase.TransportStatsUseCase;
 import org.scoooting.transport.application.usecase.TransportUpdateUseCase;
 import org.scoooting.transport.adapters.interfaces.dto.UpdateCoordinatesDTO;
+import org.scoooting.transport.adapters.interfaces.dto.LiveMapEventDTO;
+import org.scoooting.transport.adapters.interfaces.dto.ReservationDTO;
 import org.scoooting.transport.adapters.interfaces.dto.ScrollResponseDTO;
+import org.scoooting.transport.adapters.interfaces.dto.TransportCounterDeltaDTO;
 import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
 import org.scoooting.transport.domain.model.enums.TransportType;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.validation.annotation.Validated;
@@ -37,22 +45,26 @@ public class TransportController {
     private final TransportFindUseCase transportFindUseCase;
     private final TransportUpdateUseCase transportUpdateUseCase;
     private final TransportStatsUseCase transportStatsUseCase;
+    private final TransportLiveMapUseCase transportLiveMapUseCase;
+    private final ReservationUseCase reservationUseCase;
 
     // ==================== PUBLIC OPERATIONS ====================
 
     @Operation(
             summary = "[PUBLIC] Get nearest transports",
-            description = "Find available transports within specified radius. Available to: Everyone",
+            description = "Find available transports within specified radius, optionally charged to at least "
+                    + "minCharge percent. Available to: Everyone",
             tags = {"User Operations"}
     )
     @GetMapping("/nearest")
     public Flux<TransportResponseDTO> findNearestTransports(
             @RequestParam @DecimalMin("-90") @DecimalMax("90") Double lat,
             @RequestParam @DecimalMin("-180") @DecimalMax("180") Double lng,
-            @RequestParam(defaultValue = "2.0") @DecimalMin("0.1") @DecimalMax("50") Double radiusKm
+            @RequestParam(defaultValue = "2.0") @DecimalMin("0.1") @DecimalMax("50") Double radiusKm,
+            @RequestParam(defaultValue = "0") @DecimalMin("0") @DecimalMax("100") Double minCharge
     ) {
-        log.info("Finding nearest transports at ({}, {}) within {}km", lat, lng, radiusKm);
-        return transportFindUseCase.findNearestTransports(lat, lng, radiusKm);
+        log.info("Finding nearest transports at ({}, {}) within {}km, min charge {}%", lat, lng, radiusKm, minCharge);
+        return transportFindUseCase.findNearestTransports(lat, lng, radiusKm, minCharge);
     }
 
     @Operation(
@@ -65,25 +77,50 @@ public class TransportController {
             @PathVariable TransportType type,
             @RequestParam @DecimalMin("-90") @DecimalMax("90") Double lat,
             @RequestParam @DecimalMin("-180") @DecimalMax("180") Double lng,
-            @RequestParam(defaultValue = "2.0") @DecimalMin("0.1") @DecimalMax("50") Double radiusKm
+            @RequestParam(defaultValue = "2.0") @DecimalMin("0.1") @DecimalMax("50") Double radiusKm,
+            @RequestParam(defaultValue = "0") @DecimalMin("0") @DecimalMax("100") Double minCharge
     ) {
-        log.info("Finding nearest {} at ({}, {}) within {}km", type, lat, lng, radiusKm);
-        return transportFindUseCase.findTransportsByType(type, lat, lng, radiusKm);
+        log.info("Finding nearest {} at ({}, {}) within {}km, min charge {}%", type, lat, lng, radiusKm, minCharge);
+        return transportFindUseCase.findTransportsByType(type, lat, lng, radiusKm, minCharge);
+    }
+
+    @Operation(
+            summary = "[PUBLIC] Live map feed",
+            description = "Server-sent events for available transports inside the viewport: "
+                    + "APPEARED for the initial state and new arrivals, then MOVED and DISAPPEARED. "
+                    + "A viewport wider or taller than transport.live-map.max-span-km (50 km by default) "
+                    + "is rejected with 400. Available to: Everyone",
+            tags = {"User Operations"}
+    )
+    @GetMapping(value = "/live", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public Flux<LiveMapEventDTO> watchLiveMap(
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") Double latMin,
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") Double latMax,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") Double lngMin,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") Double lngMax,
+            @RequestParam(required = false) TransportType type
+    ) {
+        log.info("Live map subscription for [{}, {}] x [{}, {}], type: {}", latMin, latMax, lngMin, lngMax, type);
+        return transportLiveMapUseCase.watchArea(latMin, latMax, lngMin, lngMax, type);
     }
 
     @Operation(
             summary = "[PUBLIC] Scroll available transports",
-            description = "Infinite scroll pagination. Available to: Everyone",
+            description = "Infinite scroll pagination. Pass nextCursor of the previous page to get the next one; "
+                    + "page is deprecated and reads the skipped rows. Available to: Everyone",
             tags = {"User Operations"}
     )
     @GetMapping("/available/{type}")
     public Mono<ScrollResponseDTO<TransportResponseDTO>> scrollAvailableTransportsByType(
             @PathVariable TransportType type,
+            @RequestParam(required = false) String cursor,
+            @Parameter(deprecated = true, description = "Use cursor instead; ignored when cursor is given")
             @RequestParam(defaultValue = "0") @Min(0) Integer page,
             @RequestParam(defaultValue = "20") @Min(1) @Max(50) Integer size
     ) {
-        log.info("Scrolling available transports of type: {}, page: {}, size: {}", type, page, size);
-        return transportFindUseCase.scrollAvailableTransportsByType(type, page, size);
+        log.info("Scrolling available transports of type: {}, cursor: {}, page: {}, size: {}",
+                type, cursor, page, size);
+        return transportFindUseCase.scrollAvailableTransportsByType(type, cursor, page, size);
     }
 
     @Operation(
@@ -101,6 +138,71 @@ public class TransportController {
         return transportFindUseCase.getTransportById(id);
     }
 
+    @Operation(
+            summary = "[SERVICE] Acquire transport for a rental",
+            description = "Atomically switches an AVAILABLE transport, or one RESERVED by userId, to IN_USE. "
+                    + "Of concurrent requests for the same transport exactly one succeeds, the others get 409 "
+                    + "without waiting. Called by rental-service at rental start, which creates the rental and "
+                    + "releases the transport again. userId is taken as given, riders reserve and cancel through "
+                    + "the reservation endpoints, which use the id from their token. Available to: OPERATOR, ADMIN (rental-service service account)",
+            tags = {"Operator Operations"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Transport acquired"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Only rental-service acquires transports"),
+            @ApiResponse(responseCode = "404", description = "Transport not found"),
+            @ApiResponse(responseCode = "409", description = "Transport is not available")
+    })
+    @PostMapping("/{id}/acquire")
+    @PreAuthorize("hasAnyRole('OPERATOR', 'ADMIN')")
+    public Mono<TransportResponseDTO> acquireTransport(
+            @PathVariable Long id,
+            @RequestParam(required = false) Long userId
+    ) {
+        log.info("Acquiring transport {} for user {}", id, userId);
+        return reservationUseCase.acquireTransport(id, userId);
+    }
+
+    @Operation(
+            summary = "[USER] Reserve transport",
+            description = "Holds an AVAILABLE transport for the caller for a few minutes, so nobody else can rent it "
+                    + "while they walk to it. One reservation per user. Available to: authenticated users",
+            tags = {"User Operations"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Transport reserved"),
+            @ApiResponse(responseCode = "404", description = "Transport not found"),
+            @ApiResponse(responseCode = "409", description = "Transport is not available or the user already holds one")
+    })
+    @PostMapping("/{id}/reservation")
+    @ResponseStatus(HttpStatus.CREATED)
+    public Mono<ReservationDTO> reserveTransport(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.info("User {} reserving transport {}", principal.getUserId(), id);
+        return reservationUseCase.reserveTransport(id, principal.getUserId());
+    }
+
+    @Operation(
+            summary = "[USER] Cancel reservation",
+            description = "Makes the caller's reserved transport AVAILABLE again. Available to: authenticated users",
+            tags = {"User Operations"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Reservation cancelled"),
+            @ApiResponse(responseCode = "404", description = "Transport not found"),
+            @ApiResponse(responseCode = "409", description = "Transport is not reserved by the user")
+    })
+    @DeleteMapping("/{id}/reservation")
+    public Mono<TransportResponseDTO> cancelReservation(
+            @PathVariable Long id,
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.info("User {} cancelling reservation of transport {}", principal.getUserId(), id);
+        return reservationUseCase.cancelReservation(id, principal.getUserId());
+    }
+
     // ==================== ANALYST OPERATIONS ====================
 
     @Operation(
@@ -117,6 +219,21 @@ public class TransportController {
         return transportStatsUseCase.getAvailabilityStats();
     }
 
+    @Operation(
+            summary = "[ANALYST] Stream availability counter changes",
+            description = "Server-sent events with every change of per-type, per-status and per-city counters. "
+                    + "Available to: ANALYST, ADMIN",
+            tags = {"Analyst Operations"}
+    )
+    @GetMapping(value = "/stats/availability/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @PreAuthorize("hasAnyRole('ANALYST', 'ADMIN')")
+    public Flux<TransportCounterDeltaDTO> streamAvailabilityStats(
+            @AuthenticationPrincipal UserPrincipal principal
+    ) {
+        log.info("User {} subscribed to availability stats stream", principal.getEmail());
+        return transportStatsUseCase.streamCounterDeltas();
+    }
+
     // ==================== OPERATOR OPERATIONS ====================
 
     @Operation(
@@ -141,17 +258,29 @@ public class TransportController {
 
     @Operation(
             summary = "[OPERATOR] Update transport status",
-            description = "Change transport status (available, maintenance, broken, etc.). Available to: OPERATOR, ADMIN",
+            description = "Change transport status (available, maintenance, broken, etc.). "
+                    + "With expected, the status is changed only if it is currently expected (409 otherwise). "
+                    + "Available to: OPERATOR, ADMIN",
             tags = {"Operator Operations"}
     )
+    @ApiResponses({
+            @ApiResponse(responseCode = "200", description = "Status updated"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Only operators can update status"),
+            @ApiResponse(responseCode = "404", description = "Transport or status not found"),
+            @ApiResponse(responseCode = "409", description = "Current status is not the expected one")
+    })
     @PutMapping("/{id}/status")
     @PreAuthorize("hasAnyRole('OPERATOR', 'ADMIN')")
     public Mono<TransportResponseDTO> updateTransportStatus(
             @PathVariable Long id,
             @RequestParam String status,
+            @RequestParam(required = false) String expected,
             @AuthenticationPrincipal UserPrincipal principal
     ) {
-        log.info("Operator {} updating status of transport {} to {}", principal.getEmail(), id, status);
-        return transportUpdateUseCase.updateTransportStatus(id, status);
+        log.info("Operator {} updating status of transport {} to {} (expected: {})",
+                principal.getEmail(), id, status, expected);
+        return expected == null
+                ? transportUpdateUseCase.updateTransportStatus(id, status)
+                : transportUpdateUseCase.transitionStatus(id, expected, status);
     }
 }
\ No newline at end of file
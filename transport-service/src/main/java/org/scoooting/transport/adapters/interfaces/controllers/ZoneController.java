@@ -0,0 +1,87 @@
+package org.scoooting.transport.adapters.interfaces.controllers;
+
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.responses.ApiResponses;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.DecimalMax;
+import jakarta.validation.constraints.DecimalMin;
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.adapters.interfaces.dto.CreateZoneRequestDTO;
+import org.scoooting.transport.adapters.interfaces.dto.ZoneCheckDTO;
+import org.scoooting.transport.adapters.interfaces.dto.ZoneDTO;
+import org.scoooting.transport.application.usecase.ZoneUseCase;
+import org.springframework.http.HttpStatus;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.validation.annotation.Validated;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequiredArgsConstructor
+@RequestMapping("/api/zones")
+@Validated
+public class ZoneController {
+
+    private final ZoneUseCase zoneUseCase;
+
+    @Operation(
+            summary = "[PUBLIC] Check a point against zones",
+            description = "Whether a rental may end at the point, the speed limit there and the zones containing it. "
+                    + "Used by rental-service at rental end. Available to: Everyone",
+            tags = {"User Operations"}
+    )
+    @GetMapping("/check")
+    public Mono<ZoneCheckDTO> check(
+            @RequestParam @DecimalMin("-90") @DecimalMax("90") Double lat,
+            @RequestParam @DecimalMin("-180") @DecimalMax("180") Double lng
+    ) {
+        return Mono.fromSupplier(() -> zoneUseCase.check(lat, lng));
+    }
+
+    @Operation(
+            summary = "[PUBLIC] Get zones",
+            description = "All parking, no-parking, slow and out-of-service zones. Available to: Everyone",
+            tags = {"User Operations"}
+    )
+    @GetMapping
+    public Flux<ZoneDTO> getZones() {
+        return zoneUseCase.getZones();
+    }
+
+    @Operation(
+            summary = "[OPERATOR] Create zone",
+            description = "Polygon is a list of [lat, lng] vertices. Takes effect immediately on this instance "
+                    + "and within the reload interval on others. Available to: OPERATOR, ADMIN",
+            tags = {"Operator Operations"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "201", description = "Zone created"),
+            @ApiResponse(responseCode = "400", description = "Invalid polygon or missing speed limit"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Only operators can edit zones")
+    })
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    @PreAuthorize("hasAnyRole('OPERATOR', 'ADMIN')")
+    public Mono<ZoneDTO> createZone(@Valid @RequestBody CreateZoneRequestDTO request) {
+        return zoneUseCase.createZone(request);
+    }
+
+    @Operation(
+            summary = "[OPERATOR] Delete zone",
+            description = "Available to: OPERATOR, ADMIN",
+            tags = {"Operator Operations"}
+    )
+    @ApiResponses({
+            @ApiResponse(responseCode = "204", description = "Zone deleted"),
+            @ApiResponse(responseCode = "404", description = "Zone not found"),
+            @ApiResponse(responseCode = "403", description = "Forbidden - Only operators can edit zones")
+    })
+    @DeleteMapping("/{zoneId}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    @PreAuthorize("hasAnyRole('OPERATOR', 'ADMIN')")
+    public Mono<Void> deleteZone(@PathVariable Long zoneId) {
+        return zoneUseCase.deleteZone(zoneId);
+    }
+}
@@ -0,0 +1,21 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+import jakarta.validation.constraints.Max;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import org.scoooting.transport.domain.model.enums.ZoneType;
+
+import java.util.List;
+
+/**
+ * @param polygon vertices as [lat, lng] pairs, the ring is closed implicitly
+ * @param speedLimitKmh required for SLOW zones, ignored for other types
+ */
+public record CreateZoneRequestDTO(
+        @NotBlank @Size(max = 100) String name,
+        @NotNull ZoneType type,
+        @Min(1) @Max(50) Integer speedLimitKmh,
+        @NotNull @Size(min = 3, max = 1000) List<@NotNull @Size(min = 2, max = 2) List<@NotNull Double>> polygon
+) {}
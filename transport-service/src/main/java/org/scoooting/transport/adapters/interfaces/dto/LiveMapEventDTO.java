@@ -0,0 +1,13 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record LiveMapEventDTO(
+        @NotNull EventType event,
+        @NotNull Long transportId,
+        String type,
+        Double latitude,
+        Double longitude
+) {
+    public enum EventType {APPEARED, MOVED, DISAPPEARED}
+}
@@ -0,0 +1,9 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+import java.time.Instant;
+
+public record ReservationDTO(
+        Long transportId,
+        Long userId,
+        Instant expiresAt
+) {}
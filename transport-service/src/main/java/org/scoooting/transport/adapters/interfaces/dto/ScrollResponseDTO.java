@@ -4,9 +4,14 @@ import jakarta.validation.constraints.NotNull;
 
 import java.util.List;
 
+/**
+ * @param page number of this page (0-indexed); deprecated, clients should follow nextCursor
+ * @param nextCursor opaque token for the next page, null on the last page
+ */
 public record ScrollResponseDTO<T>(
         @NotNull List<T> content,
-        @NotNull Integer page,
+        @Deprecated @NotNull Integer page,
         @NotNull Integer size,
-        @NotNull Boolean hasMore
-) {}
\ No newline at end of file
+        @NotNull Boolean hasMore,
+        String nextCursor
+) {}
@@ -0,0 +1,10 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+/**
+ * @param accepted samples staged for the next flush
+ * @param rejected invalid samples and samples dropped because the buffer is full
+ */
+public record TelemetryIngestResponseDTO(
+        long accepted,
+        long rejected
+) {}
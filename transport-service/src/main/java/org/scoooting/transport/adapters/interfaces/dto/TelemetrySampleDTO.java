@@ -0,0 +1,16 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+/**
+ * One line of the telemetry stream. Validated per sample by TelemetryUseCase,
+ * an invalid line is counted as rejected instead of failing the whole request.
+ *
+ * @param battery percent, optional
+ * @param ts device time, epoch milliseconds
+ */
+public record TelemetrySampleDTO(
+        Long transportId,
+        Double lat,
+        Double lng,
+        Integer battery,
+        Long ts
+) {}
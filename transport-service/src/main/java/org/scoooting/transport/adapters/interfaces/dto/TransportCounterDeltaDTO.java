@@ -0,0 +1,11 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+import jakarta.validation.constraints.NotNull;
+
+public record TransportCounterDeltaDTO(
+        @NotNull String type,
+        @NotNull String status,
+        Long cityId,           // null for the all-cities counter
+        @NotNull Long delta,
+        @NotNull Long count
+) {}
@@ -2,12 +2,15 @@ package org.scoooting.transport.adapters.interfaces.dto;
 
 import jakarta.validation.constraints.NotNull;
 
+import java.math.BigDecimal;
+
 public record TransportResponseDTO(
         @NotNull Long id,
         @NotNull String type,
         @NotNull String status,
         @NotNull Double latitude,
         @NotNull Double longitude,
-        String cityName
+        String cityName,
+        BigDecimal energyLevel  // battery or fuel, percent; null if unknown
 ) {}
 
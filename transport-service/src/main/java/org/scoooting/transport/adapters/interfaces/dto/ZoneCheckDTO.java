@@ -0,0 +1,17 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+import org.scoooting.transport.domain.model.enums.ZoneType;
+
+import java.util.List;
+import java.util.Set;
+
+/**
+ * @param speedLimitKmh lowest speed limit at the point, null if unrestricted
+ * @param zoneNames names of the zones that contain the point
+ */
+public record ZoneCheckDTO(
+        boolean parkingAllowed,
+        Integer speedLimitKmh,
+        List<String> zoneNames,
+        Set<ZoneType> zoneTypes
+) {}
@@ -0,0 +1,16 @@
+package org.scoooting.transport.adapters.interfaces.dto;
+
+import org.scoooting.transport.domain.model.enums.ZoneType;
+
+import java.util.List;
+
+/**
+ * @param polygon vertices as [lat, lng] pairs, the ring is closed implicitly
+ */
+public record ZoneDTO(
+        Long id,
+        String name,
+        ZoneType type,
+        Integer speedLimitKmh,
+        List<List<Double>> polygon
+) {}
@@ -0,0 +1,14 @@
+package org.scoooting.transport.application.ports;
+
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportPositionDto;
+
+import java.util.Collection;
+
+public interface TransportPositionPublisher {
+
+    /**
+     * Hand positions over for sending and return without waiting for the broker.
+     * Positions are dropped (and logged) when earlier ones are still waiting to be sent.
+     */
+    void publishPositions(Collection<TransportPositionDto> positions);
+}
@@ -1,10 +1,24 @@
 package org.scoooting.transport.application.ports;
 
+import org.scoooting.transport.domain.model.CityArea;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
 public interface UserClient {
 
     Mono<String> getCityName(Long cityId);
 
+    /**
+     * Resolve names for a set of cities at once.
+     * Every requested id is present in the result (fallback names for unknown ids).
+     */
+    Mono<Map<Long, String>> getCityNames(Collection<Long> cityIds);
 
+    /**
+     * All cities with their boundaries. Fails if user-service is unavailable.
+     */
+    Mono<List<CityArea>> getCities();
 }
@@ -0,0 +1,89 @@
+package org.scoooting.transport.application.services;
+
+import org.scoooting.transport.domain.model.CityArea;
+
+import java.util.*;
+
+/**
+ * In-memory coordinate → city lookup over the city boundaries of user-service.
+ *
+ * WHY in memory:
+ * - Cities are resolved on every coordinate and status update of a transport
+ * - There are a handful of cities and they practically never change,
+ *   a call to user-service per update would only add latency and a failure point
+ *
+ * HOW the lookup works:
+ * - Cities are kept in an array sorted by center latitude
+ * - A lookup binary-searches the band of centers within the largest radius of the point
+ *   and checks the distance to each of them; where circles overlap the nearest center wins
+ * - {@link #load} swaps in a complete new array, lookups never lock
+ */
+public class CityResolver {
+
+    private static final double KM_PER_DEGREE = 111.0;
+
+    private volatile Snapshot snapshot = new Snapshot(new CityArea[0], new double[0], 0);
+    private volatile boolean ready;
+
+    /**
+     * @return true once cities have been loaded at least once
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return snapshot.cities().length;
+    }
+
+    /**
+     * Replace all cities at once.
+     *
+     * @return number of loaded cities
+     */
+    public int load(Collection<CityArea> cities) {
+        CityArea[] sorted = cities.stream()
+                .filter(city -> city.id() != null)
+                .sorted(Comparator.comparingDouble(CityArea::centerLatitude))
+                .toArray(CityArea[]::new);
+        double[] latitudes = new double[sorted.length];
+        double maxRadiusKm = 0;
+        for (int i = 0; i < sorted.length; i++) {
+            latitudes[i] = sorted[i].centerLatitude();
+            maxRadiusKm = Math.max(maxRadiusKm, sorted[i].radiusKm());
+        }
+        snapshot = new Snapshot(sorted, latitudes, maxRadiusKm / KM_PER_DEGREE);
+        ready = true;
+        return sorted.length;
+    }
+
+    /**
+     * @return city whose boundary contains the point (the nearest one if several do), empty outside all cities
+     */
+    public Optional<CityArea> resolve(double lat, double lng) {
+        Snapshot current = snapshot;
+        double[] latitudes = current.latitudes();
+        int from = Arrays.binarySearch(latitudes, lat - current.maxRadiusDeg());
+        if (from < 0) {
+            from = -from - 1;
+        }
+        // binarySearch returns any of equal keys, step back to the first one
+        while (from > 0 && latitudes[from - 1] >= lat - current.maxRadiusDeg()) {
+            from--;
+        }
+
+        CityArea best = null;
+        double bestDistance = Double.MAX_VALUE;
+        for (int i = from; i < latitudes.length && latitudes[i] <= lat + current.maxRadiusDeg(); i++) {
+            CityArea city = current.cities()[i];
+            double distance = TransportGridIndex.distanceKm(lat, lng, city.centerLatitude(), city.centerLongitude());
+            if (distance <= city.radiusKm() && distance < bestDistance) {
+                best = city;
+                bestDistance = distance;
+            }
+        }
+        return Optional.ofNullable(best);
+    }
+
+    private record Snapshot(CityArea[] cities, double[] latitudes, double maxRadiusDeg) {}
+}
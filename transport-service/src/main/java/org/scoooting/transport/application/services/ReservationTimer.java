@@ -0,0 +1,183 @@
+package org.scoooting.transport.application.services;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Expiry of transport reservations: a hierarchical timing wheel keyed by transport id.
+ *
+ * WHY a timing wheel:
+ * - Polling "WHERE reserved_until <= now()" every second scans (or index-walks) all holds
+ *   on every instance, even when nothing expires
+ * - A priority queue makes scheduling and cancellation O(log n); most holds are cancelled
+ *   (the rider starts the rental) rather than expired
+ * - Here scheduling and cancellation are O(1), and a tick touches only the holds that are due
+ *
+ * HOW it works:
+ * - LEVELS wheels of 64 slots; a slot of level 0 spans one tick, a slot of level i spans 64^i ticks
+ * - A hold is put on the lowest level whose range covers its deadline, into the slot of the deadline
+ * - When level 0 completes a turn, the current slot of level 1 is cascaded: its holds are
+ *   re-placed relative to the new time and land on level 0 (same for higher levels)
+ * - Every slot is a doubly linked list and every hold is indexed by transport id,
+ *   so cancellation is unlinking one node
+ * - With 1 s ticks four levels cover 64^4 s (about 194 days); later deadlines are parked
+ *   in the farthest slot and re-placed when it is cascaded
+ *
+ * A hold never fires early: the deadline is rounded up to whole ticks. The wheel is
+ * not persisted; reservations are rebuilt from the database on startup.
+ */
+public class ReservationTimer {
+
+    private static final int WHEEL_BITS = 6;
+    private static final int WHEEL_SIZE = 1 << WHEEL_BITS;
+    private static final int SLOT_MASK = WHEEL_SIZE - 1;
+    private static final int LEVELS = 4;
+    private static final long MAX_TICKS = 1L << (WHEEL_BITS * LEVELS);
+
+    private final long tickMs;
+    private final Node[][] slots = new Node[LEVELS][WHEEL_SIZE];
+    private final Map<Long, Node> nodes = new HashMap<>();
+    private long currentTick;
+
+    /**
+     * @param nowMs current time, in epoch milliseconds
+     */
+    public ReservationTimer(long tickMs, long nowMs) {
+        if (tickMs <= 0) {
+            throw new IllegalArgumentException("Tick must be positive, got: " + tickMs);
+        }
+        this.tickMs = tickMs;
+        this.currentTick = nowMs / tickMs;
+    }
+
+    /**
+     * Schedule the expiry of a transport's hold, replacing the previous one if any.
+     * A deadline in the past fires on the next tick.
+     *
+     * @param deadlineMs epoch milliseconds
+     */
+    public synchronized void schedule(long transportId, long deadlineMs) {
+        cancel(transportId);
+        long deadlineTick = Math.max(Math.ceilDiv(deadlineMs, tickMs), currentTick + 1);
+        Node node = new Node(transportId, deadlineTick);
+        nodes.put(transportId, node);
+        place(node);
+    }
+
+    /**
+     * @return true if the transport had a scheduled expiry
+     */
+    public synchronized boolean cancel(long transportId) {
+        Node node = nodes.remove(transportId);
+        if (node == null) {
+            return false;
+        }
+        unlink(node);
+        return true;
+    }
+
+    /**
+     * Move the wheel to the given time.
+     *
+     * @param nowMs epoch milliseconds
+     * @return transports whose holds expired, they are no longer scheduled
+     */
+    public synchronized List<Long> advance(long nowMs) {
+        long targetTick = nowMs / tickMs;
+        List<Long> expired = new ArrayList<>();
+        while (currentTick < targetTick) {
+            if (nodes.isEmpty()) {
+                currentTick = targetTick;
+                break;
+            }
+            currentTick++;
+            for (int level = LEVELS - 1; level > 0; level--) {
+                if ((currentTick & ((1L << (WHEEL_BITS * level)) - 1)) == 0) {
+                    cascade(level);
+                }
+            }
+            Node node = detach(0, (int) (currentTick & SLOT_MASK));
+            while (node != null) {
+                Node next = node.next;
+                nodes.remove(node.transportId);
+                expired.add(node.transportId);
+                node = next;
+            }
+        }
+        return expired;
+    }
+
+    public synchronized int size() {
+        return nodes.size();
+    }
+
+    private void cascade(int level) {
+        Node node = detach(level, slot(currentTick, level));
+        while (node != null) {
+            Node next = node.next;
+            place(node);
+            node = next;
+        }
+    }
+
+    private void place(Node node) {
+        long delta = node.deadlineTick - currentTick;
+        int level = 0;
+        while (level < LEVELS - 1 && delta >= 1L << (WHEEL_BITS * (level + 1))) {
+            level++;
+        }
+        // Beyond the top level: park in its farthest slot, re-placed with the real deadline on cascade
+        long tick = Math.min(node.deadlineTick, currentTick + MAX_TICKS - 1);
+        int slot = slot(tick, level);
+        node.level = level;
+        node.slot = slot;
+        node.prev = null;
+        node.next = slots[level][slot];
+        if (node.next != null) {
+            node.next.prev = node;
+        }
+        slots[level][slot] = node;
+    }
+
+    private void unlink(Node node) {
+        if (node.prev != null) {
+            node.prev.next = node.next;
+        } else {
+            slots[node.level][node.slot] = node.next;
+        }
+        if (node.next != null) {
+            node.next.prev = node.prev;
+        }
+        node.prev = null;
+        node.next = null;
+    }
+
+    /**
+     * Take the whole list of a slot; nodes keep their next links for iteration.
+     */
+    private Node detach(int level, int slot) {
+        Node head = slots[level][slot];
+        slots[level][slot] = null;
+        return head;
+    }
+
+    private static int slot(long tick, int level) {
+        return (int) ((tick >>> (WHEEL_BITS * level)) & SLOT_MASK);
+    }
+
+    private static final class Node {
+        private final long transportId;
+        private final long deadlineTick;
+        private int level;
+        private int slot;
+        private Node prev;
+        private Node next;
+
+        private Node(long transportId, long deadlineTick) {
+            this.transportId = transportId;
+            this.deadlineTick = deadlineTick;
+        }
+    }
+}
@@ -0,0 +1,77 @@
+package org.scoooting.transport.application.services;
+
+import org.scoooting.transport.domain.model.TelemetrySample;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Staging area between telemetry ingestion and the database.
+ *
+ * WHY coalescing instead of a queue:
+ * - Only the latest position of a transport matters, older samples in the same flush window
+ *   would be overwritten by the next UPDATE anyway
+ * - Keeping one slot per transport bounds memory by the fleet size, not by the sample rate,
+ *   and a flush is at most one row per transport
+ *
+ * HOW:
+ * - offer() merges into the slot of the transport, the sample with the later device time wins
+ *   (ConcurrentHashMap.merge is atomic per key, writers of different transports don't contend)
+ * - drain() removes slots one by one; a sample that arrives during the drain starts a new slot
+ *   and goes with the next flush
+ * - Once maxPending transports are waiting, samples of new transports are rejected
+ *   until the next flush (transports already staged can still be updated)
+ */
+public class TelemetryBuffer {
+
+    private final Map<Long, TelemetrySample> pending = new ConcurrentHashMap<>();
+    private final int maxPending;
+
+    public TelemetryBuffer(int maxPending) {
+        if (maxPending <= 0) {
+            throw new IllegalArgumentException("Max pending must be positive, got: " + maxPending);
+        }
+        this.maxPending = maxPending;
+    }
+
+    /**
+     * @return false if the buffer is full and the transport has no slot yet
+     */
+    public boolean offer(TelemetrySample sample) {
+        if (pending.size() >= maxPending && !pending.containsKey(sample.transportId())) {
+            return false;
+        }
+        pending.merge(sample.transportId(), sample,
+                (staged, incoming) -> incoming.isNewerThan(staged) ? incoming : staged);
+        return true;
+    }
+
+    /**
+     * Put back samples of a failed flush. Newer samples staged in the meantime win.
+     */
+    public void restore(Collection<TelemetrySample> samples) {
+        samples.forEach(sample -> pending.merge(sample.transportId(), sample,
+                (staged, restored) -> restored.isNewerThan(staged) ? restored : staged));
+    }
+
+    /**
+     * Take all staged samples, at most one per transport.
+     */
+    public List<TelemetrySample> drain() {
+        List<TelemetrySample> drained = new ArrayList<>(pending.size());
+        for (Long transportId : pending.keySet()) {
+            TelemetrySample sample = pending.remove(transportId);
+            if (sample != null) {
+                drained.add(sample);
+            }
+        }
+        return drained;
+    }
+
+    public int size() {
+        return pending.size();
+    }
+}
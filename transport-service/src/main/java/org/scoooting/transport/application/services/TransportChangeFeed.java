@@ -0,0 +1,191 @@
+package org.scoooting.transport.application.services;
+
+import org.scoooting.transport.domain.model.Transport;
+import reactor.core.Exceptions;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+import reactor.core.scheduler.Schedulers;
+import reactor.util.concurrent.Queues;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongConsumer;
+
+/**
+ * Process-wide stream of committed transport changes (status and coordinates), routed by map area.
+ *
+ * WHY routing instead of one broadcast:
+ * - A broadcast hands every change to every live map, and each of them filters it by its viewport
+ * - Here subscribers register in the grid cells their area overlaps, a change goes only to the
+ *   subscribers of its cell, so publishing costs the same with 10 or 10 000 open maps elsewhere
+ *
+ * HOW routing works:
+ * - Coordinates are bucketed into square cells of cellSizeKm, like in {@link TransportGridIndex}
+ * - The last cell of every published transport is remembered (one entry per transport of the fleet),
+ *   a change is also sent to the subscribers of that cell, so a map sees a transport leaving it
+ * - An area covering more than MAX_CELLS cells is registered as wide and gets every change
+ * - A cell is dropped when its last subscriber goes away
+ *
+ * PUBLISHING never blocks writers and does no filtering:
+ * - Each subscriber has its own bounded queue; publish only enqueues and returns,
+ *   the subscriber's diffing runs on a parallel worker, not on the telemetry flush or request thread
+ * - A subscriber whose queue is full gets an overflow error instead of a silently wrong map
+ * - Only changes after subscription are delivered, subscribers load their initial state themselves
+ */
+public class TransportChangeFeed {
+
+    private static final double KM_PER_DEGREE = 111.0;
+    private static final long MAX_CELLS = 4096;
+    private static final int PREFETCH = 32;
+
+    private final double cellSizeDeg;
+
+    private final Map<Long, Set<Subscription>> byCell = new ConcurrentHashMap<>();
+    private final Set<Subscription> wide = ConcurrentHashMap.newKeySet();
+    private final Map<Long, Long> lastCell = new ConcurrentHashMap<>();
+
+    public TransportChangeFeed(double cellSizeKm) {
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive, got: " + cellSizeKm);
+        }
+        this.cellSizeDeg = cellSizeKm / KM_PER_DEGREE;
+    }
+
+    /**
+     * Publish a transport state after its DB transaction has committed.
+     */
+    public void publish(Transport transport) {
+        if (transport == null || transport.getId() == null) {
+            return;
+        }
+        Long cell = transport.getLatitude() == null || transport.getLongitude() == null
+                ? null
+                : cellKey(transport.getLatitude(), transport.getLongitude());
+        Long previous = cell == null ? lastCell.get(transport.getId()) : lastCell.put(transport.getId(), cell);
+
+        if (cell != null) {
+            offer(byCell.get(cell), transport, null);
+        }
+        if (previous != null && !previous.equals(cell)) {
+            offer(byCell.get(previous), transport, cell);
+        }
+        for (Subscription subscription : wide) {
+            subscription.offer(transport);
+        }
+    }
+
+    /**
+     * Changes of transports that are in the area now or were in it before the change.
+     * May include transports just outside the area (whole cells are matched), the subscriber
+     * checks the exact bounds.
+     *
+     * @param bufferSize changes queued for a subscriber that falls behind before it gets an overflow error
+     */
+    public Flux<Transport> changes(double latMin, double latMax, double lngMin, double lngMax, int bufferSize) {
+        return Flux.defer(() -> {
+            Subscription subscription = new Subscription(cell(latMin), cell(latMax), cell(lngMin), cell(lngMax),
+                    bufferSize);
+            register(subscription);
+            return subscription.sink.asFlux()
+                    .doFinally(signal -> unregister(subscription))
+                    .publishOn(Schedulers.parallel(), PREFETCH);
+        });
+    }
+
+    /**
+     * @return number of cells with at least one subscriber
+     */
+    public int subscribedCells() {
+        return byCell.size();
+    }
+
+    private void offer(Set<Subscription> subscriptions, Transport transport, Long alreadyOfferedCell) {
+        if (subscriptions == null) {
+            return;
+        }
+        for (Subscription subscription : subscriptions) {
+            // a subscriber covering both the old and the new cell already got this change
+            if (alreadyOfferedCell == null || !subscription.covers(alreadyOfferedCell)) {
+                subscription.offer(transport);
+            }
+        }
+    }
+
+    private void register(Subscription subscription) {
+        if (subscription.wide()) {
+            wide.add(subscription);
+            return;
+        }
+        subscription.forEachCell(key -> byCell.compute(key, (k, subscriptions) -> {
+            Set<Subscription> updated = subscriptions != null ? subscriptions : ConcurrentHashMap.newKeySet();
+            updated.add(subscription);
+            return updated;
+        }));
+    }
+
+    private void unregister(Subscription subscription) {
+        if (subscription.wide()) {
+            wide.remove(subscription);
+            return;
+        }
+        subscription.forEachCell(key -> byCell.computeIfPresent(key, (k, subscriptions) -> {
+            subscriptions.remove(subscription);
+            return subscriptions.isEmpty() ? null : subscriptions;
+        }));
+    }
+
+    private long cellKey(double lat, double lng) {
+        return key(cell(lat), cell(lng));
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDeg);
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static final class Subscription {
+
+        private final long rowMin;
+        private final long rowMax;
+        private final long colMin;
+        private final long colMax;
+        private final Sinks.Many<Transport> sink;
+
+        Subscription(long rowMin, long rowMax, long colMin, long colMax, int bufferSize) {
+            this.rowMin = rowMin;
+            this.rowMax = rowMax;
+            this.colMin = colMin;
+            this.colMax = colMax;
+            this.sink = Sinks.many().unicast().onBackpressureBuffer(Queues.<Transport>get(bufferSize).get());
+        }
+
+        boolean wide() {
+            return (rowMax - rowMin + 1) * (colMax - colMin + 1) > MAX_CELLS;
+        }
+
+        boolean covers(long cellKey) {
+            long row = cellKey >> 32;
+            long col = (int) cellKey;
+            return row >= rowMin && row <= rowMax && col >= colMin && col <= colMax;
+        }
+
+        void forEachCell(LongConsumer action) {
+            for (long row = rowMin; row <= rowMax; row++) {
+                for (long col = colMin; col <= colMax; col++) {
+                    action.accept(key(row, col));
+                }
+            }
+        }
+
+        // Sinks require serialized emission, publishers of different transports may run concurrently
+        synchronized void offer(Transport transport) {
+            if (sink.tryEmitNext(transport) == Sinks.EmitResult.FAIL_OVERFLOW) {
+                sink.tryEmitError(Exceptions.failWithOverflow("Live map subscriber fell behind"));
+            }
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package org.scoooting.transport.application.services;
+
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportCount;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Sinks;
+
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * In-memory transport counters by type, status and city.
+ *
+ * WHY counters instead of COUNT(*):
+ * - Analyst dashboards refresh availability stats often, each refresh was one COUNT(*) per type
+ * - Status changes are rare compared to reads, so counting on write is much cheaper
+ * - Reads are a single LongAdder.sum(), no database round trip
+ *
+ * HOW counting works:
+ * - One LongAdder per (type, status, city) plus one per (type, status) for all cities,
+ *   so both "by city" and "total" reads are O(1)
+ * - LongAdder stripes increments across cells, concurrent status changes don't contend on one counter
+ * - Every change is published as a {@link Delta} for live dashboards
+ *
+ * CONSISTENCY:
+ * - Live changes are applied after the DB transaction commits
+ * - The counters are periodically reconciled with a GROUP BY snapshot (see {@link #reconcile});
+ *   a change committed while the snapshot is read can be counted twice or missed until the next
+ *   reconciliation - acceptable for dashboards
+ */
+public class TransportCounters {
+
+    private final Map<Key, LongAdder> counters = new ConcurrentHashMap<>();
+    private final Sinks.Many<Delta> deltas = Sinks.many().multicast().directBestEffort();
+
+    private volatile boolean ready;
+
+    /**
+     * @return true once the counters have been loaded from the database at least once
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    /**
+     * Number of transports of a type in a status, across all cities.
+     */
+    public long count(TransportType type, Long statusId) {
+        return count(type, statusId, null);
+    }
+
+    /**
+     * Number of transports of a type in a status and city (null city for all cities).
+     */
+    public long count(TransportType type, Long statusId, Long cityId) {
+        LongAdder counter = counters.get(new Key(type, statusId, cityId));
+        return counter == null ? 0 : counter.sum();
+    }
+
+    /**
+     * Move a transport from its previous status to the current one.
+     */
+    public void statusChanged(Transport transport, Long previousStatusId) {
+        changed(transport, previousStatusId, transport.getCityId());
+    }
+
+    /**
+     * Move a transport from its previous status and city to the current ones.
+     */
+    public void changed(Transport transport, Long previousStatusId, Long previousCityId) {
+        if (transport.getTransportType() == null
+                || (Objects.equals(previousStatusId, transport.getStatusId())
+                && Objects.equals(previousCityId, transport.getCityId()))) {
+            return;
+        }
+        if (previousStatusId != null) {
+            add(transport.getTransportType(), previousStatusId, previousCityId, -1);
+        }
+        if (transport.getStatusId() != null) {
+            add(transport.getTransportType(), transport.getStatusId(), transport.getCityId(), 1);
+        }
+    }
+
+    /**
+     * Bring the counters in line with a DB snapshot.
+     * Counters missing in the snapshot drop to zero.
+     *
+     * @param snapshot counts per (type, status, city)
+     * @return number of (type, status, city) groups in the snapshot
+     */
+    public int reconcile(Collection<TransportCount> snapshot) {
+        Map<Key, Long> fresh = new HashMap<>();
+        for (TransportCount group : snapshot) {
+            fresh.merge(new Key(group.type(), group.statusId(), group.cityId()), group.count(), Long::sum);
+            fresh.merge(new Key(group.type(), group.statusId(), null), group.count(), Long::sum);
+        }
+
+        Set<Key> keys = new HashSet<>(counters.keySet());
+        keys.addAll(fresh.keySet());
+        for (Key key : keys) {
+            long diff = fresh.getOrDefault(key, 0L) - count(key.type(), key.statusId(), key.cityId());
+            if (diff != 0) {
+                apply(key, diff);
+            }
+        }
+        ready = true;
+        return snapshot.size();
+    }
+
+    /**
+     * Live stream of counter changes. Slow subscribers miss deltas instead of slowing writers down.
+     */
+    public Flux<Delta> deltas() {
+        return deltas.asFlux();
+    }
+
+    private void add(TransportType type, Long statusId, Long cityId, long diff) {
+        apply(new Key(type, statusId, cityId), diff);
+        if (cityId != null) {
+            apply(new Key(type, statusId, null), diff);
+        }
+    }
+
+    private void apply(Key key, long diff) {
+        LongAdder counter = counters.computeIfAbsent(key, k -> new LongAdder());
+        counter.add(diff);
+        Delta delta = new Delta(key.type(), key.statusId(), key.cityId(), diff, counter.sum());
+        // Sinks require serialized emission
+        synchronized (deltas) {
+            deltas.tryEmitNext(delta);
+        }
+    }
+
+    private record Key(TransportType type, Long statusId, Long cityId) {}
+
+    /**
+     * Change of one counter.
+     *
+     * @param cityId null for the all-cities counter
+     * @param delta signed change
+     * @param count counter value right after the change
+     */
+    public record Delta(TransportType type, Long statusId, Long cityId, long delta, long count) {}
+}
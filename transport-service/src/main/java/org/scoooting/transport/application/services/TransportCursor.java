@@ -0,0 +1,51 @@
+package org.scoooting.transport.application.services;
+
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+
+/**
+ * Position in the scroll of available transports ordered by id.
+ *
+ * - Sent to clients as an opaque URL-safe token, clients only pass it back
+ * - Carries the page number only to fill the deprecated page field of the response
+ *
+ * @param afterId id of the last transport on the previous page, 0 before the first one
+ * @param page number of the page the cursor leads to (0-indexed)
+ */
+public record TransportCursor(long afterId, int page) {
+
+    private static final String SEPARATOR = "|";
+
+    /** Start of the scroll, no rows seen yet */
+    public static final TransportCursor FIRST_PAGE = new TransportCursor(0L, 0);
+
+    public String encode() {
+        String raw = page + SEPARATOR + afterId;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    /**
+     * @param cursor token returned by {@link #encode()}, null or blank for the first page
+     * @return decoded cursor, {@link #FIRST_PAGE} for null or blank token
+     * @throws IllegalArgumentException if the token is malformed
+     */
+    public static TransportCursor decode(String cursor) {
+        if (cursor == null || cursor.isBlank()) {
+            return FIRST_PAGE;
+        }
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            int separator = raw.indexOf(SEPARATOR);
+            TransportCursor decoded = new TransportCursor(
+                    Long.parseLong(raw.substring(separator + 1)),
+                    Integer.parseInt(raw.substring(0, separator))
+            );
+            if (decoded.afterId() < 0 || decoded.page() < 0) {
+                throw new IllegalArgumentException("Negative position");
+            }
+            return decoded;
+        } catch (IllegalArgumentException | IndexOutOfBoundsException e) {
+            throw new IllegalArgumentException("Invalid cursor: " + cursor, e);
+        }
+    }
+}
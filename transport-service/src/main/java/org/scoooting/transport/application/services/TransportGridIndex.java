@@ -0,0 +1,344 @@
+package org.scoooting.transport.application.services;
+
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.enums.TransportType;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory uniform grid over AVAILABLE transports.
+ *
+ * WHY an index instead of the bounding-box query:
+ * - /nearest is the hottest read path, but the fleet moves in small steps
+ * - Bounding-box SELECT on latitude/longitude scans the whole status subset on every request
+ * - Here a query touches only the few grid cells that overlap the search circle
+ *   and returns results already sorted by distance
+ *
+ * HOW the grid works:
+ * - Coordinates are bucketed into square cells of cellSizeKm (in degrees of latitude)
+ * - Every cell keeps a separate bucket per TransportType, so by-type search skips other types
+ * - One entry per transport id; moving a transport relinks it between cells atomically
+ *   (ConcurrentHashMap.compute on the id acts as a per-transport lock)
+ *
+ * CONSISTENCY:
+ * - The index is warmed up and periodically reconciled from the database (see {@link #reconcile})
+ * - Live updates (status/coordinates) are applied after the DB transaction commits
+ * - Every live write is stamped; reconciliation never overrides an entry touched after
+ *   its snapshot was taken, so a slow DB read can't roll back a fresher update
+ */
+public class TransportGridIndex {
+
+    private static final double KM_PER_DEGREE = 111.0;
+
+    private final double cellSizeDeg;
+
+    private final Map<Long, Entry> entries = new ConcurrentHashMap<>();
+    private final Map<Long, Cell> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Long> touchedAt = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    public TransportGridIndex(double cellSizeKm) {
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive, got: " + cellSizeKm);
+        }
+        this.cellSizeDeg = cellSizeKm / KM_PER_DEGREE;
+    }
+
+    /**
+     * @return true once the index has been loaded from the database at least once
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * @return number of grid cells holding at least one transport
+     */
+    public int populatedCells() {
+        return cells.size();
+    }
+
+    /**
+     * Insert or relocate an available transport.
+     */
+    public void put(Transport transport) {
+        if (!isIndexable(transport)) {
+            return;
+        }
+        Entry entry = Entry.of(transport, cellKey(transport.getLatitude(), transport.getLongitude()));
+        entries.compute(entry.id(), (id, previous) -> {
+            relink(previous, entry);
+            touchedAt.put(id, System.nanoTime());
+            return entry;
+        });
+    }
+
+    /**
+     * Update coordinates of a transport only if it is currently indexed.
+     * Transports that are not AVAILABLE are not searchable, so their moves are ignored.
+     */
+    public void move(Transport transport) {
+        if (!isIndexable(transport)) {
+            return;
+        }
+        Entry entry = Entry.of(transport, cellKey(transport.getLatitude(), transport.getLongitude()));
+        entries.computeIfPresent(entry.id(), (id, previous) -> {
+            relink(previous, entry);
+            touchedAt.put(id, System.nanoTime());
+            return entry;
+        });
+    }
+
+    /**
+     * Remove transport from the index (it stopped being AVAILABLE).
+     */
+    public void remove(Long transportId) {
+        if (transportId == null) {
+            return;
+        }
+        entries.compute(transportId, (id, previous) -> {
+            relink(previous, null);
+            touchedAt.put(id, System.nanoTime());
+            return null;
+        });
+    }
+
+    /**
+     * Radius search, sorted by distance from the center.
+     *
+     * @param type transport type filter, null for all types
+     * @param limit maximum number of results (nearest-N)
+     */
+    public List<Transport> findNearby(double lat, double lng, double radiusKm, TransportType type, int limit) {
+        return findNearby(lat, lng, radiusKm, type, 0, limit);
+    }
+
+    /**
+     * Radius search over transports charged to at least minCharge, sorted by distance from the center.
+     * Charge is checked together with the distance, so low-charge transports don't take up the limit.
+     * The level comes with the indexed row: batteries report only during rentals, when the transport
+     * is not indexed, and the row is read again when it becomes AVAILABLE.
+     *
+     * @param minCharge minimum battery/fuel level in percent, 0 for no filter
+     *                  (transports with unknown level only pass 0)
+     */
+    public List<Transport> findNearby(double lat, double lng, double radiusKm, TransportType type,
+                                      double minCharge, int limit) {
+        if (limit <= 0 || radiusKm < 0) {
+            return List.of();
+        }
+
+        double latRange = radiusKm / KM_PER_DEGREE;
+        double lngRange = radiusKm / (KM_PER_DEGREE * Math.max(Math.cos(Math.toRadians(lat)), 1e-6));
+
+        long rowMin = cell(lat - latRange);
+        long rowMax = cell(lat + latRange);
+        long colMin = cell(lng - lngRange);
+        long colMax = cell(lng + lngRange);
+
+        List<Neighbour> found = new ArrayList<>();
+        long cellsInRange = (rowMax - rowMin + 1) * (colMax - colMin + 1);
+        if (cellsInRange > cells.size()) {
+            // Huge radius: cheaper to walk the populated cells than the empty rectangle
+            cells.forEach((key, cell) -> {
+                long row = key >> 32;
+                long col = (int) key.longValue();
+                if (row >= rowMin && row <= rowMax && col >= colMin && col <= colMax) {
+                    collect(cell, type, lat, lng, radiusKm, minCharge, found);
+                }
+            });
+        } else {
+            for (long row = rowMin; row <= rowMax; row++) {
+                for (long col = colMin; col <= colMax; col++) {
+                    Cell cell = cells.get(key(row, col));
+                    if (cell != null) {
+                        collect(cell, type, lat, lng, radiusKm, minCharge, found);
+                    }
+                }
+            }
+        }
+
+        found.sort(Comparator.comparingDouble(Neighbour::distanceKm).thenComparingLong(n -> n.entry().id()));
+        return found.stream()
+                .limit(limit)
+                .map(neighbour -> neighbour.entry().toTransport())
+                .toList();
+    }
+
+    /**
+     * Mark the start of a database snapshot. Pass the returned value to {@link #reconcile}.
+     */
+    public long snapshotMark() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Bring the index in line with a DB snapshot of AVAILABLE transports.
+     *
+     * - Entries missing in the snapshot are removed, new ones are added, moved ones relinked
+     * - Entries touched by a live update after snapshotMark are left as they are
+     *
+     * @param available all AVAILABLE transports read after snapshotMark
+     * @param snapshotMark value of {@link #snapshotMark()} taken before the DB read
+     * @return number of indexed transports
+     */
+    public int reconcile(Collection<Transport> available, long snapshotMark) {
+        Map<Long, Entry> fresh = new HashMap<>();
+        for (Transport transport : available) {
+            if (isIndexable(transport)) {
+                fresh.put(transport.getId(),
+                        Entry.of(transport, cellKey(transport.getLatitude(), transport.getLongitude())));
+            }
+        }
+
+        Set<Long> ids = new HashSet<>(entries.keySet());
+        ids.addAll(fresh.keySet());
+        for (Long transportId : ids) {
+            Entry snapshotEntry = fresh.get(transportId);
+            entries.compute(transportId, (id, previous) -> {
+                Long touched = touchedAt.get(id);
+                if (touched != null && touched - snapshotMark > 0) {
+                    return previous;  // live update is newer than the snapshot
+                }
+                if (Objects.equals(previous, snapshotEntry)) {
+                    return previous;
+                }
+                relink(previous, snapshotEntry);
+                return snapshotEntry;
+            });
+        }
+
+        // Stamps older than the snapshot are superseded by it
+        touchedAt.entrySet().removeIf(stamp -> stamp.getValue() - snapshotMark <= 0);
+        ready = true;
+        return entries.size();
+    }
+
+    /**
+     * Cells are created and dropped inside compute on the cell key, so an insert can't land
+     * in a cell that is being evicted; a cell is dropped as soon as its last entry leaves.
+     */
+    private void relink(Entry previous, Entry next) {
+        if (previous != null) {
+            cells.computeIfPresent(previous.cellKey(), (key, cell) -> {
+                cell.bucket(previous.type()).remove(previous.id(), previous);
+                return cell.isEmpty() ? null : cell;
+            });
+        }
+        if (next != null) {
+            cells.compute(next.cellKey(), (key, cell) -> {
+                Cell target = cell != null ? cell : new Cell();
+                target.bucket(next.type()).put(next.id(), next);
+                return target;
+            });
+        }
+    }
+
+    private void collect(Cell cell, TransportType type, double lat, double lng, double radiusKm,
+                         double minCharge, List<Neighbour> found) {
+        if (type != null) {
+            collectBucket(cell.bucket(type), lat, lng, radiusKm, minCharge, found);
+        } else {
+            for (TransportType bucketType : TransportType.values()) {
+                collectBucket(cell.bucket(bucketType), lat, lng, radiusKm, minCharge, found);
+            }
+        }
+    }
+
+    private void collectBucket(Map<Long, Entry> bucket, double lat, double lng, double radiusKm,
+                               double minCharge, List<Neighbour> found) {
+        for (Entry entry : bucket.values()) {
+            if (minCharge > 0 && !entry.hasCharge(minCharge)) {
+                continue;
+            }
+            double distance = distanceKm(lat, lng, entry.latitude(), entry.longitude());
+            if (distance <= radiusKm) {
+                found.add(new Neighbour(entry, distance));
+            }
+        }
+    }
+
+    private long cellKey(double lat, double lng) {
+        return key(cell(lat), cell(lng));
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDeg);
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private static boolean isIndexable(Transport transport) {
+        return transport != null
+                && transport.getId() != null
+                && transport.getTransportType() != null
+                && transport.getLatitude() != null
+                && transport.getLongitude() != null;
+    }
+
+    /**
+     * Same equirectangular approximation as the bounding-box search:
+     * accurate enough for city-scale radii and much cheaper than Haversine.
+     */
+    static double distanceKm(double lat1, double lng1, double lat2, double lng2) {
+        double latDiff = (lat1 - lat2) * KM_PER_DEGREE;
+        double lngDiff = (lng1 - lng2) * KM_PER_DEGREE * Math.cos(Math.toRadians((lat1 + lat2) / 2));
+        return Math.sqrt(latDiff * latDiff + lngDiff * lngDiff);
+    }
+
+    private record Entry(long id, TransportType type, Long statusId, Long cityId,
+                         double latitude, double longitude, BigDecimal chargeLevel, long cellKey) {
+
+        static Entry of(Transport transport, long cellKey) {
+            return new Entry(transport.getId(), transport.getTransportType(), transport.getStatusId(),
+                    transport.getCityId(), transport.getLatitude(), transport.getLongitude(),
+                    transport.getChargeLevel(), cellKey);
+        }
+
+        boolean hasCharge(double minCharge) {
+            return chargeLevel != null && chargeLevel.doubleValue() >= minCharge;
+        }
+
+        Transport toTransport() {
+            return Transport.builder()
+                    .id(id)
+                    .transportType(type)
+                    .statusId(statusId)
+                    .cityId(cityId)
+                    .latitude(latitude)
+                    .longitude(longitude)
+                    .chargeLevel(chargeLevel)
+                    .build();
+        }
+    }
+
+    private record Neighbour(Entry entry, double distanceKm) {}
+
+    private static final class Cell {
+
+        private final Map<TransportType, Map<Long, Entry>> buckets = new EnumMap<>(TransportType.class);
+
+        Cell() {
+            for (TransportType type : TransportType.values()) {
+                buckets.put(type, new ConcurrentHashMap<>());
+            }
+        }
+
+        Map<Long, Entry> bucket(TransportType type) {
+            return buckets.get(type);
+        }
+
+        boolean isEmpty() {
+            return buckets.values().stream().allMatch(Map::isEmpty);
+        }
+    }
+}
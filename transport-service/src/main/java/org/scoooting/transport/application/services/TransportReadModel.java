@@ -0,0 +1,201 @@
+package org.scoooting.transport.application.services;
+
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportView;
+
+import java.math.BigDecimal;
+import java.util.*;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.UnaryOperator;
+
+/**
+ * In-memory projection of every transport, already joined for rendering (see {@link TransportView}).
+ *
+ * WHY a projection:
+ * - Rendering a TransportResponseDTO otherwise needs the transport row, its status name
+ *   and a city name from user-service
+ * - With the projection getTransportById and the searches render from a single map lookup
+ *
+ * HOW it is maintained:
+ * - Built from one joined scan of the DB (see TransportReadModelUseCase), city names resolved in bulk
+ * - Status, coordinate and energy changes are applied in place after their DB writes,
+ *   the joined columns of the view are never fetched again for them
+ * - Transports that are not in the projection yet are picked up by the next reconciliation,
+ *   until then they are rendered the old way
+ *
+ * CONSISTENCY:
+ * - Same scheme as TransportGridIndex: every live write is stamped, and reconciliation
+ *   never overrides a live write made after its snapshot was taken
+ * - Stamps are kept per field (status, position, city, energy): a moving transport gets
+ *   a position write every telemetry flush, its other fields are still reconciled
+ * - Only writes made by this instance reach the projection; renderers take status and
+ *   position from the row they have just read (see ToResponseDto)
+ */
+public class TransportReadModel {
+
+    private final Map<Long, TransportView> views = new ConcurrentHashMap<>();
+    private final Map<Long, Map<Field, Long>> touchedAt = new ConcurrentHashMap<>();
+
+    private volatile boolean ready;
+
+    /**
+     * @return true once the projection has been loaded from the database at least once
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return views.size();
+    }
+
+    public Optional<TransportView> find(Long transportId) {
+        return transportId == null ? Optional.empty() : Optional.ofNullable(views.get(transportId));
+    }
+
+    /**
+     * Apply a committed status change. Coordinates are taken over as well, they come with the same row.
+     */
+    public void statusChanged(Transport transport, String statusName) {
+        if (transport == null || transport.getId() == null) {
+            return;
+        }
+        if (hasPosition(transport)) {
+            update(transport.getId(), EnumSet.of(Field.STATUS, Field.POSITION), view -> view
+                    .withStatus(transport.getStatusId(), statusName)
+                    .withPosition(transport.getLatitude(), transport.getLongitude()));
+        } else {
+            update(transport.getId(), EnumSet.of(Field.STATUS),
+                    view -> view.withStatus(transport.getStatusId(), statusName));
+        }
+    }
+
+    /**
+     * Apply committed coordinates.
+     */
+    public void moved(Transport transport) {
+        if (transport == null || transport.getId() == null || !hasPosition(transport)) {
+            return;
+        }
+        update(transport.getId(), EnumSet.of(Field.POSITION), view -> view.withPosition(transport.getLatitude(), transport.getLongitude()));
+    }
+
+    /**
+     * Apply a committed city assignment. The name comes from the city resolver, no user-service call.
+     */
+    public void cityChanged(Long transportId, Long cityId, String cityName) {
+        if (transportId == null) {
+            return;
+        }
+        update(transportId, EnumSet.of(Field.CITY), view -> view.withCity(cityId, cityName));
+    }
+
+    /**
+     * Apply a stored battery (fuel) level.
+     */
+    public void energyChanged(Long transportId, BigDecimal energyLevel) {
+        if (transportId == null) {
+            return;
+        }
+        update(transportId, EnumSet.of(Field.ENERGY), view -> view.withEnergyLevel(energyLevel));
+    }
+
+    /**
+     * Mark the start of a database snapshot. Pass the returned value to {@link #reconcile}.
+     */
+    public long snapshotMark() {
+        return System.nanoTime();
+    }
+
+    /**
+     * Bring the projection in line with a DB snapshot of all transports.
+     *
+     * - Views missing in the snapshot are removed, new ones are added, changed ones replaced
+     * - Fields written by a live update after snapshotMark keep the live value,
+     *   the rest of the view is taken from the snapshot
+     * - A view missing in the snapshot but touched after snapshotMark is kept (created meanwhile)
+     *
+     * @param snapshot all transports read after snapshotMark, with city names resolved
+     * @param snapshotMark value of {@link #snapshotMark()} taken before the DB read
+     * @return number of transports in the projection
+     */
+    public int reconcile(Collection<TransportView> snapshot, long snapshotMark) {
+        Map<Long, TransportView> fresh = new HashMap<>();
+        for (TransportView view : snapshot) {
+            if (view.id() != null) {
+                fresh.put(view.id(), view);
+            }
+        }
+
+        Set<Long> ids = new HashSet<>(views.keySet());
+        ids.addAll(fresh.keySet());
+        for (Long transportId : ids) {
+            TransportView snapshotView = fresh.get(transportId);
+            // stamps of an id change only inside compute() of the same id, so they are read safely here
+            views.compute(transportId, (id, previous) -> {
+                Set<Field> live = newerThan(id, snapshotMark);
+                if (previous == null || live.isEmpty()) {
+                    return snapshotView;
+                }
+                if (snapshotView == null) {
+                    return previous;  // live update is newer than the snapshot
+                }
+                return merge(snapshotView, previous, live);
+            });
+        }
+        ready = true;
+        return views.size();
+    }
+
+    private void update(Long transportId, Set<Field> fields, UnaryOperator<TransportView> change) {
+        views.computeIfPresent(transportId, (id, view) -> {
+            long now = System.nanoTime();
+            Map<Field, Long> stamps = touchedAt.computeIfAbsent(id, key -> new EnumMap<>(Field.class));
+            fields.forEach(field -> stamps.put(field, now));
+            return change.apply(view);
+        });
+    }
+
+    /**
+     * Fields of the transport written live after snapshotMark. Stamps older than the
+     * snapshot are superseded by it and dropped.
+     */
+    private Set<Field> newerThan(Long transportId, long snapshotMark) {
+        Map<Field, Long> stamps = touchedAt.get(transportId);
+        if (stamps == null) {
+            return Set.of();
+        }
+        stamps.values().removeIf(stamp -> stamp - snapshotMark <= 0);
+        if (stamps.isEmpty()) {
+            touchedAt.remove(transportId);
+            return Set.of();
+        }
+        return EnumSet.copyOf(stamps.keySet());
+    }
+
+    private static TransportView merge(TransportView snapshot, TransportView live, Set<Field> liveFields) {
+        TransportView merged = snapshot;
+        if (liveFields.contains(Field.STATUS)) {
+            merged = merged.withStatus(live.statusId(), live.statusName());
+        }
+        if (liveFields.contains(Field.POSITION)) {
+            merged = merged.withPosition(live.latitude(), live.longitude());
+        }
+        if (liveFields.contains(Field.CITY)) {
+            merged = merged.withCity(live.cityId(), live.cityName());
+        }
+        if (liveFields.contains(Field.ENERGY)) {
+            merged = merged.withEnergyLevel(live.energyLevel());
+        }
+        return merged;
+    }
+
+    private static boolean hasPosition(Transport transport) {
+        return transport.getLatitude() != null && transport.getLongitude() != null;
+    }
+
+    /**
+     * Parts of a view written by live updates, stamped separately.
+     */
+    private enum Field { STATUS, POSITION, CITY, ENERGY }
+}
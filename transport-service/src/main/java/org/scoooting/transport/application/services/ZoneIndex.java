@@ -0,0 +1,159 @@
+package org.scoooting.transport.application.services;
+
+import org.scoooting.transport.domain.model.Zone;
+import org.scoooting.transport.domain.model.ZoneCheck;
+
+import java.util.*;
+
+/**
+ * In-memory geofence engine: which zones contain a point.
+ *
+ * WHY in memory:
+ * - Every rental end and every telemetry flush asks this question
+ * - Zones change rarely (a few edits a day), positions change every second
+ *
+ * HOW the lookup works:
+ * - Zones are bucketed into a uniform grid by their bounding box, same cells as TransportGridIndex
+ * - A lookup takes the one cell of the point, checks the bounding boxes of its zones
+ *   and runs point-in-polygon only for the remaining few
+ * - Zones spanning too many cells (a whole service area) are kept in a separate list
+ *   that every lookup checks by bounding box first
+ *
+ * HOT RELOAD:
+ * - {@link #load} builds a complete new snapshot off to the side and swaps it in with one volatile write
+ * - Lookups read one snapshot reference and never lock; a reload doesn't pause them
+ */
+public class ZoneIndex {
+
+    private static final double KM_PER_DEGREE = 111.0;
+    private static final long MAX_CELLS_PER_ZONE = 4096;
+
+    private final double cellSizeDeg;
+    private final boolean parkingRequired;
+
+    private volatile Snapshot snapshot = new Snapshot(Map.of(), List.of(), List.of());
+    private volatile boolean ready;
+
+    /**
+     * @param parkingRequired rentals may end only inside PARKING zones
+     */
+    public ZoneIndex(double cellSizeKm, boolean parkingRequired) {
+        if (cellSizeKm <= 0) {
+            throw new IllegalArgumentException("Cell size must be positive, got: " + cellSizeKm);
+        }
+        this.cellSizeDeg = cellSizeKm / KM_PER_DEGREE;
+        this.parkingRequired = parkingRequired;
+    }
+
+    /**
+     * @return true once zones have been loaded at least once
+     */
+    public boolean isReady() {
+        return ready;
+    }
+
+    public int size() {
+        return snapshot.zones().size();
+    }
+
+    public List<Zone> zones() {
+        return snapshot.zones();
+    }
+
+    /**
+     * Replace all zones at once.
+     *
+     * @return number of loaded zones
+     */
+    public int load(Collection<Zone> zones) {
+        Map<Long, List<Bounded>> cells = new HashMap<>();
+        List<Bounded> large = new ArrayList<>();
+        for (Zone zone : zones) {
+            Bounded bounded = Bounded.of(zone);
+            long rowMin = cell(bounded.minLat());
+            long rowMax = cell(bounded.maxLat());
+            long colMin = cell(bounded.minLng());
+            long colMax = cell(bounded.maxLng());
+            if ((rowMax - rowMin + 1) * (colMax - colMin + 1) > MAX_CELLS_PER_ZONE) {
+                large.add(bounded);
+                continue;
+            }
+            for (long row = rowMin; row <= rowMax; row++) {
+                for (long col = colMin; col <= colMax; col++) {
+                    cells.computeIfAbsent(key(row, col), key -> new ArrayList<>()).add(bounded);
+                }
+            }
+        }
+        snapshot = new Snapshot(Map.copyOf(cells), List.copyOf(large), List.copyOf(zones));
+        ready = true;
+        return zones.size();
+    }
+
+    /**
+     * @return zones that contain the point
+     */
+    public List<Zone> zonesAt(double lat, double lng) {
+        Snapshot current = snapshot;
+        List<Zone> found = new ArrayList<>();
+        collect(current.cells().getOrDefault(key(cell(lat), cell(lng)), List.of()), lat, lng, found);
+        collect(current.large(), lat, lng, found);
+        return found;
+    }
+
+    /**
+     * Evaluate a point: containing zones, whether a rental may end here, and the speed limit.
+     *
+     * Parking is not allowed in NO_PARKING and OUT_OF_SERVICE zones; with parkingRequired
+     * it is allowed only inside a PARKING zone.
+     */
+    public ZoneCheck check(double lat, double lng) {
+        List<Zone> zones = zonesAt(lat, lng);
+        boolean forbidden = false;
+        boolean inParking = false;
+        Integer speedLimit = null;
+        for (Zone zone : zones) {
+            switch (zone.type()) {
+                case NO_PARKING, OUT_OF_SERVICE -> forbidden = true;
+                case PARKING -> inParking = true;
+                case SLOW -> {
+                    if (zone.speedLimitKmh() != null && (speedLimit == null || zone.speedLimitKmh() < speedLimit)) {
+                        speedLimit = zone.speedLimitKmh();
+                    }
+                }
+            }
+        }
+        boolean parkingAllowed = !forbidden && (inParking || !parkingRequired);
+        return new ZoneCheck(zones, parkingAllowed, speedLimit);
+    }
+
+    private static void collect(List<Bounded> candidates, double lat, double lng, List<Zone> found) {
+        for (Bounded candidate : candidates) {
+            if (candidate.boxContains(lat, lng) && candidate.zone().contains(lat, lng)) {
+                found.add(candidate.zone());
+            }
+        }
+    }
+
+    private long cell(double degrees) {
+        return (long) Math.floor(degrees / cellSizeDeg);
+    }
+
+    private static long key(long row, long col) {
+        return (row << 32) | (col & 0xFFFFFFFFL);
+    }
+
+    private record Snapshot(Map<Long, List<Bounded>> cells, List<Bounded> large, List<Zone> zones) {}
+
+    private record Bounded(Zone zone, double minLat, double maxLat, double minLng, double maxLng) {
+
+        static Bounded of(Zone zone) {
+            DoubleSummaryStatistics lat = Arrays.stream(zone.latitudes()).summaryStatistics();
+            DoubleSummaryStatistics lng = Arrays.stream(zone.longitudes()).summaryStatistics();
+            return new Bounded(zone, lat.getMin(), lat.getMax(), lng.getMin(), lng.getMax());
+        }
+
+        boolean boxContains(double lat, double lng) {
+            return lat >= minLat && lat <= maxLat && lng >= minLng && lng <= maxLng;
+        }
+    }
+}
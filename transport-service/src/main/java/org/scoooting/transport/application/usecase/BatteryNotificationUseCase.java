@@ -4,16 +4,29 @@ import lombok.RequiredArgsConstructor;
 import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.BatteryNotificationDto;
 import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.EmptyBatteryDto;
 import org.scoooting.transport.application.ports.BatteryEventPublisher;
+import org.scoooting.transport.application.services.TransportReadModel;
 import org.scoooting.transport.domain.repositories.TransportRepository;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+
 @RequiredArgsConstructor
 public class BatteryNotificationUseCase {
 
     private final BatteryEventPublisher batteryEventPublisher;
     private final TransportRepository transportRepository;
+    private final TransportReadModel transportReadModel;
 
+    /**
+     * Store the reported level, then notify the user (and end the rental on an empty battery).
+     * The read model picks up the stored level right away, so rendered transports show it
+     * without waiting for reconciliation.
+     */
     public Mono<Void> notifyBattery(long userId, long rentalId, long transportId, int battery) {
+        BigDecimal energyLevel = BigDecimal.valueOf(battery);
+        Mono<Void> energyUpdate = transportRepository.updateEnergyLevel(transportId, energyLevel)
+                .doOnSuccess(ignored -> transportReadModel.energyChanged(transportId, energyLevel));
+
         Mono<Void> batteryEvent = batteryEventPublisher.publishBattery(new BatteryNotificationDto(userId, battery)).then();
 
         Mono<?> endRentalEvent = battery == 0 ? transportRepository.findById(transportId)
@@ -21,7 +34,8 @@ public class BatteryNotificationUseCase {
                         new EmptyBatteryDto(userId, rentalId, transport.getLatitude(), transport.getLongitude()))).then()
                 : Mono.empty();
 
-        return batteryEvent
+        return energyUpdate
+                .then(batteryEvent)
                 .then(endRentalEvent)
                 .then();
     }
@@ -0,0 +1,27 @@
+package org.scoooting.transport.application.usecase;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.application.ports.UserClient;
+import org.scoooting.transport.application.services.CityResolver;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class CityUseCase {
+
+    private final UserClient userClient;
+    private final CityResolver cityResolver;
+
+    /**
+     * Load city boundaries from user-service into the resolver.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - No database access, one HTTP call
+     *
+     * If user-service is unavailable the previously loaded cities stay in use.
+     *
+     * @return number of loaded cities
+     */
+    public Mono<Integer> reloadCities() {
+        return userClient.getCities().map(cityResolver::load);
+    }
+}
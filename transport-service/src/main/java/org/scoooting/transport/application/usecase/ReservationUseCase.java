@@ -0,0 +1,178 @@
+package org.scoooting.transport.application.usecase;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.adapters.interfaces.dto.ReservationDTO;
+import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
+import org.scoooting.transport.application.services.ReservationTimer;
+import org.scoooting.transport.domain.exceptions.DataNotFoundException;
+import org.scoooting.transport.domain.exceptions.TransportConflictException;
+import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportStatus;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.scoooting.transport.domain.repositories.TransportStatusRepository;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+
+/**
+ * Holds of a transport by a rider walking to it: AVAILABLE → RESERVED → IN_USE (rental)
+ * or back to AVAILABLE (cancelled or expired).
+ *
+ * Every transition is a conditional UPDATE, like the other status changes, so a hold,
+ * a rental start of another rider and an expiry can't overwrite each other.
+ */
+@RequiredArgsConstructor
+public class ReservationUseCase {
+
+    private final TransportRepository transportRepository;
+    private final TransportStatusRepository statusRepository;
+    private final TransportUpdateUseCase transportUpdateUseCase;
+    private final ToResponseDto toResponseDto;
+    private final ReservationTimer reservationTimer;
+    private final Duration holdDuration;
+
+    /**
+     * Reserve an AVAILABLE transport for holdDuration.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single conditional UPDATE (statuses are cached in process)
+     * - One hold per user is enforced by the unique index uq_transports_reserved_by,
+     *   so two concurrent requests of the same user can't both succeed
+     *
+     * The expiry is scheduled in the in-memory ReservationTimer after the UPDATE;
+     * the transport leaves the search index like on any non-AVAILABLE status.
+     *
+     * @throws TransportNotFoundException if transport doesn't exist
+     * @throws TransportConflictException if the transport is not AVAILABLE or the user already holds one
+     */
+    public Mono<ReservationDTO> reserveTransport(Long transportId, Long userId) {
+        Instant expiresAt = Instant.now().plus(holdDuration).truncatedTo(ChronoUnit.MILLIS);
+        return Mono.zip(status(TransportStatus.AVAILABLE), status(TransportStatus.RESERVED))
+                .flatMap(statuses -> transportRepository.reserve(transportId, statuses.getT1().getId(),
+                                statuses.getT2().getId(), userId, expiresAt)
+                        .onErrorMap(DuplicateKeyException.class,
+                                e -> new TransportConflictException("User already holds a reservation"))
+                        .switchIfEmpty(notFoundOrConflict(transportId, "Transport " + transportId + " is not available"))
+                        .doOnNext(reserved -> {
+                            reservationTimer.schedule(transportId, expiresAt.toEpochMilli());
+                            transportUpdateUseCase.statusChanged(reserved, statuses.getT1().getId(),
+                                    TransportStatus.RESERVED);
+                        }))
+                .map(reserved -> new ReservationDTO(transportId, userId, expiresAt));
+    }
+
+    /**
+     * Release the user's hold: RESERVED → AVAILABLE.
+     *
+     * @throws TransportNotFoundException if transport doesn't exist
+     * @throws TransportConflictException if the transport is not reserved by the user
+     */
+    public Mono<TransportResponseDTO> cancelReservation(Long transportId, Long userId) {
+        return endReservation(transportId, userId, TransportStatus.AVAILABLE)
+                .switchIfEmpty(notFoundOrConflict(transportId,
+                        "Transport " + transportId + " is not reserved by user " + userId))
+                .flatMap(toResponseDto::execute);
+    }
+
+    /**
+     * Take a transport for a rental: AVAILABLE → IN_USE, or RESERVED → IN_USE if the user holds it.
+     *
+     * The common case (no hold) is one conditional UPDATE; a hold is tried only after that fails,
+     * so a transport reserved by someone else stays theirs.
+     *
+     * The caller must have authenticated the user: whoever passes userId can take that user's hold,
+     * so it comes only from rental-service (the endpoint is OPERATOR/ADMIN only). Riders reserve and
+     * cancel through endpoints that take the id from their token.
+     *
+     * @param userId renting user, null to accept AVAILABLE transports only
+     * @throws TransportNotFoundException if transport doesn't exist
+     * @throws TransportConflictException if the transport is neither AVAILABLE nor held by the user
+     */
+    public Mono<TransportResponseDTO> acquireTransport(Long transportId, Long userId) {
+        Mono<TransportResponseDTO> acquired = transportUpdateUseCase.acquireTransport(transportId);
+        if (userId == null) {
+            return acquired;
+        }
+        return acquired.onErrorResume(TransportConflictException.class,
+                conflict -> endReservation(transportId, userId, TransportStatus.IN_USE)
+                        .switchIfEmpty(Mono.error(conflict))
+                        .flatMap(toResponseDto::execute));
+    }
+
+    /**
+     * Release holds whose time is up. Called every tick.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - One conditional UPDATE per expired hold, "reserved_until <= now" in the WHERE
+     * - A hold claimed by a rental or renewed in the meantime is left alone,
+     *   and an expiry run by another instance for the same hold updates nothing
+     * - Holds taken off the timer whose UPDATE failed are scheduled again by {@link #reloadReservations}
+     *
+     * @return number of transports made AVAILABLE again
+     */
+    public Mono<Integer> expireReservations() {
+        Instant now = Instant.now();
+        List<Long> expired = reservationTimer.advance(now.toEpochMilli());
+        if (expired.isEmpty()) {
+            return Mono.just(0);
+        }
+        return Mono.zip(status(TransportStatus.RESERVED), status(TransportStatus.AVAILABLE))
+                .flatMapMany(statuses -> Flux.fromIterable(expired)
+                        .concatMap(transportId -> transportRepository.endReservation(transportId,
+                                statuses.getT1().getId(), statuses.getT2().getId(), null, now))
+                        .doOnNext(released -> transportUpdateUseCase.statusChanged(released,
+                                statuses.getT1().getId(), TransportStatus.AVAILABLE)))
+                .count()
+                .map(Long::intValue);
+    }
+
+    /**
+     * Schedule every hold stored in the database.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single read-only SELECT
+     *
+     * Run on startup (the timer is in memory only) and periodically: a hold made on another
+     * instance is scheduled here too, so it expires even if that instance goes down.
+     * Already expired holds fire on the next tick.
+     *
+     * @return number of scheduled holds
+     */
+    public Mono<Integer> reloadReservations() {
+        return transportRepository.findReservations()
+                .doOnNext(reservation -> reservationTimer.schedule(reservation.transportId(),
+                        reservation.expiresAt().toEpochMilli()))
+                .count()
+                .map(Long::intValue);
+    }
+
+    private Mono<Transport> endReservation(Long transportId, Long userId, String statusName) {
+        return Mono.zip(status(TransportStatus.RESERVED), status(statusName))
+                .flatMap(statuses -> transportRepository.endReservation(transportId, statuses.getT1().getId(),
+                                statuses.getT2().getId(), userId, null)
+                        .doOnNext(saved -> {
+                            reservationTimer.cancel(transportId);
+                            transportUpdateUseCase.statusChanged(saved, statuses.getT1().getId(), statusName);
+                        }));
+    }
+
+    private Mono<TransportStatus> status(String name) {
+        return statusRepository.findByName(name)
+                .switchIfEmpty(Mono.error(new DataNotFoundException("Status not found: " + name)));
+    }
+
+    /**
+     * Tell "no such transport" from "wrong state" after a conditional UPDATE matched nothing.
+     */
+    private <T> Mono<T> notFoundOrConflict(Long transportId, String conflictMessage) {
+        return Mono.defer(() -> transportRepository.findById(transportId))
+                .switchIfEmpty(Mono.error(new TransportNotFoundException("Transport not found")))
+                .flatMap(current -> Mono.<T>error(new TransportConflictException(conflictMessage)));
+    }
+}
@@ -0,0 +1,176 @@
+package org.scoooting.transport.application.usecase;
+
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportPositionDto;
+import org.scoooting.transport.adapters.interfaces.dto.TelemetryIngestResponseDTO;
+import org.scoooting.transport.adapters.interfaces.dto.TelemetrySampleDTO;
+import org.scoooting.transport.application.ports.TransportPositionPublisher;
+import org.scoooting.transport.application.services.TelemetryBuffer;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.application.services.TransportReadModel;
+import org.scoooting.transport.application.services.ZoneIndex;
+import org.scoooting.transport.domain.model.TelemetrySample;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.enums.ZoneType;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+@Slf4j
+@RequiredArgsConstructor
+public class TelemetryUseCase {
+
+    /** Samples stamped further in the future are rejected, they would block newer samples (last writer wins) */
+    private static final Duration MAX_CLOCK_SKEW = Duration.ofMinutes(5);
+
+    private final TelemetryBuffer telemetryBuffer;
+    private final TransportRepository transportRepository;
+    private final TransactionalOperator transactionalOperator;
+    private final TransportGridIndex transportGridIndex;
+    private final TransportReadModel transportReadModel;
+    private final TransportChangeFeed transportChangeFeed;
+    private final TransportPositionPublisher transportPositionPublisher;
+    private final ZoneIndex zoneIndex;
+
+    /**
+     * Stage a stream of telemetry samples for the next flush.
+     *
+     * WHY not write each sample:
+     * - Vehicles report every few seconds, one transaction per sample would make the DB
+     *   the bottleneck of the whole service
+     * - Samples are coalesced in TelemetryBuffer and written by flush() in batches,
+     *   the request returns as soon as the stream is staged
+     *
+     * Invalid samples don't fail the request, they are counted as rejected,
+     * so one broken line doesn't make a device resend the whole batch.
+     *
+     * @param samples NDJSON (or JSON array) stream of samples
+     * @return numbers of accepted and rejected samples
+     */
+    public Mono<TelemetryIngestResponseDTO> ingest(Flux<TelemetrySampleDTO> samples) {
+        return samples
+                .map(dto -> {
+                    TelemetrySample sample = toSample(dto, Instant.now());
+                    return sample != null && telemetryBuffer.offer(sample);
+                })
+                .reduceWith(() -> new long[2], (counts, accepted) -> {
+                    counts[accepted ? 0 : 1]++;
+                    return counts;
+                })
+                .map(counts -> new TelemetryIngestResponseDTO(counts[0], counts[1]));
+    }
+
+    /**
+     * Write staged samples to the database.
+     *
+     * TRANSACTION IS NEEDED:
+     * - Positions and battery levels of a chunk are written by one statement,
+     *   but a flush can span several chunks; they are committed together
+     *
+     * After commit the moved transports are applied to the search index, the read model
+     * and the live map feed, the same way as a single coordinates update.
+     * Applied positions are also published for trip tracks (rental-service). Publishing is best effort
+     * and fire-and-forget: the flush is already committed, a lost position only makes a track less
+     * detailed, so a Kafka outage must not hold up the next flush.
+     * Transports that reported from an OUT_OF_SERVICE zone are logged for operators (in-memory check).
+     * If the flush fails, drained samples go back to the buffer unless newer ones arrived.
+     *
+     * @return number of transports whose position was updated
+     */
+    public Mono<Integer> flush() {
+        return Mono.defer(() -> {
+            List<TelemetrySample> drained = telemetryBuffer.drain();
+            if (drained.isEmpty()) {
+                return Mono.just(0);
+            }
+            Map<Long, TelemetrySample> byTransport = drained.stream()
+                    .collect(Collectors.toMap(TelemetrySample::transportId, Function.identity()));
+
+            return transportRepository.applyTelemetry(drained)
+                    .collectList()
+                    .as(transactionalOperator::transactional)
+                    .doOnNext(moved -> {
+                        moved.forEach(transport -> applyCommitted(transport, byTransport.get(transport.getId())));
+                        warnOutOfService(moved);
+                    })
+                    .doOnError(e -> telemetryBuffer.restore(drained))
+                    .map(moved -> {
+                        publishPositions(moved, byTransport);
+                        return moved.size();
+                    });
+        });
+    }
+
+    private void applyCommitted(Transport transport, TelemetrySample sample) {
+        if (sample != null && sample.battery() != null) {
+            // RETURNING of the position update doesn't see the charge level written by the trigger
+            BigDecimal level = BigDecimal.valueOf(sample.battery());
+            transport.setChargeLevel(level);
+            transportReadModel.energyChanged(transport.getId(), level);
+        }
+        transportGridIndex.move(transport);
+        transportReadModel.moved(transport);
+        transportChangeFeed.publish(transport);
+    }
+
+    private void warnOutOfService(List<Transport> moved) {
+        List<Long> outside = moved.stream()
+                .filter(transport -> transport.getLatitude() != null && transport.getLongitude() != null)
+                .filter(transport -> zoneIndex.check(transport.getLatitude(), transport.getLongitude())
+                        .isIn(ZoneType.OUT_OF_SERVICE))
+                .map(Transport::getId)
+                .toList();
+        if (!outside.isEmpty()) {
+            log.warn("Transports in out-of-service zones: {}", outside);
+        }
+    }
+
+    private void publishPositions(List<Transport> moved, Map<Long, TelemetrySample> byTransport) {
+        List<TransportPositionDto> positions = moved.stream()
+                .map(transport -> byTransport.get(transport.getId()))
+                .filter(Objects::nonNull)
+                .map(sample -> new TransportPositionDto(sample.transportId(), sample.latitude(),
+                        sample.longitude(), sample.reportedAt().toEpochMilli()))
+                .toList();
+        if (positions.isEmpty()) {
+            return;
+        }
+        try {
+            transportPositionPublisher.publishPositions(positions);
+        } catch (RuntimeException e) {
+            log.warn("Failed to publish {} transport positions: {}", positions.size(), e.getMessage());
+        }
+    }
+
+    /**
+     * @return domain sample, null if the DTO is invalid
+     */
+    private static TelemetrySample toSample(TelemetrySampleDTO dto, Instant now) {
+        if (dto == null || dto.transportId() == null || dto.lat() == null || dto.lng() == null || dto.ts() == null) {
+            return null;
+        }
+        if (dto.lat() < -90 || dto.lat() > 90 || dto.lng() < -180 || dto.lng() > 180) {
+            return null;
+        }
+        if (dto.battery() != null && (dto.battery() < 0 || dto.battery() > 100)) {
+            return null;
+        }
+        Instant reportedAt = Instant.ofEpochMilli(dto.ts());
+        if (dto.ts() <= 0 || reportedAt.isAfter(now.plus(MAX_CLOCK_SKEW))) {
+            return null;
+        }
+        return new TelemetrySample(dto.transportId(), dto.lat(), dto.lng(), dto.battery(), reportedAt);
+    }
+}
@@ -2,19 +2,25 @@ package org.scoooting.transport.application.usecase;
 
 import lombok.RequiredArgsConstructor;
 import org.scoooting.transport.application.ports.UserClient;
+import org.scoooting.transport.application.services.TransportReadModel;
 import org.scoooting.transport.domain.mappers.TransportMapper;
 import org.scoooting.transport.domain.model.Transport;
 import org.scoooting.transport.domain.model.TransportStatus;
+import org.scoooting.transport.domain.model.TransportView;
 import org.scoooting.transport.domain.repositories.TransportStatusRepository;
 import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.*;
+
 @RequiredArgsConstructor
 public class ToResponseDto {
 
     private final UserClient userClient;
     private final TransportStatusRepository statusRepository;
     private final TransportMapper transportMapper;
+    private final TransportReadModel transportReadModel;
 
     /**
      * Convert Transport entity to DTO with joined data.
@@ -32,19 +38,128 @@ public class ToResponseDto {
      *
      * N+1 PROBLEM:
      * - When called in a loop (e.g., for 20 transports), makes 20 × 2 = 40 queries
-     * - This is why parent methods need TransactionalOperator
-     * - Alternative: implement batch loading to reduce to 2 queries total
+     * - Use {@link #executeAll(Flux)} for lists, keep this method for single transports
+     *
+     * READ MODEL FIRST:
+     * - Transports present in TransportReadModel take the city name and energy level from it,
+     *   the lookups above are only the fallback
+     * - Status and position always come from the given row: the read model is per instance
+     *   and only sees the writes made here, another instance may have changed them
+     * - The status name is looked up (in process) only when the row's status differs from the view's
      *
      * @param transport entity to convert
      * @return DTO with status name and city name
      */
     public Mono<TransportResponseDTO> execute(Transport transport) {
-        return statusRepository.findById(transport.getStatusId())
-                .map(TransportStatus::getName)
-                .defaultIfEmpty("UNKNOWN")
+        Optional<TransportView> view = view(transport);
+        if (view.isPresent()) {
+            return Mono.justOrEmpty(knownStatusName(view.get(), transport))
+                    .switchIfEmpty(Mono.defer(() -> statusName(transport.getStatusId())))
+                    .map(statusName -> transportMapper.toResponseDTO(current(view.get(), transport, statusName)));
+        }
+        return statusName(transport.getStatusId())
                 .flatMap(statusName ->
                         userClient.getCityName(transport.getCityId())
                                 .map(cityName -> transportMapper.toResponseDTO(transport, statusName, cityName))
                 );
     }
+
+    /**
+     * Convert a page of transports to DTOs with a constant number of round trips.
+     *
+     * BATCH LOADING instead of N+1:
+     * - Collects the page, then resolves DISTINCT statusIds and cityIds once each:
+     *   1. SELECT statuses WHERE id IN (...)
+     *   2. One bulk call to user-service for city names
+     * - Both lookups run in parallel (Mono.zip)
+     * - For 20 transports: 2 round trips instead of 40, regardless of page size
+     * - Transports found in TransportReadModel are excluded from the city lookup, and from
+     *   the status lookup unless their row has another status than the view (see {@link #execute});
+     *   once the read model is loaded a page usually needs no round trips at all
+     *
+     * Order of the input is preserved, so distance-sorted results stay sorted.
+     *
+     * @param transports page of transports to convert
+     * @return DTOs in the same order as input
+     */
+    public Flux<TransportResponseDTO> executeAll(Flux<Transport> transports) {
+        return transports.collectList()
+                .filter(page -> !page.isEmpty())
+                .flatMapMany(page -> {
+                    Map<Long, TransportView> views = new HashMap<>();
+                    Set<Long> statusIds = new HashSet<>();
+                    Set<Long> cityIds = new HashSet<>();
+                    for (Transport transport : page) {
+                        Optional<TransportView> view = view(transport);
+                        view.ifPresent(found -> views.put(transport.getId(), found));
+                        if (transport.getStatusId() != null
+                                && view.flatMap(found -> knownStatusName(found, transport)).isEmpty()) {
+                            statusIds.add(transport.getStatusId());
+                        }
+                        if (view.isEmpty() && transport.getCityId() != null) {
+                            cityIds.add(transport.getCityId());
+                        }
+                    }
+
+                    Mono<Map<Long, String>> statusNames = statusIds.isEmpty()
+                            ? Mono.just(Map.of())
+                            : statusRepository.findAllById(statusIds)
+                                    .collectMap(TransportStatus::getId, TransportStatus::getName);
+                    Mono<Map<Long, String>> cityNames = cityIds.isEmpty()
+                            ? Mono.just(Map.of())
+                            : userClient.getCityNames(cityIds);
+
+                    return Mono.zip(statusNames, cityNames)
+                            .flatMapIterable(names -> page.stream()
+                                    .map(transport -> views.containsKey(transport.getId())
+                                            ? transportMapper.toResponseDTO(current(views.get(transport.getId()),
+                                                    transport, knownStatusName(views.get(transport.getId()), transport)
+                                                            .orElseGet(() -> lookup(names.getT1(),
+                                                                    transport.getStatusId(), "UNKNOWN"))))
+                                            : transportMapper.toResponseDTO(
+                                                    transport,
+                                                    lookup(names.getT1(), transport.getStatusId(), "UNKNOWN"),
+                                                    lookup(names.getT2(), transport.getCityId(), "N/A")
+                                            ))
+                                    .toList());
+                });
+    }
+
+    private Mono<String> statusName(Long statusId) {
+        return statusRepository.findById(statusId)
+                .map(TransportStatus::getName)
+                .defaultIfEmpty("UNKNOWN");
+    }
+
+    /**
+     * The projected view, unless the row is in another city than the view (moved by another instance):
+     * then the city name has to be looked up.
+     */
+    private Optional<TransportView> view(Transport transport) {
+        return transportReadModel.find(transport.getId())
+                .filter(view -> Objects.equals(view.cityId(), transport.getCityId()));
+    }
+
+    /**
+     * Status name of the view, if the row still has the view's status.
+     */
+    private static Optional<String> knownStatusName(TransportView view, Transport transport) {
+        return Objects.equals(view.statusId(), transport.getStatusId())
+                ? Optional.ofNullable(view.statusName())
+                : Optional.empty();
+    }
+
+    /**
+     * The view with status and position of the row.
+     */
+    private static TransportView current(TransportView view, Transport transport, String statusName) {
+        TransportView updated = view.withStatus(transport.getStatusId(), statusName);
+        return transport.getLatitude() != null && transport.getLongitude() != null
+                ? updated.withPosition(transport.getLatitude(), transport.getLongitude())
+                : updated;
+    }
+
+    private static String lookup(Map<Long, String> names, Long id, String fallback) {
+        return id == null ? fallback : names.getOrDefault(id, fallback);
+    }
 }
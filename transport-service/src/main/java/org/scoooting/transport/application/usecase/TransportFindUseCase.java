@@ -1,7 +1,10 @@
 package org.scoooting.transport.application.usecase;
 
 import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.application.services.TransportCursor;
+import org.scoooting.transport.application.services.TransportGridIndex;
 import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
+import org.scoooting.transport.domain.model.Transport;
 import org.scoooting.transport.domain.model.enums.TransportType;
 import org.scoooting.transport.domain.repositories.TransportRepository;
 import org.scoooting.transport.adapters.interfaces.dto.ScrollResponseDTO;
@@ -18,72 +21,82 @@ public class TransportFindUseCase {
     private final TransportRepository transportRepository;
     private final TransactionalOperator transactionalOperator;
     private final ToResponseDto toResponseDto;
+    private final TransportGridIndex transportGridIndex;
+    private final int maxNearestResults;
 
     /**
      * Find nearest transports within specified radius.
      *
-     * TRANSACTION IS NEEDED to solve N+1 problem:
-     * - Each transport triggers toResponseDTO() which makes 2 additional queries:
-     *   1. SELECT status by statusId
-     *   2. HTTP call to user-service for city name
-     * - For 20 transports: 1 + 20 + 20 = 41 separate queries/connections
-     * - With TransactionalOperator: all 41 queries share the same DB connection
-     *
-     * HOW TransactionalOperator works:
-     * - .as(transactionalOperator::transactional) wraps the entire Flux in a transaction
-     * - Opens connection.beginTransaction() before first query
-     * - Keeps connection open for all queries in the stream
-     * - Commits with connection.commitTransaction() when Flux completes
-     * - Rollbacks on error
+     * N+1 PROBLEM IS SOLVED BY BATCH LOADING:
+     * - Previously each transport triggered toResponseDTO() with 2 additional round trips
+     *   (SELECT status + HTTP call for city name): 1 + 20 + 20 = 41 for 20 transports
+     * - Now the whole page goes through ToResponseDto.executeAll():
+     *   1 SELECT statuses IN (...) + 1 bulk city lookup, independent of page size
+     *
+     * TRANSACTION IS STILL USED on the SQL path:
+     * - SELECT transports + SELECT statuses share one connection instead of two
+     * - .as(transactionalOperator::transactional) keeps the connection for the whole Flux
      * - Uses Reactor Context (not ThreadLocal like @Transactional)
      *
-     * IMPORTANT: Connection stays open during entire Flux execution.
-     * For production with high load, we should consider batch loading to reduce to 3 queries.
+     * SEARCH SOURCE:
+     * - Normally answered from TransportGridIndex (no SELECT on transports, sorted by distance)
+     * - Falls back to TransportRepository.findAvailableNearby until the index has been warmed up
+     *   (bounding box by default, ST_DWithin + KNN with transport.spatial.backend=postgis)
+     *
+     * MINIMUM CHARGE:
+     * - Evaluated by the search itself: charge_level column in the SQL WHERE clause,
+     *   the indexed charge in TransportGridIndex
+     * - No per-transport lookup in the detail tables; the level is returned as energyLevel
+     *
+     * RESULT SIZE:
+     * - At most maxNearestResults transports, the nearest ones (transport.nearest.max-results),
+     *   so a 50 km radius in a dense city doesn't render the whole fleet
      *
      * @param lat center latitude
      * @param lng center longitude
      * @param radiusKm search radius in kilometers
-     * @return Flux of available transports in the area
+     * @param minCharge minimum battery/fuel level in percent, 0 for no filter
+     * @return Flux of at most maxNearestResults available transports in the area, nearest first
      */
-    public Flux<TransportResponseDTO> findNearestTransports(Double lat, Double lng, Double radiusKm) {
-        // Calculate boundaries
-        double latRange = radiusKm / 111.0;
-        double lngRange = radiusKm / (111.0 * Math.cos(Math.toRadians(lat)));
+    public Flux<TransportResponseDTO> findNearestTransports(Double lat, Double lng, Double radiusKm,
+                                                            double minCharge) {
+        if (transportGridIndex.isReady()) {
+            return toResponseDto.executeAll(Flux.fromIterable(
+                    transportGridIndex.findNearby(lat, lng, radiusKm, null, minCharge, maxNearestResults)
+            ));
+        }
 
-        return transportRepository.findAvailableInArea(
-                        lat - latRange, lat + latRange,
-                        lng - lngRange, lng + lngRange
-                )
-                .flatMap(toResponseDto::execute)
+        return toResponseDto.executeAll(transportRepository.findAvailableNearby(
+                        lat, lng, radiusKm, null, minCharge, maxNearestResults
+                ))
                 .as(transactionalOperator::transactional);
     }
 
     /**
      * Find transports by type within specified radius.
      *
-     * TRANSACTION IS NEEDED for the same N+1 problem as findNearestTransports:
-     * - Without transaction: 1 + N status queries + N HTTP calls = 1 + 2N connections
-     * - With transaction: all queries in single connection
-     *
-     * TransactionalOperator keeps R2DBC connection open during entire Flux processing,
-     * preventing connection pool exhaustion under concurrent load.
+     * Same batch loading and charge filter as findNearestTransports: constant number of round trips per page.
+     * Uses the per-type buckets of TransportGridIndex once it is warmed up.
      *
      * @param type transport type filter
      * @param lat center latitude
      * @param lng center longitude
      * @param radiusKm search radius in kilometers
+     * @param minCharge minimum battery/fuel level in percent, 0 for no filter
      * @return Flux of matching transports
      */
     public Flux<TransportResponseDTO> findTransportsByType(
-            TransportType type, Double lat, Double lng, Double radiusKm
+            TransportType type, Double lat, Double lng, Double radiusKm, double minCharge
     ) {
-        double latRange = radiusKm / 111.0;
-        double lngRange = radiusKm / (111.0 * Math.cos(Math.toRadians(lat)));
+        if (transportGridIndex.isReady()) {
+            return toResponseDto.executeAll(Flux.fromIterable(
+                    transportGridIndex.findNearby(lat, lng, radiusKm, type, minCharge, maxNearestResults)
+            ));
+        }
 
-        return transportRepository.findAvailableByTypeInArea(
-                        type, lat - latRange, lat + latRange, lng - lngRange, lng + lngRange
-                )
-                .flatMap(toResponseDto::execute)
+        return toResponseDto.executeAll(transportRepository.findAvailableNearby(
+                        lat, lng, radiusKm, type, minCharge, maxNearestResults
+                ))
                 .as(transactionalOperator::transactional);
     }
 
@@ -100,6 +113,12 @@ public class TransportFindUseCase {
      * - Consistent read snapshot (isolation)
      * - Better resource utilization
      *
+     * READ MODEL:
+     * - The row is always read: status and position are rendered from it, since another
+     *   instance may have changed them since this instance's TransportReadModel saw them
+     * - Once the read model holds the transport, the city name and energy level come from it:
+     *   no call to user-service (see ToResponseDto#execute)
+     *
      * @param id transport ID
      * @return Mono with transport details
      * @throws TransportNotFoundException if transport doesn't exist
@@ -124,41 +143,58 @@ public class TransportFindUseCase {
     /**
      * Infinite scroll pagination for available transports by type.
      *
-     * TRANSACTION IS NEEDED due to N+1 problem in toResponseDTO():
-     * - For page with 20 transports: 1 + 20 status queries + 20 HTTP calls
-     * - With transaction: all queries share same connection
+     * BATCH LOADING via ToResponseDto.executeAll():
+     * - For page with 20 transports: 1 SELECT page + 1 SELECT statuses + 1 bulk city lookup
+     * - With transaction: both queries share same connection
      *
      * INFINITE SCROLL BENEFITS:
      * - No COUNT(*) query (faster by 50-90% on large tables)
      * - Takes size+1 records to determine hasMore without separate query
      * - Better UX for mobile apps (continuous scrolling)
      *
-     * HOW THIS WORKS:
-     * - Request: GET /transports/available/BIKE?page=0&size=20
-     * - Database: SELECT ... LIMIT 21 OFFSET 0
-     * - If 21 records returned: hasMore=true, return first 20
+     * HOW THIS WORKS (keyset on transport id):
+     * - Request: GET /transports/available/BIKE?size=20&cursor=<nextCursor of previous page>
+     * - Database: SELECT ... WHERE id > :afterId ORDER BY id LIMIT 21
+     * - If 21 records returned: hasMore=true, return first 20, nextCursor points after the 20th
      * - If ≤20 records returned: hasMore=false, return all
+     * - Any page is a short index range scan, deep pages cost the same as the first one
+     *
+     * DEPRECATED page parameter:
+     * - Clients that still send ?page=N without a cursor get the old OFFSET behaviour
+     *   (N * size rows are read and skipped), and a nextCursor to continue with
+     * - The OFFSET query is ordered by id like the keyset one, so switching from page to cursor
+     *   neither skips nor repeats transports
+     * - The response keeps the page number for them, see {@link TransportCursor}
      *
      * @param type transport type filter
-     * @param page page number (0-indexed)
+     * @param cursor nextCursor of the previous page, null for the first page
+     * @param page deprecated page number (0-indexed), only used when no cursor is given
      * @param size items per page
-     * @return ScrollResponseDTO with content and hasMore flag
+     * @return ScrollResponseDTO with content, hasMore flag and nextCursor
      */
     public Mono<ScrollResponseDTO<TransportResponseDTO>> scrollAvailableTransportsByType(
-            TransportType type, int page, int size
+            TransportType type, String cursor, int page, int size
     ) {
-        return transportRepository.findAvailableByType(type)
-                .skip((long) page * size)  // skip prev pages
-                .take(size + 1)                 // Get size+1 to prevent hasMore
-                .flatMap(toResponseDto::execute)
-                .collectList()
-                .map(list -> {
-                    boolean hasMore = list.size() > size;
-                    List<TransportResponseDTO> content = hasMore
-                            ? list.subList(0, size)
-                            : list;
-                    return new ScrollResponseDTO<>(content, page, size, hasMore);
-                })
+        boolean legacyPage = (cursor == null || cursor.isBlank()) && page > 0;
+        return Mono.fromCallable(() -> legacyPage ? new TransportCursor(0L, page) : TransportCursor.decode(cursor))
+                .flatMap(position -> (legacyPage
+                        ? transportRepository.findAvailableByTypePage(type, (long) page * size, size + 1)
+                        : transportRepository.findAvailableByTypeAfter(type, position.afterId(), size + 1))
+                        .collectList()  // Get size+1 to prevent hasMore
+                        .flatMap(list -> {
+                            boolean hasMore = list.size() > size;
+                            List<Transport> content = hasMore
+                                    ? list.subList(0, size)
+                                    : list;
+                            String nextCursor = hasMore
+                                    ? new TransportCursor(content.get(content.size() - 1).getId(), position.page() + 1)
+                                            .encode()
+                                    : null;
+                            return toResponseDto.executeAll(Flux.fromIterable(content))
+                                    .collectList()
+                                    .map(dtos -> new ScrollResponseDTO<>(
+                                            dtos, position.page(), size, hasMore, nextCursor));
+                        }))
                 .as(transactionalOperator::transactional);
     }
 }
@@ -0,0 +1,34 @@
+package org.scoooting.transport.application.usecase;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import reactor.core.publisher.Mono;
+
+@RequiredArgsConstructor
+public class TransportIndexUseCase {
+
+    private final TransportRepository transportRepository;
+    private final TransportGridIndex transportGridIndex;
+
+    /**
+     * Load all AVAILABLE transports from the database and reconcile the grid index with them.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single read-only SELECT
+     * - Index is reconciled per transport, concurrent live updates win over the snapshot
+     *
+     * Used for warm-up on startup and as a periodic safety net for updates
+     * that bypassed the use cases (manual SQL, lost events).
+     *
+     * @return number of transports in the index after reconciliation
+     */
+    public Mono<Integer> rebuildIndex() {
+        return Mono.defer(() -> {
+            long snapshotMark = transportGridIndex.snapshotMark();
+            return transportRepository.findAllAvailable()
+                    .collectList()
+                    .map(available -> transportGridIndex.reconcile(available, snapshotMark));
+        });
+    }
+}
@@ -0,0 +1,140 @@
+package org.scoooting.transport.application.usecase;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.adapters.interfaces.dto.LiveMapEventDTO;
+import org.scoooting.transport.adapters.interfaces.dto.LiveMapEventDTO.EventType;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportStatus;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.scoooting.transport.domain.repositories.TransportStatusRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class TransportLiveMapUseCase {
+
+    // marks the end of the initial snapshot in the merged stream
+    private static final Update SNAPSHOT_DONE = new Update(null, false);
+
+    private static final double KM_PER_DEGREE = 111.0;
+
+    private final TransportRepository transportRepository;
+    private final TransportStatusRepository statusRepository;
+    private final TransportChangeFeed transportChangeFeed;
+    private final int bufferSize;
+    private final double maxSpanKm;
+
+    /**
+     * Watch available transports inside a map viewport.
+     *
+     * WHY a stream instead of polling /nearest:
+     * - A poll re-runs the area query and DTO enrichment even if nothing moved
+     * - Here the area is queried once, afterwards only diffs are sent:
+     *   APPEARED (became available or entered the viewport), MOVED, DISAPPEARED
+     *
+     * HOW it works:
+     * - Subscribes to the changes of the viewport's grid cells in {@link TransportChangeFeed} first,
+     *   then loads the initial state from the database, so no change committed in between is lost
+     * - A live change always wins over the initial snapshot for the same transport; the ids of
+     *   live changes are kept only until the snapshot is complete
+     * - Every subscriber keeps the set of transports it has shown, diffs are computed against it
+     *
+     * BACKPRESSURE:
+     * - Each subscriber buffers up to bufferSize live changes in the feed
+     * - A client that falls further behind gets an error instead of a silently wrong map;
+     *   EventSource reconnects and starts over from a fresh snapshot
+     *
+     * VIEWPORT LIMIT:
+     * - A side longer than maxSpanKm is rejected (400): a country-sized viewport would stream
+     *   the whole fleet as its snapshot and get every change, and after an overflow it would
+     *   reconnect into the same full reload
+     * - A map zoomed out that far should show clusters, not single transports
+     *
+     * @param type transport type filter, null for all types
+     * @return live map events
+     */
+    public Flux<LiveMapEventDTO> watchArea(double latMin, double latMax, double lngMin, double lngMax,
+                                           TransportType type) {
+        if (latMin > latMax || lngMin > lngMax) {
+            return Flux.error(new IllegalArgumentException("Viewport minimum must not exceed its maximum"));
+        }
+        double heightKm = (latMax - latMin) * KM_PER_DEGREE;
+        double widthKm = (lngMax - lngMin) * KM_PER_DEGREE * Math.cos(Math.toRadians((latMin + latMax) / 2));
+        if (heightKm > maxSpanKm || widthKm > maxSpanKm) {
+            return Flux.error(new IllegalArgumentException(
+                    "Viewport must not exceed " + maxSpanKm + " km on a side, zoom in"));
+        }
+
+        return statusRepository.findByName(TransportStatus.AVAILABLE)
+                .map(TransportStatus::getId)
+                .flatMapMany(availableId -> {
+                    Viewport viewport = new Viewport(latMin, latMax, lngMin, lngMax, type, availableId);
+                    Set<Long> visible = new HashSet<>();
+                    Set<Long> touched = new HashSet<>();
+                    boolean[] snapshotDone = {false};
+
+                    Flux<Update> live = transportChangeFeed.changes(latMin, latMax, lngMin, lngMax, bufferSize)
+                            .map(transport -> new Update(transport, true));
+                    Flux<Update> snapshot = (type == null
+                            ? transportRepository.findAvailableInArea(latMin, latMax, lngMin, lngMax)
+                            : transportRepository.findAvailableByTypeInArea(type, latMin, latMax, lngMin, lngMax))
+                            .map(transport -> new Update(transport, false))
+                            .concatWith(Mono.just(SNAPSHOT_DONE));
+
+                    // merge subscribes in order and serializes signals, the sets need no locking
+                    return Flux.merge(live, snapshot)
+                            .<LiveMapEventDTO>handle((update, sink) -> {
+                                if (update == SNAPSHOT_DONE) {
+                                    // only snapshot rows can be older than a live change
+                                    touched.clear();
+                                    snapshotDone[0] = true;
+                                    return;
+                                }
+                                Transport transport = update.transport();
+                                if (update.live()) {
+                                    if (!snapshotDone[0]) {
+                                        touched.add(transport.getId());
+                                    }
+                                } else if (touched.contains(transport.getId())) {
+                                    return;  // live change is newer than the snapshot row
+                                }
+
+                                if (viewport.shows(transport)) {
+                                    EventType event = visible.add(transport.getId()) ? EventType.APPEARED : EventType.MOVED;
+                                    sink.next(toEvent(event, transport));
+                                } else if (visible.remove(transport.getId())) {
+                                    sink.next(toEvent(EventType.DISAPPEARED, transport));
+                                }
+                            });
+                });
+    }
+
+    private static LiveMapEventDTO toEvent(EventType event, Transport transport) {
+        return new LiveMapEventDTO(
+                event,
+                transport.getId(),
+                transport.getTransportType() == null ? null : transport.getTransportType().name(),
+                transport.getLatitude(),
+                transport.getLongitude()
+        );
+    }
+
+    private record Update(Transport transport, boolean live) {}
+
+    private record Viewport(double latMin, double latMax, double lngMin, double lngMax,
+                            TransportType type, Long availableStatusId) {
+
+        boolean shows(Transport transport) {
+            return availableStatusId.equals(transport.getStatusId())
+                    && (type == null || type == transport.getTransportType())
+                    && transport.getLatitude() != null && transport.getLongitude() != null
+                    && transport.getLatitude() >= latMin && transport.getLatitude() <= latMax
+                    && transport.getLongitude() >= lngMin && transport.getLongitude() <= lngMax;
+        }
+    }
+}
@@ -0,0 +1,54 @@
+package org.scoooting.transport.application.usecase;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.application.ports.UserClient;
+import org.scoooting.transport.application.services.TransportReadModel;
+import org.scoooting.transport.domain.model.TransportView;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import reactor.core.publisher.Mono;
+
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+
+@RequiredArgsConstructor
+public class TransportReadModelUseCase {
+
+    private final TransportRepository transportRepository;
+    private final UserClient userClient;
+    private final TransportReadModel transportReadModel;
+
+    /**
+     * Load the joined view of every transport and reconcile the read model with it.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single read-only SELECT (transports + statuses + detail tables in one scan)
+     * - City names are resolved with one bulk call for the distinct city ids
+     * - Views are reconciled per transport, concurrent live updates win over the snapshot
+     *
+     * Used for warm-up on startup and as a periodic safety net for new transports
+     * and updates that bypassed the use cases (manual SQL, lost events).
+     *
+     * @return number of transports in the read model after reconciliation
+     */
+    public Mono<Integer> rebuildReadModel() {
+        return Mono.defer(() -> {
+            long snapshotMark = transportReadModel.snapshotMark();
+            return transportRepository.findAllViews()
+                    .collectList()
+                    .flatMap(views -> resolveCityNames(views)
+                            .map(cityNames -> views.stream()
+                                    .map(view -> view.withCityName(cityNames.getOrDefault(view.cityId(), "N/A")))
+                                    .toList()))
+                    .map(views -> transportReadModel.reconcile(views, snapshotMark));
+        });
+    }
+
+    private Mono<Map<Long, String>> resolveCityNames(List<TransportView> views) {
+        Set<Long> cityIds = new HashSet<>();
+        views.stream().map(TransportView::cityId).filter(Objects::nonNull).forEach(cityIds::add);
+        return cityIds.isEmpty() ? Mono.just(Map.of()) : userClient.getCityNames(cityIds);
+    }
+}
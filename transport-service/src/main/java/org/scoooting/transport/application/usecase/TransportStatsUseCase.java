@@ -1,37 +1,82 @@
 package org.scoooting.transport.application.usecase;
 
 import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.adapters.interfaces.dto.TransportCounterDeltaDTO;
+import org.scoooting.transport.application.services.TransportCounters;
+import org.scoooting.transport.domain.model.TransportStatus;
 import org.scoooting.transport.domain.model.enums.TransportType;
 import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.scoooting.transport.domain.repositories.TransportStatusRepository;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.HashMap;
 import java.util.Map;
 
 @RequiredArgsConstructor
 public class TransportStatsUseCase {
 
     private final TransportRepository transportRepository;
+    private final TransportStatusRepository statusRepository;
+    private final TransportCounters transportCounters;
 
     /**
      * Get availability statistics for all transport types.
      *
-     * TRANSACTION IS NOT NEEDED:
-     * - Makes multiple independent COUNT(*) queries (one per transport type)
+     * Served from in-memory {@link TransportCounters} once they are loaded:
+     * - No database round trip, one LongAdder read per type
+     * - AVAILABLE status id comes from the cached status registry
+     *
+     * FALLBACK before the first reconciliation - one COUNT(*) per type.
+     * TRANSACTION IS NOT NEEDED there:
+     * - Multiple independent COUNT(*) queries (one per transport type)
      * - No data modifications
      * - No relation between queries (no consistency requirement)
      * - Each COUNT is fast and atomic
      *
-     * Transaction would only add overhead here without benefits.
-     * Each count runs in its own mini-transaction from connection pool.
-     *
      * @return Map of transport type to available count
      */
     public Mono<Map<String, Long>> getAvailabilityStats() {
-        return Flux.fromArray(TransportType.values())
-                .flatMap(type -> transportRepository.countAvailableByType(type)
-                        .map(count -> Map.entry(type.name(), count)))
-                .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+        if (!transportCounters.isReady()) {
+            return Flux.fromArray(TransportType.values())
+                    .flatMap(type -> transportRepository.countAvailableByType(type)
+                            .map(count -> Map.entry(type.name(), count)))
+                    .collectMap(Map.Entry::getKey, Map.Entry::getValue);
+        }
+        return statusRepository.findByName(TransportStatus.AVAILABLE)
+                .map(available -> {
+                    Map<String, Long> stats = new HashMap<>();
+                    for (TransportType type : TransportType.values()) {
+                        stats.put(type.name(), transportCounters.count(type, available.getId()));
+                    }
+                    return stats;
+                });
     }
 
+    /**
+     * Load per-type, per-status, per-city counts and reconcile the in-memory counters with them.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single read-only GROUP BY query
+     *
+     * @return number of (type, status, city) groups
+     */
+    public Mono<Integer> reconcileCounters() {
+        return transportRepository.countByTypeStatusCity()
+                .collectList()
+                .map(transportCounters::reconcile);
+    }
+
+    /**
+     * Live stream of counter changes for dashboards.
+     * Status ids are resolved to names through the cached status registry.
+     */
+    public Flux<TransportCounterDeltaDTO> streamCounterDeltas() {
+        return transportCounters.deltas()
+                .concatMap(delta -> statusRepository.findById(delta.statusId())
+                        .map(TransportStatus::getName)
+                        .defaultIfEmpty("UNKNOWN")
+                        .map(status -> new TransportCounterDeltaDTO(delta.type().name(), status,
+                                delta.cityId(), delta.delta(), delta.count())));
+    }
 }
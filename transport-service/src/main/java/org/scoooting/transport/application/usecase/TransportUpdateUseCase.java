@@ -1,14 +1,30 @@
 package org.scoooting.transport.application.usecase;
 
 import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.application.services.CityResolver;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.application.services.TransportCounters;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.application.services.TransportReadModel;
 import org.scoooting.transport.domain.exceptions.DataNotFoundException;
+import org.scoooting.transport.domain.exceptions.TransportConflictException;
 import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
+import org.scoooting.transport.domain.model.CityArea;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportStatus;
 import org.scoooting.transport.domain.repositories.TransportRepository;
 import org.scoooting.transport.domain.repositories.TransportStatusRepository;
 import org.scoooting.transport.adapters.interfaces.dto.UpdateCoordinatesDTO;
 import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
 import org.springframework.transaction.reactive.TransactionalOperator;
 import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
 
 @RequiredArgsConstructor
 public class TransportUpdateUseCase {
@@ -17,62 +33,163 @@ public class TransportUpdateUseCase {
     private final TransportStatusRepository statusRepository;
     private final TransactionalOperator transactionalOperator;
     private final ToResponseDto toResponseDto;
+    private final TransportGridIndex transportGridIndex;
+    private final TransportCounters transportCounters;
+    private final TransportChangeFeed transportChangeFeed;
+    private final TransportReadModel transportReadModel;
+    private final CityResolver cityResolver;
+
+    /** Lost compare-and-set races of an unconditional update before giving up */
+    private static final int MAX_CAS_RETRIES = 3;
 
     /**
-     * Update transport status (e.g., AVAILABLE → IN_USE).
-     *
-     * TRANSACTION IS CRITICAL:
-     * - 3 queries: SELECT transport + SELECT status + UPDATE transport
-     * - Without transaction: race condition between SELECT and UPDATE
-     *   Example: Two users try to rent same transport simultaneously
-     *   Thread 1: SELECT transport (status=AVAILABLE)
-     *   Thread 2: SELECT transport (status=AVAILABLE) ← BOTH see AVAILABLE
-     *   Thread 1: UPDATE status=IN_USE
-     *   Thread 2: UPDATE status=IN_USE ← CONFLICT! Lost update!
-     * - With transaction: database-level locking prevents concurrent modifications
-     *
-     * HOW TransactionalOperator works:
-     * - Wraps entire chain in BEGIN/COMMIT
-     * - Database applies row-level locks during SELECT FOR UPDATE (implicit in transaction)
-     * - Other transactions WAIT until first transaction commits
-     * - Ensures atomicity: all 3 queries succeed or all rollback
+     * Update transport status (e.g., AVAILABLE → IN_USE), whatever the current status is.
+     *
+     * TRANSACTION NOT NEEDED (compare-and-set instead):
+     * - A transaction does not prevent the lost update here: under READ COMMITTED
+     *   two requests both SELECT status=AVAILABLE and both UPDATE, the second silently wins
+     * - Instead the UPDATE is conditional on the status that was read:
+     *   UPDATE ... SET status_id = :new WHERE id = :id AND status_id = :read
+     * - If another writer got in between, no row is updated; the transport is read again
+     *   and the change retried (up to MAX_CAS_RETRIES times), so the previous status
+     *   passed on to the counters is always the one actually replaced
+     * - Statuses are cached in process, so this is SELECT transport + one UPDATE, no lock wait
+     *
+     * The search index is updated only after the UPDATE: AVAILABLE puts the transport
+     * into TransportGridIndex, any other status removes it. TransportCounters move
+     * the transport from its previous status to the new one at the same point, and the
+     * change is published to live map subscribers. TransportReadModel is updated before
+     * the response is rendered, so the response is rendered from the fresh view.
+     *
+     * The city is re-resolved from the current coordinates (see {@link #assignCity}):
+     * rentals start and end through this method, so a transport that was ridden
+     * into another city is counted and rendered there.
      *
      * @param transportId ID of transport to update
      * @param statusName new status name (AVAILABLE, IN_USE, MAINTENANCE)
      * @return updated transport DTO
      * @throws TransportNotFoundException if transport doesn't exist
      * @throws DataNotFoundException if status doesn't exist
+     * @throws TransportConflictException if the status kept changing concurrently
+     * @throws IllegalArgumentException for RESERVED, see ReservationUseCase
      */
     public Mono<TransportResponseDTO> updateTransportStatus(Long transportId, String statusName) {
-        return transportRepository.findById(transportId)
-                .switchIfEmpty(Mono.error(new TransportNotFoundException("Transport not found")))
-                .flatMap(transport -> statusRepository.findByName(statusName)
-                        .switchIfEmpty(Mono.error(new DataNotFoundException("Status not found")))
-                        .flatMap(status -> {
-                            transport.setStatusId(status.getId());
-                            return transportRepository.save(transport);
-                        }))
-                .as(transactionalOperator::transactional)
+        if (TransportStatus.RESERVED.equals(statusName)) {
+            return Mono.error(reservedNotAllowed());
+        }
+        return statusRepository.findByName(statusName)
+                .switchIfEmpty(Mono.error(new DataNotFoundException("Status not found")))
+                .flatMap(status -> Mono.defer(() -> transportRepository.findById(transportId))
+                        .switchIfEmpty(Mono.error(new TransportNotFoundException("Transport not found")))
+                        .flatMap(transport -> {
+                            Long previousStatusId = transport.getStatusId();
+                            Long previousCityId = transport.getCityId();
+                            Optional<CityArea> city = assignCity(transport);
+                            return transportRepository.compareAndSetStatus(transportId, previousStatusId,
+                                            status.getId(), city.map(CityArea::id).orElse(null))
+                                    .switchIfEmpty(Mono.error(new TransportConflictException(
+                                            "Status of transport " + transportId + " changed concurrently")))
+                                    .map(saved -> new TransportChange(saved, previousStatusId, previousCityId,
+                                            city.orElse(null)));
+                        })
+                        .retryWhen(Retry.max(MAX_CAS_RETRIES)
+                                .filter(TransportConflictException.class::isInstance)
+                                .onRetryExhaustedThrow((spec, signal) -> signal.failure())))
+                .doOnNext(change -> applyStatusChange(change, statusName))
+                .map(TransportChange::transport)
                 .flatMap(toResponseDto::execute);
     }
 
+    /**
+     * Reserve an AVAILABLE transport for a rental: AVAILABLE → IN_USE, or fail.
+     *
+     * Called by rental-service before it creates the rental. Of two users renting
+     * the same scooter exactly one gets it, the other gets a conflict right away.
+     *
+     * @throws TransportNotFoundException if transport doesn't exist
+     * @throws TransportConflictException if the transport is not AVAILABLE
+     */
+    public Mono<TransportResponseDTO> acquireTransport(Long transportId) {
+        return transitionStatus(transportId, TransportStatus.AVAILABLE, TransportStatus.IN_USE);
+    }
+
+    /**
+     * Change the status only if it is expectedStatusName now.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single conditional UPDATE, one round trip (statuses are cached in process)
+     * - Fails fast instead of waiting for a lock: a concurrent winner makes the WHERE false
+     * - The transport is read only on failure, to tell "not found" from "conflict"
+     *
+     * The city is not re-resolved: the coordinates are not read on this path.
+     *
+     * @throws TransportNotFoundException if transport doesn't exist
+     * @throws DataNotFoundException if a status doesn't exist
+     * @throws TransportConflictException if the current status is not expectedStatusName
+     * @throws IllegalArgumentException for RESERVED, see ReservationUseCase
+     */
+    public Mono<TransportResponseDTO> transitionStatus(Long transportId, String expectedStatusName,
+                                                       String statusName) {
+        if (TransportStatus.RESERVED.equals(statusName)) {
+            return Mono.error(reservedNotAllowed());
+        }
+        return Mono.zip(
+                        statusRepository.findByName(expectedStatusName)
+                                .switchIfEmpty(Mono.error(new DataNotFoundException("Status not found"))),
+                        statusRepository.findByName(statusName)
+                                .switchIfEmpty(Mono.error(new DataNotFoundException("Status not found"))))
+                .flatMap(statuses -> transportRepository.compareAndSetStatus(transportId,
+                                statuses.getT1().getId(), statuses.getT2().getId(), null)
+                        .map(saved -> new TransportChange(saved, statuses.getT1().getId(), saved.getCityId(), null))
+                        .switchIfEmpty(Mono.defer(() -> transportRepository.findById(transportId)
+                                .switchIfEmpty(Mono.error(new TransportNotFoundException("Transport not found")))
+                                .flatMap(current -> Mono.<TransportChange>error(new TransportConflictException(
+                                        "Transport " + transportId + " is not " + expectedStatusName))))))
+                .doOnNext(change -> applyStatusChange(change, statusName))
+                .map(TransportChange::transport)
+                .flatMap(toResponseDto::execute);
+    }
+
+    /**
+     * Propagate a status change made by another use case (index, counters, read model, live map),
+     * the city is unchanged. Used by ReservationUseCase, whose UPDATEs also touch the holder.
+     */
+    public void statusChanged(Transport saved, Long previousStatusId, String statusName) {
+        applyStatusChange(new TransportChange(saved, previousStatusId, saved.getCityId(), null), statusName);
+    }
+
+    /**
+     * A hold needs a holder and an expiry, which only ReservationUseCase sets.
+     */
+    private static IllegalArgumentException reservedNotAllowed() {
+        return new IllegalArgumentException("Transports are reserved through the reservation endpoints");
+    }
+
+    private void applyStatusChange(TransportChange change, String statusName) {
+        Transport saved = change.transport();
+        if (TransportStatus.AVAILABLE.equals(statusName)) {
+            transportGridIndex.put(saved);
+        } else {
+            transportGridIndex.remove(saved.getId());
+        }
+        transportCounters.changed(saved, change.previousStatusId(), change.previousCityId());
+        transportReadModel.statusChanged(saved, statusName);
+        applyCityChange(change);
+        transportChangeFeed.publish(saved);
+    }
+
     /**
      * Update transport GPS coordinates.
      *
-     * TRANSACTION IS CRITICAL:
-     * - 2 queries: SELECT transport + UPDATE coordinates
-     * - Without transaction: race condition between SELECT and UPDATE
-     *   Example: GPS update conflict
-     *   Thread 1: SELECT transport (coords: 50.0, 30.0)
-     *   Thread 2: SELECT transport (coords: 50.0, 30.0)
-     *   Thread 1: UPDATE coords to (50.1, 30.1)
-     *   Thread 2: UPDATE coords to (50.2, 30.2) ← Overwrites Thread 1!
-     * - With transaction: database locks the row during UPDATE
-     *
-     * WHY TransactionalOperator is needed:
-     * - Ensures atomicity: if validation fails after SELECT, no UPDATE happens
-     * - Provides isolation: other transactions see old coords until commit
-     * - Prevents lost updates through database-level locking
+     * TRANSACTION NOT NEEDED (column-scoped compare-and-set instead):
+     * - The UPDATE writes latitude, longitude and city_id only, never the whole row:
+     *   saving the entity read before would write its status back and revert
+     *   an acquire or a reservation made in between
+     * - city_id is resolved from the new coordinates in memory by CityResolver; the UPDATE
+     *   is conditional on the city that was read, so the previous city passed on to the
+     *   counters is the one actually replaced. A lost race is retried like in
+     *   {@link #updateTransportStatus}
+     * - Concurrent GPS updates of one transport: the last UPDATE wins, which is what a position is
      *
      * Returns updated DTO instead of 204 No Content for better client experience:
      * - Client can immediately see result without additional GET request
@@ -82,6 +199,7 @@ public class TransportUpdateUseCase {
      * @param dto coordinates update request with validation
      * @return updated transport with new coordinates
      * @throws TransportNotFoundException if transport doesn't exist
+     * @throws TransportConflictException if the city kept changing concurrently
      * @throws IllegalArgumentException if coordinates are invalid
      */
     public Mono<TransportResponseDTO> updateCoordinates(UpdateCoordinatesDTO dto) {
@@ -96,17 +214,112 @@ public class TransportUpdateUseCase {
             ));
         }
 
-        return transportRepository.findById(dto.transportId())
+        return Mono.defer(() -> transportRepository.findById(dto.transportId()))
                 .switchIfEmpty(Mono.error(
                         new TransportNotFoundException("Transport with id " + dto.transportId() + " not found")
                 ))
                 .flatMap(transport -> {
+                    Long previousCityId = transport.getCityId();
                     transport.setLatitude(dto.latitude());
                     transport.setLongitude(dto.longitude());
-                    return transportRepository.save(transport);
+                    Optional<CityArea> city = assignCity(transport);
+                    return transportRepository.updateCoordinates(dto.transportId(), dto.latitude(),
+                                    dto.longitude(), previousCityId, city.map(CityArea::id).orElse(null))
+                            .switchIfEmpty(Mono.error(new TransportConflictException(
+                                    "City of transport " + dto.transportId() + " changed concurrently")))
+                            // status untouched: the counters move the transport between cities only
+                            .map(saved -> new TransportChange(saved, saved.getStatusId(), previousCityId,
+                                    city.orElse(null)));
                 })
-                .as(transactionalOperator::transactional)  // ← Atomic: SELECT + UPDATE
+                .retryWhen(Retry.max(MAX_CAS_RETRIES)
+                        .filter(TransportConflictException.class::isInstance)
+                        .onRetryExhaustedThrow((spec, signal) -> signal.failure()))
+                .doOnNext(change -> {
+                    Transport saved = change.transport();
+                    transportGridIndex.move(saved);  // only if indexed
+                    transportCounters.changed(saved, change.previousStatusId(), change.previousCityId());
+                    transportReadModel.moved(saved);
+                    applyCityChange(change);
+                    transportChangeFeed.publish(saved);
+                })
+                .map(TransportChange::transport)
                 .flatMap(toResponseDto::execute);  // return updated obj
     }
 
+    /**
+     * Apply a burst of GPS updates (e.g. one Kafka poll) at once.
+     *
+     * COALESCING:
+     * - Updates are expected in arrival order; only the latest one per transport is applied
+     * - Updates with coordinates out of range are dropped
+     *
+     * WHY one multi-row UPDATE:
+     * - Per-update path costs SELECT + UPDATE + commit for every GPS ping
+     * - Here the whole batch is a single statement in one transaction
+     * - No read-modify-write, so no lost update window either
+     *
+     * The search index and the read model are moved and live map subscribers are notified
+     * after commit, like in {@link #updateCoordinates}.
+     *
+     * @param updates coordinate updates in arrival order
+     * @return number of transports actually updated
+     */
+    public Mono<Integer> updateCoordinatesBatch(List<UpdateCoordinatesDTO> updates) {
+        Map<Long, Transport> latest = new LinkedHashMap<>();
+        for (UpdateCoordinatesDTO dto : updates) {
+            if (isValid(dto)) {
+                latest.put(dto.transportId(), Transport.builder()
+                        .id(dto.transportId())
+                        .latitude(dto.latitude())
+                        .longitude(dto.longitude())
+                        .build());
+            }
+        }
+        if (latest.isEmpty()) {
+            return Mono.just(0);
+        }
+
+        return transportRepository.updateCoordinatesBatch(latest.values())
+                .collectList()
+                .as(transactionalOperator::transactional)
+                .doOnNext(moved -> moved.forEach(transport -> {
+                    transportGridIndex.move(transport);
+                    transportReadModel.moved(transport);
+                    transportChangeFeed.publish(transport);
+                }))
+                .map(List::size);
+    }
+
+    private static boolean isValid(UpdateCoordinatesDTO dto) {
+        return dto.transportId() != null
+                && dto.latitude() != null && dto.latitude() >= -90 && dto.latitude() <= 90
+                && dto.longitude() != null && dto.longitude() >= -180 && dto.longitude() <= 180;
+    }
+
+    /**
+     * Set city_id from the current coordinates. The assignment is kept while the cities
+     * are not loaded yet or when the transport is outside every city.
+     *
+     * @return resolved city, empty if the assignment was kept
+     */
+    private Optional<CityArea> assignCity(Transport transport) {
+        if (!cityResolver.isReady() || transport.getLatitude() == null || transport.getLongitude() == null) {
+            return Optional.empty();
+        }
+        Optional<CityArea> city = cityResolver.resolve(transport.getLatitude(), transport.getLongitude());
+        city.ifPresent(resolved -> transport.setCityId(resolved.id()));
+        return city;
+    }
+
+    private void applyCityChange(TransportChange change) {
+        if (change.city() != null && !Objects.equals(change.previousCityId(), change.city().id())) {
+            transportReadModel.cityChanged(change.transport().getId(), change.city().id(), change.city().name());
+        }
+    }
+
+    /**
+     * @param city city resolved for the new state, null if the assignment was kept
+     */
+    private record TransportChange(Transport transport, Long previousStatusId, Long previousCityId, CityArea city) {}
+
 }
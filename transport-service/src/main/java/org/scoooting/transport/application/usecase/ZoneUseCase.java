@@ -0,0 +1,111 @@
+package org.scoooting.transport.application.usecase;
+
+import lombok.RequiredArgsConstructor;
+import org.scoooting.transport.adapters.interfaces.dto.CreateZoneRequestDTO;
+import org.scoooting.transport.adapters.interfaces.dto.ZoneCheckDTO;
+import org.scoooting.transport.adapters.interfaces.dto.ZoneDTO;
+import org.scoooting.transport.application.services.ZoneIndex;
+import org.scoooting.transport.domain.exceptions.DataNotFoundException;
+import org.scoooting.transport.domain.model.Zone;
+import org.scoooting.transport.domain.model.ZoneCheck;
+import org.scoooting.transport.domain.model.enums.ZoneType;
+import org.scoooting.transport.domain.repositories.ZoneRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.stream.IntStream;
+
+@RequiredArgsConstructor
+public class ZoneUseCase {
+
+    private final ZoneRepository zoneRepository;
+    private final ZoneIndex zoneIndex;
+
+    /**
+     * Load all zones from the database and swap them into the index.
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Single read-only SELECT
+     * - The index is replaced as a whole, lookups see either the old or the new set
+     *
+     * Used for warm-up, after every edit and periodically, so edits made on another
+     * instance (or by SQL) are picked up without a restart.
+     *
+     * @return number of loaded zones
+     */
+    public Mono<Integer> reloadZones() {
+        return zoneRepository.findAll()
+                .collectList()
+                .map(zoneIndex::load);
+    }
+
+    /**
+     * Evaluate a point against the zones. Served from memory, no database access.
+     */
+    public ZoneCheckDTO check(double lat, double lng) {
+        ZoneCheck check = zoneIndex.check(lat, lng);
+        EnumSet<ZoneType> types = EnumSet.noneOf(ZoneType.class);
+        List<String> names = new ArrayList<>();
+        for (Zone zone : check.zones()) {
+            types.add(zone.type());
+            names.add(zone.name());
+        }
+        return new ZoneCheckDTO(check.parkingAllowed(), check.speedLimitKmh(), names, types);
+    }
+
+    public Flux<ZoneDTO> getZones() {
+        return Flux.fromIterable(zoneIndex.zones()).map(ZoneUseCase::toDto);
+    }
+
+    /**
+     * TRANSACTION NOT NEEDED:
+     * - Single INSERT, the index is reloaded after it
+     *
+     * @throws IllegalArgumentException if the polygon is invalid or a SLOW zone has no speed limit
+     */
+    public Mono<ZoneDTO> createZone(CreateZoneRequestDTO request) {
+        return Mono.fromCallable(() -> toZone(request))
+                .flatMap(zoneRepository::save)
+                .flatMap(saved -> reloadZones().thenReturn(saved))
+                .map(ZoneUseCase::toDto);
+    }
+
+    /**
+     * @throws DataNotFoundException if the zone doesn't exist
+     */
+    public Mono<Void> deleteZone(Long zoneId) {
+        return zoneRepository.deleteById(zoneId)
+                .flatMap(deleted -> deleted
+                        ? reloadZones().then()
+                        : Mono.error(new DataNotFoundException("Zone not found")));
+    }
+
+    private static Zone toZone(CreateZoneRequestDTO request) {
+        if (request.type() == ZoneType.SLOW && request.speedLimitKmh() == null) {
+            throw new IllegalArgumentException("Speed limit is required for SLOW zones");
+        }
+        int size = request.polygon().size();
+        double[] latitudes = new double[size];
+        double[] longitudes = new double[size];
+        for (int i = 0; i < size; i++) {
+            List<Double> vertex = request.polygon().get(i);
+            latitudes[i] = vertex.get(0);
+            longitudes[i] = vertex.get(1);
+            if (latitudes[i] < -90 || latitudes[i] > 90 || longitudes[i] < -180 || longitudes[i] > 180) {
+                throw new IllegalArgumentException("Vertex " + i + " is out of range: " + vertex);
+            }
+        }
+        Integer speedLimit = request.type() == ZoneType.SLOW ? request.speedLimitKmh() : null;
+        return new Zone(null, request.name(), request.type(), speedLimit, latitudes, longitudes);
+    }
+
+    private static ZoneDTO toDto(Zone zone) {
+        List<List<Double>> polygon = IntStream.range(0, zone.latitudes().length)
+                .mapToObj(i -> List.of(zone.latitudes()[i], zone.longitudes()[i]))
+                .toList();
+        return new ZoneDTO(zone.id(), zone.name(), zone.type(), zone.speedLimitKmh(), polygon);
+    }
+}
@@ -0,0 +1,10 @@
+package org.scoooting.transport.domain.exceptions;
+
+/**
+ * Transport is not in the state the caller expected (e.g. someone else rented it first).
+ */
+public class TransportConflictException extends RuntimeException {
+    public TransportConflictException(String message) {
+        super(message);
+    }
+}
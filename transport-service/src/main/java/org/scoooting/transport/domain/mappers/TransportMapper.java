@@ -4,6 +4,7 @@ import org.mapstruct.Mapper;
 import org.mapstruct.Mapping;
 import org.mapstruct.ReportingPolicy;
 import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportView;
 import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
 
 @Mapper(componentModel = "spring", unmappedTargetPolicy = ReportingPolicy.IGNORE)
@@ -14,9 +15,14 @@ public interface TransportMapper {
     @Mapping(target = "type", source = "transport.transportType")
     @Mapping(target = "status", source = "statusName")
     @Mapping(target = "cityName", source = "cityName")
+    @Mapping(target = "energyLevel", source = "transport.chargeLevel")
     TransportResponseDTO toResponseDTO(
             Transport transport,
             String statusName,
             String cityName
     );
-}
\ No newline at end of file
+
+    @Mapping(target = "type", source = "transportType")
+    @Mapping(target = "status", source = "statusName")
+    TransportResponseDTO toResponseDTO(TransportView view);
+}
@@ -0,0 +1,6 @@
+package org.scoooting.transport.domain.model;
+
+/**
+ * City with its circular boundary, as defined in user-service.
+ */
+public record CityArea(Long id, String name, double centerLatitude, double centerLongitude, double radiusKm) {}
@@ -0,0 +1,11 @@
+package org.scoooting.transport.domain.model;
+
+import java.time.Instant;
+
+/**
+ * Hold of a RESERVED transport.
+ *
+ * @param userId holder
+ * @param expiresAt the transport becomes AVAILABLE again at this time unless the holder rents it
+ */
+public record Reservation(Long transportId, Long userId, Instant expiresAt) {}
@@ -0,0 +1,17 @@
+package org.scoooting.transport.domain.model;
+
+import java.time.Instant;
+
+/**
+ * One position/battery report of a vehicle.
+ *
+ * @param battery battery (fuel) level in percent, null if the sample carries only a position
+ * @param reportedAt device time of the measurement, used to order samples (last writer wins)
+ */
+public record TelemetrySample(long transportId, double latitude, double longitude, Integer battery,
+                              Instant reportedAt) {
+
+    public boolean isNewerThan(TelemetrySample other) {
+        return reportedAt.isAfter(other.reportedAt());
+    }
+}
@@ -6,6 +6,8 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import org.scoooting.transport.domain.model.enums.TransportType;
 
+import java.math.BigDecimal;
+
 @Data
 @Builder
 @AllArgsConstructor
@@ -23,4 +25,7 @@ public class Transport {
     private Double latitude;
 
     private Double longitude;
+
+    // battery or fuel level, percent
+    private BigDecimal chargeLevel;
 }
\ No newline at end of file
@@ -0,0 +1,8 @@
+package org.scoooting.transport.domain.model;
+
+import org.scoooting.transport.domain.model.enums.TransportType;
+
+/**
+ * Number of transports with the same type, status and city.
+ */
+public record TransportCount(TransportType type, Long statusId, Long cityId, long count) {}
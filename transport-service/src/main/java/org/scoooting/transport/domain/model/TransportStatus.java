@@ -7,7 +7,11 @@ import lombok.Data;
 @AllArgsConstructor
 public class TransportStatus {
 
+    public static final String AVAILABLE = "AVAILABLE";
+    public static final String IN_USE = "IN_USE";
+    public static final String RESERVED = "RESERVED";
+
     private Long id;
 
-    private String name; // "AVAILABLE", "IN_USE", "UNAVAILABLE"
+    private String name; // "AVAILABLE", "IN_USE", "RESERVED", "UNAVAILABLE"
 }
@@ -0,0 +1,47 @@
+package org.scoooting.transport.domain.model;
+
+import org.scoooting.transport.domain.model.enums.TransportType;
+
+import java.math.BigDecimal;
+
+/**
+ * Transport already joined with everything needed to render it:
+ * status name, city name and energy level (battery, or fuel for gas motorcycles) from its detail table.
+ */
+public record TransportView(
+        Long id,
+        TransportType transportType,
+        Long statusId,
+        String statusName,
+        Long cityId,
+        String cityName,
+        Double latitude,
+        Double longitude,
+        BigDecimal energyLevel
+) {
+
+    public TransportView withStatus(Long statusId, String statusName) {
+        return new TransportView(id, transportType, statusId, statusName, cityId, cityName,
+                latitude, longitude, energyLevel);
+    }
+
+    public TransportView withPosition(Double latitude, Double longitude) {
+        return new TransportView(id, transportType, statusId, statusName, cityId, cityName,
+                latitude, longitude, energyLevel);
+    }
+
+    public TransportView withCity(Long cityId, String cityName) {
+        return new TransportView(id, transportType, statusId, statusName, cityId, cityName,
+                latitude, longitude, energyLevel);
+    }
+
+    public TransportView withCityName(String cityName) {
+        return new TransportView(id, transportType, statusId, statusName, cityId, cityName,
+                latitude, longitude, energyLevel);
+    }
+
+    public TransportView withEnergyLevel(BigDecimal energyLevel) {
+        return new TransportView(id, transportType, statusId, statusName, cityId, cityName,
+                latitude, longitude, energyLevel);
+    }
+}
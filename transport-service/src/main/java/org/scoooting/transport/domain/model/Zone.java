@@ -0,0 +1,32 @@
+package org.scoooting.transport.domain.model;
+
+import org.scoooting.transport.domain.model.enums.ZoneType;
+
+/**
+ * Geofence polygon. Vertices are given as parallel arrays, the ring is closed implicitly.
+ *
+ * @param speedLimitKmh speed limit of SLOW zones, null for other types
+ */
+public record Zone(Long id, String name, ZoneType type, Integer speedLimitKmh,
+                   double[] latitudes, double[] longitudes) {
+
+    /**
+     * Point-in-polygon by ray casting (even-odd rule). Planar in degrees,
+     * which is exact enough for city-sized polygons.
+     */
+    public boolean contains(double lat, double lng) {
+        boolean inside = false;
+        int n = latitudes.length;
+        for (int i = 0, j = n - 1; i < n; j = i++) {
+            double latI = latitudes[i];
+            double latJ = latitudes[j];
+            if ((latI > lat) != (latJ > lat)) {
+                double crossLng = longitudes[i] + (lat - latI) * (longitudes[j] - longitudes[i]) / (latJ - latI);
+                if (lng < crossLng) {
+                    inside = !inside;
+                }
+            }
+        }
+        return inside;
+    }
+}
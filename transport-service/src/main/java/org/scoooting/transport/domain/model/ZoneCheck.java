@@ -0,0 +1,18 @@
+package org.scoooting.transport.domain.model;
+
+import org.scoooting.transport.domain.model.enums.ZoneType;
+
+import java.util.List;
+
+/**
+ * Result of evaluating a point against all zones.
+ *
+ * @param zones zones that contain the point
+ * @param speedLimitKmh lowest limit of the SLOW zones that contain the point, null if none
+ */
+public record ZoneCheck(List<Zone> zones, boolean parkingAllowed, Integer speedLimitKmh) {
+
+    public boolean isIn(ZoneType type) {
+        return zones.stream().anyMatch(zone -> zone.type() == type);
+    }
+}
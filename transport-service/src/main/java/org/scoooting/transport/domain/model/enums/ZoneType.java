@@ -0,0 +1,8 @@
+package org.scoooting.transport.domain.model.enums;
+
+public enum ZoneType {
+    PARKING,         // rentals may end here (required when transport.zones.parking-required is on)
+    NO_PARKING,      // rentals may not end here
+    SLOW,            // speed limit applies
+    OUT_OF_SERVICE   // outside the service area: no parking, telemetry from here is reported
+}
@@ -1,23 +1,137 @@
 package org.scoooting.transport.domain.repositories;
 
+import org.scoooting.transport.domain.model.Reservation;
+import org.scoooting.transport.domain.model.TelemetrySample;
 import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportCount;
+import org.scoooting.transport.domain.model.TransportView;
 import org.scoooting.transport.domain.model.enums.TransportType;
 import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.math.BigDecimal;
+import java.time.Instant;
+import java.util.Collection;
+
 public interface TransportRepository {
 
     Mono<Transport> findById(Long id);
 
     Mono<Transport> save(Transport transport);
 
+    /**
+     * Change the status only if it is still expectedStatusId (compare-and-set), in one statement.
+     * A reservation of the transport, if any, ends with it.
+     *
+     * @param cityId new city, null keeps the current one
+     * @return updated transport, empty if the transport doesn't exist or its status has changed
+     */
+    Mono<Transport> compareAndSetStatus(Long transportId, Long expectedStatusId, Long newStatusId, Long cityId);
+
+    /**
+     * Move one transport. Only latitude, longitude and city_id are written, so a status change
+     * made meanwhile is never reverted. The UPDATE is conditional on the city that was read,
+     * like {@link #compareAndSetStatus} is on the status.
+     *
+     * @param cityId new city, null keeps the current one
+     * @return updated transport, empty if the transport doesn't exist or its city has changed
+     */
+    Mono<Transport> updateCoordinates(Long transportId, Double latitude, Double longitude, Long expectedCityId,
+                                      Long cityId);
+
+    /**
+     * Hold an available transport for a user (compare-and-set, like {@link #compareAndSetStatus}).
+     *
+     * @return reserved transport, empty if the transport doesn't exist or is not available
+     * @throws org.springframework.dao.DuplicateKeyException if the user already holds another transport
+     */
+    Mono<Transport> reserve(Long transportId, Long availableStatusId, Long reservedStatusId, Long userId,
+                            Instant reservedUntil);
+
+    /**
+     * End a reservation: switch a RESERVED transport to newStatusId and clear the holder.
+     *
+     * @param userId only if held by this user, null for any holder
+     * @param expiredAt only if the hold ended at or before this time, null for any expiry
+     * @return updated transport, empty if there was no such reservation
+     */
+    Mono<Transport> endReservation(Long transportId, Long reservedStatusId, Long newStatusId, Long userId,
+                                   Instant expiredAt);
+
+    /**
+     * All current reservations, expired ones included.
+     */
+    Flux<Reservation> findReservations();
+
+    /**
+     * Move many transports in one statement.
+     * Only id, latitude and longitude of the given transports are used.
+     *
+     * @return updated transports (ids that don't exist are skipped)
+     */
+    Flux<Transport> updateCoordinatesBatch(Collection<Transport> positions);
+
+    /**
+     * Apply telemetry samples, at most one per transport.
+     * A sample is skipped if the transport already has a sample with the same or a later device time;
+     * battery levels are stored only for applied samples.
+     *
+     * @return transports whose position was updated
+     */
+    Flux<Transport> applyTelemetry(Collection<TelemetrySample> samples);
+
     Flux<Transport> findAvailableInArea(Double latMin, Double latMax, Double lngMin, Double lngMax);
 
     Flux<Transport> findAvailableByTypeInArea(
             TransportType type, Double latMin, Double latMax, Double lngMin, Double lngMax
     );
 
+    /**
+     * Available transports within radiusKm of a point, nearest first.
+     *
+     * @param type transport type filter, null for all types
+     * @param minCharge minimum battery/fuel level in percent, 0 for no filter
+     *                  (transports with unknown level only pass 0)
+     * @param limit maximum number of transports
+     */
+    Flux<Transport> findAvailableNearby(double lat, double lng, double radiusKm, TransportType type,
+                                        double minCharge, int limit);
+
     Flux<Transport> findAvailableByType(TransportType type);
 
+    /**
+     * Keyset page of available transports of a type, ordered by id.
+     *
+     * @param afterId id of the last transport already seen, 0 for the first page
+     * @param limit maximum number of transports
+     */
+    Flux<Transport> findAvailableByTypeAfter(TransportType type, long afterId, int limit);
+
+    /**
+     * OFFSET page of available transports of a type, in the same id order as {@link #findAvailableByTypeAfter}.
+     *
+     * @param offset number of transports to skip
+     * @param limit maximum number of transports
+     */
+    Flux<Transport> findAvailableByTypePage(TransportType type, long offset, int limit);
+
+    Flux<Transport> findAllAvailable();
+
     Mono<Long> countAvailableByType(TransportType type);
+
+    /**
+     * Count all transports grouped by type, status and city.
+     */
+    Flux<TransportCount> countByTypeStatusCity();
+
+    /**
+     * All transports joined with their status name, energy level is the cached charge_level.
+     * City names live in user-service, so cityName of the returned views is null.
+     */
+    Flux<TransportView> findAllViews();
+
+    /**
+     * Store the latest battery (fuel for gas motorcycles) level reported by a transport.
+     */
+    Mono<Void> updateEnergyLevel(Long transportId, BigDecimal energyLevel);
 }
@@ -1,10 +1,19 @@
 package org.scoooting.transport.domain.repositories;
 
 import org.scoooting.transport.domain.model.TransportStatus;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.util.Collection;
+
 public interface TransportStatusRepository {
     Mono<TransportStatus> findById(Long id);
+    Flux<TransportStatus> findAllById(Collection<Long> ids);
     Mono<TransportStatus> findByName(String name);
     Mono<TransportStatus> save(TransportStatus transportStatus);
+
+    /**
+     * Reload reference data (statuses are cached in process).
+     */
+    Mono<Void> refresh();
 }
@@ -0,0 +1,17 @@
+package org.scoooting.transport.domain.repositories;
+
+import org.scoooting.transport.domain.model.Zone;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+public interface ZoneRepository {
+
+    Flux<Zone> findAll();
+
+    Mono<Zone> save(Zone zone);
+
+    /**
+     * @return false if there was no zone with this id
+     */
+    Mono<Boolean> deleteById(Long id);
+}
@@ -0,0 +1,13 @@
+-- Geofences, evaluated in memory by ZoneIndex and reloaded from here periodically.
+-- A polygon is stored as two parallel arrays of vertex coordinates, the ring is closed implicitly.
+create table zones (
+    id bigserial primary key,
+    name varchar(100) not null,
+    zone_type varchar(30) not null,     -- PARKING, NO_PARKING, SLOW, OUT_OF_SERVICE
+    speed_limit_kmh integer,            -- SLOW zones only
+    latitudes double precision[] not null,
+    longitudes double precision[] not null,
+    updated_at timestamp with time zone not null default now(),
+    constraint zones_polygon_check
+        check (cardinality(latitudes) >= 3 and cardinality(latitudes) = cardinality(longitudes))
+);
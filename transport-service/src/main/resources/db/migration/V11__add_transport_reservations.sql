@@ -0,0 +1,9 @@
+-- Short holds of a transport by a rider walking to it, before the rental starts.
+-- Expiry is driven in memory by ReservationTimer; these columns let it be rebuilt after a restart.
+insert into transport_statuses (name) values ('RESERVED') on conflict (name) do nothing;
+
+alter table transports add column reserved_by bigint;                       -- user id of the holder
+alter table transports add column reserved_until timestamp with time zone;
+
+-- One hold per rider at a time
+create unique index uq_transports_reserved_by on transports (reserved_by) where reserved_by is not null;
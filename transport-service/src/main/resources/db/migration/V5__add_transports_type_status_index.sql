@@ -0,0 +1,3 @@
+-- Keyset scroll over available transports of a type: equality on (transport_type, status_id),
+-- then an id range in index order, so any page reads only size + 1 index entries
+create index idx_transports_type_status_id on transports (transport_type, status_id, id);
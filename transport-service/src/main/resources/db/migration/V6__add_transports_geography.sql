@@ -0,0 +1,17 @@
+-- Optional PostGIS spatial path (transport.spatial.backend=postgis).
+-- Skipped on servers without the postgis extension, the default B-tree path keeps working there.
+--
+-- geog is a generated column, so every write to latitude/longitude keeps it in sync
+-- without any change on the application side.
+do $$
+    begin
+        if exists (select 1 from pg_available_extensions where name = 'postgis') then
+            execute 'create extension if not exists postgis';
+            execute 'alter table transports add column if not exists geog geography(Point, 4326)
+                         generated always as (ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)::geography) stored';
+            execute 'create index if not exists idx_transports_geog on transports using gist (geog)';
+        else
+            raise notice 'postgis extension is not available, transports.geog is not created';
+        end if;
+    end;
+$$;
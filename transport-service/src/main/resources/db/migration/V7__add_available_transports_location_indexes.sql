@@ -0,0 +1,12 @@
+-- Hot read paths: every search filters on the AVAILABLE status, optionally a type, and a lat/lng box.
+--
+-- The queries resolve the status as status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE'),
+-- which the planner evaluates as an InitPlan at execution time. A partial index
+-- (... WHERE status_id = 1) can't be proven to match such a predicate, so the status goes
+-- into the key instead: the InitPlan value becomes the leading index condition.
+--
+-- (status_id, transport_type, latitude, longitude): available-by-type area search,
+--   equality on the first two columns, then a latitude range; longitude is checked inside the index
+-- (status_id, latitude, longitude): the same for the all-types area search and the /available listing
+create index idx_transports_status_type_location on transports (status_id, transport_type, latitude, longitude);
+create index idx_transports_status_location on transports (status_id, latitude, longitude);
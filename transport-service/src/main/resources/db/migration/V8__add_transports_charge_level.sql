@@ -0,0 +1,46 @@
+-- Cached copy of battery_level / fuel_level of the per-type detail table,
+-- so searches can filter by charge in the same query instead of joining four tables.
+alter table transports add column charge_level decimal(5,2);
+
+update transports t
+set charge_level = d.level
+from (select transport_id, battery_level as level from electric_kick_scooters
+      union all
+      select transport_id, battery_level from electric_scooters
+      union all
+      select transport_id, battery_level from electric_bicycles
+      union all
+      select transport_id, fuel_level from gas_motorcycles) d
+where d.transport_id = t.id;
+
+-- Kept in sync by the database: every write to a detail table is copied to transports,
+-- whichever code path made it. The level column name is passed as the trigger argument.
+create or replace function sync_transport_charge_level() returns trigger
+    language plpgsql as
+$$
+declare
+    new_level decimal(5,2) := (to_jsonb(new) ->> tg_argv[0])::decimal(5,2);
+begin
+    update transports
+    set charge_level = new_level
+    where id = new.transport_id
+      and charge_level is distinct from new_level;
+    return null;
+end;
+$$;
+
+create trigger electric_kick_scooters_charge_level
+    after insert or update of battery_level on electric_kick_scooters
+    for each row execute function sync_transport_charge_level('battery_level');
+
+create trigger electric_scooters_charge_level
+    after insert or update of battery_level on electric_scooters
+    for each row execute function sync_transport_charge_level('battery_level');
+
+create trigger electric_bicycles_charge_level
+    after insert or update of battery_level on electric_bicycles
+    for each row execute function sync_transport_charge_level('battery_level');
+
+create trigger gas_motorcycles_charge_level
+    after insert or update of fuel_level on gas_motorcycles
+    for each row execute function sync_transport_charge_level('fuel_level');
@@ -0,0 +1,4 @@
+-- Device timestamp of the last applied telemetry sample.
+-- Telemetry writes are conditional on it (last writer wins by device time),
+-- so a sample delayed in the network can't move a transport back.
+alter table transports add column telemetry_at timestamp with time zone;
@@ -0,0 +1,14 @@
+-- Runs after every migrate: creates the PostGIS column of V6 once the extension becomes available.
+-- V6 is recorded as applied even where postgis was missing, so installing the extension later
+-- would otherwise never add transports.geog. Every statement is a no-op when the column exists.
+-- transport.spatial.backend=postgis refuses to start without it (see PostgisSchemaCheck).
+do $$
+    begin
+        if exists (select 1 from pg_available_extensions where name = 'postgis') then
+            execute 'create extension if not exists postgis';
+            execute 'alter table transports add column if not exists geog geography(Point, 4326)
+                         generated always as (ST_SetSRID(ST_MakePoint(longitude, latitude), 4326)::geography) stored';
+            execute 'create index if not exists idx_transports_geog on transports using gist (geog)';
+        end if;
+    end;
+$$;
@@ -0,0 +1,87 @@
+package org.scooting.transport.adapters.infrastructure.messaging.http;
+
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.adapters.infrastructure.messaging.http.CityNameCache;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class CityNameCacheTest {
+
+    @Test
+    void getFresh_ReturnsOnlyCachedIds() {
+        // Arrange
+        CityNameCache cache = new CityNameCache(Duration.ofMinutes(10), 100);
+        cache.putAll(Map.of(1L, "SPB", 2L, "MSK"));
+
+        // Act
+        Map<Long, String> result = cache.getFresh(List.of(1L, 3L));
+
+        // Assert
+        assertEquals(Map.of(1L, "SPB"), result);
+    }
+
+    @Test
+    void getFresh_ExpiredEntry_IsMissingButStaleFallbackRemains() {
+        // Arrange
+        CityNameCache cache = new CityNameCache(Duration.ZERO, 100);
+        cache.putAll(Map.of(1L, "SPB"));
+
+        // Act & Assert
+        assertTrue(cache.getFresh(List.of(1L)).isEmpty());
+        assertEquals(Optional.of("SPB"), cache.getStale(1L));
+    }
+
+    @Test
+    void putAll_RefreshesExpiredEntry() {
+        // Arrange
+        CityNameCache cache = new CityNameCache(Duration.ofMinutes(10), 100);
+        cache.putAll(Map.of(1L, "Leningrad"));
+
+        // Act
+        cache.putAll(Map.of(1L, "SPB"));
+
+        // Assert
+        assertEquals(Map.of(1L, "SPB"), cache.getFresh(List.of(1L)));
+    }
+
+    @Test
+    void putAll_OverMaxSize_EvictsToStayWithinBound() {
+        // Arrange
+        CityNameCache cache = new CityNameCache(Duration.ofMinutes(10), 2);
+        cache.putAll(Map.of(1L, "SPB"));
+        cache.putAll(Map.of(2L, "MSK"));
+
+        // Act
+        cache.putAll(Map.of(3L, "KZN"));
+
+        // Assert
+        assertEquals(2, cache.getFresh(List.of(1L, 2L, 3L)).size());
+        assertEquals(Optional.of("KZN"), cache.getStale(3L));
+    }
+
+    @Test
+    void putAll_OverMaxSize_EvictsExpiredEntriesFirst() {
+        // Arrange
+        CityNameCache expiring = new CityNameCache(Duration.ZERO, 2);
+        expiring.putAll(Map.of(1L, "SPB", 2L, "MSK"));
+
+        // Act
+        expiring.putAll(Map.of(3L, "KZN"));
+
+        // Assert
+        assertEquals(Optional.of("KZN"), expiring.getStale(3L));
+        assertTrue(expiring.getStale(1L).isEmpty() && expiring.getStale(2L).isEmpty());
+    }
+
+    @Test
+    void getStale_UnknownId_IsEmpty() {
+        // Act & Assert
+        assertTrue(new CityNameCache(Duration.ofMinutes(10), 10).getStale(42L).isEmpty());
+    }
+}
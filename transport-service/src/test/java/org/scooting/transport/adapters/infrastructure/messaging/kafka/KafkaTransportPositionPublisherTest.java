@@ -0,0 +1,110 @@
+package org.scooting.transport.adapters.infrastructure.messaging.kafka;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.KafkaConfig;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.KafkaTransportPositionPublisher;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportPositionDto;
+import org.springframework.kafka.core.KafkaTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class KafkaTransportPositionPublisherTest {
+
+    @Mock
+    private KafkaTemplate<String, Object> kafkaTemplate;
+
+    private final TransportPositionDto first = new TransportPositionDto(1L, 59.9, 30.3, 1_000L);
+    private final TransportPositionDto second = new TransportPositionDto(2L, 59.8, 30.2, 1_000L);
+
+    @Test
+    void publishPositions_SendsKeyedByTransportId() {
+        // Arrange
+        KafkaTransportPositionPublisher publisher =
+                new KafkaTransportPositionPublisher(kafkaTemplate, 10, Duration.ofSeconds(5));
+        when(kafkaTemplate.send(eq(KafkaConfig.TRANSPORT_POSITIONS), anyString(), any()))
+                .thenReturn(CompletableFuture.completedFuture(null));
+
+        // Act
+        publisher.publishPositions(List.of(first, second));
+
+        // Assert
+        verify(kafkaTemplate, timeout(1_000)).send(KafkaConfig.TRANSPORT_POSITIONS, "1", first);
+        verify(kafkaTemplate, timeout(1_000)).send(KafkaConfig.TRANSPORT_POSITIONS, "2", second);
+        awaitInFlight(publisher, 0);
+    }
+
+    @Test
+    void publishPositions_BrokerNotResponding_ReturnsWithoutWaiting() {
+        // Arrange
+        KafkaTransportPositionPublisher publisher =
+                new KafkaTransportPositionPublisher(kafkaTemplate, 10, Duration.ofSeconds(30));
+        when(kafkaTemplate.send(eq(KafkaConfig.TRANSPORT_POSITIONS), anyString(), any()))
+                .thenReturn(new CompletableFuture<>());
+
+        // Act
+        long started = System.nanoTime();
+        publisher.publishPositions(List.of(first, second));
+
+        // Assert
+        assertTrue(Duration.ofNanos(System.nanoTime() - started).compareTo(Duration.ofSeconds(1)) < 0);
+        assertEquals(2, publisher.inFlight());
+    }
+
+    @Test
+    void publishPositions_TooManyInFlight_DropsFlush() {
+        // Arrange
+        KafkaTransportPositionPublisher publisher =
+                new KafkaTransportPositionPublisher(kafkaTemplate, 2, Duration.ofSeconds(30));
+        when(kafkaTemplate.send(eq(KafkaConfig.TRANSPORT_POSITIONS), anyString(), any()))
+                .thenReturn(new CompletableFuture<>());
+        publisher.publishPositions(List.of(first, second));
+        verify(kafkaTemplate, timeout(1_000).times(2)).send(eq(KafkaConfig.TRANSPORT_POSITIONS), anyString(), any());
+
+        // Act
+        publisher.publishPositions(List.of(new TransportPositionDto(3L, 59.7, 30.1, 1_000L)));
+
+        // Assert
+        verify(kafkaTemplate, after(100).never()).send(KafkaConfig.TRANSPORT_POSITIONS, "3",
+                new TransportPositionDto(3L, 59.7, 30.1, 1_000L));
+        assertEquals(2, publisher.inFlight());
+    }
+
+    @Test
+    void publishPositions_SendTimesOut_FreesItsSlot() {
+        // Arrange
+        KafkaTransportPositionPublisher publisher =
+                new KafkaTransportPositionPublisher(kafkaTemplate, 1, Duration.ofMillis(50));
+        when(kafkaTemplate.send(eq(KafkaConfig.TRANSPORT_POSITIONS), anyString(), any()))
+                .thenReturn(new CompletableFuture<>())
+                .thenReturn(CompletableFuture.completedFuture(null));
+        publisher.publishPositions(List.of(first));
+        awaitInFlight(publisher, 0);
+
+        // Act
+        publisher.publishPositions(List.of(second));
+
+        // Assert
+        verify(kafkaTemplate, timeout(1_000)).send(KafkaConfig.TRANSPORT_POSITIONS, "2", second);
+    }
+
+    private static void awaitInFlight(KafkaTransportPositionPublisher publisher, int expected) {
+        long deadline = System.nanoTime() + Duration.ofSeconds(2).toNanos();
+        while (publisher.inFlight() != expected && System.nanoTime() < deadline) {
+            Thread.onSpinWait();
+        }
+        assertEquals(expected, publisher.inFlight());
+    }
+}
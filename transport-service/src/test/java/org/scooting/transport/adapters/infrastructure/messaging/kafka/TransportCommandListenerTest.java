@@ -0,0 +1,143 @@
+package org.scooting.transport.adapters.infrastructure.messaging.kafka;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.apache.kafka.clients.consumer.ConsumerRecord;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InOrder;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.KafkaConfig;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.TransportCommandListener;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportCoordinatesDTO;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportStatusDTO;
+import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
+import org.scoooting.transport.adapters.interfaces.dto.UpdateCoordinatesDTO;
+import org.scoooting.transport.application.usecase.TransportUpdateUseCase;
+import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransportCommandListenerTest {
+
+    @Mock
+    private TransportUpdateUseCase transportUpdateUseCase;
+
+    private TransportCommandListener listener;
+
+    private final TransportResponseDTO response = new TransportResponseDTO(
+            1L, "ELECTRIC_KICK_SCOOTER", "AVAILABLE", 60.0, 30.0, "SPB", null);
+
+    @BeforeEach
+    void setUp() {
+        listener = new TransportCommandListener(new ObjectMapper(), transportUpdateUseCase, Duration.ofSeconds(5));
+    }
+
+    @Test
+    void handleTransportCommands_AppliesBatchBeforeReturning() {
+        // Arrange
+        AtomicBoolean applied = new AtomicBoolean();
+        when(transportUpdateUseCase.updateCoordinatesBatch(anyList()))
+                .thenReturn(Mono.delay(Duration.ofMillis(50)).thenReturn(1));
+        when(transportUpdateUseCase.updateTransportStatus(2L, "AVAILABLE"))
+                .thenReturn(Mono.fromCallable(() -> {
+                    applied.set(true);
+                    return response;
+                }));
+
+        // Act
+        listener.handleTransportCommands(List.of(
+                record(0, new TransportCoordinatesDTO(1L, 60.0, 30.0)),
+                record(1, Map.of("transportId", 2, "status", "AVAILABLE"))));
+
+        // Assert
+        assertTrue(applied.get());
+        InOrder order = inOrder(transportUpdateUseCase);
+        order.verify(transportUpdateUseCase).updateCoordinatesBatch(
+                List.of(new UpdateCoordinatesDTO(1L, 60.0, 30.0)));
+        order.verify(transportUpdateUseCase).updateTransportStatus(2L, "AVAILABLE");
+    }
+
+    @Test
+    void handleTransportCommands_UnreadableRecord_SkipsOnlyThatRecord() {
+        // Arrange
+        when(transportUpdateUseCase.updateCoordinatesBatch(anyList())).thenReturn(Mono.just(1));
+        when(transportUpdateUseCase.updateTransportStatus(3L, "IN_USE")).thenReturn(Mono.just(response));
+
+        // Act
+        listener.handleTransportCommands(List.of(
+                record(0, Map.of("transportId", "not-a-number", "status", "AVAILABLE")),
+                record(1, "unsupported"),
+                record(2, null),
+                record(3, new TransportStatusDTO(3L, "IN_USE"))));
+
+        // Assert
+        verify(transportUpdateUseCase).updateCoordinatesBatch(List.of());
+        verify(transportUpdateUseCase).updateTransportStatus(3L, "IN_USE");
+        verifyNoMoreInteractions(transportUpdateUseCase);
+    }
+
+    @Test
+    void handleTransportCommands_FailedStatusUpdate_DoesNotStopOthers() {
+        // Arrange
+        when(transportUpdateUseCase.updateCoordinatesBatch(anyList())).thenReturn(Mono.just(0));
+        when(transportUpdateUseCase.updateTransportStatus(1L, "IN_USE"))
+                .thenReturn(Mono.error(new TransportNotFoundException("Transport not found")));
+        when(transportUpdateUseCase.updateTransportStatus(2L, "IN_USE")).thenReturn(Mono.just(response));
+
+        // Act
+        listener.handleTransportCommands(List.of(
+                record(0, new TransportStatusDTO(1L, "IN_USE")),
+                record(1, new TransportStatusDTO(2L, "IN_USE"))));
+
+        // Assert
+        verify(transportUpdateUseCase).updateTransportStatus(2L, "IN_USE");
+    }
+
+    @Test
+    void handleTransportCommands_FailedCoordinatesBatch_FallsBackToSingleUpdates() {
+        // Arrange
+        UpdateCoordinatesDTO bad = new UpdateCoordinatesDTO(1L, 60.0, 30.0);
+        UpdateCoordinatesDTO good = new UpdateCoordinatesDTO(2L, 59.9, 30.3);
+        when(transportUpdateUseCase.updateCoordinatesBatch(anyList()))
+                .thenReturn(Mono.error(new IllegalStateException("batch rejected")));
+        when(transportUpdateUseCase.updateCoordinates(bad))
+                .thenReturn(Mono.error(new IllegalStateException("row rejected")));
+        when(transportUpdateUseCase.updateCoordinates(good)).thenReturn(Mono.just(response));
+
+        // Act
+        listener.handleTransportCommands(List.of(
+                record(0, new TransportCoordinatesDTO(1L, 60.0, 30.0)),
+                record(1, new TransportCoordinatesDTO(2L, 59.9, 30.3))));
+
+        // Assert
+        verify(transportUpdateUseCase).updateCoordinates(bad);
+        verify(transportUpdateUseCase).updateCoordinates(good);
+    }
+
+    @Test
+    void handleTransportCommands_Timeout_ThrowsSoBatchIsRedelivered() {
+        // Arrange
+        listener = new TransportCommandListener(new ObjectMapper(), transportUpdateUseCase, Duration.ofMillis(50));
+        when(transportUpdateUseCase.updateCoordinatesBatch(anyList())).thenReturn(Mono.never());
+        List<ConsumerRecord<String, Object>> records = List.of(record(0, new TransportCoordinatesDTO(1L, 60.0, 30.0)));
+
+        // Act & Assert
+        assertThrows(IllegalStateException.class, () -> listener.handleTransportCommands(records));
+    }
+
+    private static ConsumerRecord<String, Object> record(long offset, Object value) {
+        return new ConsumerRecord<>(KafkaConfig.TRANSPORT_COMMANDS, 0, offset, "1", value);
+    }
+}
@@ -0,0 +1,184 @@
+package org.scooting.transport.adapters.infrastructure.repositories;
+
+import io.r2dbc.spi.ConnectionFactories;
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.mapstruct.factory.Mappers;
+import org.scoooting.transport.adapters.infrastructure.repositories.implementations.PostgisSchemaCheck;
+import org.scoooting.transport.adapters.infrastructure.repositories.implementations.PostgisTransportRepositoryImpl;
+import org.scoooting.transport.adapters.infrastructure.repositories.mappers.TransportEntityMapper;
+import org.scoooting.transport.adapters.infrastructure.repositories.r2dbc.TransportR2dbcRepository;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import org.springframework.data.r2dbc.convert.MappingR2dbcConverter;
+import org.springframework.data.r2dbc.mapping.R2dbcMappingContext;
+import org.springframework.r2dbc.core.DatabaseClient;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+import org.testcontainers.utility.DockerImageName;
+import reactor.test.StepVerifier;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.mockito.Mockito.mock;
+
+/**
+ * PostGIS spatial path on a database with the postgis extension: migrations create transports.geog,
+ * the startup check accepts the schema and the spatial queries return the expected rows.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class PostgisTransportRepositoryTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>(
+            DockerImageName.parse("postgis/postgis:16-3.4").asCompatibleSubstituteFor("postgres"));
+
+    private static Connection connection;
+    private static DatabaseClient databaseClient;
+    private static PostgisTransportRepositoryImpl repository;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("update transports set status_id = (select id from transport_statuses where name = 'IN_USE')");
+            statement.execute("""
+                    insert into transports (id, transport_type, status_id, city_id, latitude, longitude)
+                    select v.id, v.type, (select id from transport_statuses where name = v.status), 1, v.lat, v.lng
+                    from (values (9001, 'ELECTRIC_SCOOTER', 'AVAILABLE', 59.9300, 30.3000),
+                                 (9002, 'ELECTRIC_SCOOTER', 'AVAILABLE', 59.9310, 30.3000),
+                                 (9003, 'ELECTRIC_BICYCLE', 'AVAILABLE', 59.9305, 30.3000),
+                                 (9004, 'ELECTRIC_SCOOTER', 'IN_USE', 59.9301, 30.3000),
+                                 (9005, 'ELECTRIC_SCOOTER', 'AVAILABLE', 59.9900, 30.3000))
+                         as v(id, type, status, lat, lng)
+                    """);
+        }
+
+        databaseClient = DatabaseClient.create(ConnectionFactories.get("r2dbc:postgresql://%s:%s@%s:%d/%s".formatted(
+                postgres.getUsername(), postgres.getPassword(), postgres.getHost(),
+                postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT), postgres.getDatabaseName())));
+        repository = new PostgisTransportRepositoryImpl(mock(TransportR2dbcRepository.class),
+                Mappers.getMapper(TransportEntityMapper.class), databaseClient,
+                new MappingR2dbcConverter(new R2dbcMappingContext()));
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void migrations_CreateGeneratedGeographyColumn() throws SQLException {
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("SELECT ST_Y(geog::geometry), ST_X(geog::geometry) "
+                     + "FROM transports WHERE id = 9001")) {
+            assertTrue(rows.next());
+            assertEquals(59.93, rows.getDouble(1), 1e-4);
+            assertEquals(30.30, rows.getDouble(2), 1e-4);
+        }
+    }
+
+    @Test
+    void schemaCheck_PostgisSchema_Passes() {
+        // Act & Assert
+        StepVerifier.create(new PostgisSchemaCheck(databaseClient).verify())
+                .verifyComplete();
+    }
+
+    @Test
+    void schemaCheck_DatabaseWithoutPostgis_Fails() throws SQLException {
+        // Arrange
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("CREATE DATABASE plain");
+        }
+        DatabaseClient plain = DatabaseClient.create(ConnectionFactories.get("r2dbc:postgresql://%s:%s@%s:%d/plain"
+                .formatted(postgres.getUsername(), postgres.getPassword(), postgres.getHost(),
+                        postgres.getMappedPort(PostgreSQLContainer.POSTGRESQL_PORT))));
+
+        // Act & Assert
+        StepVerifier.create(new PostgisSchemaCheck(plain).verify())
+                .expectError(IllegalStateException.class)
+                .verify();
+    }
+
+    @Test
+    void findAvailableNearby_ReturnsAvailableWithinRadiusSortedByDistance() {
+        // Act & Assert
+        StepVerifier.create(repository.findAvailableNearby(59.9300, 30.3000, 0.5, null, 0, 10)
+                        .map(Transport::getId)
+                        .collectList())
+                .expectNext(List.of(9001L, 9003L, 9002L))
+                .verifyComplete();
+    }
+
+    @Test
+    void findAvailableNearby_ByTypeAndLimit() {
+        // Act & Assert
+        StepVerifier.create(repository.findAvailableNearby(59.9300, 30.3000, 0.5, TransportType.ELECTRIC_SCOOTER, 0, 1)
+                        .map(Transport::getId)
+                        .collectList())
+                .expectNext(List.of(9001L))
+                .verifyComplete();
+    }
+
+    @Test
+    void findAvailableInArea_ReturnsAvailableInEnvelope() {
+        // Act & Assert
+        StepVerifier.create(repository.findAvailableByTypeInArea(TransportType.ELECTRIC_SCOOTER,
+                                59.92, 59.94, 30.29, 30.31)
+                        .map(Transport::getId)
+                        .sort()
+                        .collectList())
+                .expectNext(List.of(9001L, 9002L))
+                .verifyComplete();
+    }
+
+    @Test
+    void radiusQuery_UsesGistIndex() throws SQLException {
+        // Arrange
+        try (Statement statement = connection.createStatement()) {
+            statement.execute("SET enable_seqscan = off");
+        }
+
+        // Act
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("""
+                     EXPLAIN (COSTS OFF) SELECT * FROM transports
+                     WHERE ST_DWithin(geog, ST_SetSRID(ST_MakePoint(30.30, 59.93), 4326)::geography, 500)
+                     ORDER BY geog <-> ST_SetSRID(ST_MakePoint(30.30, 59.93), 4326)::geography
+                     LIMIT 10
+                     """)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        } finally {
+            try (Statement statement = connection.createStatement()) {
+                statement.execute("RESET enable_seqscan");
+            }
+        }
+
+        // Assert
+        assertFalse(plan.toString().contains("Seq Scan on transports"), () -> "Sequential scan in plan:\n" + plan);
+        assertTrue(plan.toString().contains("idx_transports_geog"), () -> "GiST index not used in plan:\n" + plan);
+    }
+}
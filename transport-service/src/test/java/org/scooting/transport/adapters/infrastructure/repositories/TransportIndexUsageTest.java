@@ -0,0 +1,171 @@
+package org.scooting.transport.adapters.infrastructure.repositories;
+
+import org.flywaydb.core.Flyway;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.BeforeAll;
+import org.junit.jupiter.api.Test;
+import org.testcontainers.containers.PostgreSQLContainer;
+import org.testcontainers.junit.jupiter.Container;
+import org.testcontainers.junit.jupiter.Testcontainers;
+
+import java.math.BigDecimal;
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Statement;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Regression test for the hot-path indexes: runs the repository queries through EXPLAIN
+ * on a migrated and seeded database and checks that none of them falls back to a Seq Scan.
+ * Queries are copied from TransportR2dbcRepository with the bind parameters inlined.
+ */
+@Testcontainers(disabledWithoutDocker = true)
+class TransportIndexUsageTest {
+
+    @Container
+    static PostgreSQLContainer<?> postgres = new PostgreSQLContainer<>("postgres:latest");
+
+    private static Connection connection;
+
+    @BeforeAll
+    static void migrateAndSeed() throws SQLException {
+        Flyway.configure()
+                .dataSource(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword())
+                .locations("classpath:db/migration")
+                .load()
+                .migrate();
+
+        connection = DriverManager.getConnection(postgres.getJdbcUrl(), postgres.getUsername(), postgres.getPassword());
+        try (Statement statement = connection.createStatement()) {
+            // 20k transports: a third AVAILABLE, four types, spread over a 0.3 x 0.5 degree grid
+            statement.execute("""
+                    insert into transports (transport_type, status_id, city_id, latitude, longitude)
+                    select (array['ELECTRIC_BICYCLE', 'GAS_MOTORCYCLE', 'ELECTRIC_KICK_SCOOTER', 'ELECTRIC_SCOOTER'])[g % 4 + 1],
+                           (select id from transport_statuses
+                            where name = case when g % 3 = 0 then 'AVAILABLE' else 'IN_USE' end),
+                           1,
+                           59.80 + (g % 1000) * 0.0003,
+                           30.10 + (g / 1000) * 0.025
+                    from generate_series(1, 20000) as g
+                    """);
+            statement.execute("analyze transports");
+        }
+    }
+
+    @AfterAll
+    static void close() throws SQLException {
+        if (connection != null) {
+            connection.close();
+        }
+    }
+
+    @Test
+    void findAvailableInArea_UsesStatusLocationIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM transports
+                WHERE status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+                AND latitude BETWEEN CAST(59.93 AS double precision) AND CAST(59.94 AS double precision)
+                AND longitude BETWEEN CAST(30.30 AS double precision) AND CAST(30.35 AS double precision)
+                AND COALESCE(charge_level, 0) >= CAST(0 AS double precision)
+                """);
+
+        assertIndexScan(plan, "idx_transports_status_location");
+    }
+
+    @Test
+    void findAvailableByTypeInArea_UsesStatusTypeLocationIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM transports
+                WHERE transport_type = CAST('ELECTRIC_SCOOTER' AS VARCHAR)
+                AND status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+                AND latitude BETWEEN CAST(59.93 AS double precision) AND CAST(59.94 AS double precision)
+                AND longitude BETWEEN CAST(30.30 AS double precision) AND CAST(30.35 AS double precision)
+                AND COALESCE(charge_level, 0) >= CAST(0 AS double precision)
+                """);
+
+        assertIndexScan(plan, "idx_transports_status_type_location");
+    }
+
+    @Test
+    void findAvailableByTypeAfter_UsesIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM transports
+                WHERE transport_type = CAST('ELECTRIC_SCOOTER' AS VARCHAR)
+                AND status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+                AND id > 10000
+                ORDER BY id
+                LIMIT 20
+                """);
+
+        assertIndexScan(plan, null);
+    }
+
+    @Test
+    void findAvailableByTypePage_UsesIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM transports
+                WHERE transport_type = CAST('ELECTRIC_SCOOTER' AS VARCHAR)
+                AND status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+                ORDER BY id
+                LIMIT 21 OFFSET 20
+                """);
+
+        assertIndexScan(plan, null);
+    }
+
+    @Test
+    void findAvailableByType_UsesIndex() throws SQLException {
+        String plan = explain("""
+                SELECT * FROM transports
+                WHERE transport_type = CAST('ELECTRIC_SCOOTER' AS VARCHAR)
+                AND status_id = (SELECT id FROM transport_statuses WHERE name = 'AVAILABLE')
+                """);
+
+        assertIndexScan(plan, null);
+    }
+
+    @Test
+    void chargeLevel_FollowsDetailTable() throws SQLException {
+        try (Statement statement = connection.createStatement()) {
+            // Arrange
+            long transportId;
+            try (ResultSet rows = statement.executeQuery("SELECT transport_id FROM electric_scooters LIMIT 1")) {
+                assertTrue(rows.next());
+                transportId = rows.getLong(1);
+            }
+
+            // Act
+            statement.executeUpdate("UPDATE electric_scooters SET battery_level = 12.5 WHERE transport_id = " + transportId);
+
+            // Assert
+            try (ResultSet rows = statement.executeQuery("SELECT charge_level FROM transports WHERE id = " + transportId)) {
+                assertTrue(rows.next());
+                assertEquals(0, new BigDecimal("12.5").compareTo(rows.getBigDecimal(1)));
+            }
+        }
+    }
+
+    private static String explain(String query) throws SQLException {
+        StringBuilder plan = new StringBuilder();
+        try (Statement statement = connection.createStatement();
+             ResultSet rows = statement.executeQuery("EXPLAIN (COSTS OFF) " + query)) {
+            while (rows.next()) {
+                plan.append(rows.getString(1)).append('\n');
+            }
+        }
+        return plan.toString();
+    }
+
+    /**
+     * @param indexName expected index, null when any index on transports is fine
+     */
+    private static void assertIndexScan(String plan, String indexName) {
+        assertFalse(plan.contains("Seq Scan on transports"), () -> "Sequential scan in plan:\n" + plan);
+        assertTrue(plan.contains(indexName != null ? indexName : "Index"), () -> "Index not used in plan:\n" + plan);
+    }
+}
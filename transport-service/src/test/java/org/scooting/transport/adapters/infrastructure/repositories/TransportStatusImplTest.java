@@ -0,0 +1,100 @@
+package org.scooting.transport.adapters.infrastructure.repositories;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.infrastructure.entities.TransportStatusEntity;
+import org.scoooting.transport.adapters.infrastructure.repositories.implementations.TransportStatusImpl;
+import org.scoooting.transport.adapters.infrastructure.repositories.mappers.TransportStatusMapper;
+import org.scoooting.transport.adapters.infrastructure.repositories.r2dbc.TransportStatusR2dbcRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransportStatusImplTest {
+
+    @Mock
+    private TransportStatusR2dbcRepository repository;
+
+    private final TransportStatusMapper mapper = Mappers.getMapper(TransportStatusMapper.class);
+
+    @BeforeEach
+    void setUp() {
+        when(repository.findAll()).thenReturn(Flux.just(
+                new TransportStatusEntity(1L, "AVAILABLE"),
+                new TransportStatusEntity(2L, "IN_USE")
+        ));
+    }
+
+    @Test
+    void findByName_Hit_DoesNotReload() {
+        // Arrange
+        TransportStatusImpl statuses = new TransportStatusImpl(repository, mapper, Duration.ofMinutes(1));
+        statuses.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(statuses.findByName("IN_USE"))
+                .expectNextMatches(status -> status.getId() == 2L)
+                .verifyComplete();
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void findById_RepeatedMissWithinInterval_ReloadsOnce() {
+        // Arrange
+        TransportStatusImpl statuses = new TransportStatusImpl(repository, mapper, Duration.ofMinutes(1));
+
+        // Act
+        statuses.findById(42L).block();
+        statuses.findById(42L).block();
+        statuses.findByName("UNKNOWN").block();
+
+        // Assert
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void findById_MissAfterInterval_Reloads() {
+        // Arrange
+        TransportStatusImpl statuses = new TransportStatusImpl(repository, mapper, Duration.ZERO);
+        statuses.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(statuses.findById(42L)).verifyComplete();
+        verify(repository, times(2)).findAll();
+    }
+
+    @Test
+    void findAllById_UnknownIdWithinInterval_ReturnsKnownWithoutReload() {
+        // Arrange
+        TransportStatusImpl statuses = new TransportStatusImpl(repository, mapper, Duration.ofMinutes(1));
+        statuses.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(statuses.findAllById(List.of(1L, 42L)))
+                .expectNextMatches(status -> status.getName().equals("AVAILABLE"))
+                .verifyComplete();
+        verify(repository, times(1)).findAll();
+    }
+
+    @Test
+    void findById_NullId_IsEmptyWithoutDbAccess() {
+        // Arrange
+        TransportStatusImpl statuses = new TransportStatusImpl(repository, mapper, Duration.ofMinutes(1));
+        statuses.refresh().block();
+
+        // Act & Assert
+        StepVerifier.create(statuses.findById(null)).verifyComplete();
+        verify(repository, times(1)).findAll();
+    }
+}
@@ -0,0 +1,65 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.CityResolver;
+import org.scoooting.transport.domain.model.CityArea;
+
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CityResolverTest {
+
+    private static final CityArea SPB = new CityArea(1L, "SPB", 59.9311, 30.3609, 25);
+    private static final CityArea MSK = new CityArea(2L, "MSK", 55.7558, 37.6176, 30);
+
+    @Test
+    void resolve_PointInsideCity_ReturnsCity() {
+        // Arrange
+        CityResolver resolver = new CityResolver();
+        resolver.load(List.of(SPB, MSK));
+
+        // Act & Assert
+        assertEquals(Optional.of(SPB), resolver.resolve(59.95, 30.30));
+        assertEquals(Optional.of(MSK), resolver.resolve(55.70, 37.50));
+    }
+
+    @Test
+    void resolve_PointOutsideAllCities_Empty() {
+        // Arrange
+        CityResolver resolver = new CityResolver();
+        resolver.load(List.of(SPB, MSK));
+
+        // Act & Assert: Novgorod, between the two
+        assertTrue(resolver.resolve(58.52, 31.27).isEmpty());
+    }
+
+    @Test
+    void resolve_OverlappingCities_NearestCenterWins() {
+        // Arrange: Pushkin overlaps the SPB circle
+        CityArea pushkin = new CityArea(3L, "Pushkin", 59.7230, 30.4100, 10);
+        CityResolver resolver = new CityResolver();
+        resolver.load(List.of(SPB, pushkin));
+
+        // Act & Assert
+        assertEquals(Optional.of(pushkin), resolver.resolve(59.74, 30.40));
+        assertEquals(Optional.of(SPB), resolver.resolve(59.90, 30.35));
+    }
+
+    @Test
+    void load_ReplacesCities() {
+        // Arrange
+        CityResolver resolver = new CityResolver();
+        assertFalse(resolver.isReady());
+        resolver.load(List.of(SPB));
+
+        // Act
+        resolver.load(List.of(MSK));
+
+        // Assert
+        assertTrue(resolver.isReady());
+        assertEquals(1, resolver.size());
+        assertTrue(resolver.resolve(59.95, 30.30).isEmpty());
+    }
+}
@@ -0,0 +1,104 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.ReservationTimer;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ReservationTimerTest {
+
+    private static final long START = 1_700_000_000_000L;
+
+    @Test
+    void advance_FiresAtDeadline_NotBefore() {
+        // Arrange
+        ReservationTimer timer = new ReservationTimer(1000, START);
+        timer.schedule(1L, START + 10_500);
+
+        // Act & Assert
+        assertTrue(timer.advance(START + 10_999).isEmpty());
+        assertEquals(List.of(1L), timer.advance(START + 11_000));
+        assertEquals(0, timer.size());
+        assertTrue(timer.advance(START + 60_000).isEmpty());
+    }
+
+    @Test
+    void advance_DeadlinesOnHigherLevels_CascadeDownAndFireInOrder() {
+        // Arrange: 10 min, 2 h and 3 days with 1 s ticks land on levels 1, 2 and 3
+        ReservationTimer timer = new ReservationTimer(1000, START);
+        timer.schedule(3L, START + 3 * 86_400_000L);
+        timer.schedule(2L, START + 7_200_000L);
+        timer.schedule(1L, START + 600_000L);
+
+        // Act & Assert
+        assertTrue(timer.advance(START + 599_000).isEmpty());
+        assertEquals(List.of(1L), timer.advance(START + 600_000));
+        assertTrue(timer.advance(START + 7_199_000).isEmpty());
+        assertEquals(List.of(2L), timer.advance(START + 7_200_000));
+        assertTrue(timer.advance(START + 3 * 86_400_000L - 1000).isEmpty());
+        assertEquals(List.of(3L), timer.advance(START + 3 * 86_400_000L));
+    }
+
+    @Test
+    void cancel_RemovesScheduledHold() {
+        // Arrange
+        ReservationTimer timer = new ReservationTimer(1000, START);
+        timer.schedule(1L, START + 600_000);
+        timer.schedule(2L, START + 600_000);
+
+        // Act
+        boolean cancelled = timer.cancel(1L);
+
+        // Assert
+        assertTrue(cancelled);
+        assertFalse(timer.cancel(1L));
+        assertEquals(List.of(2L), timer.advance(START + 600_000));
+    }
+
+    @Test
+    void schedule_SameTransportAgain_ReplacesDeadline() {
+        // Arrange
+        ReservationTimer timer = new ReservationTimer(1000, START);
+        timer.schedule(1L, START + 5_000);
+
+        // Act
+        timer.schedule(1L, START + 20_000);
+
+        // Assert
+        assertEquals(1, timer.size());
+        assertTrue(timer.advance(START + 19_000).isEmpty());
+        assertEquals(List.of(1L), timer.advance(START + 20_000));
+    }
+
+    @Test
+    void schedule_DeadlineInPast_FiresOnNextTick() {
+        // Arrange: rebuilt from the database after a restart, already expired
+        ReservationTimer timer = new ReservationTimer(1000, START);
+        timer.schedule(1L, START - 60_000);
+
+        // Act & Assert
+        assertEquals(List.of(1L), timer.advance(START + 1000));
+    }
+
+    @Test
+    void advance_ManyHolds_AllFire() {
+        // Arrange
+        ReservationTimer timer = new ReservationTimer(1000, START);
+        for (long id = 0; id < 100_000; id++) {
+            timer.schedule(id, START + 1000 + id % 900_000);
+        }
+        for (long id = 0; id < 100_000; id += 2) {
+            timer.cancel(id);
+        }
+
+        // Act
+        List<Long> expired = timer.advance(START + 901_000);
+
+        // Assert
+        assertEquals(50_000, expired.size());
+        assertTrue(expired.stream().allMatch(id -> id % 2 == 1));
+        assertEquals(0, timer.size());
+    }
+}
@@ -0,0 +1,70 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.TelemetryBuffer;
+import org.scoooting.transport.domain.model.TelemetrySample;
+
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TelemetryBufferTest {
+
+    private static TelemetrySample sample(long transportId, double lat, long ts) {
+        return new TelemetrySample(transportId, lat, 30.0, 80, Instant.ofEpochMilli(ts));
+    }
+
+    @Test
+    void offer_CoalescesByTransport_LatestDeviceTimeWins() {
+        // Arrange
+        TelemetryBuffer buffer = new TelemetryBuffer(10);
+
+        // Act: second sample arrives late but was measured later than the third one
+        buffer.offer(sample(1L, 59.90, 1_000));
+        buffer.offer(sample(1L, 59.92, 3_000));
+        buffer.offer(sample(1L, 59.91, 2_000));
+
+        // Assert
+        List<TelemetrySample> drained = buffer.drain();
+        assertEquals(1, drained.size());
+        assertEquals(59.92, drained.get(0).latitude());
+        assertEquals(0, buffer.size());
+    }
+
+    @Test
+    void offer_Full_RejectsNewTransports_AcceptsStagedOnes() {
+        // Arrange
+        TelemetryBuffer buffer = new TelemetryBuffer(2);
+        buffer.offer(sample(1L, 59.90, 1_000));
+        buffer.offer(sample(2L, 59.90, 1_000));
+
+        // Act & Assert
+        assertFalse(buffer.offer(sample(3L, 59.90, 1_000)));
+        assertTrue(buffer.offer(sample(2L, 59.95, 2_000)));
+        assertEquals(2, buffer.size());
+    }
+
+    @Test
+    void restore_KeepsNewerSampleStagedDuringFlush() {
+        // Arrange
+        TelemetryBuffer buffer = new TelemetryBuffer(10);
+        buffer.offer(sample(1L, 59.90, 1_000));
+        buffer.offer(sample(2L, 59.90, 1_000));
+        List<TelemetrySample> drained = buffer.drain();
+        buffer.offer(sample(1L, 59.99, 5_000));
+
+        // Act: flush failed, samples go back
+        buffer.restore(drained);
+
+        // Assert
+        List<TelemetrySample> retried = buffer.drain();
+        assertEquals(2, retried.size());
+        assertEquals(59.99, retried.stream().filter(s -> s.transportId() == 1L).findFirst().orElseThrow().latitude());
+    }
+
+    @Test
+    void constructor_NonPositiveCapacity_Throws() {
+        assertThrows(IllegalArgumentException.class, () -> new TelemetryBuffer(0));
+    }
+}
@@ -0,0 +1,127 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import reactor.core.Disposable;
+import reactor.core.Exceptions;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+class TransportChangeFeedTest {
+
+    private TransportChangeFeed feed;
+
+    @BeforeEach
+    void setUp() {
+        feed = new TransportChangeFeed(1.0);
+    }
+
+    private static Transport transport(long id, double lat, double lng) {
+        return Transport.builder().id(id).transportType(TransportType.ELECTRIC_SCOOTER)
+                .statusId(1L).latitude(lat).longitude(lng).build();
+    }
+
+    @Test
+    void changes_DeliversOnlyChangesNearTheArea() {
+        // Act & Assert
+        StepVerifier.create(feed.changes(59.90, 59.95, 30.30, 30.35, 16))
+                .then(() -> feed.publish(transport(1L, 55.75, 37.61)))  // other city
+                .then(() -> feed.publish(transport(2L, 59.92, 30.32)))
+                .expectNextMatches(transport -> transport.getId() == 2L)
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_TransportLeavingTheArea_IsDeliveredOnce() {
+        // Arrange
+        feed.publish(transport(1L, 59.92, 30.32));
+
+        // Act & Assert
+        StepVerifier.create(feed.changes(59.90, 59.95, 30.30, 30.35, 16))
+                .then(() -> feed.publish(transport(1L, 59.925, 30.325)))
+                .expectNextMatches(transport -> transport.getLatitude() == 59.925)
+                .then(() -> feed.publish(transport(1L, 55.75, 37.61)))  // moved far away
+                .expectNextMatches(transport -> transport.getLatitude() == 55.75)
+                .then(() -> feed.publish(transport(1L, 55.76, 37.62)))  // moving outside
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_TransportWithoutPosition_GoesToItsLastCell() {
+        // Arrange
+        feed.publish(transport(1L, 59.92, 30.32));
+
+        // Act & Assert
+        StepVerifier.create(feed.changes(59.90, 59.95, 30.30, 30.35, 16))
+                .then(() -> feed.publish(Transport.builder().id(1L).statusId(2L).build()))
+                .expectNextMatches(transport -> transport.getStatusId() == 2L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void changes_WideArea_GetsEveryChange() {
+        // Act & Assert
+        StepVerifier.create(feed.changes(-90, 90, -180, 180, 16))
+                .then(() -> feed.publish(transport(1L, 55.75, 37.61)))
+                .then(() -> feed.publish(transport(2L, 59.92, 30.32)))
+                .expectNextCount(2)
+                .thenCancel()
+                .verify();
+        assertEquals(0, feed.subscribedCells());
+    }
+
+    @Test
+    void changes_Cancelled_DropsEmptyCells() {
+        // Arrange
+        Disposable first = feed.changes(59.90, 59.95, 30.30, 30.35, 16).subscribe();
+        Disposable second = feed.changes(59.90, 59.95, 30.30, 30.35, 16).subscribe();
+        int cells = feed.subscribedCells();
+
+        // Act
+        first.dispose();
+
+        // Assert
+        assertTrue(cells > 0);
+        assertEquals(cells, feed.subscribedCells());
+        second.dispose();
+        assertEquals(0, feed.subscribedCells());
+    }
+
+    @Test
+    void changes_SubscriberFallsBehind_GetsOverflowError() {
+        // Act & Assert
+        StepVerifier.create(feed.changes(59.90, 59.95, 30.30, 30.35, 4), 0)
+                .then(() -> {
+                    for (long id = 1; id <= 100; id++) {
+                        feed.publish(transport(id, 59.92, 30.32));
+                    }
+                })
+                .thenRequest(Long.MAX_VALUE)
+                .thenConsumeWhile(transport -> true)
+                .expectErrorMatches(Exceptions::isOverflow)
+                .verify(Duration.ofSeconds(5));
+    }
+
+    @Test
+    void publish_WithoutSubscribers_DoesNothing() {
+        // Act
+        feed.publish(transport(1L, 59.92, 30.32));
+        feed.publish(null);
+        feed.publish(Transport.builder().build());
+
+        // Assert
+        assertEquals(0, feed.subscribedCells());
+    }
+}
@@ -0,0 +1,107 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.TransportCounters;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportCount;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportCountersTest {
+
+    private static final long AVAILABLE = 1L;
+    private static final long IN_USE = 2L;
+
+    private TransportCounters counters;
+
+    @BeforeEach
+    void setUp() {
+        counters = new TransportCounters();
+    }
+
+    private static Transport transport(long statusId, long cityId) {
+        return Transport.builder().id(1L).transportType(TransportType.ELECTRIC_SCOOTER)
+                .statusId(statusId).cityId(cityId).build();
+    }
+
+    @Test
+    void reconcile_LoadsPerCityAndTotalCounters() {
+        // Act
+        counters.reconcile(List.of(
+                new TransportCount(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 1L, 3),
+                new TransportCount(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 2L, 4)
+        ));
+
+        // Assert
+        assertTrue(counters.isReady());
+        assertEquals(7, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE));
+        assertEquals(4, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 2L));
+        assertEquals(0, counters.count(TransportType.ELECTRIC_BICYCLE, AVAILABLE));
+    }
+
+    @Test
+    void statusChanged_MovesBetweenStatuses() {
+        // Arrange
+        counters.reconcile(List.of(new TransportCount(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 1L, 2)));
+
+        // Act
+        counters.statusChanged(transport(IN_USE, 1L), AVAILABLE);
+
+        // Assert
+        assertEquals(1, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE));
+        assertEquals(1, counters.count(TransportType.ELECTRIC_SCOOTER, IN_USE, 1L));
+    }
+
+    @Test
+    void changed_MovedToAnotherCity_MovesBetweenCities_TotalUnchanged() {
+        // Arrange
+        counters.reconcile(List.of(new TransportCount(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 1L, 2)));
+
+        // Act
+        counters.changed(transport(AVAILABLE, 2L), AVAILABLE, 1L);
+
+        // Assert
+        assertEquals(2, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE));
+        assertEquals(1, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 1L));
+        assertEquals(1, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 2L));
+    }
+
+    @Test
+    void statusChanged_SameStatus_Ignored() {
+        // Act
+        counters.statusChanged(transport(AVAILABLE, 1L), AVAILABLE);
+
+        // Assert
+        assertEquals(0, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE));
+    }
+
+    @Test
+    void reconcile_DropsStaleCounters() {
+        // Arrange
+        counters.statusChanged(transport(IN_USE, 1L), AVAILABLE);
+
+        // Act
+        counters.reconcile(List.of());
+
+        // Assert
+        assertEquals(0, counters.count(TransportType.ELECTRIC_SCOOTER, AVAILABLE));
+        assertEquals(0, counters.count(TransportType.ELECTRIC_SCOOTER, IN_USE, 1L));
+    }
+
+    @Test
+    void deltas_PublishesEveryChange() {
+        // Act & Assert
+        StepVerifier.create(counters.deltas().take(4))
+                .then(() -> counters.statusChanged(transport(IN_USE, 1L), AVAILABLE))
+                .expectNext(new TransportCounters.Delta(TransportType.ELECTRIC_SCOOTER, AVAILABLE, 1L, -1, -1))
+                .expectNext(new TransportCounters.Delta(TransportType.ELECTRIC_SCOOTER, AVAILABLE, null, -1, -1))
+                .expectNext(new TransportCounters.Delta(TransportType.ELECTRIC_SCOOTER, IN_USE, 1L, 1, 1))
+                .expectNext(new TransportCounters.Delta(TransportType.ELECTRIC_SCOOTER, IN_USE, null, 1, 1))
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,224 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.enums.TransportType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportGridIndexTest {
+
+    private TransportGridIndex index;
+
+    @BeforeEach
+    void setUp() {
+        index = new TransportGridIndex(0.5);
+    }
+
+    private static Transport transport(long id, TransportType type, double lat, double lng) {
+        return Transport.builder().id(id).transportType(type).statusId(1L).cityId(1L)
+                .latitude(lat).longitude(lng).build();
+    }
+
+    private static List<Long> ids(List<Transport> transports) {
+        return transports.stream().map(Transport::getId).toList();
+    }
+
+    @Test
+    void findNearby_ReturnsOnlyWithinRadius_SortedByDistance() {
+        // Arrange: SPB center, ~1.1 km, ~0.55 km and ~11 km north
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.94, 30.36));
+        index.put(transport(2L, TransportType.ELECTRIC_SCOOTER, 59.935, 30.36));
+        index.put(transport(3L, TransportType.ELECTRIC_SCOOTER, 60.03, 30.36));
+
+        // Act
+        List<Transport> found = index.findNearby(59.93, 30.36, 2.0, null, Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(List.of(2L, 1L), ids(found));
+    }
+
+    @Test
+    void findNearby_FiltersByType() {
+        // Arrange
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+        index.put(transport(2L, TransportType.ELECTRIC_BICYCLE, 59.93, 30.361));
+
+        // Act
+        List<Transport> found = index.findNearby(59.93, 30.36, 1.0, TransportType.ELECTRIC_BICYCLE, 10);
+
+        // Assert
+        assertEquals(List.of(2L), ids(found));
+    }
+
+    @Test
+    void findNearby_Limit_ReturnsNearestN() {
+        // Arrange
+        for (long i = 1; i <= 10; i++) {
+            index.put(transport(i, TransportType.GAS_MOTORCYCLE, 59.93 + i * 0.001, 30.36));
+        }
+
+        // Act
+        List<Transport> found = index.findNearby(59.93, 30.36, 5.0, null, 3);
+
+        // Assert
+        assertEquals(List.of(1L, 2L, 3L), ids(found));
+    }
+
+    @Test
+    void findNearby_HugeRadius_WalksPopulatedCells() {
+        // Arrange: SPB and MSK are ~630 km apart
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+        index.put(transport(2L, TransportType.ELECTRIC_SCOOTER, 55.75, 37.61));
+
+        // Act
+        List<Transport> found = index.findNearby(59.93, 30.36, 1000.0, null, Integer.MAX_VALUE);
+
+        // Assert
+        assertEquals(List.of(1L, 2L), ids(found));
+    }
+
+    @Test
+    void put_SameId_RelinksBetweenCells() {
+        // Arrange
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+
+        // Act: moved ~11 km away
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 60.03, 30.36));
+
+        // Assert
+        assertTrue(index.findNearby(59.93, 30.36, 1.0, null, 10).isEmpty());
+        assertEquals(List.of(1L), ids(index.findNearby(60.03, 30.36, 1.0, null, 10)));
+        assertEquals(1, index.size());
+    }
+
+    @Test
+    void findNearby_MinCharge_SkipsLowAndUnknownCharge() {
+        // Arrange: nearest one is almost empty, charge of the second is unknown
+        Transport low = transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36);
+        low.setChargeLevel(BigDecimal.valueOf(5));
+        Transport unknown = transport(2L, TransportType.ELECTRIC_SCOOTER, 59.931, 30.36);
+        Transport charged = transport(3L, TransportType.ELECTRIC_SCOOTER, 59.932, 30.36);
+        charged.setChargeLevel(BigDecimal.valueOf(80));
+        index.put(low);
+        index.put(unknown);
+        index.put(charged);
+
+        // Act
+        List<Transport> found = index.findNearby(59.93, 30.36, 1.0, null, 30, 1);
+
+        // Assert: the limit is spent on transports that pass the filter
+        assertEquals(List.of(3L), ids(found));
+        assertEquals(BigDecimal.valueOf(80), found.get(0).getChargeLevel());
+        assertEquals(List.of(1L, 2L, 3L), ids(index.findNearby(59.93, 30.36, 1.0, null, 0, 10)));
+    }
+
+    @Test
+    void move_NotIndexed_IsIgnored() {
+        // Act
+        index.move(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+
+        // Assert
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void move_Indexed_UpdatesCoordinates() {
+        // Arrange
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+
+        // Act
+        index.move(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.95, 30.36));
+
+        // Assert
+        Transport found = index.findNearby(59.95, 30.36, 0.1, null, 1).get(0);
+        assertEquals(59.95, found.getLatitude());
+    }
+
+    @Test
+    void remove_DropsFromSearch() {
+        // Arrange
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+
+        // Act
+        index.remove(1L);
+
+        // Assert
+        assertTrue(index.findNearby(59.93, 30.36, 1.0, null, 10).isEmpty());
+    }
+
+    @Test
+    void remove_LastInCell_EvictsCell() {
+        // Arrange: two transports of different types share a cell
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+        index.put(transport(2L, TransportType.ELECTRIC_BICYCLE, 59.93, 30.36));
+
+        // Act & Assert
+        index.remove(1L);
+        assertEquals(1, index.populatedCells());
+        index.remove(2L);
+        assertEquals(0, index.populatedCells());
+    }
+
+    @Test
+    void move_ToAnotherCell_EvictsLeftCell() {
+        // Arrange
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+
+        // Act: ~2 km north, a different 0.5 km cell
+        index.move(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.95, 30.36));
+
+        // Assert
+        assertEquals(1, index.populatedCells());
+        assertEquals(List.of(1L), ids(index.findNearby(59.95, 30.36, 0.1, null, 10)));
+    }
+
+    @Test
+    void reconcile_LoadsSnapshot_AndMarksReady() {
+        // Arrange
+        assertFalse(index.isReady());
+        long mark = index.snapshotMark();
+
+        // Act
+        int size = index.reconcile(List.of(
+                transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36),
+                transport(2L, TransportType.ELECTRIC_BICYCLE, 59.931, 30.36)
+        ), mark);
+
+        // Assert
+        assertEquals(2, size);
+        assertTrue(index.isReady());
+    }
+
+    @Test
+    void reconcile_RemovesEntriesMissingInSnapshot() {
+        // Arrange
+        index.put(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+        long mark = index.snapshotMark();
+
+        // Act
+        index.reconcile(List.of(), mark);
+
+        // Assert
+        assertEquals(0, index.size());
+    }
+
+    @Test
+    void reconcile_DoesNotOverrideUpdatesNewerThanSnapshot() {
+        // Arrange: snapshot taken, then transport 1 is rented and transport 2 becomes available
+        long mark = index.snapshotMark();
+        index.put(transport(2L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36));
+        index.remove(1L);
+
+        // Act: stale snapshot still sees 1 as available and doesn't know about 2
+        index.reconcile(List.of(transport(1L, TransportType.ELECTRIC_SCOOTER, 59.93, 30.36)), mark);
+
+        // Assert
+        assertEquals(List.of(2L), ids(index.findNearby(59.93, 30.36, 1.0, null, 10)));
+    }
+}
@@ -0,0 +1,146 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.TransportReadModel;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportView;
+import org.scoooting.transport.domain.model.enums.TransportType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TransportReadModelTest {
+
+    private TransportReadModel readModel;
+
+    @BeforeEach
+    void setUp() {
+        readModel = new TransportReadModel();
+    }
+
+    private static TransportView view(long id, double lat, double lng) {
+        return new TransportView(id, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                1L, "SPB", lat, lng, BigDecimal.valueOf(90));
+    }
+
+    @Test
+    void reconcile_LoadsSnapshot_AndMarksReady() {
+        // Act
+        int size = readModel.reconcile(List.of(view(1L, 59.93, 30.36), view(2L, 59.94, 30.37)),
+                readModel.snapshotMark());
+
+        // Assert
+        assertEquals(2, size);
+        assertTrue(readModel.isReady());
+        assertEquals("SPB", readModel.find(1L).orElseThrow().cityName());
+    }
+
+    @Test
+    void reconcile_RemovesTransportsMissingInSnapshot() {
+        // Arrange
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36), view(2L, 59.94, 30.37)), readModel.snapshotMark());
+
+        // Act
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36)), readModel.snapshotMark());
+
+        // Assert
+        assertTrue(readModel.find(2L).isEmpty());
+        assertEquals(1, readModel.size());
+    }
+
+    @Test
+    void statusChanged_UpdatesStatusAndPosition_KeepsJoinedColumns() {
+        // Arrange
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36)), readModel.snapshotMark());
+        Transport rented = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_SCOOTER)
+                .statusId(2L).cityId(1L).latitude(59.95).longitude(30.40).build();
+
+        // Act
+        readModel.statusChanged(rented, "IN_USE");
+
+        // Assert
+        TransportView view = readModel.find(1L).orElseThrow();
+        assertEquals(2L, view.statusId());
+        assertEquals("IN_USE", view.statusName());
+        assertEquals(59.95, view.latitude());
+        assertEquals("SPB", view.cityName());
+        assertEquals(BigDecimal.valueOf(90), view.energyLevel());
+    }
+
+    @Test
+    void moved_And_EnergyChanged_UpdateInPlace() {
+        // Arrange
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36)), readModel.snapshotMark());
+
+        // Act
+        readModel.moved(Transport.builder().id(1L).latitude(59.99).longitude(30.5).build());
+        readModel.energyChanged(1L, BigDecimal.valueOf(15));
+
+        // Assert
+        TransportView view = readModel.find(1L).orElseThrow();
+        assertEquals(59.99, view.latitude());
+        assertEquals(30.5, view.longitude());
+        assertEquals(BigDecimal.valueOf(15), view.energyLevel());
+        assertEquals("AVAILABLE", view.statusName());
+    }
+
+    @Test
+    void liveUpdates_IgnoreTransportsNotProjectedYet() {
+        // Act
+        readModel.moved(Transport.builder().id(5L).latitude(59.99).longitude(30.5).build());
+        readModel.energyChanged(5L, BigDecimal.ONE);
+
+        // Assert
+        assertTrue(readModel.find(5L).isEmpty());
+    }
+
+    @Test
+    void reconcile_DoesNotOverrideNewerLiveUpdate() {
+        // Arrange
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36)), readModel.snapshotMark());
+        long snapshotMark = readModel.snapshotMark();
+        readModel.moved(Transport.builder().id(1L).latitude(59.99).longitude(30.5).build());
+
+        // Act: snapshot read before the move still has the old position
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36)), snapshotMark);
+
+        // Assert
+        assertEquals(59.99, readModel.find(1L).orElseThrow().latitude());
+    }
+
+    @Test
+    void reconcile_MovingTransport_TakesOtherFieldsFromSnapshot() {
+        // Arrange
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36)), readModel.snapshotMark());
+        long snapshotMark = readModel.snapshotMark();
+        readModel.moved(Transport.builder().id(1L).latitude(59.99).longitude(30.5).build());
+
+        // Act: another instance rented it out and its battery drained
+        TransportView snapshot = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 2L, "IN_USE",
+                1L, "SPB", 59.95, 30.4, BigDecimal.valueOf(40));
+        readModel.reconcile(List.of(snapshot), snapshotMark);
+
+        // Assert
+        TransportView view = readModel.find(1L).orElseThrow();
+        assertEquals(59.99, view.latitude());
+        assertEquals(30.5, view.longitude());
+        assertEquals("IN_USE", view.statusName());
+        assertEquals(BigDecimal.valueOf(40), view.energyLevel());
+    }
+
+    @Test
+    void reconcile_LaterSnapshot_OverridesEarlierLiveUpdate() {
+        // Arrange
+        readModel.reconcile(List.of(view(1L, 59.93, 30.36)), readModel.snapshotMark());
+        readModel.moved(Transport.builder().id(1L).latitude(59.99).longitude(30.5).build());
+
+        // Act
+        readModel.reconcile(List.of(view(1L, 59.95, 30.4)), readModel.snapshotMark());
+
+        // Assert
+        assertEquals(59.95, readModel.find(1L).orElseThrow().latitude());
+    }
+}
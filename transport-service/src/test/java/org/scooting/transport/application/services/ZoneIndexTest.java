@@ -0,0 +1,103 @@
+package org.scooting.transport.application.services;
+
+import org.junit.jupiter.api.Test;
+import org.scoooting.transport.application.services.ZoneIndex;
+import org.scoooting.transport.domain.model.Zone;
+import org.scoooting.transport.domain.model.ZoneCheck;
+import org.scoooting.transport.domain.model.enums.ZoneType;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ZoneIndexTest {
+
+    /** Axis-aligned square around the point, half size in degrees */
+    private static Zone square(long id, ZoneType type, Integer speedLimit, double lat, double lng, double half) {
+        return new Zone(id, "zone-" + id, type, speedLimit,
+                new double[]{lat - half, lat - half, lat + half, lat + half},
+                new double[]{lng - half, lng + half, lng + half, lng - half});
+    }
+
+    @Test
+    void zonesAt_PointInsidePolygon_Found_PointInBoundingBoxOnly_NotFound() {
+        // Arrange: triangle, its bounding box corner (59.99, 30.09) is outside
+        Zone triangle = new Zone(1L, "triangle", ZoneType.NO_PARKING, null,
+                new double[]{59.90, 59.90, 60.00},
+                new double[]{30.00, 30.10, 30.00});
+        ZoneIndex index = new ZoneIndex(0.5, false);
+        index.load(List.of(triangle));
+
+        // Act & Assert
+        assertEquals(List.of(triangle), index.zonesAt(59.92, 30.02));
+        assertTrue(index.zonesAt(59.99, 30.09).isEmpty());
+        assertTrue(index.zonesAt(55.75, 37.61).isEmpty());
+    }
+
+    @Test
+    void check_NoParkingZone_ForbidsParking() {
+        // Arrange
+        ZoneIndex index = new ZoneIndex(0.5, false);
+        index.load(List.of(square(1L, ZoneType.NO_PARKING, null, 59.93, 30.31, 0.01)));
+
+        // Act & Assert
+        assertFalse(index.check(59.93, 30.31).parkingAllowed());
+        assertTrue(index.check(59.95, 30.31).parkingAllowed());
+    }
+
+    @Test
+    void check_ParkingRequired_AllowsOnlyInsideParkingZone() {
+        // Arrange
+        ZoneIndex index = new ZoneIndex(0.5, true);
+        index.load(List.of(square(1L, ZoneType.PARKING, null, 59.93, 30.31, 0.001)));
+
+        // Act & Assert
+        assertTrue(index.check(59.93, 30.31).parkingAllowed());
+        assertFalse(index.check(59.95, 30.31).parkingAllowed());
+    }
+
+    @Test
+    void check_OverlappingSlowZones_LowestLimitWins() {
+        // Arrange
+        ZoneIndex index = new ZoneIndex(0.5, false);
+        index.load(List.of(
+                square(1L, ZoneType.SLOW, 15, 59.93, 30.31, 0.02),
+                square(2L, ZoneType.SLOW, 10, 59.93, 30.31, 0.005)));
+
+        // Act
+        ZoneCheck inner = index.check(59.93, 30.31);
+        ZoneCheck outer = index.check(59.945, 30.31);
+
+        // Assert
+        assertEquals(10, inner.speedLimitKmh());
+        assertEquals(15, outer.speedLimitKmh());
+        assertTrue(inner.parkingAllowed());
+    }
+
+    @Test
+    void check_LargeServiceAreaZone_Found() {
+        // Arrange: spans far more cells than are bucketed per zone
+        ZoneIndex index = new ZoneIndex(0.5, false);
+        index.load(List.of(square(1L, ZoneType.OUT_OF_SERVICE, null, 59.93, 30.31, 2.0)));
+
+        // Act & Assert
+        assertTrue(index.check(60.5, 31.0).isIn(ZoneType.OUT_OF_SERVICE));
+        assertFalse(index.check(60.5, 31.0).parkingAllowed());
+    }
+
+    @Test
+    void load_ReplacesPreviousZones() {
+        // Arrange
+        ZoneIndex index = new ZoneIndex(0.5, false);
+        assertFalse(index.isReady());
+        index.load(List.of(square(1L, ZoneType.NO_PARKING, null, 59.93, 30.31, 0.01)));
+
+        // Act
+        index.load(List.of());
+
+        // Assert
+        assertTrue(index.isReady());
+        assertEquals(0, index.size());
+        assertTrue(index.check(59.93, 30.31).parkingAllowed());
+    }
+}
@@ -9,13 +9,17 @@ import org.mockito.junit.jupiter.MockitoExtension;
 import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.BatteryNotificationDto;
 import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.EmptyBatteryDto;
 import org.scoooting.transport.application.ports.BatteryEventPublisher;
+import org.scoooting.transport.application.services.TransportReadModel;
 import org.scoooting.transport.application.usecase.BatteryNotificationUseCase;
 import org.scoooting.transport.domain.model.Transport;
 import org.scoooting.transport.domain.repositories.TransportRepository;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
+
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -27,6 +31,9 @@ class BatteryNotificationUseCaseTest {
     @Mock
     private TransportRepository transportRepository;
 
+    @Mock
+    private TransportReadModel transportReadModel;
+
     @InjectMocks
     private BatteryNotificationUseCase batteryNotificationUseCase;
 
@@ -43,6 +50,8 @@ class BatteryNotificationUseCaseTest {
     @Test
     void notifyBattery_NormalBattery_PublishesBatteryEventOnly() {
         // Arrange
+        when(transportRepository.updateEnergyLevel(eq(1L), any(BigDecimal.class)))
+                .thenReturn(Mono.empty());
         when(batteryEventPublisher.publishBattery(any(BatteryNotificationDto.class)))
                 .thenReturn(Mono.empty());
 
@@ -53,11 +62,15 @@ class BatteryNotificationUseCaseTest {
         verify(batteryEventPublisher).publishBattery(any(BatteryNotificationDto.class));
         verify(batteryEventPublisher, never()).publishForceEndRental(any());
         verify(transportRepository, never()).findById(anyLong());
+        verify(transportRepository).updateEnergyLevel(1L, BigDecimal.valueOf(50));
+        verify(transportReadModel).energyChanged(1L, BigDecimal.valueOf(50));
     }
 
     @Test
     void notifyBattery_EmptyBattery_PublishesBothEvents() {
         // Arrange
+        when(transportRepository.updateEnergyLevel(eq(1L), any(BigDecimal.class)))
+                .thenReturn(Mono.empty());
         when(batteryEventPublisher.publishBattery(any(BatteryNotificationDto.class)))
                 .thenReturn(Mono.empty());
         when(transportRepository.findById(1L))
@@ -77,6 +90,8 @@ class BatteryNotificationUseCaseTest {
     @Test
     void notifyBattery_FullBattery_PublishesBatteryEventOnly() {
         // Arrange
+        when(transportRepository.updateEnergyLevel(eq(1L), any(BigDecimal.class)))
+                .thenReturn(Mono.empty());
         when(batteryEventPublisher.publishBattery(any(BatteryNotificationDto.class)))
                 .thenReturn(Mono.empty());
 
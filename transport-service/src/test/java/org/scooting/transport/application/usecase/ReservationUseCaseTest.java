@@ -0,0 +1,271 @@
+package org.scooting.transport.application.usecase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
+import org.scoooting.transport.application.services.ReservationTimer;
+import org.scoooting.transport.application.usecase.ReservationUseCase;
+import org.scoooting.transport.application.usecase.ToResponseDto;
+import org.scoooting.transport.application.usecase.TransportUpdateUseCase;
+import org.scoooting.transport.domain.exceptions.TransportConflictException;
+import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
+import org.scoooting.transport.domain.model.Reservation;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportStatus;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.scoooting.transport.domain.repositories.TransportStatusRepository;
+import org.springframework.dao.DuplicateKeyException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ReservationUseCaseTest {
+
+    private static final long AVAILABLE_ID = 1L;
+    private static final long IN_USE_ID = 2L;
+    private static final long RESERVED_ID = 4L;
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private TransportStatusRepository statusRepository;
+
+    @Mock
+    private TransportUpdateUseCase transportUpdateUseCase;
+
+    @Mock
+    private ToResponseDto toResponseDto;
+
+    @Mock
+    private ReservationTimer reservationTimer;
+
+    private ReservationUseCase reservationUseCase;
+
+    private Transport reserved;
+    private TransportResponseDTO responseDTO;
+
+    @BeforeEach
+    void setUp() {
+        reservationUseCase = new ReservationUseCase(transportRepository, statusRepository, transportUpdateUseCase,
+                toResponseDto, reservationTimer, Duration.ofMinutes(10));
+
+        lenient().when(statusRepository.findByName(TransportStatus.AVAILABLE))
+                .thenReturn(Mono.just(new TransportStatus(AVAILABLE_ID, TransportStatus.AVAILABLE)));
+        lenient().when(statusRepository.findByName(TransportStatus.IN_USE))
+                .thenReturn(Mono.just(new TransportStatus(IN_USE_ID, TransportStatus.IN_USE)));
+        lenient().when(statusRepository.findByName(TransportStatus.RESERVED))
+                .thenReturn(Mono.just(new TransportStatus(RESERVED_ID, TransportStatus.RESERVED)));
+
+        reserved = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_KICK_SCOOTER)
+                .statusId(RESERVED_ID).cityId(1L).latitude(60.0).longitude(30.0).build();
+        responseDTO = new TransportResponseDTO(1L, "ELECTRIC_KICK_SCOOTER", "IN_USE", 60.0, 30.0, "SPB", null);
+    }
+
+    @Test
+    void reserveTransport_Available_SchedulesExpiry() {
+        // Arrange
+        when(transportRepository.reserve(eq(1L), eq(AVAILABLE_ID), eq(RESERVED_ID), eq(100L), any(Instant.class)))
+                .thenReturn(Mono.just(reserved));
+        Instant before = Instant.now();
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.reserveTransport(1L, 100L))
+                .expectNextMatches(dto -> dto.transportId().equals(1L)
+                        && dto.userId().equals(100L)
+                        && !dto.expiresAt().isBefore(before.plus(Duration.ofMinutes(10)).minusMillis(1)))
+                .verifyComplete();
+
+        verify(reservationTimer).schedule(eq(1L), anyLong());
+        verify(transportUpdateUseCase).statusChanged(reserved, AVAILABLE_ID, TransportStatus.RESERVED);
+    }
+
+    @Test
+    void reserveTransport_NotAvailable_ThrowsConflict() {
+        // Arrange
+        when(transportRepository.reserve(eq(1L), eq(AVAILABLE_ID), eq(RESERVED_ID), eq(100L), any(Instant.class)))
+                .thenReturn(Mono.empty());
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(reserved));
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.reserveTransport(1L, 100L))
+                .expectError(TransportConflictException.class)
+                .verify();
+
+        verifyNoInteractions(reservationTimer, transportUpdateUseCase);
+    }
+
+    @Test
+    void reserveTransport_UserHoldsAnother_ThrowsConflict() {
+        // Arrange
+        when(transportRepository.reserve(eq(1L), eq(AVAILABLE_ID), eq(RESERVED_ID), eq(100L), any(Instant.class)))
+                .thenReturn(Mono.error(new DuplicateKeyException("uq_transports_reserved_by")));
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.reserveTransport(1L, 100L))
+                .expectErrorMatches(e -> e instanceof TransportConflictException
+                        && e.getMessage().contains("already holds"))
+                .verify();
+    }
+
+    @Test
+    void reserveTransport_Missing_ThrowsNotFound() {
+        // Arrange
+        when(transportRepository.reserve(eq(999L), eq(AVAILABLE_ID), eq(RESERVED_ID), eq(100L), any(Instant.class)))
+                .thenReturn(Mono.empty());
+        when(transportRepository.findById(999L))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.reserveTransport(999L, 100L))
+                .expectError(TransportNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void cancelReservation_ByHolder_ReleasesAndCancelsTimer() {
+        // Arrange
+        Transport released = Transport.builder().id(1L).statusId(AVAILABLE_ID).cityId(1L).build();
+        when(transportRepository.endReservation(1L, RESERVED_ID, AVAILABLE_ID, 100L, null))
+                .thenReturn(Mono.just(released));
+        when(toResponseDto.execute(released))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.cancelReservation(1L, 100L))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(reservationTimer).cancel(1L);
+        verify(transportUpdateUseCase).statusChanged(released, RESERVED_ID, TransportStatus.AVAILABLE);
+    }
+
+    @Test
+    void cancelReservation_HeldBySomeoneElse_ThrowsConflict() {
+        // Arrange
+        when(transportRepository.endReservation(1L, RESERVED_ID, AVAILABLE_ID, 200L, null))
+                .thenReturn(Mono.empty());
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(reserved));
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.cancelReservation(1L, 200L))
+                .expectError(TransportConflictException.class)
+                .verify();
+
+        verifyNoInteractions(reservationTimer);
+    }
+
+    @Test
+    void acquireTransport_Available_NoReservationLookup() {
+        // Arrange
+        when(transportUpdateUseCase.acquireTransport(1L))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.acquireTransport(1L, 100L))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(transportRepository, never()).endReservation(anyLong(), anyLong(), anyLong(), any(), any());
+    }
+
+    @Test
+    void acquireTransport_ReservedByUser_ClaimsReservation() {
+        // Arrange
+        Transport inUse = Transport.builder().id(1L).statusId(IN_USE_ID).cityId(1L).build();
+        when(transportUpdateUseCase.acquireTransport(1L))
+                .thenReturn(Mono.error(new TransportConflictException("Transport 1 is not AVAILABLE")));
+        when(transportRepository.endReservation(1L, RESERVED_ID, IN_USE_ID, 100L, null))
+                .thenReturn(Mono.just(inUse));
+        when(toResponseDto.execute(inUse))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.acquireTransport(1L, 100L))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(reservationTimer).cancel(1L);
+        verify(transportUpdateUseCase).statusChanged(inUse, RESERVED_ID, TransportStatus.IN_USE);
+    }
+
+    @Test
+    void acquireTransport_ReservedBySomeoneElse_ThrowsConflict() {
+        // Arrange
+        when(transportUpdateUseCase.acquireTransport(1L))
+                .thenReturn(Mono.error(new TransportConflictException("Transport 1 is not AVAILABLE")));
+        when(transportRepository.endReservation(1L, RESERVED_ID, IN_USE_ID, 200L, null))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.acquireTransport(1L, 200L))
+                .expectError(TransportConflictException.class)
+                .verify();
+
+        verifyNoInteractions(reservationTimer);
+    }
+
+    @Test
+    void expireReservations_NothingDue_NoDatabaseAccess() {
+        // Arrange
+        when(reservationTimer.advance(anyLong()))
+                .thenReturn(List.of());
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.expireReservations())
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(transportRepository, statusRepository);
+    }
+
+    @Test
+    void expireReservations_Due_ReleasesOnlyStillExpiredHolds() {
+        // Arrange: transport 2 was rented by its holder in the meantime
+        Transport released = Transport.builder().id(1L).statusId(AVAILABLE_ID).cityId(1L).build();
+        when(reservationTimer.advance(anyLong()))
+                .thenReturn(List.of(1L, 2L));
+        when(transportRepository.endReservation(eq(1L), eq(RESERVED_ID), eq(AVAILABLE_ID), isNull(), any(Instant.class)))
+                .thenReturn(Mono.just(released));
+        when(transportRepository.endReservation(eq(2L), eq(RESERVED_ID), eq(AVAILABLE_ID), isNull(), any(Instant.class)))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.expireReservations())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(transportUpdateUseCase).statusChanged(released, RESERVED_ID, TransportStatus.AVAILABLE);
+        verifyNoMoreInteractions(transportUpdateUseCase);
+    }
+
+    @Test
+    void reloadReservations_SchedulesStoredHolds() {
+        // Arrange
+        Instant expiresAt = Instant.parse("2030-01-01T10:00:00Z");
+        when(transportRepository.findReservations())
+                .thenReturn(Flux.just(new Reservation(1L, 100L, expiresAt), new Reservation(2L, 200L, expiresAt)));
+
+        // Act & Assert
+        StepVerifier.create(reservationUseCase.reloadReservations())
+                .expectNext(2)
+                .verifyComplete();
+
+        verify(reservationTimer).schedule(1L, expiresAt.toEpochMilli());
+        verify(reservationTimer).schedule(2L, expiresAt.toEpochMilli());
+    }
+}
@@ -0,0 +1,175 @@
+package org.scooting.transport.application.usecase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.interfaces.dto.TelemetryIngestResponseDTO;
+import org.scoooting.transport.adapters.interfaces.dto.TelemetrySampleDTO;
+import org.scoooting.transport.adapters.infrastructure.messaging.kafka.dto.TransportPositionDto;
+import org.scoooting.transport.application.ports.TransportPositionPublisher;
+import org.scoooting.transport.application.services.TelemetryBuffer;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.application.services.TransportReadModel;
+import org.scoooting.transport.application.services.ZoneIndex;
+import org.scoooting.transport.application.usecase.TelemetryUseCase;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.ZoneCheck;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyDouble;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TelemetryUseCaseTest {
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private TransactionalOperator transactionalOperator;
+
+    @Mock
+    private TransportGridIndex transportGridIndex;
+
+    @Mock
+    private TransportReadModel transportReadModel;
+
+    @Mock
+    private TransportChangeFeed transportChangeFeed;
+
+    @Mock
+    private TransportPositionPublisher transportPositionPublisher;
+
+    @Mock
+    private ZoneIndex zoneIndex;
+
+    // Real buffer: coalescing is part of the behaviour under test
+    private TelemetryBuffer telemetryBuffer;
+    private TelemetryUseCase telemetryUseCase;
+
+    @BeforeEach
+    void setUp() {
+        telemetryBuffer = new TelemetryBuffer(100);
+        telemetryUseCase = new TelemetryUseCase(telemetryBuffer, transportRepository, transactionalOperator,
+                transportGridIndex, transportReadModel, transportChangeFeed, transportPositionPublisher,
+                zoneIndex);
+    }
+
+    private static TelemetrySampleDTO dto(Long transportId, double lat, Integer battery, long ts) {
+        return new TelemetrySampleDTO(transportId, lat, 30.0, battery, ts);
+    }
+
+    @Test
+    void ingest_CountsAcceptedAndRejected() {
+        // Arrange
+        long now = Instant.now().toEpochMilli();
+        long farFuture = Instant.now().plus(Duration.ofHours(1)).toEpochMilli();
+
+        // Act & Assert
+        StepVerifier.create(telemetryUseCase.ingest(Flux.just(
+                        dto(1L, 59.9, 80, now),
+                        dto(2L, 59.9, null, now),
+                        dto(null, 59.9, 80, now),        // no transport
+                        dto(3L, 95.0, 80, now),          // latitude out of range
+                        dto(4L, 59.9, 120, now),         // battery out of range
+                        dto(5L, 59.9, 80, farFuture))))  // device clock ahead
+                .expectNext(new TelemetryIngestResponseDTO(2, 4))
+                .verifyComplete();
+
+        assertEquals(2, telemetryBuffer.size());
+        verifyNoInteractions(transportRepository);
+    }
+
+    @Test
+    void flush_WritesOneSamplePerTransport_AndAppliesAfterCommit() {
+        // Arrange
+        when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        long now = Instant.now().toEpochMilli();
+        telemetryUseCase.ingest(Flux.just(dto(1L, 59.90, 80, now - 1_000), dto(1L, 59.95, 75, now))).block();
+
+        Transport moved = Transport.builder().id(1L).latitude(59.95).longitude(30.0).build();
+        when(transportRepository.applyTelemetry(anyCollection())).thenReturn(Flux.just(moved));
+        when(zoneIndex.check(anyDouble(), anyDouble())).thenReturn(new ZoneCheck(List.of(), true, null));
+
+        // Act & Assert
+        StepVerifier.create(telemetryUseCase.flush())
+                .expectNext(1)
+                .verifyComplete();
+
+        verify(transportRepository).applyTelemetry(argThat(samples -> samples.size() == 1
+                && samples.iterator().next().latitude() == 59.95));
+        assertEquals(BigDecimal.valueOf(75), moved.getChargeLevel());
+        verify(transportReadModel).energyChanged(1L, BigDecimal.valueOf(75));
+        verify(transportGridIndex).move(moved);
+        verify(transportReadModel).moved(moved);
+        verify(transportChangeFeed).publish(moved);
+        verify(transportPositionPublisher).publishPositions(
+                List.of(new TransportPositionDto(1L, 59.95, 30.0, now)));
+        assertEquals(0, telemetryBuffer.size());
+    }
+
+    @Test
+    void flush_PublishFailure_DoesNotFailCommittedFlush() {
+        // Arrange
+        when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        telemetryUseCase.ingest(Flux.just(dto(1L, 59.90, null, Instant.now().toEpochMilli()))).block();
+        when(transportRepository.applyTelemetry(anyCollection()))
+                .thenReturn(Flux.just(Transport.builder().id(1L).latitude(59.90).longitude(30.0).build()));
+        doThrow(new RuntimeException("Kafka down")).when(transportPositionPublisher).publishPositions(anyCollection());
+        when(zoneIndex.check(anyDouble(), anyDouble())).thenReturn(new ZoneCheck(List.of(), true, null));
+
+        // Act & Assert
+        StepVerifier.create(telemetryUseCase.flush())
+                .expectNext(1)
+                .verifyComplete();
+
+        // Committed samples are not retried
+        assertEquals(0, telemetryBuffer.size());
+    }
+
+    @Test
+    void flush_EmptyBuffer_NoDatabaseCall() {
+        // Act & Assert
+        StepVerifier.create(telemetryUseCase.flush())
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(transportRepository, transactionalOperator);
+    }
+
+    @Test
+    void flush_Failure_RestoresSamples_NoLiveUpdates() {
+        // Arrange
+        when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        telemetryUseCase.ingest(Flux.just(dto(1L, 59.90, 80, Instant.now().toEpochMilli()))).block();
+        when(transportRepository.applyTelemetry(anyCollection()))
+                .thenReturn(Flux.error(new RuntimeException("DB down")));
+
+        // Act & Assert
+        StepVerifier.create(telemetryUseCase.flush())
+                .expectError(RuntimeException.class)
+                .verify();
+
+        assertEquals(1, telemetryBuffer.size());
+        verifyNoInteractions(transportGridIndex, transportReadModel, transportChangeFeed, transportPositionPublisher,
+                zoneIndex);
+    }
+}
@@ -8,17 +8,25 @@ import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
 import org.scoooting.transport.application.ports.UserClient;
+import org.scoooting.transport.application.services.TransportReadModel;
 import org.scoooting.transport.application.usecase.ToResponseDto;
 import org.scoooting.transport.domain.mappers.TransportMapper;
 import org.scoooting.transport.domain.model.Transport;
 import org.scoooting.transport.domain.model.TransportStatus;
+import org.scoooting.transport.domain.model.TransportView;
 import org.scoooting.transport.domain.model.enums.TransportType;
 import org.scoooting.transport.domain.repositories.TransportStatusRepository;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.math.BigDecimal;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+
 import static org.mockito.ArgumentMatchers.*;
-import static org.mockito.Mockito.when;
+import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
 class ToResponseDtoTest {
@@ -32,6 +40,9 @@ class ToResponseDtoTest {
     @Mock
     private TransportMapper transportMapper;
 
+    @Mock
+    private TransportReadModel transportReadModel;
+
     @InjectMocks
     private ToResponseDto toResponseDto;
 
@@ -52,7 +63,7 @@ class ToResponseDtoTest {
         transportStatus = new TransportStatus(1L, "AVAILABLE");
 
         responseDTO = new TransportResponseDTO(
-                1L, "SCOOTER", "AVAILABLE", 60.0, 30.0, "SPB"
+                1L, "SCOOTER", "AVAILABLE", 60.0, 30.0, "SPB", null
         );
     }
 
@@ -91,4 +102,167 @@ class ToResponseDtoTest {
                 .expectNextCount(1)
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void executeAll_ResolvesDistinctIdsOnce_AndKeepsOrder() {
+        // Arrange: 3 transports, 2 statuses, 2 cities
+        Transport second = Transport.builder().id(2L).transportType(TransportType.ELECTRIC_BICYCLE)
+                .statusId(2L).cityId(2L).latitude(55.7).longitude(37.6).build();
+        Transport third = Transport.builder().id(3L).transportType(TransportType.ELECTRIC_SCOOTER)
+                .statusId(1L).cityId(1L).latitude(60.1).longitude(30.1).build();
+        TransportResponseDTO secondDTO = new TransportResponseDTO(2L, "BICYCLE", "IN_USE", 55.7, 37.6, "MSK", null);
+        TransportResponseDTO thirdDTO = new TransportResponseDTO(3L, "SCOOTER", "AVAILABLE", 60.1, 30.1, "SPB", null);
+
+        when(statusRepository.findAllById(Set.of(1L, 2L)))
+                .thenReturn(Flux.just(transportStatus, new TransportStatus(2L, "IN_USE")));
+        when(userClient.getCityNames(Set.of(1L, 2L)))
+                .thenReturn(Mono.just(Map.of(1L, "SPB", 2L, "MSK")));
+        when(transportMapper.toResponseDTO(transport, "AVAILABLE", "SPB")).thenReturn(responseDTO);
+        when(transportMapper.toResponseDTO(second, "IN_USE", "MSK")).thenReturn(secondDTO);
+        when(transportMapper.toResponseDTO(third, "AVAILABLE", "SPB")).thenReturn(thirdDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.executeAll(Flux.just(transport, second, third)))
+                .expectNext(responseDTO, secondDTO, thirdDTO)
+                .verifyComplete();
+
+        verify(statusRepository, times(1)).findAllById(any());
+        verify(userClient, times(1)).getCityNames(any());
+        verify(statusRepository, never()).findById(any());
+        verify(userClient, never()).getCityName(any());
+    }
+
+    @Test
+    void execute_InReadModel_NoLookups() {
+        // Arrange
+        TransportView view = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                1L, "SPB", 60.0, 30.0, BigDecimal.valueOf(80));
+        when(transportReadModel.find(1L)).thenReturn(Optional.of(view));
+        when(transportMapper.toResponseDTO(view)).thenReturn(responseDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.execute(transport))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verifyNoInteractions(statusRepository, userClient);
+    }
+
+    @Test
+    void execute_InReadModel_StatusAndPositionFromRow() {
+        // Arrange: another instance rented the transport out and it moved since the view was written
+        TransportView view = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                1L, "SPB", 60.0, 30.0, BigDecimal.valueOf(80));
+        transport.setStatusId(2L);
+        transport.setLatitude(60.1);
+        transport.setLongitude(30.1);
+        TransportView current = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 2L, "IN_USE",
+                1L, "SPB", 60.1, 30.1, BigDecimal.valueOf(80));
+        when(transportReadModel.find(1L)).thenReturn(Optional.of(view));
+        when(statusRepository.findById(2L)).thenReturn(Mono.just(new TransportStatus(2L, "IN_USE")));
+        when(transportMapper.toResponseDTO(current)).thenReturn(responseDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.execute(transport))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verifyNoInteractions(userClient);
+    }
+
+    @Test
+    void execute_InReadModel_OtherCity_LooksUpCity() {
+        // Arrange
+        TransportView view = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                2L, "MSK", 55.7, 37.6, BigDecimal.valueOf(80));
+        when(transportReadModel.find(1L)).thenReturn(Optional.of(view));
+        when(statusRepository.findById(1L)).thenReturn(Mono.just(transportStatus));
+        when(userClient.getCityName(1L)).thenReturn(Mono.just("SPB"));
+        when(transportMapper.toResponseDTO(transport, "AVAILABLE", "SPB")).thenReturn(responseDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.execute(transport))
+                .expectNext(responseDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void executeAll_ReadModelHit_StatusChanged_LooksUpStatusOnly() {
+        // Arrange
+        TransportView view = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 2L, "IN_USE",
+                1L, "SPB", 60.0, 30.0, BigDecimal.valueOf(80));
+        TransportView current = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                1L, "SPB", 60.0, 30.0, BigDecimal.valueOf(80));
+        when(transportReadModel.find(1L)).thenReturn(Optional.of(view));
+        when(statusRepository.findAllById(Set.of(1L))).thenReturn(Flux.just(transportStatus));
+        when(transportMapper.toResponseDTO(current)).thenReturn(responseDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.executeAll(Flux.just(transport)))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verifyNoInteractions(userClient);
+    }
+
+    @Test
+    void executeAll_ReadModelHits_LookUpOnlyMissing_AndKeepOrder() {
+        // Arrange: first transport is projected, second is not
+        Transport second = Transport.builder().id(2L).transportType(TransportType.ELECTRIC_BICYCLE)
+                .statusId(2L).cityId(2L).latitude(55.7).longitude(37.6).build();
+        TransportView view = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                1L, "SPB", 60.0, 30.0, BigDecimal.valueOf(80));
+        TransportResponseDTO secondDTO = new TransportResponseDTO(2L, "BICYCLE", "IN_USE", 55.7, 37.6, "MSK", null);
+
+        when(transportReadModel.find(1L)).thenReturn(Optional.of(view));
+        when(statusRepository.findAllById(Set.of(2L)))
+                .thenReturn(Flux.just(new TransportStatus(2L, "IN_USE")));
+        when(userClient.getCityNames(Set.of(2L)))
+                .thenReturn(Mono.just(Map.of(2L, "MSK")));
+        when(transportMapper.toResponseDTO(view)).thenReturn(responseDTO);
+        when(transportMapper.toResponseDTO(second, "IN_USE", "MSK")).thenReturn(secondDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.executeAll(Flux.just(transport, second)))
+                .expectNext(responseDTO, secondDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void executeAll_AllInReadModel_NoLookups() {
+        // Arrange
+        TransportView view = new TransportView(1L, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                1L, "SPB", 60.0, 30.0, BigDecimal.valueOf(80));
+        when(transportReadModel.find(1L)).thenReturn(Optional.of(view));
+        when(transportMapper.toResponseDTO(view)).thenReturn(responseDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.executeAll(Flux.just(transport)))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verifyNoInteractions(statusRepository, userClient);
+    }
+
+    @Test
+    void executeAll_MissingNames_UseFallbacks() {
+        // Arrange
+        when(statusRepository.findAllById(Set.of(1L))).thenReturn(Flux.empty());
+        when(userClient.getCityNames(Set.of(1L))).thenReturn(Mono.just(Map.of()));
+        when(transportMapper.toResponseDTO(transport, "UNKNOWN", "N/A")).thenReturn(responseDTO);
+
+        // Act & Assert
+        StepVerifier.create(toResponseDto.executeAll(Flux.just(transport)))
+                .expectNext(responseDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void executeAll_EmptyPage_NoLookups() {
+        // Act & Assert
+        StepVerifier.create(toResponseDto.executeAll(Flux.empty()))
+                .verifyComplete();
+
+        verifyNoInteractions(statusRepository, userClient, transportMapper);
+    }
+}
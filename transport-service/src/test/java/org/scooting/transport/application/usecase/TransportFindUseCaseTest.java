@@ -3,10 +3,12 @@ package org.scooting.transport.application.usecase;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.interfaces.dto.ScrollResponseDTO;
 import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
+import org.scoooting.transport.application.services.TransportCursor;
+import org.scoooting.transport.application.services.TransportGridIndex;
 import org.scoooting.transport.application.usecase.ToResponseDto;
 import org.scoooting.transport.application.usecase.TransportFindUseCase;
 import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
@@ -18,6 +20,11 @@ import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.List;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.*;
 
@@ -33,7 +40,9 @@ class TransportFindUseCaseTest {
     @Mock
     private ToResponseDto toResponseDto;
 
-    @InjectMocks
+    @Mock
+    private TransportGridIndex transportGridIndex;
+
     private TransportFindUseCase transportFindUseCase;
 
     private Transport transport;
@@ -41,6 +50,9 @@ class TransportFindUseCaseTest {
 
     @BeforeEach
     void setUp() {
+        transportFindUseCase = new TransportFindUseCase(transportRepository, transactionalOperator, toResponseDto,
+                transportGridIndex, 200);
+
         transport = new Transport();
         transport.setId(1L);
         transport.setTransportType(TransportType.ELECTRIC_KICK_SCOOTER);
@@ -50,7 +62,7 @@ class TransportFindUseCaseTest {
         transport.setLongitude(30.0);
 
         responseDTO = new TransportResponseDTO(
-                1L, "ELECTRIC_KICK_SCOOTER", "AVAILABLE", 60.0, 30.0, "SPB"
+                1L, "ELECTRIC_KICK_SCOOTER", "AVAILABLE", 60.0, 30.0, "SPB", null
         );
 
         // БЕЗ МОКОВ в setUp - добавим их в конкретных тестах
@@ -61,15 +73,73 @@ class TransportFindUseCaseTest {
         // Arrange
         lenient().when(transactionalOperator.transactional(any(Flux.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(transportRepository.findAvailableInArea(anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        when(transportRepository.findAvailableNearby(60.0, 30.0, 2.0, null, 0.0, 200))
                 .thenReturn(Flux.just(transport));
-        when(toResponseDto.execute(any(Transport.class)))
-                .thenReturn(Mono.just(responseDTO));
+        when(toResponseDto.executeAll(any()))
+                .thenReturn(Flux.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportFindUseCase.findNearestTransports(60.0, 30.0, 2.0, 0))
+                .expectNext(responseDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void findNearestTransports_IndexReady_UsesIndexInDistanceOrder() {
+        // Arrange
+        Transport far = Transport.builder().id(2L).transportType(TransportType.ELECTRIC_BICYCLE)
+                .statusId(1L).cityId(1L).latitude(60.01).longitude(30.0).build();
+        TransportResponseDTO farDTO = new TransportResponseDTO(
+                2L, "ELECTRIC_BICYCLE", "AVAILABLE", 60.01, 30.0, "SPB", null
+        );
+        when(transportGridIndex.isReady()).thenReturn(true);
+        when(transportGridIndex.findNearby(60.0, 30.0, 2.0, null, 0.0, 200))
+                .thenReturn(List.of(transport, far));
+        when(toResponseDto.executeAll(any()))
+                .thenAnswer(invocation -> invocation.<Flux<Transport>>getArgument(0)
+                        .map(t -> t.getId().equals(1L) ? responseDTO : farDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportFindUseCase.findNearestTransports(60.0, 30.0, 2.0, 0))
+                .expectNext(responseDTO, farDTO)
+                .verifyComplete();
+
+        verifyNoInteractions(transportRepository);
+    }
+
+    @Test
+    void findNearestTransports_MinCharge_PassedToSearch() {
+        // Arrange
+        lenient().when(transactionalOperator.transactional(any(Flux.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transportRepository.findAvailableNearby(60.0, 30.0, 2.0, null, 30.0, 200))
+                .thenReturn(Flux.just(transport));
+        when(toResponseDto.executeAll(any()))
+                .thenReturn(Flux.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportFindUseCase.findNearestTransports(60.0, 30.0, 2.0, 30))
+                .expectNext(responseDTO)
+                .verifyComplete();
+    }
+
+    @Test
+    void findTransportsByType_IndexReady_UsesIndex() {
+        // Arrange
+        when(transportGridIndex.isReady()).thenReturn(true);
+        when(transportGridIndex.findNearby(60.0, 30.0, 2.0, TransportType.ELECTRIC_KICK_SCOOTER, 0.0, 200))
+                .thenReturn(List.of(transport));
+        when(toResponseDto.executeAll(any()))
+                .thenReturn(Flux.just(responseDTO));
 
         // Act & Assert
-        StepVerifier.create(transportFindUseCase.findNearestTransports(60.0, 30.0, 2.0))
+        StepVerifier.create(transportFindUseCase.findTransportsByType(
+                        TransportType.ELECTRIC_KICK_SCOOTER, 60.0, 30.0, 2.0, 0))
                 .expectNext(responseDTO)
                 .verifyComplete();
+
+        verifyNoInteractions(transportRepository);
+        verify(toResponseDto, never()).execute(any());
     }
 
     @Test
@@ -77,15 +147,15 @@ class TransportFindUseCaseTest {
         // Arrange
         lenient().when(transactionalOperator.transactional(any(Flux.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(transportRepository.findAvailableByTypeInArea(
-                any(TransportType.class), anyDouble(), anyDouble(), anyDouble(), anyDouble()))
+        when(transportRepository.findAvailableNearby(
+                60.0, 30.0, 2.0, TransportType.ELECTRIC_KICK_SCOOTER, 0.0, 200))
                 .thenReturn(Flux.just(transport));
-        when(toResponseDto.execute(any(Transport.class)))
-                .thenReturn(Mono.just(responseDTO));
+        when(toResponseDto.executeAll(any()))
+                .thenReturn(Flux.just(responseDTO));
 
         // Act & Assert
         StepVerifier.create(transportFindUseCase.findTransportsByType(
-                        TransportType.ELECTRIC_KICK_SCOOTER, 60.0, 30.0, 2.0))
+                        TransportType.ELECTRIC_KICK_SCOOTER, 60.0, 30.0, 2.0, 0))
                 .expectNext(responseDTO)
                 .verifyComplete();
     }
@@ -150,20 +220,20 @@ class TransportFindUseCaseTest {
 
         Transport[] transports = new Transport[21];
         for (int i = 0; i < 21; i++) {
-            transports[i] = transport;
+            transports[i] = Transport.builder().id(i + 1L).build();
         }
-        when(transportRepository.findAvailableByType(TransportType.ELECTRIC_KICK_SCOOTER))
+        when(transportRepository.findAvailableByTypeAfter(TransportType.ELECTRIC_KICK_SCOOTER, 0L, 21))
                 .thenReturn(Flux.fromArray(transports));
-        when(toResponseDto.execute(any(Transport.class)))
-                .thenReturn(Mono.just(responseDTO));
+        when(toResponseDto.executeAll(any()))
+                .thenAnswer(invocation -> invocation.<Flux<Transport>>getArgument(0).map(t -> responseDTO));
 
         // Act & Assert
         StepVerifier.create(transportFindUseCase.scrollAvailableTransportsByType(
-                        TransportType.ELECTRIC_KICK_SCOOTER, 0, 20))
+                        TransportType.ELECTRIC_KICK_SCOOTER, null, 0, 20))
                 .expectNextMatches(scroll ->
                         scroll.content().size() == 20 &&
                                 scroll.hasMore() &&
-                                scroll.page() == 0
+                                new TransportCursor(20L, 1).equals(TransportCursor.decode(scroll.nextCursor()))
                 )
                 .verifyComplete();
     }
@@ -178,18 +248,65 @@ class TransportFindUseCaseTest {
         for (int i = 0; i < 15; i++) {
             transports[i] = transport;
         }
-        when(transportRepository.findAvailableByType(TransportType.ELECTRIC_BICYCLE))
+        when(transportRepository.findAvailableByTypeAfter(TransportType.ELECTRIC_BICYCLE, 40L, 21))
                 .thenReturn(Flux.fromArray(transports));
-        when(toResponseDto.execute(any(Transport.class)))
-                .thenReturn(Mono.just(responseDTO));
+        when(toResponseDto.executeAll(any()))
+                .thenAnswer(invocation -> invocation.<Flux<Transport>>getArgument(0).map(t -> responseDTO));
 
         // Act & Assert
         StepVerifier.create(transportFindUseCase.scrollAvailableTransportsByType(
-                        TransportType.ELECTRIC_BICYCLE, 0, 20))
+                        TransportType.ELECTRIC_BICYCLE, new TransportCursor(40L, 2).encode(), 0, 20))
                 .expectNextMatches(scroll ->
                         scroll.content().size() == 15 &&
-                                !scroll.hasMore()
+                                !scroll.hasMore() &&
+                                scroll.nextCursor() == null &&
+                                scroll.page() == 2
                 )
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void scrollAvailableTransportsByType_InvalidCursor() {
+        // Arrange
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // Act & Assert
+        StepVerifier.create(transportFindUseCase.scrollAvailableTransportsByType(
+                        TransportType.ELECTRIC_BICYCLE, "abc", 0, 20))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(transportRepository);
+    }
+
+    @Test
+    void scrollAvailableTransportsByType_DeprecatedPageThenCursor_ContinuesWithoutGapOrRepeat() {
+        // Arrange: available transports with ids 1..25, page size 10
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        when(transportRepository.findAvailableByTypePage(TransportType.ELECTRIC_BICYCLE, 10L, 11))
+                .thenReturn(Flux.range(11, 11).map(id -> Transport.builder().id((long) id).build()));
+        when(transportRepository.findAvailableByTypeAfter(TransportType.ELECTRIC_BICYCLE, 20L, 11))
+                .thenReturn(Flux.range(21, 5).map(id -> Transport.builder().id((long) id).build()));
+        when(toResponseDto.executeAll(any()))
+                .thenAnswer(invocation -> invocation.<Flux<Transport>>getArgument(0).map(t ->
+                        new TransportResponseDTO(t.getId(), "ELECTRIC_BICYCLE", "AVAILABLE", 60.0, 30.0, "SPB", null)));
+
+        // Act
+        ScrollResponseDTO<TransportResponseDTO> legacyPage = transportFindUseCase.scrollAvailableTransportsByType(
+                TransportType.ELECTRIC_BICYCLE, null, 1, 10).block();
+        ScrollResponseDTO<TransportResponseDTO> nextPage = transportFindUseCase.scrollAvailableTransportsByType(
+                TransportType.ELECTRIC_BICYCLE, legacyPage.nextCursor(), 0, 10).block();
+
+        // Assert
+        assertEquals(LongStream.rangeClosed(11, 20).boxed().toList(),
+                legacyPage.content().stream().map(TransportResponseDTO::id).toList());
+        assertEquals(1, legacyPage.page());
+        assertEquals(LongStream.rangeClosed(21, 25).boxed().toList(),
+                nextPage.content().stream().map(TransportResponseDTO::id).toList());
+        assertEquals(2, nextPage.page());
+        assertFalse(nextPage.hasMore());
+    }
+}
@@ -0,0 +1,75 @@
+package org.scooting.transport.application.usecase;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.application.usecase.TransportIndexUseCase;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import reactor.core.publisher.Flux;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransportIndexUseCaseTest {
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private TransportGridIndex transportGridIndex;
+
+    @InjectMocks
+    private TransportIndexUseCase transportIndexUseCase;
+
+    @Test
+    void rebuildIndex_ReconcilesWithSnapshotTakenBeforeRead() {
+        // Arrange
+        Transport transport = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_SCOOTER)
+                .statusId(1L).cityId(1L).latitude(60.0).longitude(30.0).build();
+        when(transportGridIndex.snapshotMark()).thenReturn(42L);
+        when(transportRepository.findAllAvailable()).thenReturn(Flux.just(transport));
+        when(transportGridIndex.reconcile(List.of(transport), 42L)).thenReturn(1);
+
+        // Act & Assert
+        StepVerifier.create(transportIndexUseCase.rebuildIndex())
+                .expectNext(1)
+                .verifyComplete();
+
+        var inOrder = inOrder(transportGridIndex, transportRepository);
+        inOrder.verify(transportGridIndex).snapshotMark();
+        inOrder.verify(transportRepository).findAllAvailable();
+        inOrder.verify(transportGridIndex).reconcile(List.of(transport), 42L);
+    }
+
+    @Test
+    void rebuildIndex_IsLazy() {
+        // Act
+        transportIndexUseCase.rebuildIndex();
+
+        // Assert: nothing happens until subscription
+        verifyNoInteractions(transportRepository, transportGridIndex);
+    }
+
+    @Test
+    void rebuildIndex_EmptyDatabase() {
+        // Arrange
+        when(transportGridIndex.snapshotMark()).thenReturn(7L);
+        when(transportRepository.findAllAvailable()).thenReturn(Flux.empty());
+        when(transportGridIndex.reconcile(eq(List.of()), anyLong())).thenReturn(0);
+
+        // Act & Assert
+        StepVerifier.create(transportIndexUseCase.rebuildIndex())
+                .expectNext(0)
+                .verifyComplete();
+    }
+}
@@ -0,0 +1,111 @@
+package org.scooting.transport.application.usecase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.interfaces.dto.LiveMapEventDTO;
+import org.scoooting.transport.adapters.interfaces.dto.LiveMapEventDTO.EventType;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.application.usecase.TransportLiveMapUseCase;
+import org.scoooting.transport.domain.model.Transport;
+import org.scoooting.transport.domain.model.TransportStatus;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.scoooting.transport.domain.repositories.TransportStatusRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+
+import static org.mockito.Mockito.lenient;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+
+@ExtendWith(MockitoExtension.class)
+class TransportLiveMapUseCaseTest {
+
+    private static final long AVAILABLE = 1L;
+    private static final long IN_USE = 2L;
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private TransportStatusRepository statusRepository;
+
+    private TransportChangeFeed changeFeed;
+    private TransportLiveMapUseCase liveMapUseCase;
+
+    @BeforeEach
+    void setUp() {
+        changeFeed = new TransportChangeFeed(1.0);
+        liveMapUseCase = new TransportLiveMapUseCase(transportRepository, statusRepository, changeFeed, 16, 250.0);
+        lenient().when(statusRepository.findByName(TransportStatus.AVAILABLE))
+                .thenReturn(Mono.just(new TransportStatus(AVAILABLE, TransportStatus.AVAILABLE)));
+    }
+
+    private static Transport transport(long id, long statusId, double lat, double lng) {
+        return Transport.builder().id(id).transportType(TransportType.ELECTRIC_SCOOTER)
+                .statusId(statusId).cityId(1L).latitude(lat).longitude(lng).build();
+    }
+
+    @Test
+    void watchArea_SendsSnapshotThenDiffs() {
+        // Arrange
+        when(transportRepository.findAvailableInArea(59.0, 61.0, 29.0, 31.0))
+                .thenReturn(Flux.just(transport(1L, AVAILABLE, 60.0, 30.0)));
+
+        // Act & Assert
+        StepVerifier.create(liveMapUseCase.watchArea(59.0, 61.0, 29.0, 31.0, null))
+                .expectNextMatches(event -> event.event() == EventType.APPEARED && event.transportId() == 1L)
+                .then(() -> changeFeed.publish(transport(1L, AVAILABLE, 60.1, 30.1)))
+                .expectNext(new LiveMapEventDTO(EventType.MOVED, 1L, "ELECTRIC_SCOOTER", 60.1, 30.1))
+                .then(() -> changeFeed.publish(transport(2L, AVAILABLE, 59.5, 29.5)))
+                .expectNextMatches(event -> event.event() == EventType.APPEARED && event.transportId() == 2L)
+                .then(() -> changeFeed.publish(transport(1L, IN_USE, 60.1, 30.1)))
+                .expectNextMatches(event -> event.event() == EventType.DISAPPEARED && event.transportId() == 1L)
+                .then(() -> changeFeed.publish(transport(2L, AVAILABLE, 65.0, 29.5)))
+                .expectNextMatches(event -> event.event() == EventType.DISAPPEARED && event.transportId() == 2L)
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void watchArea_IgnoresChangesOutsideViewport() {
+        // Arrange
+        when(transportRepository.findAvailableByTypeInArea(TransportType.ELECTRIC_BICYCLE, 59.0, 61.0, 29.0, 31.0))
+                .thenReturn(Flux.empty());
+
+        // Act & Assert
+        StepVerifier.create(liveMapUseCase.watchArea(59.0, 61.0, 29.0, 31.0, TransportType.ELECTRIC_BICYCLE))
+                .expectSubscription()
+                .then(() -> changeFeed.publish(transport(1L, AVAILABLE, 60.0, 30.0)))  // other type
+                .then(() -> changeFeed.publish(transport(2L, AVAILABLE, 70.0, 30.0)))  // outside
+                .expectNoEvent(Duration.ofMillis(50))
+                .thenCancel()
+                .verify();
+    }
+
+    @Test
+    void watchArea_ViewportWiderThanMaxSpan_Rejected() {
+        // Act & Assert: about 333 km wide at latitude 60
+        StepVerifier.create(liveMapUseCase.watchArea(59.0, 61.0, 27.0, 33.0, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(transportRepository);
+    }
+
+    @Test
+    void watchArea_InvertedViewport_Rejected() {
+        // Act & Assert
+        StepVerifier.create(liveMapUseCase.watchArea(61.0, 59.0, 29.0, 31.0, null))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(transportRepository);
+    }
+}
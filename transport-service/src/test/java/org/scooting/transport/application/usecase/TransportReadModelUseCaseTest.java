@@ -0,0 +1,91 @@
+package org.scooting.transport.application.usecase;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.InjectMocks;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.application.ports.UserClient;
+import org.scoooting.transport.application.services.TransportReadModel;
+import org.scoooting.transport.application.usecase.TransportReadModelUseCase;
+import org.scoooting.transport.domain.model.TransportView;
+import org.scoooting.transport.domain.model.enums.TransportType;
+import org.scoooting.transport.domain.repositories.TransportRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TransportReadModelUseCaseTest {
+
+    @Mock
+    private TransportRepository transportRepository;
+
+    @Mock
+    private UserClient userClient;
+
+    @Mock
+    private TransportReadModel transportReadModel;
+
+    @InjectMocks
+    private TransportReadModelUseCase transportReadModelUseCase;
+
+    private static TransportView view(long id, long cityId) {
+        return new TransportView(id, TransportType.ELECTRIC_SCOOTER, 1L, "AVAILABLE",
+                cityId, null, 60.0, 30.0, BigDecimal.valueOf(70));
+    }
+
+    @Test
+    void rebuildReadModel_ResolvesCityNamesInBulk_AndReconciles() {
+        // Arrange
+        when(transportReadModel.snapshotMark()).thenReturn(42L);
+        when(transportRepository.findAllViews()).thenReturn(Flux.just(view(1L, 1L), view(2L, 1L), view(3L, 2L)));
+        when(userClient.getCityNames(Set.of(1L, 2L))).thenReturn(Mono.just(Map.of(1L, "SPB", 2L, "MSK")));
+        when(transportReadModel.reconcile(List.of(
+                view(1L, 1L).withCityName("SPB"),
+                view(2L, 1L).withCityName("SPB"),
+                view(3L, 2L).withCityName("MSK")), 42L)).thenReturn(3);
+
+        // Act & Assert
+        StepVerifier.create(transportReadModelUseCase.rebuildReadModel())
+                .expectNext(3)
+                .verifyComplete();
+
+        verify(userClient, times(1)).getCityNames(any());
+        verify(userClient, never()).getCityName(any());
+    }
+
+    @Test
+    void rebuildReadModel_IsLazy() {
+        // Act
+        transportReadModelUseCase.rebuildReadModel();
+
+        // Assert: nothing happens until subscription
+        verifyNoInteractions(transportRepository, userClient, transportReadModel);
+    }
+
+    @Test
+    void rebuildReadModel_EmptyDatabase_NoCityLookup() {
+        // Arrange
+        when(transportReadModel.snapshotMark()).thenReturn(7L);
+        when(transportRepository.findAllViews()).thenReturn(Flux.empty());
+        when(transportReadModel.reconcile(eq(List.of()), anyLong())).thenReturn(0);
+
+        // Act & Assert
+        StepVerifier.create(transportReadModelUseCase.rebuildReadModel())
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(userClient);
+    }
+}
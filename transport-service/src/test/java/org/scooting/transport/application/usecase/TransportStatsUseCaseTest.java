@@ -5,12 +5,18 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.application.services.TransportCounters;
 import org.scoooting.transport.application.usecase.TransportStatsUseCase;
+import org.scoooting.transport.domain.model.TransportStatus;
 import org.scoooting.transport.domain.model.enums.TransportType;
 import org.scoooting.transport.domain.repositories.TransportRepository;
+import org.scoooting.transport.domain.repositories.TransportStatusRepository;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -19,6 +25,12 @@ class TransportStatsUseCaseTest {
     @Mock
     private TransportRepository transportRepository;
 
+    @Mock
+    private TransportStatusRepository statusRepository;
+
+    @Mock
+    private TransportCounters transportCounters;
+
     @InjectMocks
     private TransportStatsUseCase transportStatsUseCase;
 
@@ -64,4 +76,24 @@ class TransportStatsUseCaseTest {
                 )
                 .verifyComplete();
     }
-}
\ No newline at end of file
+
+    @Test
+    void getAvailabilityStats_CountersReady_NoCountQueries() {
+        // Arrange
+        when(transportCounters.isReady()).thenReturn(true);
+        when(statusRepository.findByName(TransportStatus.AVAILABLE))
+                .thenReturn(Mono.just(new TransportStatus(1L, TransportStatus.AVAILABLE)));
+        when(transportCounters.count(TransportType.ELECTRIC_KICK_SCOOTER, 1L)).thenReturn(7L);
+
+        // Act & Assert
+        StepVerifier.create(transportStatsUseCase.getAvailabilityStats())
+                .expectNextMatches(stats ->
+                        stats.size() == 4 &&
+                                stats.get("ELECTRIC_KICK_SCOOTER") == 7L &&
+                                stats.get("GAS_MOTORCYCLE") == 0L
+                )
+                .verifyComplete();
+
+        verify(transportRepository, never()).countAvailableByType(any());
+    }
+}
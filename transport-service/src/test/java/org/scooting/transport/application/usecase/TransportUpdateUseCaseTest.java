@@ -5,25 +5,41 @@ import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.junit.jupiter.params.ParameterizedTest;
 import org.junit.jupiter.params.provider.CsvSource;
+import org.mockito.ArgumentCaptor;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.scoooting.transport.adapters.interfaces.dto.TransportResponseDTO;
 import org.scoooting.transport.adapters.interfaces.dto.UpdateCoordinatesDTO;
+import org.scoooting.transport.application.services.CityResolver;
+import org.scoooting.transport.application.services.TransportChangeFeed;
+import org.scoooting.transport.application.services.TransportCounters;
+import org.scoooting.transport.application.services.TransportGridIndex;
+import org.scoooting.transport.application.services.TransportReadModel;
 import org.scoooting.transport.application.usecase.ToResponseDto;
 import org.scoooting.transport.application.usecase.TransportUpdateUseCase;
 import org.scoooting.transport.domain.exceptions.DataNotFoundException;
+import org.scoooting.transport.domain.exceptions.TransportConflictException;
 import org.scoooting.transport.domain.exceptions.TransportNotFoundException;
+import org.scoooting.transport.domain.model.CityArea;
 import org.scoooting.transport.domain.model.Transport;
 import org.scoooting.transport.domain.model.TransportStatus;
 import org.scoooting.transport.domain.model.enums.TransportType;
 import org.scoooting.transport.domain.repositories.TransportRepository;
 import org.scoooting.transport.domain.repositories.TransportStatusRepository;
 import org.springframework.transaction.reactive.TransactionalOperator;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 import reactor.test.StepVerifier;
 
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyLong;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -41,6 +57,21 @@ class TransportUpdateUseCaseTest {
     @Mock
     private ToResponseDto toResponseDto;
 
+    @Mock
+    private TransportGridIndex transportGridIndex;
+
+    @Mock
+    private TransportCounters transportCounters;
+
+    @Mock
+    private TransportChangeFeed transportChangeFeed;
+
+    @Mock
+    private TransportReadModel transportReadModel;
+
+    @Mock
+    private CityResolver cityResolver;
+
     @InjectMocks
     private TransportUpdateUseCase transportUpdateUseCase;
 
@@ -61,7 +92,7 @@ class TransportUpdateUseCaseTest {
         transportStatus = new TransportStatus(2L, "IN_USE");
 
         responseDTO = new TransportResponseDTO(
-                1L, "ELECTRIC_KICK_SCOOTER", "IN_USE", 60.0, 30.0, "SPB"
+                1L, "ELECTRIC_KICK_SCOOTER", "IN_USE", 60.0, 30.0, "SPB", null
         );
 
         // БЕЗ МОКОВ в setUp
@@ -76,7 +107,7 @@ class TransportUpdateUseCaseTest {
                 .thenReturn(Mono.just(transport));
         when(statusRepository.findByName("IN_USE"))
                 .thenReturn(Mono.just(transportStatus));
-        when(transportRepository.save(any(Transport.class)))
+        when(transportRepository.compareAndSetStatus(1L, 1L, 2L, null))
                 .thenReturn(Mono.just(transport));
         when(toResponseDto.execute(any(Transport.class)))
                 .thenReturn(Mono.just(responseDTO));
@@ -85,6 +116,34 @@ class TransportUpdateUseCaseTest {
         StepVerifier.create(transportUpdateUseCase.updateTransportStatus(1L, "IN_USE"))
                 .expectNext(responseDTO)
                 .verifyComplete();
+
+        verify(transportGridIndex).remove(1L);
+        verify(transportGridIndex, never()).put(any(Transport.class));
+        verify(transportCounters).changed(transport, 1L, 1L);
+        verify(transportReadModel).statusChanged(transport, "IN_USE");
+    }
+
+    @Test
+    void updateTransportStatus_Available_PutsIntoIndex() {
+        // Arrange
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(transport));
+        when(statusRepository.findByName("AVAILABLE"))
+                .thenReturn(Mono.just(new TransportStatus(1L, "AVAILABLE")));
+        when(transportRepository.compareAndSetStatus(1L, 1L, 1L, null))
+                .thenReturn(Mono.just(transport));
+        when(toResponseDto.execute(any(Transport.class)))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateTransportStatus(1L, "AVAILABLE"))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(transportGridIndex).put(transport);
+        verify(transportGridIndex, never()).remove(anyLong());
     }
 
     @Test
@@ -92,6 +151,8 @@ class TransportUpdateUseCaseTest {
         // Arrange
         lenient().when(transactionalOperator.transactional(any(Mono.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
+        when(statusRepository.findByName("IN_USE"))
+                .thenReturn(Mono.just(transportStatus));
         when(transportRepository.findById(999L))
                 .thenReturn(Mono.empty());
 
@@ -99,6 +160,8 @@ class TransportUpdateUseCaseTest {
         StepVerifier.create(transportUpdateUseCase.updateTransportStatus(999L, "IN_USE"))
                 .expectError(TransportNotFoundException.class)
                 .verify();
+
+        verifyNoInteractions(transportGridIndex, transportCounters);
     }
 
     @Test
@@ -106,8 +169,6 @@ class TransportUpdateUseCaseTest {
         // Arrange
         lenient().when(transactionalOperator.transactional(any(Mono.class)))
                 .thenAnswer(invocation -> invocation.getArgument(0));
-        when(transportRepository.findById(1L))
-                .thenReturn(Mono.just(transport));
         when(statusRepository.findByName("INVALID_STATUS"))
                 .thenReturn(Mono.empty());
 
@@ -115,18 +176,169 @@ class TransportUpdateUseCaseTest {
         StepVerifier.create(transportUpdateUseCase.updateTransportStatus(1L, "INVALID_STATUS"))
                 .expectError(DataNotFoundException.class)
                 .verify();
+
+        verifyNoInteractions(transportRepository);
+    }
+
+    @Test
+    void updateTransportStatus_LostRace_RereadsAndRetries() {
+        // Arrange: someone else switched the transport to MAINTENANCE (3) between our SELECT and UPDATE
+        Transport reread = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_KICK_SCOOTER)
+                .statusId(3L).cityId(1L).latitude(60.0).longitude(30.0).build();
+        when(statusRepository.findByName("IN_USE"))
+                .thenReturn(Mono.just(transportStatus));
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(transport), Mono.just(reread));
+        when(transportRepository.compareAndSetStatus(1L, 1L, 2L, null))
+                .thenReturn(Mono.empty());
+        when(transportRepository.compareAndSetStatus(1L, 3L, 2L, null))
+                .thenReturn(Mono.just(reread));
+        when(toResponseDto.execute(any(Transport.class)))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateTransportStatus(1L, "IN_USE"))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        // Counters move the transport out of the status it really had
+        verify(transportCounters).changed(reread, 3L, 1L);
+    }
+
+    @Test
+    void acquireTransport_Available_SwitchesToInUse() {
+        // Arrange
+        when(statusRepository.findByName("AVAILABLE"))
+                .thenReturn(Mono.just(new TransportStatus(1L, "AVAILABLE")));
+        when(statusRepository.findByName("IN_USE"))
+                .thenReturn(Mono.just(transportStatus));
+        Transport acquired = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_KICK_SCOOTER)
+                .statusId(2L).cityId(1L).latitude(60.0).longitude(30.0).build();
+        when(transportRepository.compareAndSetStatus(1L, 1L, 2L, null))
+                .thenReturn(Mono.just(acquired));
+        when(toResponseDto.execute(acquired))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.acquireTransport(1L))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(transportGridIndex).remove(1L);
+        verify(transportCounters).changed(acquired, 1L, 1L);
+        verify(transportRepository, never()).findById(anyLong());
+        verifyNoInteractions(transactionalOperator);
+    }
+
+    @Test
+    void acquireTransport_AlreadyInUse_ThrowsConflict() {
+        // Arrange
+        when(statusRepository.findByName("AVAILABLE"))
+                .thenReturn(Mono.just(new TransportStatus(1L, "AVAILABLE")));
+        when(statusRepository.findByName("IN_USE"))
+                .thenReturn(Mono.just(transportStatus));
+        when(transportRepository.compareAndSetStatus(1L, 1L, 2L, null))
+                .thenReturn(Mono.empty());
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(transport));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.acquireTransport(1L))
+                .expectError(TransportConflictException.class)
+                .verify();
+
+        verifyNoInteractions(transportGridIndex, transportCounters, transportChangeFeed);
+    }
+
+    @Test
+    void acquireTransport_Missing_ThrowsNotFound() {
+        // Arrange
+        when(statusRepository.findByName("AVAILABLE"))
+                .thenReturn(Mono.just(new TransportStatus(1L, "AVAILABLE")));
+        when(statusRepository.findByName("IN_USE"))
+                .thenReturn(Mono.just(transportStatus));
+        when(transportRepository.compareAndSetStatus(999L, 1L, 2L, null))
+                .thenReturn(Mono.empty());
+        when(transportRepository.findById(999L))
+                .thenReturn(Mono.empty());
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.acquireTransport(999L))
+                .expectError(TransportNotFoundException.class)
+                .verify();
+    }
+
+    @Test
+    void updateTransportStatus_Reserved_RejectedWithoutDatabaseAccess() {
+        // Act & Assert: a hold needs holder and expiry, only ReservationUseCase sets them
+        StepVerifier.create(transportUpdateUseCase.updateTransportStatus(1L, TransportStatus.RESERVED))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+        StepVerifier.create(transportUpdateUseCase.transitionStatus(1L, TransportStatus.AVAILABLE,
+                        TransportStatus.RESERVED))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(transportRepository, statusRepository);
     }
 
     @Test
     void updateCoordinates_Success() {
         // Arrange
-        lenient().when(transactionalOperator.transactional(any(Mono.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
         UpdateCoordinatesDTO dto = new UpdateCoordinatesDTO(1L, 61.0, 31.0);
         when(transportRepository.findById(1L))
                 .thenReturn(Mono.just(transport));
-        when(transportRepository.save(any(Transport.class)))
+        when(transportRepository.updateCoordinates(1L, 61.0, 31.0, 1L, null))
+                .thenReturn(Mono.just(transport));
+        when(toResponseDto.execute(any(Transport.class)))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateCoordinates(dto))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(transportRepository, never()).save(any());
+        verify(transportGridIndex).move(transport);
+        verify(transportReadModel).moved(transport);
+        verify(transportChangeFeed).publish(transport);
+    }
+
+    @Test
+    void updateCoordinates_StatusChangedMeanwhile_KeepsNewStatus() {
+        // Arrange
+        UpdateCoordinatesDTO dto = new UpdateCoordinatesDTO(1L, 61.0, 31.0);
+        Transport acquired = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_KICK_SCOOTER)
+                .statusId(2L).cityId(1L).latitude(61.0).longitude(31.0).build();
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(transport));  // read while still AVAILABLE
+        when(transportRepository.updateCoordinates(1L, 61.0, 31.0, 1L, null))
+                .thenReturn(Mono.just(acquired));
+        when(toResponseDto.execute(acquired))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateCoordinates(dto))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(transportCounters).changed(acquired, 2L, 1L);
+        verify(transportReadModel).moved(acquired);
+    }
+
+    @Test
+    void updateCoordinates_IntoAnotherCity_ReassignsCity() {
+        // Arrange
+        UpdateCoordinatesDTO dto = new UpdateCoordinatesDTO(1L, 55.75, 37.61);
+        Transport moved = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_KICK_SCOOTER)
+                .statusId(1L).cityId(2L).latitude(55.75).longitude(37.61).build();
+        when(cityResolver.isReady()).thenReturn(true);
+        when(cityResolver.resolve(55.75, 37.61))
+                .thenReturn(Optional.of(new CityArea(2L, "MSK", 55.7558, 37.6176, 30)));
+        when(transportRepository.findById(1L))
                 .thenReturn(Mono.just(transport));
+        when(transportRepository.updateCoordinates(1L, 55.75, 37.61, 1L, 2L))
+                .thenReturn(Mono.just(moved));
         when(toResponseDto.execute(any(Transport.class)))
                 .thenReturn(Mono.just(responseDTO));
 
@@ -134,6 +346,56 @@ class TransportUpdateUseCaseTest {
         StepVerifier.create(transportUpdateUseCase.updateCoordinates(dto))
                 .expectNext(responseDTO)
                 .verifyComplete();
+
+        verify(transportCounters).changed(moved, 1L, 1L);
+        verify(transportReadModel).cityChanged(1L, 2L, "MSK");
+    }
+
+    @Test
+    void updateCoordinates_CityChangedConcurrently_RetriesWithFreshCity() {
+        // Arrange
+        UpdateCoordinatesDTO dto = new UpdateCoordinatesDTO(1L, 61.0, 31.0);
+        Transport elsewhere = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_KICK_SCOOTER)
+                .statusId(1L).cityId(2L).latitude(55.75).longitude(37.61).build();
+        Transport moved = Transport.builder().id(1L).transportType(TransportType.ELECTRIC_KICK_SCOOTER)
+                .statusId(1L).cityId(2L).latitude(61.0).longitude(31.0).build();
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(transport), Mono.just(elsewhere));
+        when(transportRepository.updateCoordinates(1L, 61.0, 31.0, 1L, null))
+                .thenReturn(Mono.empty());
+        when(transportRepository.updateCoordinates(1L, 61.0, 31.0, 2L, null))
+                .thenReturn(Mono.just(moved));
+        when(toResponseDto.execute(moved))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateCoordinates(dto))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        verify(transportCounters).changed(moved, 1L, 2L);
+    }
+
+    @Test
+    void updateCoordinates_OutsideCities_KeepsCity() {
+        // Arrange
+        UpdateCoordinatesDTO dto = new UpdateCoordinatesDTO(1L, 0.0, 0.0);
+        when(cityResolver.isReady()).thenReturn(true);
+        when(cityResolver.resolve(0.0, 0.0)).thenReturn(Optional.empty());
+        when(transportRepository.findById(1L))
+                .thenReturn(Mono.just(transport));
+        when(transportRepository.updateCoordinates(1L, 0.0, 0.0, 1L, null))
+                .thenReturn(Mono.just(transport));
+        when(toResponseDto.execute(any(Transport.class)))
+                .thenReturn(Mono.just(responseDTO));
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateCoordinates(dto))
+                .expectNext(responseDTO)
+                .verifyComplete();
+
+        assertEquals(1L, transport.getCityId());
+        verify(transportReadModel, never()).cityChanged(any(), any(), any());
     }
 
     @ParameterizedTest
@@ -156,8 +418,6 @@ class TransportUpdateUseCaseTest {
     @Test
     void updateCoordinates_TransportNotFound() {
         // Arrange
-        lenient().when(transactionalOperator.transactional(any(Mono.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
         UpdateCoordinatesDTO dto = new UpdateCoordinatesDTO(999L, 60.0, 30.0);
         when(transportRepository.findById(999L))
                 .thenReturn(Mono.empty());
@@ -167,4 +427,52 @@ class TransportUpdateUseCaseTest {
                 .expectError(TransportNotFoundException.class)
                 .verify();
     }
-}
\ No newline at end of file
+
+    @Test
+    void updateCoordinatesBatch_KeepsLatestUpdatePerTransport() {
+        // Arrange
+        lenient().when(transactionalOperator.transactional(any(Mono.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+        Transport moved = Transport.builder().id(1L).latitude(60.2).longitude(30.2).build();
+        Transport other = Transport.builder().id(2L).latitude(59.9).longitude(30.3).build();
+        when(transportRepository.updateCoordinatesBatch(anyCollection()))
+                .thenReturn(Flux.just(moved, other));
+
+        List<UpdateCoordinatesDTO> updates = List.of(
+                new UpdateCoordinatesDTO(1L, 60.1, 30.1),
+                new UpdateCoordinatesDTO(2L, 59.9, 30.3),
+                new UpdateCoordinatesDTO(1L, 60.2, 30.2),
+                new UpdateCoordinatesDTO(3L, 95.0, 30.0)  // invalid - dropped
+        );
+
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateCoordinatesBatch(updates))
+                .expectNext(2)
+                .verifyComplete();
+
+        ArgumentCaptor<Collection<Transport>> captor = ArgumentCaptor.forClass(Collection.class);
+        verify(transportRepository).updateCoordinatesBatch(captor.capture());
+        List<Transport> applied = List.copyOf(captor.getValue());
+        assertEquals(2, applied.size());
+        assertEquals(1L, applied.get(0).getId());
+        assertEquals(60.2, applied.get(0).getLatitude());
+        assertEquals(2L, applied.get(1).getId());
+
+        verify(transportGridIndex).move(moved);
+        verify(transportGridIndex).move(other);
+        verify(transportChangeFeed).publish(moved);
+        verify(transportChangeFeed).publish(other);
+        verify(transportRepository, never()).findById(anyLong());
+    }
+
+    @Test
+    void updateCoordinatesBatch_NothingValid_SkipsDatabase() {
+        // Act & Assert
+        StepVerifier.create(transportUpdateUseCase.updateCoordinatesBatch(List.of(
+                        new UpdateCoordinatesDTO(1L, 60.0, 181.0))))
+                .expectNext(0)
+                .verifyComplete();
+
+        verifyNoInteractions(transportRepository, transportGridIndex);
+    }
+}
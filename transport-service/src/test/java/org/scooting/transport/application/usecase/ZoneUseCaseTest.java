@@ -0,0 +1,103 @@
+package org.scooting.transport.application.usecase;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.transport.adapters.interfaces.dto.CreateZoneRequestDTO;
+import org.scoooting.transport.application.services.ZoneIndex;
+import org.scoooting.transport.application.usecase.ZoneUseCase;
+import org.scoooting.transport.domain.exceptions.DataNotFoundException;
+import org.scoooting.transport.domain.model.Zone;
+import org.scoooting.transport.domain.model.enums.ZoneType;
+import org.scoooting.transport.domain.repositories.ZoneRepository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class ZoneUseCaseTest {
+
+    @Mock
+    private ZoneRepository zoneRepository;
+
+    // Real index: the use case is a thin layer over it
+    private ZoneIndex zoneIndex;
+    private ZoneUseCase zoneUseCase;
+
+    private static final List<List<Double>> SQUARE = List.of(
+            List.of(59.92, 30.30), List.of(59.92, 30.32), List.of(59.94, 30.32), List.of(59.94, 30.30));
+
+    @BeforeEach
+    void setUp() {
+        zoneIndex = new ZoneIndex(0.5, false);
+        zoneUseCase = new ZoneUseCase(zoneRepository, zoneIndex);
+    }
+
+    private static Zone zone(Long id, ZoneType type) {
+        return new Zone(id, "Nevsky", type, null,
+                new double[]{59.92, 59.92, 59.94, 59.94}, new double[]{30.30, 30.32, 30.32, 30.30});
+    }
+
+    @Test
+    void createZone_SavesAndReloadsIndex() {
+        // Arrange
+        Zone saved = zone(1L, ZoneType.NO_PARKING);
+        when(zoneRepository.save(any())).thenReturn(Mono.just(saved));
+        when(zoneRepository.findAll()).thenReturn(Flux.just(saved));
+
+        // Act & Assert
+        StepVerifier.create(zoneUseCase.createZone(
+                        new CreateZoneRequestDTO("Nevsky", ZoneType.NO_PARKING, null, SQUARE)))
+                .expectNextMatches(dto -> dto.id() == 1L && dto.polygon().equals(SQUARE))
+                .verifyComplete();
+
+        verify(zoneRepository).save(argThat(zone -> zone.id() == null && zone.latitudes()[2] == 59.94));
+        assertFalse(zoneUseCase.check(59.93, 30.31).parkingAllowed());
+    }
+
+    @Test
+    void createZone_SlowZoneWithoutSpeedLimit_ThrowsIllegalArgument() {
+        // Act & Assert
+        StepVerifier.create(zoneUseCase.createZone(new CreateZoneRequestDTO("Park", ZoneType.SLOW, null, SQUARE)))
+                .expectError(IllegalArgumentException.class)
+                .verify();
+
+        verifyNoInteractions(zoneRepository);
+    }
+
+    @Test
+    void deleteZone_NotFound_ThrowsDataNotFound() {
+        // Arrange
+        when(zoneRepository.deleteById(99L)).thenReturn(Mono.just(false));
+
+        // Act & Assert
+        StepVerifier.create(zoneUseCase.deleteZone(99L))
+                .expectError(DataNotFoundException.class)
+                .verify();
+
+        verify(zoneRepository, never()).findAll();
+    }
+
+    @Test
+    void check_ReturnsZoneNamesAndTypes() {
+        // Arrange
+        zoneIndex.load(List.of(zone(1L, ZoneType.PARKING)));
+
+        // Act
+        var check = zoneUseCase.check(59.93, 30.31);
+
+        // Assert
+        assertEquals(List.of("Nevsky"), check.zoneNames());
+        assertEquals(Set.of(ZoneType.PARKING), check.zoneTypes());
+    }
+}
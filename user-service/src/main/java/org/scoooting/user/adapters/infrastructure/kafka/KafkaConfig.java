@@ -22,6 +22,9 @@ public class KafkaConfig {
     @Value("${spring.kafka.bootstrap-servers}")
     private String server;
 
+    @Value("${spring.kafka.listener.concurrency:3}")
+    private int concurrency;
+
     @Bean
     public ConsumerFactory<String, Object> consumerFactory() {
         Map<String, Object> props = new HashMap<>();
@@ -42,6 +45,7 @@ public class KafkaConfig {
         ConcurrentKafkaListenerContainerFactory<String, Object> factory =
                 new ConcurrentKafkaListenerContainerFactory<>();
         factory.setConsumerFactory(consumerFactory());
+        factory.setConcurrency(concurrency);
         factory.getContainerProperties().setAckMode(ContainerProperties.AckMode.RECORD);
         return factory;
     }
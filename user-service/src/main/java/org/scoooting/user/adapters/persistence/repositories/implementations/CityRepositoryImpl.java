@@ -1,50 +1,162 @@
 package org.scoooting.user.adapters.persistence.repositories.implementations;
 
-import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.scoooting.user.adapters.persistence.entities.CityEntity;
 import org.scoooting.user.adapters.persistence.mappers.CityEntityMapper;
 import org.scoooting.user.adapters.persistence.repositories.jdbc.CityJdbcRepository;
 import org.scoooting.user.domain.model.City;
 import org.scoooting.user.domain.repositories.CityRepository;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.stereotype.Repository;
 
-import java.util.Optional;
+import java.time.Duration;
+import java.util.*;
+import java.util.stream.StreamSupport;
 
+/**
+ * Cities are a tiny, almost static reference table, but they are read on every
+ * transport render (via transport-service) and on every user registration/update.
+ *
+ * All reads are served from an immutable in-memory snapshot of the whole table:
+ * - Loaded lazily on first read (one SELECT * FROM cities)
+ * - Reloaded after every write through this repository, and on the first read after ttl,
+ *   so writes of other instances or straight to the table show up within ttl
+ * - If a ttl reload fails, the previous snapshot keeps being served until the next attempt
+ * - Callers get copies, so mutating a returned City never leaks into the snapshot
+ *
+ * Names are not unique in the table: a duplicate name resolves to the city with the lowest id,
+ * rows without a name are reachable by id only. Both are logged, neither breaks the snapshot.
+ */
+@Slf4j
 @Repository
-@RequiredArgsConstructor
 public class CityRepositoryImpl implements CityRepository {
 
     private final CityJdbcRepository repository;
     private final CityEntityMapper mapper;
+    private final long ttlNanos;
+
+    private volatile Snapshot snapshot;
+
+    public CityRepositoryImpl(CityJdbcRepository repository, CityEntityMapper mapper,
+                              @Value("${user.city-cache.ttl:PT5M}") Duration ttl) {
+        this.repository = repository;
+        this.mapper = mapper;
+        this.ttlNanos = ttl.toNanos();
+    }
 
     @Override
     public Optional<City> findByName(String name) {
-        return repository.findByName(name).map(mapper::toDomain);
+        if (name == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot().byName().get(name)).map(CityRepositoryImpl::copy);
     }
 
     @Override
     public Optional<City> findById(Long aLong) {
-        return repository.findById(aLong).map(mapper::toDomain);
+        if (aLong == null) {
+            return Optional.empty();
+        }
+        return Optional.ofNullable(snapshot().byId().get(aLong)).map(CityRepositoryImpl::copy);
+    }
+
+    @Override
+    public List<City> findAll() {
+        return snapshot().byId().values().stream().map(CityRepositoryImpl::copy).toList();
+    }
+
+    @Override
+    public List<City> findAllById(Collection<Long> ids) {
+        Map<Long, City> byId = snapshot().byId();
+        return ids.stream()
+                .filter(Objects::nonNull)
+                .distinct()
+                .map(byId::get)
+                .filter(Objects::nonNull)
+                .map(CityRepositoryImpl::copy)
+                .toList();
     }
 
     @Override
     public boolean existsById(Long aLong) {
-        return repository.existsById(aLong);
+        return aLong != null && snapshot().byId().containsKey(aLong);
     }
 
     @Override
     public City save(City entity) {
         CityEntity saved = mapper.toEntity(entity);
-        return mapper.toDomain(repository.save(saved));
+        City result = mapper.toDomain(repository.save(saved));
+        reload();
+        return result;
     }
 
     @Override
     public void delete(City entity) {
         repository.delete(mapper.toEntity(entity));
+        reload();
     }
 
     @Override
     public void deleteById(Long aLong) {
         repository.deleteById(aLong);
+        reload();
     }
+
+    private Snapshot snapshot() {
+        Snapshot current = snapshot;
+        if (current == null) {
+            return reload();
+        }
+        if (System.nanoTime() - current.loadedAt() >= ttlNanos) {
+            return refresh(current);
+        }
+        return current;
+    }
+
+    private synchronized Snapshot refresh(Snapshot expired) {
+        if (snapshot != expired) {
+            return snapshot;  // another reader has already reloaded it
+        }
+        try {
+            return reload();
+        } catch (RuntimeException e) {
+            log.warn("Failed to reload cities, serving the previous snapshot: {}", e.getMessage());
+            Snapshot extended = new Snapshot(expired.byId(), expired.byName(), System.nanoTime());
+            snapshot = extended;
+            return extended;
+        }
+    }
+
+    private synchronized Snapshot reload() {
+        Map<Long, City> byId = new HashMap<>();
+        Map<String, City> byName = new HashMap<>();
+        StreamSupport.stream(repository.findAll().spliterator(), false)
+                .map(mapper::toDomain)
+                .sorted(Comparator.comparing(City::getId, Comparator.nullsLast(Comparator.naturalOrder())))
+                .forEach(city -> {
+                    if (city.getId() == null) {
+                        return;
+                    }
+                    byId.put(city.getId(), city);
+                    if (city.getName() == null) {
+                        log.warn("City {} has no name, it can be found by id only", city.getId());
+                        return;
+                    }
+                    City first = byName.putIfAbsent(city.getName(), city);
+                    if (first != null) {
+                        log.warn("Duplicate city name '{}': ids {} and {}, lookups by name return {}",
+                                city.getName(), first.getId(), city.getId(), first.getId());
+                    }
+                });
+        Snapshot fresh = new Snapshot(Map.copyOf(byId), Map.copyOf(byName), System.nanoTime());
+        snapshot = fresh;
+        return fresh;
+    }
+
+    private static City copy(City city) {
+        return new City(city.getId(), city.getName(), city.getCenterLatitude(), city.getCenterLongitude(),
+                city.getRadiusKm());
+    }
+
+    private record Snapshot(Map<Long, City> byId, Map<String, City> byName, long loadedAt) {}
 }
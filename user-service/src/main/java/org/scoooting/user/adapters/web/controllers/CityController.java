@@ -2,12 +2,13 @@ package org.scoooting.user.adapters.web.controllers;
 
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.scoooting.user.application.dto.response.CityAreaDTO;
 import org.scoooting.user.application.usecase.GetCityUseCase;
 import org.springframework.http.ResponseEntity;
-import org.springframework.web.bind.annotation.GetMapping;
-import org.springframework.web.bind.annotation.PathVariable;
-import org.springframework.web.bind.annotation.RequestMapping;
-import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+import java.util.Map;
 
 @RestController
 @RequestMapping("/api/cities")
@@ -16,8 +17,18 @@ public class CityController {
 
     private final GetCityUseCase getCityUseCase;
 
+    @GetMapping
+    public ResponseEntity<List<CityAreaDTO>> getCityAreas() {
+        return ResponseEntity.ok(getCityUseCase.getCityAreas());
+    }
+
     @GetMapping("/city/{id}")
     public ResponseEntity<String> getCityById(@PathVariable("id") @Valid Long id) {
         return ResponseEntity.ok(getCityUseCase.getCityById(id));
     }
+
+    @PostMapping("/batch")
+    public ResponseEntity<Map<Long, String>> getCityNames(@RequestBody List<Long> ids) {
+        return ResponseEntity.ok(getCityUseCase.getCityNames(ids));
+    }
 }
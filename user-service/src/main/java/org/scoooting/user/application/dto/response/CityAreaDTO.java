@@ -0,0 +1,12 @@
+package org.scoooting.user.application.dto.response;
+
+/**
+ * City with its circular boundary, for coordinate → city resolution in other services.
+ */
+public record CityAreaDTO(
+        Long id,
+        String name,
+        Double centerLatitude,
+        Double centerLongitude,
+        Integer radiusKm
+) {}
@@ -1,11 +1,17 @@
 package org.scoooting.user.application.usecase;
 
 import lombok.RequiredArgsConstructor;
+import org.scoooting.user.application.dto.response.CityAreaDTO;
 import org.scoooting.user.domain.exceptions.DataNotFoundException;
 import org.scoooting.user.domain.model.City;
 import org.scoooting.user.domain.repositories.CityRepository;
 
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.stream.Collectors;
 
 @RequiredArgsConstructor
 public class GetCityUseCase {
@@ -32,7 +38,7 @@ public class GetCityUseCase {
      * - If called in a loop without batch loading
      * - If caller needs consistent snapshot across multiple calls
      *
-     * Current implementation is optimal for single city lookup.
+     * Served from the in-memory cities snapshot of CityRepository, no SELECT in steady state.
      *
      * @param id city ID
      * @return city name
@@ -47,4 +53,38 @@ public class GetCityUseCase {
         throw new DataNotFoundException("City not found");
     }
 
+    /**
+     * Get names for many cities at once (used by transport-service to render map pages).
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Read-only lookup in the in-memory cities snapshot
+     *
+     * Unknown ids are simply absent from the result, the caller decides on a fallback name.
+     *
+     * @param ids city IDs
+     * @return map of city ID to city name
+     */
+    public Map<Long, String> getCityNames(Collection<Long> ids) {
+        if (ids == null || ids.isEmpty()) {
+            return Map.of();
+        }
+        return cityRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(City::getId, City::getName));
+    }
+
+    /**
+     * All cities with their boundaries (used by transport-service to resolve coordinates to cities).
+     *
+     * TRANSACTION NOT NEEDED:
+     * - Read-only lookup in the in-memory cities snapshot
+     *
+     * @return cities ordered by ID
+     */
+    public List<CityAreaDTO> getCityAreas() {
+        return cityRepository.findAll().stream()
+                .sorted(Comparator.comparing(City::getId))
+                .map(city -> new CityAreaDTO(city.getId(), city.getName(), city.getCenterLatitude(),
+                        city.getCenterLongitude(), city.getRadiusKm()))
+                .toList();
+    }
 }
@@ -2,8 +2,12 @@ package org.scoooting.user.domain.repositories;
 
 import org.scoooting.user.domain.model.City;
 
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 public interface CityRepository extends Repository<City, Long> {
     Optional<City> findByName(String name);
+    List<City> findAll();
+    List<City> findAllById(Collection<Long> ids);
 }
@@ -0,0 +1,140 @@
+package org.scoooting.user.adapters.persistence.repositories.implementations;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mapstruct.factory.Mappers;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.user.adapters.persistence.entities.CityEntity;
+import org.scoooting.user.adapters.persistence.mappers.CityEntityMapper;
+import org.scoooting.user.adapters.persistence.repositories.jdbc.CityJdbcRepository;
+import org.scoooting.user.domain.model.City;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class CityRepositoryImplTest {
+
+    @Mock
+    private CityJdbcRepository cityJdbcRepository;
+
+    private final CityEntityMapper mapper = Mappers.getMapper(CityEntityMapper.class);
+
+    private static CityEntity city(Long id, String name) {
+        return new CityEntity(id, name, 59.93, 30.31, 25);
+    }
+
+    private CityRepositoryImpl repository(Duration ttl) {
+        return new CityRepositoryImpl(cityJdbcRepository, mapper, ttl);
+    }
+
+    @Test
+    void findByName_DuplicateName_ResolvesToLowestId() {
+        // Arrange
+        when(cityJdbcRepository.findAll()).thenReturn(List.of(city(7L, "SPB"), city(3L, "SPB"), city(5L, "MSK")));
+        CityRepositoryImpl cityRepository = repository(Duration.ofMinutes(5));
+
+        // Act
+        Optional<City> result = cityRepository.findByName("SPB");
+
+        // Assert
+        assertEquals(3L, result.orElseThrow().getId());
+        assertEquals(3, cityRepository.findAll().size());
+        assertTrue(cityRepository.findById(7L).isPresent());
+    }
+
+    @Test
+    void findById_CityWithoutName_IsStillLoaded() {
+        // Arrange
+        when(cityJdbcRepository.findAll()).thenReturn(List.of(city(1L, null), city(2L, "SPB")));
+        CityRepositoryImpl cityRepository = repository(Duration.ofMinutes(5));
+
+        // Act & Assert
+        assertTrue(cityRepository.findById(1L).isPresent());
+        assertEquals(2L, cityRepository.findByName("SPB").orElseThrow().getId());
+        assertTrue(cityRepository.findByName(null).isEmpty());
+        assertFalse(cityRepository.existsById(null));
+    }
+
+    @Test
+    void reads_WithinTtl_LoadTableOnce() {
+        // Arrange
+        when(cityJdbcRepository.findAll()).thenReturn(List.of(city(1L, "SPB")));
+        CityRepositoryImpl cityRepository = repository(Duration.ofMinutes(5));
+
+        // Act
+        cityRepository.findById(1L);
+        cityRepository.findByName("SPB");
+        cityRepository.findAll();
+
+        // Assert
+        verify(cityJdbcRepository, times(1)).findAll();
+    }
+
+    @Test
+    void reads_AfterTtl_ReloadTable() {
+        // Arrange
+        when(cityJdbcRepository.findAll())
+                .thenReturn(List.of(city(1L, "SPB")))
+                .thenReturn(List.of(city(1L, "SPB"), city(2L, "MSK")));
+        CityRepositoryImpl cityRepository = repository(Duration.ZERO);
+
+        // Act
+        assertTrue(cityRepository.findByName("MSK").isEmpty());
+        Optional<City> result = cityRepository.findByName("MSK");
+
+        // Assert
+        assertEquals(2L, result.orElseThrow().getId());
+    }
+
+    @Test
+    void reads_ReloadFailsAfterTtl_ServePreviousSnapshot() {
+        // Arrange
+        when(cityJdbcRepository.findAll())
+                .thenReturn(List.of(city(1L, "SPB")))
+                .thenThrow(new IllegalStateException("DB down"));
+        CityRepositoryImpl cityRepository = repository(Duration.ZERO);
+        cityRepository.findById(1L);
+
+        // Act
+        Optional<City> result = cityRepository.findById(1L);
+
+        // Assert
+        assertEquals("SPB", result.orElseThrow().getName());
+    }
+
+    @Test
+    void save_ReloadsSnapshot() {
+        // Arrange
+        when(cityJdbcRepository.findAll())
+                .thenReturn(List.of(city(1L, "SPB")))
+                .thenReturn(List.of(city(1L, "SPB"), city(2L, "MSK")));
+        when(cityJdbcRepository.save(any(CityEntity.class))).thenReturn(city(2L, "MSK"));
+        CityRepositoryImpl cityRepository = repository(Duration.ofMinutes(5));
+        cityRepository.findAll();
+
+        // Act
+        cityRepository.save(new City(null, "MSK", 55.75, 37.61, 30));
+
+        // Assert
+        assertEquals(2L, cityRepository.findByName("MSK").orElseThrow().getId());
+    }
+
+    @Test
+    void findById_ReturnsCopy() {
+        // Arrange
+        when(cityJdbcRepository.findAll()).thenReturn(List.of(city(1L, "SPB")));
+        CityRepositoryImpl cityRepository = repository(Duration.ofMinutes(5));
+
+        // Act
+        cityRepository.findById(1L).orElseThrow().setName("changed");
+
+        // Assert
+        assertEquals("SPB", cityRepository.findById(1L).orElseThrow().getName());
+    }
+}
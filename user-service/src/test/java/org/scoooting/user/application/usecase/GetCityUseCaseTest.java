@@ -5,13 +5,17 @@ import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.scoooting.user.application.dto.response.CityAreaDTO;
 import org.scoooting.user.domain.exceptions.DataNotFoundException;
 import org.scoooting.user.domain.model.City;
 import org.scoooting.user.domain.repositories.CityRepository;
 
+import java.util.List;
+import java.util.Map;
 import java.util.Optional;
 
 import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.verifyNoInteractions;
 import static org.mockito.Mockito.when;
 
 @ExtendWith(MockitoExtension.class)
@@ -47,4 +51,43 @@ class GetCityUseCaseTest {
         assertThrows(DataNotFoundException.class,
                 () -> getCityUseCase.getCityById(999L));
     }
-}
\ No newline at end of file
+
+    @Test
+    void getCityNames_ReturnsOnlyKnownCities() {
+        // Arrange
+        when(cityRepository.findAllById(List.of(1L, 2L, 999L)))
+                .thenReturn(List.of(new City(1L, "SPB"), new City(2L, "MSK")));
+
+        // Act
+        Map<Long, String> result = getCityUseCase.getCityNames(List.of(1L, 2L, 999L));
+
+        // Assert
+        assertEquals(Map.of(1L, "SPB", 2L, "MSK"), result);
+    }
+
+    @Test
+    void getCityNames_EmptyIds_NoLookup() {
+        // Act
+        Map<Long, String> result = getCityUseCase.getCityNames(List.of());
+
+        // Assert
+        assertTrue(result.isEmpty());
+        verifyNoInteractions(cityRepository);
+    }
+
+    @Test
+    void getCityAreas_ReturnsBoundariesOrderedById() {
+        // Arrange
+        when(cityRepository.findAll()).thenReturn(List.of(
+                new City(2L, "MSK", 55.7558, 37.6176, 30),
+                new City(1L, "SPB", 59.9311, 30.3609, 25)));
+
+        // Act
+        List<CityAreaDTO> result = getCityUseCase.getCityAreas();
+
+        // Assert
+        assertEquals(List.of(
+                new CityAreaDTO(1L, "SPB", 59.9311, 30.3609, 25),
+                new CityAreaDTO(2L, "MSK", 55.7558, 37.6176, 30)), result);
+    }
+}